@@ -9,6 +9,7 @@ import ru.open.cu.student.parser.DefaultParser;
 import ru.open.cu.student.parser.Parser;
 import ru.open.cu.student.parser.nodes.*;
 import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.parser.nodes.CreateIndexStmt;
 import ru.open.cu.student.parser.nodes.CreateTableStmt;
 import ru.open.cu.student.parser.nodes.SelectStmt;
 import ru.open.cu.student.parser.nodes.InsertStmt;
@@ -16,6 +17,7 @@ import ru.open.cu.student.ast.AConst;
 import ru.open.cu.student.ast.AExpr;
 
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -48,8 +50,17 @@ public class SqlProcessor {
      *
      * Supported grammar (minimal, as used by the course):
      *  - CREATE TABLE t (col TYPE, ...)
-     *  - INSERT INTO t VALUES (v1, v2, ...)
-     *  - SELECT col1, col2 FROM t [WHERE col OP const]
+     *  - CREATE INDEX i ON t (col)
+     *  - INSERT INTO t VALUES (v1, v2, ...), (...) ...
+     *  - INSERT INTO t SELECT ...
+     *  - UPDATE t SET col = expr, ... [WHERE expr]
+     *  - DELETE FROM t [WHERE expr]
+     *  - SELECT [DISTINCT] expr [AS alias], ... FROM t [[AS] a] {, u | [INNER] JOIN u ON expr} ...
+     *           [WHERE expr] [GROUP BY expr, ...] [ORDER BY expr [ASC|DESC], ...] [LIMIT n] [OFFSET m]
+     *    (в SELECT-списке и ORDER BY допустимы агрегаты COUNT(*), COUNT, SUM, MIN, MAX, AVG;
+     *    колонки можно уточнять именем или псевдонимом таблицы: a.col, a.*;
+     *    в WHERE допустимы expr [NOT] IN (v1, ...), expr [NOT] IN (SELECT ...), [NOT] EXISTS (SELECT ...))
+     *  - ANALYZE [t]
      *
      * @param sql query text
      * @return QueryTree for planner
@@ -63,22 +74,41 @@ public class SqlProcessor {
         String first = tokens.get(0).getType();
 
         return switch (first) {
-            case "CREATE", "SELECT", "UPDATE", "INSERT" -> translateParsedAst(parser.parse(tokens));
+            case "CREATE", "SELECT", "UPDATE", "DELETE", "INSERT", "ANALYZE" -> translateParsedAst(parser.parse(tokens));
             default -> throw new IllegalArgumentException("Unsupported statement: " + first);
         };
 
     }
 
+    /**
+     * Переводит уже разобранный запрос — когда токены и AST есть у вызывающего.
+     */
+    public QueryTree process(AstNode ast) {
+        return translateParsedAst(ast);
+    }
+
     private QueryTree translateParsedAst(AstNode ast) {
         if (ast instanceof CreateTableStmt cs) {
             return translateCreate(cs);
         }
+        if (ast instanceof CreateIndexStmt ci) {
+            return translateCreateIndex(ci);
+        }
         if (ast instanceof SelectStmt ss) {
             return translateSelect(ss);
         }
         if (ast instanceof InsertStmt is) {
             return translateInsert(is);
         }
+        if (ast instanceof UpdateStmt us) {
+            return translateUpdate(us);
+        }
+        if (ast instanceof DeleteStmt ds) {
+            return translateDelete(ds);
+        }
+        if (ast instanceof AnalyzeStmt as) {
+            return translateAnalyze(as);
+        }
 
         throw new IllegalArgumentException("Unsupported AST node: " + ast.getClass().getSimpleName());
     }
@@ -100,14 +130,29 @@ public class SqlProcessor {
         return q;
     }
 
+    private QueryTree translateCreateIndex(CreateIndexStmt ci) {
+        QueryTree q = new QueryTree();
+        q.commandType = QueryType.CREATE_INDEX;
+        q.indexName = ci.indexName;
+        q.rangeTable.add(new RangeVar(ci.schemaName, ci.tableName, null));
+        q.columnNames = List.of(ci.columnName);
+        return q;
+    }
+
     private QueryTree translateSelect(SelectStmt ss) {
         QueryTree q = new QueryTree();
         q.commandType = QueryType.SELECT;
+        q.distinct = ss.distinct;
 
         // FROM
         if (ss.fromClause != null && !ss.fromClause.isEmpty()) {
             for (RangeVar rv : ss.fromClause) {
-                // Добавляем RangeVar напрямую, как в translateCreate
+                // Добавляем RangeVar напрямую, как в translateCreate; условие ON переводится как WHERE
+                if (rv.joinCondition != null) {
+                    RangeVar joined = new RangeVar(rv.schemaname, rv.relname, rv.alias);
+                    joined.joinCondition = translateExpr(rv.joinCondition);
+                    rv = joined;
+                }
                 q.rangeTable.add(rv);
             }
         } else {
@@ -128,6 +173,26 @@ public class SqlProcessor {
             q.whereClause = translateExpr(ss.whereClause);
         }
 
+        // GROUP BY
+        if (ss.groupClause != null && !ss.groupClause.isEmpty()) {
+            q.groupClause = new ArrayList<>();
+            for (AstNode node : ss.groupClause) {
+                q.groupClause.add(translateExpr(node));
+            }
+        }
+
+        // ORDER BY
+        if (ss.sortClause != null && !ss.sortClause.isEmpty()) {
+            q.sortClause = new ArrayList<>();
+            for (SortBy sb : ss.sortClause) {
+                q.sortClause.add(new SortKey(translateExpr(sb.node), sb.descending));
+            }
+        }
+
+        // LIMIT / OFFSET
+        q.limitCount = ss.limitCount;
+        q.limitOffset = ss.limitOffset;
+
         return q;
     }
 
@@ -139,48 +204,122 @@ public class SqlProcessor {
         RangeVar rangeVar = new RangeVar(is.schemaName, is.tableName, null);
         q.rangeTable.add(rangeVar);
 
+        if (is.select != null) {
+            q.sourceQuery = translateSelect(is.select);
+            return q;
+        }
+
+        // Каждая строка VALUES переводится в свой список констант; первая строка — targetList
+        q.valuesLists = new ArrayList<>(is.rows.size());
+        for (int r = 0; r < is.rows.size(); r++) {
+            q.valuesLists.add(translateValues(is.rows.get(r), is.params != null ? is.params.get(r) : null));
+        }
+        for (Expr value : q.valuesLists.get(0)) {
+            q.targetList.add(new TargetEntry(value, null));
+        }
+
+        return q;
+    }
+
+    private List<Expr> translateValues(List<String> row, List<ParamRef> params) {
+        List<Expr> values = new ArrayList<>(row.size());
         // Преобразуем значения в AConst выражения, со приведением типов:
         // - NUMBER -> Integer (или Long если выходит за пределы int)
         // - STRING -> String (парсер/лексер уже убирает кавычки)
         // - TRUE/FALSE -> Boolean
         // - NULL -> null
-        for (String raw : is.values) {
-            Object valueObj = null;
-            if (raw == null) {
-                valueObj = null;
-            } else {
-                String trimmed = raw.trim();
-                if (trimmed.equalsIgnoreCase("NULL")) {
-                    valueObj = null;
-                } else if (trimmed.equalsIgnoreCase("TRUE")) {
-                    valueObj = Boolean.TRUE;
-                } else if (trimmed.equalsIgnoreCase("FALSE")) {
-                    valueObj = Boolean.FALSE;
-                } else {
-                    // Попробуем распарсить число (int, потом long), иначе оставим строкой
-                    try {
-                        valueObj = Integer.parseInt(trimmed);
-                    } catch (NumberFormatException e1) {
-                        try {
-                            valueObj = Long.parseLong(trimmed);
-                        } catch (NumberFormatException e2) {
-                            // не число — оставляем строкой
-                            valueObj = trimmed;
-                        }
-                    }
-                }
+        // Параметр $n остается узлом ParamRef
+        for (int i = 0; i < row.size(); i++) {
+            if (params != null && params.get(i) != null) {
+                values.add(params.get(i));
+                continue;
             }
-            AConst constExpr = new AConst(valueObj);
-            TargetEntry te = new TargetEntry(constExpr, null);
-            q.targetList.add(te);
+            values.add(new AConst(valueLiteral(row.get(i))));
+        }
+
+        return values;
+    }
+
+    /**
+     * Значение литерала из VALUES по правилам translateValues.
+     */
+    public static Object valueLiteral(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String trimmed = raw.trim();
+        if (trimmed.equalsIgnoreCase("NULL")) {
+            return null;
+        } else if (trimmed.equalsIgnoreCase("TRUE")) {
+            return Boolean.TRUE;
+        } else if (trimmed.equalsIgnoreCase("FALSE")) {
+            return Boolean.FALSE;
+        }
+        // Попробуем распарсить число (int, потом long), иначе оставим строкой
+        try {
+            return Integer.parseInt(trimmed);
+        } catch (NumberFormatException e1) {
+            try {
+                return Long.parseLong(trimmed);
+            } catch (NumberFormatException e2) {
+                // не число — оставляем строкой
+                return trimmed;
+            }
+        }
+    }
+
+    private QueryTree translateUpdate(UpdateStmt us) {
+        QueryTree q = new QueryTree();
+        q.commandType = QueryType.UPDATE;
+        q.rangeTable.add(new RangeVar(us.schemaName, us.tableName, null));
+
+        // SET col = expr: имя колонки — в alias, новое значение — в expr
+        for (int i = 0; i < us.columns.size(); i++) {
+            q.targetList.add(new TargetEntry(translateExpr(us.values.get(i)), us.columns.get(i)));
+        }
+        if (us.whereClause != null) {
+            q.whereClause = translateExpr(us.whereClause);
+        }
+        return q;
+    }
+
+    private QueryTree translateDelete(DeleteStmt ds) {
+        QueryTree q = new QueryTree();
+        q.commandType = QueryType.DELETE;
+        q.rangeTable.add(new RangeVar(ds.schemaName, ds.tableName, null));
+        if (ds.whereClause != null) {
+            q.whereClause = translateExpr(ds.whereClause);
         }
+        return q;
+    }
 
+    private QueryTree translateAnalyze(AnalyzeStmt as) {
+        QueryTree q = new QueryTree();
+        q.commandType = QueryType.ANALYZE;
+
+        // Пустой rangeTable означает ANALYZE по всем таблицам
+        if (as.tableName != null) {
+            q.rangeTable.add(new RangeVar(as.schemaName, as.tableName, null));
+        }
         return q;
     }
 
-    private Expr translateExpr(AstNode node) {
+    /**
+     * Переводит выражение парсерного AST в выражение QueryTree.
+     */
+    public Expr translateExpr(AstNode node) {
+        if (node == null) {
+            // Унарные операторы (NOT) хранят операнд справа
+            return null;
+        }
         if (node instanceof ColumnRef cr) {
-            return new ru.open.cu.student.ast.ColumnRef(cr.column);
+            return new ru.open.cu.student.ast.ColumnRef(cr.table, cr.column);
+        }
+        if (node instanceof Const c) {
+            return c;
+        }
+        if (node instanceof ParamRef param) {
+            return param;
         }
         if (node instanceof AConst ac) {
             // AConst.value в парсерной AST может быть строкой; конвертируем аналогично translateInsert
@@ -208,6 +347,25 @@ public class SqlProcessor {
             Expr right = translateExpr(aexpr.getRight());
             return new AExpr(aexpr.getOp(), left, right);
         }
+        if (node instanceof FuncCall call) {
+            List<AstNode> args = new ArrayList<>();
+            for (AstNode arg : call.args) {
+                args.add(translateExpr(arg));
+            }
+            return new FuncCall(call.name, args, call.star);
+        }
+        if (node instanceof InExpr in) {
+            List<AstNode> values = new ArrayList<>(in.values.size());
+            for (AstNode value : in.values) {
+                values.add(translateExpr(value));
+            }
+            return new InExpr(translateExpr(in.expr), values);
+        }
+        if (node instanceof SubLink link) {
+            SubLink translated = new SubLink(link.kind, translateExpr(link.testExpr), link.subselect);
+            translated.subquery = translateSelect((SelectStmt) link.subselect);
+            return translated;
+        }
         // По умолчанию — не поддерживаемый узел
         throw new IllegalArgumentException("Unsupported expression node: " + node.getClass().getSimpleName());
     }
@@ -0,0 +1,42 @@
+package ru.open.cu.student.ast;
+
+import java.util.List;
+
+/**
+ * Вызов функции в выражении: пока только агрегаты COUNT, SUM, MIN, MAX, AVG.
+ */
+public class FuncCall extends Expr {
+    public String name;           // имя функции в верхнем регистре
+    public List<AstNode> args;    // аргументы (пусто для COUNT(*))
+    public boolean star;          // COUNT(*)
+
+    public FuncCall(String name, List<AstNode> args, boolean star) {
+        this.name = name;
+        this.args = args;
+        this.star = star;
+    }
+
+    public boolean isAggregate() {
+        return switch (name) {
+            case "COUNT", "SUM", "MIN", "MAX", "AVG" -> true;
+            default -> false;
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(name.toLowerCase()).append('(');
+        if (star) {
+            sb.append('*');
+        }
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(args.get(i));
+        }
+        sb.append(')');
+        if (alias != null && !alias.trim().isEmpty()) {
+            sb.append(" AS ").append(alias);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.open.cu.student.ast;
+
+import java.util.List;
+
+/**
+ * expr IN (v1, v2, ...) со списком выражений; NOT IN — AExpr("NOT") над ним.
+ */
+public class InExpr extends Expr {
+    public AstNode expr;          // проверяемое выражение
+    public List<AstNode> values;  // элементы списка
+
+    public InExpr(AstNode expr, List<AstNode> values) {
+        this.expr = expr;
+        this.values = values;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(expr).append(" IN (");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(values.get(i));
+        }
+        sb.append(')');
+        if (alias != null && !alias.trim().isEmpty()) {
+            sb.append(" AS ").append(alias);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,34 @@
+package ru.open.cu.student.ast;
+
+/**
+ * Параметр $n подготовленного запроса.
+ *
+ * Узел остается в дереве запроса и в плане как есть: перед каждым выполнением плана ему
+ * подставляется значение (bind), а исполнители при компиляции выражений читают его как константу.
+ */
+public class ParamRef extends Expr {
+    public final int number;     // номер параметра, с 1
+    private Object value;
+    private boolean bound;
+
+    public ParamRef(int number) {
+        this.number = number;
+    }
+
+    public void bind(Object value) {
+        this.value = value;
+        this.bound = true;
+    }
+
+    public Object getValue() {
+        if (!bound) {
+            throw new IllegalStateException("No value supplied for parameter $" + number);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "$" + number;
+    }
+}
@@ -9,11 +9,21 @@ public class QueryTree {
     public List<TargetEntry> targetList;     // что выбираем
     public Expr whereClause;                 // условие отбора
     public QueryType commandType;            // SELECT, INSERT, etc.
+    public List<Expr> groupClause;           // GROUP BY (null — без группировки)
+    public List<SortKey> sortClause;         // ORDER BY (null — без сортировки)
+    public Long limitCount;                  // LIMIT (null — без ограничения)
+    public Long limitOffset;                 // OFFSET (null — с первой строки)
+    public boolean distinct;                 // SELECT DISTINCT
 
     // Дополнительные поля для INSERT/CREATE TABLE
     public String tableName;
     public List<String> columnNames;
     public List<Object> values;
+    public List<List<Expr>> valuesLists;     // INSERT: все строки VALUES, первая — в targetList
+    public QueryTree sourceQuery;            // INSERT ... SELECT: запрос-источник строк
+
+    // CREATE INDEX: имя индекса, таблица — в rangeTable, колонка — в columnNames
+    public String indexName;
 
     // Для хранения семантической информации
     private Map<String, TableInfo> tableInfoMap = new HashMap<>();
@@ -54,6 +64,71 @@ public class QueryTree {
         this.targetList = new ArrayList<>();
     }
 
+    /**
+     * Все параметры $n запроса, включая подзапросы и источник INSERT ... SELECT.
+     * Один номер может встретиться несколько раз — значение подставляется каждому узлу.
+     * Планировщик переносит эти узлы в план как есть, поэтому собирать их можно до планирования.
+     */
+    public List<ParamRef> collectParams() {
+        List<ParamRef> params = new ArrayList<>();
+        collectParams(this, params);
+        return params;
+    }
+
+    private static void collectParams(QueryTree q, List<ParamRef> params) {
+        for (TargetEntry te : q.targetList) {
+            collectParams(te.expr, params);
+        }
+        collectParams(q.whereClause, params);
+        if (q.groupClause != null) {
+            for (Expr key : q.groupClause) {
+                collectParams(key, params);
+            }
+        }
+        if (q.sortClause != null) {
+            for (SortKey key : q.sortClause) {
+                collectParams(key.expr, params);
+            }
+        }
+        for (RangeVar rv : q.rangeTable) {
+            collectParams(rv.joinCondition, params);
+        }
+        if (q.valuesLists != null) {
+            // Первая строка VALUES лежит и в targetList — это те же узлы
+            for (int r = 1; r < q.valuesLists.size(); r++) {
+                for (Expr value : q.valuesLists.get(r)) {
+                    collectParams(value, params);
+                }
+            }
+        }
+        if (q.sourceQuery != null) {
+            collectParams(q.sourceQuery, params);
+        }
+    }
+
+    private static void collectParams(AstNode node, List<ParamRef> params) {
+        if (node instanceof ParamRef param) {
+            params.add(param);
+        } else if (node instanceof AExpr a) {
+            collectParams(a.getLeft(), params);
+            collectParams(a.getRight(), params);
+        } else if (node instanceof FuncCall call) {
+            for (AstNode arg : call.args) {
+                collectParams(arg, params);
+            }
+        } else if (node instanceof InExpr in) {
+            collectParams(in.expr, params);
+            for (AstNode value : in.values) {
+                collectParams(value, params);
+            }
+        } else if (node instanceof SubLink link) {
+            collectParams(link.testExpr, params);
+            if (link.subquery != null) {
+                collectParams(link.subquery, params);
+            }
+        }
+    }
+
     // Геттеры и сеттеры
     public List<RangeVar> getRangeTable() { return rangeTable; }
     public void setRangeTable(List<RangeVar> rangeTable) { this.rangeTable = rangeTable; }
@@ -106,6 +181,22 @@ public class QueryTree {
             sb.append("  where: ").append(whereClause).append("\n");
         }
 
+        if (groupClause != null && !groupClause.isEmpty()) {
+            sb.append("  groupBy: ").append(groupClause).append("\n");
+        }
+
+        if (sortClause != null && !sortClause.isEmpty()) {
+            sb.append("  orderBy: ").append(sortClause).append("\n");
+        }
+
+        if (limitCount != null || limitOffset != null) {
+            sb.append("  limit: ").append(limitCount).append(" offset: ").append(limitOffset).append("\n");
+        }
+
+        if (sourceQuery != null) {
+            sb.append("  source: ").append(sourceQuery).append("\n");
+        }
+
         sb.append("}");
         return sb.toString();
     }
@@ -3,5 +3,9 @@ package ru.open.cu.student.ast;
 public enum QueryType {
     CREATE,
     INSERT,
-    SELECT
+    SELECT,
+    ANALYZE,
+    CREATE_INDEX,
+    UPDATE,
+    DELETE
 }
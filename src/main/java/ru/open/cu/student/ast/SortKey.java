@@ -0,0 +1,18 @@
+package ru.open.cu.student.ast;
+
+
+public class SortKey {
+
+    public Expr expr;            // выражение, по которому сортируем
+    public boolean descending;   // порядок: false — ASC, true — DESC
+
+    public SortKey(Expr expr, boolean descending) {
+        this.expr = expr;
+        this.descending = descending;
+    }
+
+    @Override
+    public String toString() {
+        return expr + (descending ? " DESC" : " ASC");
+    }
+}
@@ -0,0 +1,26 @@
+package ru.open.cu.student.ast;
+
+/**
+ * Подзапрос в выражении: testExpr IN (SELECT ...) или EXISTS (SELECT ...); отрицание — AExpr("NOT") над ним.
+ * Парсер заполняет subselect, SqlProcessor — subquery.
+ */
+public class SubLink extends Expr {
+    public static final String IN = "IN";
+    public static final String EXISTS = "EXISTS";
+
+    public String kind;          // IN или EXISTS
+    public AstNode testExpr;     // левая часть IN (null для EXISTS)
+    public AstNode subselect;    // SelectStmt подзапроса
+    public QueryTree subquery;   // подзапрос после семантического разбора
+
+    public SubLink(String kind, AstNode testExpr, AstNode subselect) {
+        this.kind = kind;
+        this.testExpr = testExpr;
+        this.subselect = subselect;
+    }
+
+    @Override
+    public String toString() {
+        return (testExpr != null ? testExpr + " " : "") + kind + " (" + subselect + ")";
+    }
+}
@@ -0,0 +1,207 @@
+package ru.open.cu.student.catalog.manager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал каталога: компактный снимок + append-only лог изменений.
+ *
+ * Формат записи (и в снимке, и в логе): [int длина payload][byte вид записи][payload], little-endian.
+ * Каждый DDL дописывает свои записи в конец лога одной группой — O(1) независимо от истории.
+ * Группа обрамлена заголовком [int длина][int CRC32 записей группы]: DDL восстанавливается
+ * целиком или не восстанавливается вовсе.
+ * При старте читается снимок, затем проигрывается хвост лога. Когда в логе накапливается
+ * {@code compactThreshold} записей, каталог переписывает снимок целиком и обнуляет лог.
+ */
+public class CatalogLog {
+
+    public static final byte TABLE = 1;
+    public static final byte COLUMN = 2;
+    public static final byte TYPE = 3;
+    public static final byte DROP_TABLE = 4;
+    public static final byte INDEX = 5;
+    public static final byte DROP_INDEX = 6;
+
+    private static final int MAGIC = 0xCA7A1061;
+    private static final int RECORD_HEADER = 4 + 1;
+    private static final int GROUP_HEADER = 4 + 4;
+
+    private final Path snapshotPath;
+    private final Path logPath;
+    private final int compactThreshold;
+    private int logRecords;
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(byte kind, byte[] payload);
+    }
+
+    public record Record(byte kind, byte[] payload) {
+    }
+
+    public CatalogLog(Path snapshotPath, Path logPath, int compactThreshold) {
+        this.snapshotPath = snapshotPath;
+        this.logPath = logPath;
+        this.compactThreshold = compactThreshold;
+    }
+
+    public boolean exists() {
+        return Files.exists(snapshotPath) || Files.exists(logPath);
+    }
+
+    /**
+     * Читает снимок и проигрывает лог. Недописанная группа в конце лога (падение посреди DDL)
+     * отбрасывается вся, а сам лог обрезается до последней целой группы.
+     */
+    public void replay(RecordVisitor visitor) {
+        try {
+            if (Files.exists(snapshotPath)) {
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotPath)).order(ByteOrder.LITTLE_ENDIAN);
+                if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+                    throw new IllegalStateException("Corrupted catalog snapshot: " + snapshotPath);
+                }
+                readRecords(buffer, visitor);
+            }
+
+            logRecords = 0;
+            if (Files.exists(logPath)) {
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(logPath)).order(ByteOrder.LITTLE_ENDIAN);
+                logRecords = readGroups(buffer, visitor);
+                if (buffer.position() < buffer.limit()) {
+                    try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+                        channel.truncate(buffer.position());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load catalog", e);
+        }
+    }
+
+    /**
+     * Проигрывает целые группы лога; буфер остается в конце последней из них.
+     */
+    private int readGroups(ByteBuffer buffer, RecordVisitor visitor) {
+        int count = 0;
+        while (buffer.remaining() >= GROUP_HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining() || checksum(buffer.array(), buffer.position(), length) != checksum) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer group = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(buffer.position() + length);
+            count += readRecords(group, visitor);
+        }
+        return count;
+    }
+
+    private int readRecords(ByteBuffer buffer, RecordVisitor visitor) {
+        int count = 0;
+        while (buffer.remaining() >= RECORD_HEADER) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            byte kind = buffer.get();
+            if (length < 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            visitor.visit(kind, payload);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Дописывает группу записей одного DDL в конец лога.
+     */
+    public void append(List<Record> records) {
+        byte[] body = encode(records);
+        ByteBuffer header = ByteBuffer.allocate(GROUP_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(body.length);
+        header.putInt(checksum(body, 0, body.length));
+        byte[] bytes = concat(header.array(), body);
+        try (FileChannel channel = FileChannel.open(logPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append to catalog log " + logPath, e);
+        }
+        logRecords += records.size();
+    }
+
+    public boolean needsCompaction() {
+        return logRecords >= compactThreshold;
+    }
+
+    public int logRecords() {
+        return logRecords;
+    }
+
+    /**
+     * Записывает полный снимок во временный файл, атомарно подменяет им старый и обнуляет лог.
+     * Падение между подменой и удалением лога оставляет лог, уже вошедший в снимок: записи лога
+     * только кладут и удаляют объекты по ключу, поэтому повторное проигрывание ничего не меняет.
+     */
+    public void compact(List<Record> liveRecords) {
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC);
+        try {
+            try (FileChannel channel = FileChannel.open(tmp,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(concat(header.array(), encode(liveRecords)));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(logPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact catalog into " + snapshotPath, e);
+        }
+        logRecords = 0;
+    }
+
+    private static byte[] encode(List<Record> records) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Record record : records) {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(record.payload().length);
+            header.put(record.kind());
+            out.writeBytes(header.array());
+            out.writeBytes(record.payload());
+        }
+        return out.toByteArray();
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+}
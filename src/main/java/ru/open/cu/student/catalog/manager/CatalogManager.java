@@ -1,6 +1,8 @@
 package ru.open.cu.student.catalog.manager;
 
+import ru.open.cu.student.catalog.model.IndexDefinition;
 import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TableStatistics;
 import ru.open.cu.student.catalog.model.ColumnDefinition;
 import ru.open.cu.student.catalog.model.TypeDefinition;
 
@@ -12,12 +14,79 @@ public interface CatalogManager {
 
     TableDefinition getTable(String tableName);
 
+    void dropTable(String tableName);
+
     ColumnDefinition getColumn(TableDefinition table, String columnName);
 
+    /**
+     * Позиция колонки в таблице (без учета регистра) или -1, если колонки нет.
+     */
+    default int getColumnIndex(TableDefinition table, String columnName) {
+        ColumnDefinition column = getColumn(table, columnName);
+        return column != null ? column.getPosition() : -1;
+    }
+
     List<TableDefinition> listTables();
 
+    /**
+     * Регистрирует упорядоченный индекс name по колонке таблицы и создает его пустой файл.
+     */
+    IndexDefinition createIndex(String name, TableDefinition table, String columnName);
+
+    void dropIndex(String name);
+
+    /**
+     * Индексы таблицы; пустой список, если их нет.
+     */
+    default List<IndexDefinition> getIndexes(TableDefinition table) {
+        return List.of();
+    }
+
     TypeDefinition getType(String resultType);
     TypeDefinition getType(int resultType);
 
     List<ColumnDefinition> getTableColumns(TableDefinition tableDef);
+
+    /**
+     * Статистика, собранная последним ANALYZE, или null, если таблицу еще не анализировали.
+     */
+    default TableStatistics getStatistics(TableDefinition table) {
+        return null;
+    }
+
+    /**
+     * Сохраняет статистику таблицы, заменяя предыдущую.
+     */
+    void updateStatistics(TableStatistics statistics);
+
+    /**
+     * Сохраняет статистику, сбор которой начался после seenModifications изменений таблицы.
+     * Из счетчика изменений вычитаются только они: изменения, сделанные во время сбора,
+     * остаются для следующего ANALYZE.
+     */
+    default void updateStatistics(TableStatistics statistics, long seenModifications) {
+        updateStatistics(statistics);
+    }
+
+    /**
+     * Учитывает rows измененных строк таблицы (insert/update/delete) для фонового ANALYZE.
+     */
+    default void recordModifications(TableDefinition table, long rows) {
+    }
+
+    /**
+     * Число строк, измененных с последнего обновления статистики таблицы.
+     */
+    default long getModificationsSinceAnalyze(TableDefinition table) {
+        return 0;
+    }
+
+    /**
+     * Версия каталога: растет при каждом изменении таблиц, индексов и статистики.
+     * План, построенный при другой версии, мог устареть и строится заново.
+     */
+    default long getVersion() {
+        return 0;
+    }
+
 }
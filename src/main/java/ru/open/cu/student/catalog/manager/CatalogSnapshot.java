@@ -0,0 +1,293 @@
+package ru.open.cu.student.catalog.manager;
+
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TypeDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок каталога.
+ *
+ * Все индексы (имя таблицы -> таблица, имя колонки -> позиция, имя типа -> тип,
+ * отсортированный список таблиц, индексы таблиц) строятся один раз при публикации снимка,
+ * поэтому чтение не требует блокировок и не выделяет память.
+ * DDL не меняет снимок, а строит новый (copy-on-write) через {@link #withTable} / {@link #withIndex} / {@link #withType}.
+ * Колонки прикрепляются к TableDefinition один раз — когда таблица впервые попадает в снимок
+ * и ее еще не видит ни один читатель; последующие снимки делят тот же объект без изменений.
+ */
+public final class CatalogSnapshot {
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(
+            Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), List.of(), Map.of(), Map.of()
+    );
+
+    private final Map<Integer, TableDefinition> tablesByOid;
+    private final Map<String, TableDefinition> tablesByName;
+    private final Map<Integer, List<ColumnDefinition>> columnsByTable;
+    private final Map<Integer, Map<String, Integer>> columnIndexByTable;
+    private final Map<Integer, TypeDefinition> typesByOid;
+    private final Map<String, TypeDefinition> typesByName;
+    private final List<TableDefinition> sortedTables;
+    private final Map<Integer, List<IndexDefinition>> indexesByTable;
+    private final Map<String, IndexDefinition> indexesByName;
+
+    private CatalogSnapshot(Map<Integer, TableDefinition> tablesByOid,
+                            Map<String, TableDefinition> tablesByName,
+                            Map<Integer, List<ColumnDefinition>> columnsByTable,
+                            Map<Integer, Map<String, Integer>> columnIndexByTable,
+                            Map<Integer, TypeDefinition> typesByOid,
+                            Map<String, TypeDefinition> typesByName,
+                            List<TableDefinition> sortedTables,
+                            Map<Integer, List<IndexDefinition>> indexesByTable,
+                            Map<String, IndexDefinition> indexesByName) {
+        this.tablesByOid = tablesByOid;
+        this.tablesByName = tablesByName;
+        this.columnsByTable = columnsByTable;
+        this.columnIndexByTable = columnIndexByTable;
+        this.typesByOid = typesByOid;
+        this.typesByName = typesByName;
+        this.sortedTables = sortedTables;
+        this.indexesByTable = indexesByTable;
+        this.indexesByName = indexesByName;
+    }
+
+    /**
+     * Строит снимок с нуля (используется при загрузке каталога с диска).
+     */
+    public static CatalogSnapshot of(Map<Integer, TableDefinition> tables,
+                                     Map<Integer, List<ColumnDefinition>> columns,
+                                     Map<Integer, TypeDefinition> types) {
+        return of(tables, columns, types, List.of());
+    }
+
+    public static CatalogSnapshot of(Map<Integer, TableDefinition> tables,
+                                     Map<Integer, List<ColumnDefinition>> columns,
+                                     Map<Integer, TypeDefinition> types,
+                                     List<IndexDefinition> indexes) {
+        Map<Integer, List<ColumnDefinition>> sortedColumns = new HashMap<>();
+        for (Map.Entry<Integer, List<ColumnDefinition>> e : columns.entrySet()) {
+            List<ColumnDefinition> list = new ArrayList<>(e.getValue());
+            list.sort(Comparator.comparingInt(ColumnDefinition::getPosition));
+            sortedColumns.put(e.getKey(), list);
+            TableDefinition table = tables.get(e.getKey());
+            if (table != null) {
+                table.setColumns(list);
+            }
+        }
+        List<IndexDefinition> liveIndexes = indexes.stream()
+                .filter(index -> tables.containsKey(index.tableOid()))
+                .toList();
+        return build(new HashMap<>(tables), sortedColumns, new HashMap<>(types), liveIndexes);
+    }
+
+    /**
+     * Новый снимок с добавленной таблицей; текущий снимок не меняется.
+     * table — новый объект, еще не опубликованный ни в одном снимке.
+     */
+    public CatalogSnapshot withTable(TableDefinition table, List<ColumnDefinition> columns) {
+        table.setColumns(columns);
+        Map<Integer, TableDefinition> tables = new HashMap<>(tablesByOid);
+        tables.put(table.getOid(), table);
+        Map<Integer, List<ColumnDefinition>> cols = new HashMap<>(columnsByTable);
+        cols.put(table.getOid(), new ArrayList<>(columns));
+        return build(tables, cols, typesByOid, indexes());
+    }
+
+    /**
+     * Новый снимок без таблицы, ее колонок и индексов; текущий снимок не меняется.
+     */
+    public CatalogSnapshot withoutTable(int tableOid) {
+        Map<Integer, TableDefinition> tables = new HashMap<>(tablesByOid);
+        tables.remove(tableOid);
+        Map<Integer, List<ColumnDefinition>> cols = new HashMap<>(columnsByTable);
+        cols.remove(tableOid);
+        List<IndexDefinition> indexes = indexes().stream()
+                .filter(index -> index.tableOid() != tableOid)
+                .toList();
+        return build(tables, cols, typesByOid, indexes);
+    }
+
+    /**
+     * Новый снимок с добавленным индексом; текущий снимок не меняется.
+     */
+    public CatalogSnapshot withIndex(IndexDefinition index) {
+        List<IndexDefinition> indexes = new ArrayList<>(indexes());
+        indexes.add(index);
+        return new CatalogSnapshot(tablesByOid, tablesByName, columnsByTable, columnIndexByTable,
+                typesByOid, typesByName, sortedTables, groupIndexes(indexes), indexIndexes(indexes));
+    }
+
+    /**
+     * Новый снимок с добавленным типом; текущий снимок не меняется.
+     */
+    public CatalogSnapshot withType(TypeDefinition type) {
+        Map<Integer, TypeDefinition> types = new HashMap<>(typesByOid);
+        types.put(type.oid(), type);
+        return new CatalogSnapshot(tablesByOid, tablesByName, columnsByTable, columnIndexByTable,
+                Collections.unmodifiableMap(types), indexTypes(types), sortedTables, indexesByTable, indexesByName);
+    }
+
+    private static CatalogSnapshot build(Map<Integer, TableDefinition> tables,
+                                         Map<Integer, List<ColumnDefinition>> columns,
+                                         Map<Integer, TypeDefinition> types,
+                                         List<IndexDefinition> tableIndexes) {
+        Map<String, TableDefinition> byName = new HashMap<>();
+        for (TableDefinition table : tables.values()) {
+            byName.put(table.getName().toLowerCase(), table);
+        }
+
+        Map<Integer, List<ColumnDefinition>> frozenColumns = new HashMap<>();
+        Map<Integer, Map<String, Integer>> indexes = new HashMap<>();
+        for (Map.Entry<Integer, List<ColumnDefinition>> e : columns.entrySet()) {
+            List<ColumnDefinition> list = List.copyOf(e.getValue());
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < list.size(); i++) {
+                // при дублирующихся именах побеждает первая колонка, как раньше в getColumn
+                index.putIfAbsent(list.get(i).getName().toLowerCase(), i);
+            }
+            frozenColumns.put(e.getKey(), list);
+            indexes.put(e.getKey(), Collections.unmodifiableMap(index));
+        }
+
+        List<TableDefinition> sorted = new ArrayList<>(tables.values());
+        sorted.sort(Comparator.comparing(TableDefinition::getName));
+
+        return new CatalogSnapshot(
+                Collections.unmodifiableMap(tables),
+                Collections.unmodifiableMap(byName),
+                Collections.unmodifiableMap(frozenColumns),
+                Collections.unmodifiableMap(indexes),
+                Collections.unmodifiableMap(types),
+                indexTypes(types),
+                Collections.unmodifiableList(sorted),
+                groupIndexes(tableIndexes),
+                indexIndexes(tableIndexes)
+        );
+    }
+
+    /**
+     * Новый снимок без индекса; текущий снимок не меняется.
+     */
+    public CatalogSnapshot withoutIndex(int indexOid) {
+        List<IndexDefinition> indexes = indexes().stream()
+                .filter(index -> index.oid() != indexOid)
+                .toList();
+        return new CatalogSnapshot(tablesByOid, tablesByName, columnsByTable, columnIndexByTable,
+                typesByOid, typesByName, sortedTables, groupIndexes(indexes), indexIndexes(indexes));
+    }
+
+    private static Map<Integer, List<IndexDefinition>> groupIndexes(List<IndexDefinition> indexes) {
+        Map<Integer, List<IndexDefinition>> byTable = new HashMap<>();
+        for (IndexDefinition index : indexes) {
+            byTable.computeIfAbsent(index.tableOid(), oid -> new ArrayList<>()).add(index);
+        }
+        byTable.replaceAll((oid, list) -> List.copyOf(list));
+        return Collections.unmodifiableMap(byTable);
+    }
+
+    private static Map<String, IndexDefinition> indexIndexes(List<IndexDefinition> indexes) {
+        Map<String, IndexDefinition> byName = new HashMap<>();
+        for (IndexDefinition index : indexes) {
+            byName.put(index.name().toLowerCase(), index);
+        }
+        return Collections.unmodifiableMap(byName);
+    }
+
+    private static Map<String, TypeDefinition> indexTypes(Map<Integer, TypeDefinition> types) {
+        Map<String, TypeDefinition> byName = new HashMap<>();
+        for (TypeDefinition type : types.values()) {
+            byName.putIfAbsent(type.name().toLowerCase(), type);
+        }
+        return Collections.unmodifiableMap(byName);
+    }
+
+    public TableDefinition getTable(int oid) {
+        return tablesByOid.get(oid);
+    }
+
+    public TableDefinition getTable(String name) {
+        return tablesByName.get(name.toLowerCase());
+    }
+
+    public boolean hasTable(String name) {
+        return tablesByName.containsKey(name.toLowerCase());
+    }
+
+    public List<ColumnDefinition> getColumns(int tableOid) {
+        List<ColumnDefinition> columns = columnsByTable.get(tableOid);
+        return columns != null ? columns : List.of();
+    }
+
+    /**
+     * Позиция колонки в таблице или -1, если такой колонки нет.
+     */
+    public int getColumnIndex(int tableOid, String columnName) {
+        Map<String, Integer> index = columnIndexByTable.get(tableOid);
+        if (index == null) return -1;
+        Integer position = index.get(columnName.toLowerCase());
+        return position != null ? position : -1;
+    }
+
+    public ColumnDefinition getColumn(int tableOid, String columnName) {
+        int index = getColumnIndex(tableOid, columnName);
+        return index >= 0 ? columnsByTable.get(tableOid).get(index) : null;
+    }
+
+    public List<TableDefinition> listTables() {
+        return sortedTables;
+    }
+
+    public TypeDefinition getType(int oid) {
+        return typesByOid.get(oid);
+    }
+
+    public TypeDefinition getType(String name) {
+        return typesByName.get(name.toLowerCase());
+    }
+
+    public boolean hasType(int oid) {
+        return typesByOid.containsKey(oid);
+    }
+
+    /**
+     * Индексы таблицы в порядке создания.
+     */
+    public List<IndexDefinition> getIndexes(int tableOid) {
+        List<IndexDefinition> indexes = indexesByTable.get(tableOid);
+        return indexes != null ? indexes : List.of();
+    }
+
+    public IndexDefinition getIndex(String name) {
+        return indexesByName.get(name.toLowerCase());
+    }
+
+    /**
+     * Все индексы каталога: по таблицам, внутри таблицы — в порядке создания.
+     */
+    public List<IndexDefinition> indexes() {
+        List<IndexDefinition> all = new ArrayList<>();
+        for (List<IndexDefinition> list : indexesByTable.values()) {
+            all.addAll(list);
+        }
+        return all;
+    }
+
+    public Map<Integer, TableDefinition> tables() {
+        return tablesByOid;
+    }
+
+    public Map<Integer, List<ColumnDefinition>> columns() {
+        return columnsByTable;
+    }
+
+    public Map<Integer, TypeDefinition> types() {
+        return typesByOid;
+    }
+}
@@ -1,40 +1,75 @@
 package ru.open.cu.student.catalog.manager;
 
 import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TableStatistics;
 import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.ColumnStatistics;
+import ru.open.cu.student.catalog.model.IndexDefinition;
 import ru.open.cu.student.catalog.model.TypeDefinition;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultCatalogManager implements CatalogManager {
+    // Старый постраничный формат каталога — читается только для миграции в журнал
     private static final int PAGE_SIZE = 8192;
     private static final String TABLE_FILE = "table_definitions.dat";
     private static final String COLUMN_FILE = "column_definitions.dat";
     private static final String TYPE_FILE = "types_definitions.dat";
+    private static final String SNAPSHOT_FILE = "catalog_snapshot.dat";
+    private static final String LOG_FILE = "catalog.log";
+    private static final int COMPACT_THRESHOLD = 1024;
+    private static final String STATISTICS_FILE = "table_statistics.dat";
 
     private final AtomicInteger nextTableOid = new AtomicInteger(1);
     private final AtomicInteger nextColumnOid = new AtomicInteger(1);
     private final AtomicInteger nextTypeOid = new AtomicInteger(1);
+    private final AtomicInteger nextIndexOid = new AtomicInteger(1);
 
-    private final Map<Integer, TableDefinition> tables = new ConcurrentHashMap<>();
-    private final Map<Integer, List<ColumnDefinition>> tableColumns = new ConcurrentHashMap<>();
-    private final Map<Integer, TypeDefinition> types = new ConcurrentHashMap<>();
-    private final Map<String, Integer> tableNameToOid = new ConcurrentHashMap<>();
+    // Текущий опубликованный снимок: читатели берут ссылку без блокировок,
+    // DDL строит новый снимок и подменяет ссылку под writeLock.
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    private final Object writeLock = new Object();
+
+    private final CatalogLog log = new CatalogLog(Path.of(SNAPSHOT_FILE), Path.of(LOG_FILE), COMPACT_THRESHOLD);
+
+    // Статистика живет отдельно от определений: ANALYZE переписывает ее часто, а DDL — редко
+    private volatile Map<Integer, TableStatistics> statistics = Map.of();
+    // Растет с каждым новым снимком или статистикой: по ней кэши планов узнают об устаревших планах
+    private final AtomicLong version = new AtomicLong();
+    // Счетчики изменений с последнего ANALYZE живут только в памяти: после рестарта отсчет начинается заново
+    private final Map<Integer, AtomicLong> modifications = new ConcurrentHashMap<>();
 
     public DefaultCatalogManager() {
         loadCatalog();
         initializeDefaultTypes();
+        loadStatistics();
+    }
+
+    /**
+     * Текущий снимок каталога — для согласованного чтения нескольких объектов подряд.
+     */
+    public CatalogSnapshot snapshot() {
+        return snapshot;
     }
 
     @Override
     public TableDefinition createTable(String name, List<ColumnDefinition> columns) {
-        if (tableNameToOid.containsKey(name.toLowerCase())) {
+        synchronized (writeLock) {
+            return doCreateTable(name, columns);
+        }
+    }
+
+    private TableDefinition doCreateTable(String name, List<ColumnDefinition> columns) {
+        if (snapshot.hasTable(name)) {
             throw new IllegalArgumentException("Table already exists: " + name);
         }
 
@@ -45,12 +80,10 @@ public class DefaultCatalogManager implements CatalogManager {
                 tableOid, name, "table", tableOid + ".dat", 0
         );
 
-        // Сохраняем таблицу
-        tables.put(tableOid, table);
-        tableNameToOid.put(name.toLowerCase(), tableOid);
-        saveRecord(TABLE_FILE, table.toBytes());
+        // Таблица и ее колонки уходят в лог одной записью-группой
+        List<CatalogLog.Record> records = new ArrayList<>();
+        records.add(new CatalogLog.Record(CatalogLog.TABLE, table.toBytes()));
 
-        // Сохраняем колонки
         List<ColumnDefinition> tableColumnsList = new ArrayList<>();
         for (int i = 0; i < columns.size(); i++) {
             ColumnDefinition originalColumn = columns.get(i);
@@ -62,45 +95,207 @@ public class DefaultCatalogManager implements CatalogManager {
                     i
             );
             tableColumnsList.add(column);
-            saveRecord(COLUMN_FILE, column.toBytes());
+            records.add(new CatalogLog.Record(CatalogLog.COLUMN, column.toBytes()));
         }
 
-        tableColumns.put(tableOid, tableColumnsList);
+        log.append(records);
         createDataFile(tableOid);
+        publish(snapshot.withTable(table, tableColumnsList));
 
         return table;
     }
 
+    @Override
+    public void dropTable(String name) {
+        synchronized (writeLock) {
+            TableDefinition table = snapshot.getTable(name);
+            if (table == null) {
+                throw new IllegalArgumentException("Table not found: " + name);
+            }
+
+            List<IndexDefinition> indexes = snapshot.getIndexes(table.getOid());
+            byte[] payload = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(table.getOid()).array();
+            log.append(List.of(new CatalogLog.Record(CatalogLog.DROP_TABLE, payload)));
+            publish(snapshot.withoutTable(table.getOid()));
+
+            modifications.remove(table.getOid());
+            if (statistics.containsKey(table.getOid())) {
+                Map<Integer, TableStatistics> next = new HashMap<>(statistics);
+                next.remove(table.getOid());
+                saveStatistics(next);
+            }
+
+            new File(table.getFileNode()).delete();
+            for (IndexDefinition index : indexes) {
+                new File(index.fileNode()).delete();
+            }
+        }
+    }
+
+    /**
+     * Индекс регистрируется вместе с пустым файлом; заполняет файл вызывающий (CREATE INDEX).
+     * Индексируются только колонки integer и bigint.
+     */
+    @Override
+    public IndexDefinition createIndex(String name, TableDefinition table, String columnName) {
+        synchronized (writeLock) {
+            if (snapshot.getIndex(name) != null) {
+                throw new IllegalArgumentException("Index already exists: " + name);
+            }
+            if (table == null || snapshot.getTable(table.getOid()) == null) {
+                throw new IllegalArgumentException("Table not found: " + (table != null ? table.getName() : null));
+            }
+            ColumnDefinition column = snapshot.getColumn(table.getOid(), columnName);
+            if (column == null) {
+                throw new IllegalArgumentException("Column not found: " + columnName);
+            }
+            if (column.getTypeOid() != 23 && column.getTypeOid() != 20) {
+                throw new IllegalArgumentException("Only integer and bigint columns can be indexed: " + columnName);
+            }
+
+            int oid = nextIndexOid.getAndIncrement();
+            IndexDefinition index = new IndexDefinition(oid, name, table.getOid(), column.getPosition(),
+                    "index_" + oid + ".idx");
+            try {
+                Files.deleteIfExists(Path.of(index.fileNode()));
+                Files.createFile(Path.of(index.fileNode()));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to create index file: " + index.fileNode(), e);
+            }
+            log.append(List.of(new CatalogLog.Record(CatalogLog.INDEX, index.toBytes())));
+            publish(snapshot.withIndex(index));
+            return index;
+        }
+    }
+
+    @Override
+    public void dropIndex(String name) {
+        synchronized (writeLock) {
+            IndexDefinition index = snapshot.getIndex(name);
+            if (index == null) {
+                throw new IllegalArgumentException("Index not found: " + name);
+            }
+            byte[] payload = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(index.oid()).array();
+            log.append(List.of(new CatalogLog.Record(CatalogLog.DROP_INDEX, payload)));
+            publish(snapshot.withoutIndex(index.oid()));
+            new File(index.fileNode()).delete();
+        }
+    }
+
+    @Override
+    public List<IndexDefinition> getIndexes(TableDefinition table) {
+        return table != null ? snapshot.getIndexes(table.getOid()) : List.of();
+    }
+
+    /**
+     * Публикует новый снимок; если лог разросся — сворачивает его в компактный снимок на диске.
+     * Вызывается только под writeLock.
+     */
+    private void publish(CatalogSnapshot next) {
+        snapshot = next;
+        version.incrementAndGet();
+        if (log.needsCompaction()) {
+            log.compact(toRecords(next));
+        }
+    }
+
+    private static List<CatalogLog.Record> toRecords(CatalogSnapshot s) {
+        List<CatalogLog.Record> records = new ArrayList<>();
+        for (TypeDefinition type : s.types().values()) {
+            records.add(new CatalogLog.Record(CatalogLog.TYPE, type.toBytes()));
+        }
+        for (TableDefinition table : s.tables().values()) {
+            records.add(new CatalogLog.Record(CatalogLog.TABLE, table.toBytes()));
+            for (ColumnDefinition column : s.getColumns(table.getOid())) {
+                records.add(new CatalogLog.Record(CatalogLog.COLUMN, column.toBytes()));
+            }
+        }
+        for (IndexDefinition index : s.indexes()) {
+            records.add(new CatalogLog.Record(CatalogLog.INDEX, index.toBytes()));
+        }
+        return records;
+    }
+
     @Override
     public TableDefinition getTable(String tableName) {
-        Integer oid = tableNameToOid.get(tableName.toLowerCase());
-        return oid != null ? tables.get(oid) : null;
+        return snapshot.getTable(tableName);
     }
 
     @Override
     public ColumnDefinition getColumn(TableDefinition table, String columnName) {
         if (table == null) return null;
+        return snapshot.getColumn(table.getOid(), columnName);
+    }
 
-        List<ColumnDefinition> columns = tableColumns.get(table.getOid());
-        if (columns == null) return null;
-
-        return columns.stream()
-                .filter(col -> col.getName().equalsIgnoreCase(columnName))
-                .findFirst()
-                .orElse(null);
+    @Override
+    public int getColumnIndex(TableDefinition table, String columnName) {
+        if (table == null) return -1;
+        return snapshot.getColumnIndex(table.getOid(), columnName);
     }
 
     @Override
     public List<TableDefinition> listTables() {
-        return tables.values().stream()
-                .sorted(Comparator.comparing(TableDefinition::getName))
-                .collect(Collectors.toList());
+        return snapshot.listTables();
     }
 
     private void loadCatalog() {
-        loadFromFile(TABLE_FILE, this::loadTable);
-        loadFromFile(COLUMN_FILE, this::loadColumn);
-        loadFromFile(TYPE_FILE, this::loadType);
+        Map<Integer, TableDefinition> tables = new HashMap<>();
+        Map<Integer, List<ColumnDefinition>> tableColumns = new HashMap<>();
+        Map<Integer, TypeDefinition> types = new HashMap<>();
+        Map<Integer, IndexDefinition> indexes = new LinkedHashMap<>();
+
+        if (log.exists()) {
+            log.replay((kind, data) -> {
+                switch (kind) {
+                    case CatalogLog.TABLE -> {
+                        TableDefinition table = TableDefinition.fromBytes(data);
+                        tables.put(table.getOid(), table);
+                    }
+                    case CatalogLog.COLUMN -> {
+                        // Колонка определяется таблицей и позицией: лог, проигранный поверх снимка,
+                        // который его уже содержит (падение посреди compact), не дублирует колонки
+                        ColumnDefinition column = ColumnDefinition.fromBytes(data);
+                        List<ColumnDefinition> list = tableColumns.computeIfAbsent(column.getTableOid(), k -> new ArrayList<>());
+                        list.removeIf(existing -> existing.getPosition() == column.getPosition());
+                        list.add(column);
+                    }
+                    case CatalogLog.TYPE -> {
+                        TypeDefinition type = TypeDefinition.fromBytes(data);
+                        types.put(type.oid(), type);
+                    }
+                    case CatalogLog.DROP_TABLE -> {
+                        int oid = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getInt();
+                        tables.remove(oid);
+                        tableColumns.remove(oid);
+                        indexes.values().removeIf(index -> index.tableOid() == oid);
+                    }
+                    case CatalogLog.INDEX -> {
+                        IndexDefinition index = IndexDefinition.fromBytes(data);
+                        indexes.put(index.oid(), index);
+                    }
+                    case CatalogLog.DROP_INDEX -> indexes.remove(
+                            ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getInt());
+                    default -> System.err.println("Unknown catalog record kind: " + kind);
+                }
+            });
+            snapshot = CatalogSnapshot.of(tables, tableColumns, types, List.copyOf(indexes.values()));
+        } else {
+            // Старый постраничный формат: читаем один раз и сразу переписываем в компактный снимок
+            loadFromFile(TABLE_FILE, data -> {
+                TableDefinition table = TableDefinition.fromBytes(data);
+                tables.put(table.getOid(), table);
+            });
+            loadFromFile(COLUMN_FILE, data -> {
+                ColumnDefinition column = ColumnDefinition.fromBytes(data);
+                tableColumns.computeIfAbsent(column.getTableOid(), k -> new ArrayList<>()).add(column);
+            });
+            loadFromFile(TYPE_FILE, data -> {
+                TypeDefinition type = TypeDefinition.fromBytes(data);
+                types.put(type.oid(), type);
+            });
+            snapshot = CatalogSnapshot.of(tables, tableColumns, types);
+            log.compact(toRecords(snapshot));
+        }
 
         // Обновляем счетчики OID
         nextTableOid.set(tables.keySet().stream().max(Integer::compareTo).orElse(0) + 1);
@@ -109,6 +304,7 @@ public class DefaultCatalogManager implements CatalogManager {
                 .mapToInt(ColumnDefinition::getOid)
                 .max().orElse(0) + 1);
         nextTypeOid.set(types.keySet().stream().max(Integer::compareTo).orElse(0) + 1);
+        nextIndexOid.set(indexes.keySet().stream().max(Integer::compareTo).orElse(0) + 1);
     }
 
     private void loadFromFile(String filename, RecordLoader loader) {
@@ -145,70 +341,7 @@ public class DefaultCatalogManager implements CatalogManager {
     }
 
     public TypeDefinition getType(int typeOid) {
-        return types.get(typeOid);
-    }
-
-    private void saveRecord(String filename, byte[] record) {
-        byte[] recordWithSize = addRecordSize(record);
-
-        try (RandomAccessFile raf = new RandomAccessFile(filename, "rw")) {
-            long position = findFreeSpace(raf, recordWithSize.length);
-            raf.seek(position);
-            raf.write(recordWithSize);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to save record to " + filename, e);
-        }
-    }
-
-    private byte[] addRecordSize(byte[] record) {
-        ByteBuffer buffer = ByteBuffer.allocate(4 + record.length)
-                .order(ByteOrder.LITTLE_ENDIAN)
-                .putInt(record.length)
-                .put(record);
-        return buffer.array();
-    }
-
-    private long findFreeSpace(RandomAccessFile raf, int requiredSize) throws IOException {
-        long fileSize = raf.length();
-        long lastPageStart = fileSize - (fileSize % PAGE_SIZE);
-
-        if (fileSize % PAGE_SIZE + requiredSize <= PAGE_SIZE) {
-            return fileSize;
-        }
-
-        for (long pos = 0; pos < fileSize; pos += PAGE_SIZE) {
-            raf.seek(pos);
-            byte[] page = new byte[PAGE_SIZE];
-            int read = raf.read(page);
-            if (read == -1) break;
-
-            long freePos = findFreeInPage(page, requiredSize);
-            if (freePos != -1) return pos + freePos;
-        }
-
-        return lastPageStart + PAGE_SIZE;
-    }
-
-    private long findFreeInPage(byte[] page, int requiredSize) {
-        ByteBuffer buffer = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
-        long currentPos = 0;
-
-        while (currentPos + 4 <= PAGE_SIZE) {
-            buffer.position((int) currentPos);
-            int recordSize = buffer.getInt();
-
-            if (recordSize == 0) {
-                if (PAGE_SIZE - currentPos >= requiredSize) {
-                    return currentPos;
-                }
-                break;
-            }
-
-            currentPos += 4 + recordSize;
-            if (currentPos > PAGE_SIZE) break;
-        }
-
-        return -1;
+        return snapshot.getType(typeOid);
     }
 
     private void createDataFile(int oid) {
@@ -220,23 +353,6 @@ public class DefaultCatalogManager implements CatalogManager {
         }
     }
 
-    private void loadTable(byte[] data) {
-        TableDefinition table = TableDefinition.fromBytes(data);
-        tables.put(table.getOid(), table);
-        tableNameToOid.put(table.getName().toLowerCase(), table.getOid());
-    }
-
-    private void loadColumn(byte[] data) {
-        ColumnDefinition column = ColumnDefinition.fromBytes(data);
-        tableColumns.computeIfAbsent(column.getTableOid(), k -> new ArrayList<>())
-                .add(column);
-    }
-
-    private void loadType(byte[] data) {
-        TypeDefinition type = TypeDefinition.fromBytes(data);
-        types.put(type.oid(), type);
-    }
-
     private void initializeDefaultTypes() {
         // Всегда проверяем и создаем (если отсутствуют) стандартные типы с OID-ами,
         // которые использует DefaultParser.mapTypeNameToOid
@@ -248,7 +364,7 @@ public class DefaultCatalogManager implements CatalogManager {
     }
 
     private void createTypeIfMissing(int oid, String name, int byteLength) {
-        if (!types.containsKey(oid)) {
+        if (!snapshot.hasType(oid)) {
             createType(oid, name, byteLength);
         }
     }
@@ -265,13 +381,15 @@ public class DefaultCatalogManager implements CatalogManager {
      * После создания OID-ы nextTypeOid корректируются, чтобы не пересекаться с явно заданными OID.
      */
     private void createType(int oid, String name, int byteLength) {
-        if (types.containsKey(oid)) {
-            return;
-        }
+        synchronized (writeLock) {
+            if (snapshot.hasType(oid)) {
+                return;
+            }
 
-        TypeDefinition type = new TypeDefinition(oid, name, byteLength);
-        types.put(type.oid(), type);
-        saveRecord(TYPE_FILE, type.toBytes());
+            TypeDefinition type = new TypeDefinition(oid, name, byteLength);
+            log.append(List.of(new CatalogLog.Record(CatalogLog.TYPE, type.toBytes())));
+            publish(snapshot.withType(type));
+        }
 
         // Обновим nextTypeOid, чтобы он всегда был > всех существующих OID
         nextTypeOid.updateAndGet(current -> Math.max(current, oid + 1));
@@ -279,15 +397,124 @@ public class DefaultCatalogManager implements CatalogManager {
 
     // Вспомогательный метод для получения типа по имени
     public TypeDefinition getType(String typeName) {
-        return types.values().stream()
-                .filter(type -> type.name().equalsIgnoreCase(typeName))
-                .findFirst()
-                .orElse(null);
+        return snapshot.getType(typeName);
     }
     @Override
     // Вспомогательный метод для получения колонок таблицы
     public List<ColumnDefinition> getTableColumns(TableDefinition table) {
-        return table != null ? tableColumns.get(table.getOid()) : Collections.emptyList();
+        return table != null ? snapshot.getColumns(table.getOid()) : Collections.emptyList();
+    }
+
+    @Override
+    public TableStatistics getStatistics(TableDefinition table) {
+        return table != null ? statistics.get(table.getOid()) : null;
+    }
+
+    @Override
+    public void updateStatistics(TableStatistics tableStatistics) {
+        AtomicLong counter = modifications.get(tableStatistics.getTableOid());
+        updateStatistics(tableStatistics, counter != null ? counter.get() : 0);
+    }
+
+    @Override
+    public void updateStatistics(TableStatistics tableStatistics, long seenModifications) {
+        synchronized (writeLock) {
+            if (!snapshot.tables().containsKey(tableStatistics.getTableOid())) {
+                throw new IllegalArgumentException("Table not found: oid=" + tableStatistics.getTableOid());
+            }
+            long unseen = modifications.computeIfAbsent(tableStatistics.getTableOid(), oid -> new AtomicLong())
+                    .addAndGet(-seenModifications);
+            // Строки, измененные во время сбора, могли нарушить порядок, который сбор видел:
+            // их первое изменение уже сняло отметки со старой статистики, а новая их не получает
+            TableStatistics published = unseen != 0 ? tableStatistics.withoutPhysicalOrder() : tableStatistics;
+            Map<Integer, TableStatistics> next = new HashMap<>(statistics);
+            next.put(tableStatistics.getTableOid(), published);
+            saveStatistics(next);
+        }
+    }
+
+    /**
+     * Первое изменение после ANALYZE снимает с сохраненной статистики отметки физического порядка колонок:
+     * счетчик изменений живет только в памяти, а порядок после перезапуска проверять больше нечем.
+     */
+    @Override
+    public void recordModifications(TableDefinition table, long rows) {
+        long before = modifications.computeIfAbsent(table.getOid(), oid -> new AtomicLong()).getAndAdd(rows);
+        if (before == 0) {
+            forgetPhysicalOrder(table.getOid());
+        }
+    }
+
+    private void forgetPhysicalOrder(int tableOid) {
+        synchronized (writeLock) {
+            TableStatistics current = statistics.get(tableOid);
+            if (current == null || current.getColumns().stream().noneMatch(ColumnStatistics::isSorted)) {
+                return;
+            }
+            Map<Integer, TableStatistics> next = new HashMap<>(statistics);
+            next.put(tableOid, current.withoutPhysicalOrder());
+            saveStatistics(next);
+        }
+    }
+
+    @Override
+    public long getModificationsSinceAnalyze(TableDefinition table) {
+        AtomicLong counter = table != null ? modifications.get(table.getOid()) : null;
+        return counter != null ? counter.get() : 0;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Файл статистики целиком переписывается через временный файл и атомарную замену:
+     * [int длина LE][TableStatistics] для каждой таблицы.
+     */
+    private void saveStatistics(Map<Integer, TableStatistics> next) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (TableStatistics tableStatistics : next.values()) {
+                byte[] data = tableStatistics.toBytes();
+                out.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(data.length).array());
+                out.write(data);
+            }
+
+            Path target = Path.of(STATISTICS_FILE);
+            Path tmp = Path.of(STATISTICS_FILE + ".tmp");
+            Files.write(tmp, out.toByteArray());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save statistics to " + STATISTICS_FILE, e);
+        }
+        statistics = Map.copyOf(next);
+        version.incrementAndGet();
+    }
+
+    private void loadStatistics() {
+        Path path = Path.of(STATISTICS_FILE);
+        if (!Files.exists(path)) return;
+
+        Map<Integer, TableStatistics> loaded = new HashMap<>();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.remaining() >= 4) {
+                int len = buffer.getInt();
+                if (len <= 0 || len > buffer.remaining()) break;
+                byte[] data = new byte[len];
+                buffer.get(data);
+
+                TableStatistics tableStatistics = TableStatistics.fromBytes(data);
+                // Статистика удаленных таблиц просто отбрасывается
+                if (snapshot.tables().containsKey(tableStatistics.getTableOid())) {
+                    loaded.put(tableStatistics.getTableOid(), tableStatistics);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to load statistics: " + e.getMessage());
+        }
+        statistics = Map.copyOf(loaded);
     }
 
     @FunctionalInterface
@@ -0,0 +1,175 @@
+package ru.open.cu.student.catalog.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Статистика одной колонки, собранная ANALYZE.
+ *
+ * Значения min/max и границы гистограммы хранятся в нормализованном виде:
+ * integer/bigint/boolean — Long, varchar — String. Для пустой колонки min/max равны null.
+ * Гистограмма equi-depth: между соседними границами лежит примерно одинаковое число строк.
+ * sorted — значения колонки не убывают в физическом порядке строк (ANALYZE прочитал все страницы):
+ * такая таблица уже упорядочена по колонке, и соединению слиянием не нужна сортировка.
+ */
+public class ColumnStatistics {
+    private static final byte NULL_VALUE = 0;
+    private static final byte LONG_VALUE = 1;
+    private static final byte STRING_VALUE = 2;
+
+    private final int position;
+    private final long nonNullCount;
+    private final double nullFraction;
+    private final long distinctCount;
+    private final Object min;
+    private final Object max;
+    private final List<Object> histogramBounds;
+    private final boolean sorted;
+
+    public ColumnStatistics(int position, long nonNullCount, double nullFraction, long distinctCount,
+                            Object min, Object max, List<Object> histogramBounds) {
+        this(position, nonNullCount, nullFraction, distinctCount, min, max, histogramBounds, false);
+    }
+
+    public ColumnStatistics(int position, long nonNullCount, double nullFraction, long distinctCount,
+                            Object min, Object max, List<Object> histogramBounds, boolean sorted) {
+        this.position = position;
+        this.nonNullCount = nonNullCount;
+        this.nullFraction = nullFraction;
+        this.distinctCount = distinctCount;
+        this.min = min;
+        this.max = max;
+        this.histogramBounds = List.copyOf(Objects.requireNonNull(histogramBounds, "histogramBounds"));
+        this.sorted = sorted;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public long getNonNullCount() {
+        return nonNullCount;
+    }
+
+    public double getNullFraction() {
+        return nullFraction;
+    }
+
+    public long getDistinctCount() {
+        return distinctCount;
+    }
+
+    public Object getMin() {
+        return min;
+    }
+
+    public Object getMax() {
+        return max;
+    }
+
+    public List<Object> getHistogramBounds() {
+        return histogramBounds;
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(position);
+        buffer.putLong(nonNullCount);
+        buffer.putDouble(nullFraction);
+        buffer.putLong(distinctCount);
+        putValue(buffer, min);
+        putValue(buffer, max);
+        buffer.putInt(histogramBounds.size());
+        for (Object bound : histogramBounds) {
+            putValue(buffer, bound);
+        }
+        buffer.put((byte) (sorted ? 1 : 0));
+    }
+
+    public int serializedSize() {
+        int size = 4 + 8 + 8 + 8 + valueSize(min) + valueSize(max) + 4 + 1;
+        for (Object bound : histogramBounds) {
+            size += valueSize(bound);
+        }
+        return size;
+    }
+
+    public static ColumnStatistics readFrom(ByteBuffer buffer) {
+        int position = buffer.getInt();
+        long nonNullCount = buffer.getLong();
+        double nullFraction = buffer.getDouble();
+        long distinctCount = buffer.getLong();
+        Object min = getValue(buffer);
+        Object max = getValue(buffer);
+        int bounds = buffer.getInt();
+        if (bounds < 0 || bounds > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid histogram size in ColumnStatistics");
+        }
+        List<Object> histogram = new ArrayList<>(bounds);
+        for (int i = 0; i < bounds; i++) {
+            histogram.add(getValue(buffer));
+        }
+        boolean sorted = buffer.get() != 0;
+        return new ColumnStatistics(position, nonNullCount, nullFraction, distinctCount, min, max, histogram, sorted);
+    }
+
+    private static int valueSize(Object value) {
+        if (value == null) return 1;
+        if (value instanceof Long) return 1 + 8;
+        return 1 + 4 + value.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void putValue(ByteBuffer buffer, Object value) {
+        if (value == null) {
+            buffer.put(NULL_VALUE);
+        } else if (value instanceof Long l) {
+            buffer.put(LONG_VALUE);
+            buffer.putLong(l);
+        } else {
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.put(STRING_VALUE);
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static Object getValue(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case NULL_VALUE -> null;
+            case LONG_VALUE -> buffer.getLong();
+            case STRING_VALUE -> {
+                int len = buffer.getInt();
+                if (len < 0 || len > buffer.remaining()) {
+                    throw new IllegalArgumentException("invalid string length in ColumnStatistics");
+                }
+                byte[] bytes = new byte[len];
+                buffer.get(bytes);
+                yield new String(bytes, StandardCharsets.UTF_8);
+            }
+            default -> throw new IllegalArgumentException("unknown value tag in ColumnStatistics: " + tag);
+        };
+    }
+
+    /**
+     * Для отладки: колонка без широкой гистограммы в выводе.
+     */
+    @Override
+    public String toString() {
+        return "ColumnStatistics{position=" + position +
+                ", nonNull=" + nonNullCount +
+                ", nullFraction=" + nullFraction +
+                ", distinct=" + distinctCount +
+                ", min=" + min +
+                ", max=" + max +
+                ", buckets=" + Math.max(0, histogramBounds.size() - 1) +
+                ", sorted=" + sorted +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package ru.open.cu.student.catalog.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Упорядоченный индекс по одной колонке таблицы: B+-дерево в файле fileNode.
+ * columnPosition — позиция индексируемой колонки в таблице.
+ */
+public record IndexDefinition(int oid, String name, int tableOid, int columnPosition, String fileNode) {
+    public IndexDefinition {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(fileNode, "fileNode");
+    }
+
+    public static IndexDefinition fromBytes(byte[] raw) {
+        ByteBuffer buffer = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 4 + 4 + 4 + 2 + 2) {
+            throw new IllegalArgumentException("payload is too small for IndexDefinition");
+        }
+
+        int oid = buffer.getInt();
+        int tableOid = buffer.getInt();
+        int columnPosition = buffer.getInt();
+        String name = readString(buffer, "name");
+        String fileNode = readString(buffer, "fileNode");
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("invalid payload for IndexDefinition");
+        }
+
+        return new IndexDefinition(oid, name, tableOid, columnPosition, fileNode);
+    }
+
+    public byte[] toBytes() {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] fileNodeBytes = fileNode.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > Short.MAX_VALUE || fileNodeBytes.length > Short.MAX_VALUE) {
+            throw new IllegalStateException("index name is too long");
+        }
+
+        ByteBuffer buffer = ByteBuffer
+                .allocate(4 + 4 + 4 + 2 + nameBytes.length + 2 + fileNodeBytes.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(oid);
+        buffer.putInt(tableOid);
+        buffer.putInt(columnPosition);
+        buffer.putShort((short) nameBytes.length);
+        buffer.put(nameBytes);
+        buffer.putShort((short) fileNodeBytes.length);
+        buffer.put(fileNodeBytes);
+
+        return buffer.array();
+    }
+
+    private static String readString(ByteBuffer buffer, String field) {
+        if (buffer.remaining() < 2) {
+            throw new IllegalArgumentException("missing " + field + " in IndexDefinition");
+        }
+        int length = buffer.getShort() & 0xFFFF;
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("invalid " + field + " length in IndexDefinition");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
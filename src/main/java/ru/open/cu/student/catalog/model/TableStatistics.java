@@ -0,0 +1,124 @@
+package ru.open.cu.student.catalog.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Статистика таблицы: оценка числа строк и страниц плюс статистика по каждой колонке.
+ */
+public class TableStatistics {
+    private final int tableOid;
+    private final long rowCount;
+    private final int pageCount;
+    private final long sampledRows;
+    private final long analyzedAt;
+    private final List<ColumnStatistics> columns;
+
+    public TableStatistics(int tableOid, long rowCount, int pageCount, long sampledRows,
+                           long analyzedAt, List<ColumnStatistics> columns) {
+        this.tableOid = tableOid;
+        this.rowCount = rowCount;
+        this.pageCount = pageCount;
+        this.sampledRows = sampledRows;
+        this.analyzedAt = analyzedAt;
+        this.columns = List.copyOf(Objects.requireNonNull(columns, "columns"));
+    }
+
+    public static TableStatistics fromBytes(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 4 + 8 + 4 + 8 + 8 + 4) {
+            throw new IllegalArgumentException("payload is too small for TableStatistics");
+        }
+        int tableOid = buffer.getInt();
+        long rowCount = buffer.getLong();
+        int pageCount = buffer.getInt();
+        long sampledRows = buffer.getLong();
+        long analyzedAt = buffer.getLong();
+        int columnCount = buffer.getInt();
+        if (columnCount < 0 || columnCount > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid column count in TableStatistics");
+        }
+        List<ColumnStatistics> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(ColumnStatistics.readFrom(buffer));
+        }
+        return new TableStatistics(tableOid, rowCount, pageCount, sampledRows, analyzedAt, columns);
+    }
+
+    public int getTableOid() {
+        return tableOid;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public long getSampledRows() {
+        return sampledRows;
+    }
+
+    public long getAnalyzedAt() {
+        return analyzedAt;
+    }
+
+    public List<ColumnStatistics> getColumns() {
+        return columns;
+    }
+
+    public ColumnStatistics getColumn(int position) {
+        for (ColumnStatistics column : columns) {
+            if (column.getPosition() == position) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Та же статистика без отметок физического порядка колонок — после изменения таблицы.
+     */
+    public TableStatistics withoutPhysicalOrder() {
+        List<ColumnStatistics> unordered = new ArrayList<>(columns.size());
+        for (ColumnStatistics column : columns) {
+            unordered.add(new ColumnStatistics(column.getPosition(), column.getNonNullCount(), column.getNullFraction(),
+                    column.getDistinctCount(), column.getMin(), column.getMax(), column.getHistogramBounds()));
+        }
+        return new TableStatistics(tableOid, rowCount, pageCount, sampledRows, analyzedAt, unordered);
+    }
+
+    public byte[] toBytes() {
+        int size = 4 + 8 + 4 + 8 + 8 + 4;
+        for (ColumnStatistics column : columns) {
+            size += column.serializedSize();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(tableOid);
+        buffer.putLong(rowCount);
+        buffer.putInt(pageCount);
+        buffer.putLong(sampledRows);
+        buffer.putLong(analyzedAt);
+        buffer.putInt(columns.size());
+        for (ColumnStatistics column : columns) {
+            column.writeTo(buffer);
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public String toString() {
+        return "TableStatistics{tableOid=" + tableOid +
+                ", rows=" + rowCount +
+                ", pages=" + pageCount +
+                ", sampled=" + sampledRows +
+                ", columns=" + columns +
+                '}';
+    }
+}
@@ -0,0 +1,101 @@
+package ru.open.cu.student.catalog.operation;
+
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Сводки [min, max] целочисленных колонок таблиц, по которым MIN/MAX отвечают без сканирования.
+ *
+ * Сводка заводится первым MIN/MAX по колонке, дальше ее расширяет каждая вставка (TableAppender,
+ * DefaultOperationManager), а UPDATE и DELETE (TableModifier) сбрасывают сводки таблицы целиком.
+ * Живет только в памяти движка: после рестарта сводка снова досчитывается сканированием.
+ * Ключ — oid таблицы; oid удаленной таблицы новым таблицам не достается, так что ее сводки просто не читаются.
+ */
+public class ColumnRangeCache {
+    private final Map<Integer, Map<Integer, ColumnRange>> ranges = new ConcurrentHashMap<>();
+
+    /**
+     * Сводка колонки; null — сводки еще нет или она не досчитана. По пустой таблице min больше max.
+     */
+    public long[] get(TableDefinition table, int position) {
+        Map<Integer, ColumnRange> columns = table != null ? ranges.get(table.getOid()) : null;
+        if (columns == null) {
+            return null;
+        }
+        synchronized (columns) {
+            ColumnRange range = columns.get(position);
+            return range != null && range.complete ? new long[]{range.min, range.max} : null;
+        }
+    }
+
+    /**
+     * Начинает вести сводку колонки: с этого момента каждая вставка расширяет ее,
+     * а вызывающий досчитывает уже лежащие строки и передает их в complete.
+     */
+    public void track(TableDefinition table, int position) {
+        Map<Integer, ColumnRange> columns = ranges.computeIfAbsent(table.getOid(), oid -> new HashMap<>());
+        synchronized (columns) {
+            columns.putIfAbsent(position, new ColumnRange());
+        }
+    }
+
+    /**
+     * Объединяет [min, max] строк, посчитанный сканированием, со сводкой колонки и делает ее доступной.
+     */
+    public void complete(TableDefinition table, int position, long min, long max) {
+        Map<Integer, ColumnRange> columns = ranges.get(table.getOid());
+        if (columns == null) {
+            return;
+        }
+        synchronized (columns) {
+            ColumnRange range = columns.get(position);
+            if (range != null) {
+                range.extend(min, max);
+                range.complete = true;
+            }
+        }
+    }
+
+    /**
+     * Расширяет сводки таблицы значениями только что вставленной строки:
+     * values отдает целое значение колонки по ее позиции и вызывается только для колонок со сводкой.
+     */
+    public void extend(TableDefinition table, IntToLongFunction values) {
+        Map<Integer, ColumnRange> columns = ranges.get(table.getOid());
+        if (columns == null) {
+            return;
+        }
+        synchronized (columns) {
+            columns.forEach((position, range) -> {
+                long value = values.applyAsLong(position);
+                range.extend(value, value);
+            });
+        }
+    }
+
+    /**
+     * Сбрасывает сводки таблицы: после UPDATE и DELETE границы могли сузиться,
+     * и следующий MIN/MAX досчитает их заново.
+     */
+    public void forget(TableDefinition table) {
+        ranges.remove(table.getOid());
+    }
+
+    /**
+     * Сводка колонки; пока complete == false, в ней только строки, вставленные после track.
+     */
+    private static final class ColumnRange {
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private boolean complete;
+
+        private void extend(long otherMin, long otherMax) {
+            min = Math.min(min, otherMin);
+            max = Math.max(max, otherMax);
+        }
+    }
+}
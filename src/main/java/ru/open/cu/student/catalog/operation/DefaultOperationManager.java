@@ -3,20 +3,31 @@ package ru.open.cu.student.catalog.operation;
 import ru.open.cu.student.catalog.manager.CatalogManager;
 import ru.open.cu.student.catalog.model.TableDefinition;
 import ru.open.cu.student.catalog.model.ColumnDefinition;
-import ru.open.cu.student.catalog.model.TypeDefinition;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.tuple.ProjectedTuple;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.page.HeapPage;
 
 import java.io.*;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
 
 public class DefaultOperationManager implements OperationManager {
-    private static final int PAGE_SIZE = 8192;
+    private static final int PAGE_SIZE = HeapPage.PAGE_SIZE;
     private final CatalogManager catalogManager;
+    private final ColumnRangeCache columnRanges;
 
     public DefaultOperationManager(CatalogManager catalogManager) {
+        this(catalogManager, new ColumnRangeCache());
+    }
+
+    /**
+     * @param columnRanges сводки MIN/MAX, общие с исполнителями движка: вставка их расширяет
+     */
+    public DefaultOperationManager(CatalogManager catalogManager, ColumnRangeCache columnRanges) {
         this.catalogManager = catalogManager;
+        this.columnRanges = columnRanges;
     }
 
     @Override
@@ -26,21 +37,37 @@ public class DefaultOperationManager implements OperationManager {
             throw new IllegalArgumentException("Table not found: " + tableName);
         }
 
-        List<ColumnDefinition> columns = getTableColumns(table);
-        if (values.size() != columns.size()) {
-            throw new IllegalArgumentException("Parameter count mismatch");
-        }
+        RowCodec codec = RowCodec.forTable(catalogManager, table);
+        byte[] rowData = codec.encode(values);
 
-        byte[] rowData = serializeRow(values, columns);
+        // Строка дописывается в последнюю страницу кучи, а если места нет — в новую
+        int pageCount = pageCount(table);
+        HeapPage page = pageCount > 0 ? readPage(table, pageCount - 1) : null;
 
-        byte[] page = readPage(table, 0);
-        int freePos = findFreePosition(page);
+        if (page == null || page.freeSpace() < rowData.length + HeapPage.SLOT_SIZE) {
+            page = new HeapPage(pageCount);
+        }
+        if (page.freeSpace() < rowData.length + HeapPage.SLOT_SIZE) {
+            throw new IllegalStateException("Row is too large for a page: " + rowData.length + " bytes");
+        }
 
-        if (freePos + rowData.length + 4 <= PAGE_SIZE) {
-            writeRow(page, freePos, rowData);
-            writePage(table, 0, page);
-        } else {
-            throw new IllegalStateException("No space in page");
+        page.write(rowData);
+        writePage(table, page);
+        PageTuple row = new PageTuple(codec.getColumnTypes()).reset(page.bytes(), page.rowOffset(page.size() - 1));
+        updateIndexes(table, row, BTreeIndex.rowId(page.getPageId(), page.size() - 1));
+        columnRanges.extend(table, row::getLong);
+        catalogManager.recordModifications(table, 1);
+    }
+
+    /**
+     * Добавляет только что записанную строку во все индексы таблицы.
+     */
+    private void updateIndexes(TableDefinition table, PageTuple row, long rowId) {
+        List<IndexDefinition> indexes = catalogManager.getIndexes(table);
+        for (IndexDefinition index : indexes) {
+            try (BTreeIndex tree = BTreeIndex.open(Path.of(index.fileNode()))) {
+                tree.insert(row.getLong(index.columnPosition()), rowId);
+            }
         }
     }
 
@@ -52,222 +79,57 @@ public class DefaultOperationManager implements OperationManager {
         }
 
         List<Object> result = new ArrayList<>();
-        List<ColumnDefinition> allColumns = getTableColumns(table);
+        RowCodec codec = RowCodec.forTable(catalogManager, table);
+        List<ColumnDefinition> allColumns = codec.getColumns();
         List<ColumnDefinition> selectedColumns = columnNames.isEmpty() ?
                 allColumns : getSelectedColumns(allColumns, columnNames);
-
-
-        byte[] page = readPage(table, 0);
-        if (page != null) {
-            result.addAll(readPageRows(page, selectedColumns, allColumns));
-        }
-
-        return result;
-    }
-
-    private byte[] serializeRow(List<Object> values, List<ColumnDefinition> columns) {
-        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
-
-        for (int i = 0; i < values.size(); i++) {
-            Object value = values.get(i);
-            TypeDefinition type = getType(columns.get(i).getTypeOid());
-
-            switch (type.name().toLowerCase()) {
-                case "integer":
-                    buffer.putInt((Integer) value);
-                    break;
-                case "bigint":
-                    buffer.putLong((Long) value);
-                    break;
-                case "boolean":
-                    buffer.put((byte) ((Boolean) value ? 1 : 0));
-                    break;
-                case "varchar":
-                    String str = (String) value;
-                    byte[] strBytes = str.getBytes(StandardCharsets.UTF_8);
-                    buffer.putShort((short) strBytes.length);
-                    buffer.put(strBytes);
-                    break;
+        int[] projection = selectedColumns.stream().mapToInt(allColumns::indexOf).toArray();
+
+        // Строки отдаются как кортежи над собственной копией байтов: колонки декодируются по требованию
+        PageTuple cursor = new PageTuple(codec.getColumnTypes());
+        int pageCount = pageCount(table);
+        for (int pageId = 0; pageId < pageCount; pageId++) {
+            HeapPage page = readPage(table, pageId);
+            for (int i = 0; i < page.size(); i++) {
+                if (!page.isLive(i)) continue;
+                PageTuple row = cursor.reset(page.bytes(), page.rowOffset(i)).detach();
+                result.add(selectedColumns.equals(allColumns) ? row : new ProjectedTuple(row, projection));
             }
         }
 
-        byte[] result = new byte[buffer.position()];
-        System.arraycopy(buffer.array(), 0, result, 0, buffer.position());
         return result;
     }
 
-    private List<Object> deserializeRow(ByteBuffer buffer, List<ColumnDefinition> columns) {
-        List<Object> row = new ArrayList<>();
-
-        for (ColumnDefinition column : columns) {
-            TypeDefinition type = getType(column.getTypeOid());
-
-            switch (type.name().toLowerCase()) {
-                case "integer":
-                    row.add(buffer.getInt());
-                    break;
-                case "bigint":
-                    row.add(buffer.getLong());
-                    break;
-                case "boolean":
-                    row.add(buffer.get() != 0);
-                    break;
-                case "varchar":
-                    int len = buffer.getShort() & 0xFFFF;
-                    byte[] strBytes = new byte[len];
-                    buffer.get(strBytes);
-                    row.add(new String(strBytes, StandardCharsets.UTF_8));
-                    break;
-            }
-        }
-
-        return row;
-    }
-
-    private int findFreePosition(byte[] page) {
-        ByteBuffer buffer = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
-        int position = 0;
-
-        while (position < PAGE_SIZE - 4) {
-            buffer.position(position);
-            int size = buffer.getInt();
-            if (size == 0) {
-                return position;
-            }
-            position += 4 + size;
-        }
-
-        return position;
-    }
-
-    private void writeRow(byte[] page, int position, byte[] rowData) {
-        ByteBuffer buffer = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
-        buffer.position(position);
-        buffer.putInt(rowData.length);
-        buffer.put(rowData);
-    }
-
-    private List<Object> readPageRows(byte[] page, List<ColumnDefinition> selectedColumns,
-                                      List<ColumnDefinition> allColumns) {
-        List<Object> rows = new ArrayList<>();
-        ByteBuffer buffer = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
-
-        while (buffer.position() < PAGE_SIZE - 4) {
-            int currentPos = buffer.position();
-            int rowSize = buffer.getInt();
-
-            if (rowSize == 0 || buffer.position() + rowSize > PAGE_SIZE) {
-                break;
-            }
-
-            List<Object> row = deserializeRow(buffer, allColumns);
-
-            if (!selectedColumns.equals(allColumns)) {
-                List<Object> filteredRow = new ArrayList<>();
-                for (int i = 0; i < allColumns.size(); i++) {
-                    if (selectedColumns.contains(allColumns.get(i))) {
-                        filteredRow.add(row.get(i));
-                    }
-                }
-                rows.add(filteredRow);
-            } else {
-                rows.add(row);
-            }
-
-            // Ensure we read exactly rowSize bytes
-            if (buffer.position() != currentPos + 4 + rowSize) {
-                buffer.position(currentPos + 4 + rowSize);
-            }
-        }
-
-        return rows;
+    private int pageCount(TableDefinition table) {
+        File file = new File(table.getFileNode());
+        return file.exists() ? (int) (file.length() / PAGE_SIZE) : 0;
     }
 
-    private byte[] readPage(TableDefinition table, int pageNum) {
-        String filename = table.getOid() + ".dat";
-        File file = new File(filename);
+    private HeapPage readPage(TableDefinition table, int pageNum) {
+        try (RandomAccessFile raf = new RandomAccessFile(table.getFileNode(), "r")) {
+            raf.seek((long) pageNum * PAGE_SIZE);
+            byte[] data = new byte[PAGE_SIZE];
+            raf.readFully(data);
 
-        // If file doesn't exist — return a newly initialized page with HeapPage header
-        if (!file.exists()) {
-            return createEmptyHeapPageBytes();
-        }
-
-        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
-            if (pageNum * PAGE_SIZE >= raf.length()) {
-                // page beyond file size -> return empty initialized page
-                return createEmptyHeapPageBytes();
-            }
-
-            raf.seek(pageNum * PAGE_SIZE);
-            byte[] page = new byte[PAGE_SIZE];
-            int bytesRead = raf.read(page);
-
-            if (bytesRead < PAGE_SIZE) {
-                // Fill remaining with zeros
-                Arrays.fill(page, bytesRead, PAGE_SIZE, (byte) 0);
+            HeapPage page = new HeapPage(pageNum, data);
+            if (!page.isValid()) {
+                throw new IllegalStateException("Invalid page signature at id=" + pageNum + " in " + table.getFileNode());
             }
-
-            // If page doesn't have valid HeapPage signature, initialize header so later readers (HeapPage) won't fail
-            ByteBuffer buf = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
-            int sig = buf.getInt(0);
-            if (sig != 0xDBDB01) {
-                // initialize header fields similarly to HeapPage constructor:
-                buf.putInt(0, 0xDBDB01);
-                buf.putShort(4, (short) 0);             // size = 0 (no records yet)
-                buf.putShort(6, (short) 10);            // lower = HEADER_SIZE (10)
-                buf.putShort(8, (short) PAGE_SIZE);     // upper = PAGE_SIZE
-                // copy back
-                System.arraycopy(buf.array(), 0, page, 0, PAGE_SIZE);
-            }
-
             return page;
         } catch (IOException e) {
             throw new RuntimeException("Failed to read page", e);
         }
     }
 
-    private byte[] createEmptyHeapPageBytes() {
-        byte[] page = new byte[PAGE_SIZE];
-        ByteBuffer buf = ByteBuffer.wrap(page).order(ByteOrder.LITTLE_ENDIAN);
-        buf.putInt(0, 0xDBDB01);
-        buf.putShort(4, (short) 0);          // size = 0
-        buf.putShort(6, (short) 10);         // lower = HEADER_SIZE (10)
-        buf.putShort(8, (short) PAGE_SIZE);  // upper = PAGE_SIZE
-        return page;
-    }
-
-    private void writePage(TableDefinition table, int pageNum, byte[] page) {
-        String filename = table.getOid() + ".dat";
-
-        try (RandomAccessFile raf = new RandomAccessFile(filename, "rw")) {
-            raf.seek(pageNum * PAGE_SIZE);
-            raf.write(page);
+    private void writePage(TableDefinition table, HeapPage page) {
+        try (RandomAccessFile raf = new RandomAccessFile(table.getFileNode(), "rw")) {
+            raf.seek((long) page.getPageId() * PAGE_SIZE);
+            raf.write(page.bytes());
         } catch (IOException e) {
             throw new RuntimeException("Failed to write page", e);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private List<ColumnDefinition> getTableColumns(TableDefinition table) {
-        try {
-            java.lang.reflect.Method method = catalogManager.getClass()
-                    .getMethod("getTableColumns", TableDefinition.class);
-            return (List<ColumnDefinition>) method.invoke(catalogManager, table);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot get table columns", e);
-        }
-    }
-
-    private TypeDefinition getType(int typeOid) {
-        try {
-            java.lang.reflect.Method method = catalogManager.getClass()
-                    .getMethod("getType", int.class);
-            return (TypeDefinition) method.invoke(catalogManager, typeOid);
-        } catch (Exception e) {
-            return new TypeDefinition(typeOid, "integer", 4);
-        }
-    }
-
     private List<ColumnDefinition> getSelectedColumns(List<ColumnDefinition> allColumns,
                                                       List<String> columnNames) {
         List<ColumnDefinition> selected = new ArrayList<>();
@@ -281,4 +143,4 @@ public class DefaultOperationManager implements OperationManager {
         }
         return selected;
     }
-}
\ No newline at end of file
+}
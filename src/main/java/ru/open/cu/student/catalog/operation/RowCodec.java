@@ -0,0 +1,169 @@
+package ru.open.cu.student.catalog.operation;
+
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TypeDefinition;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.ColumnType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Кодек строки таблицы (содержимое одного слота HeapPage).
+ *
+ * Колонки лежат подряд в порядке позиций, little-endian:
+ *  integer — 4 байта, bigint — 8 байт, boolean — 1 байт, varchar — 2 байта длины + UTF-8.
+ */
+public class RowCodec {
+
+    private final List<ColumnDefinition> columns;
+    private final List<TypeDefinition> types;
+
+    public RowCodec(List<ColumnDefinition> columns, List<TypeDefinition> types) {
+        if (columns.size() != types.size()) {
+            throw new IllegalArgumentException("columns and types size mismatch");
+        }
+        this.columns = columns;
+        this.types = types;
+    }
+
+    public static RowCodec forTable(CatalogManager catalogManager, TableDefinition table) {
+        List<ColumnDefinition> columns = catalogManager.getTableColumns(table);
+        List<TypeDefinition> types = new ArrayList<>(columns.size());
+        for (ColumnDefinition column : columns) {
+            TypeDefinition type = catalogManager.getType(column.getTypeOid());
+            types.add(type != null ? type : new TypeDefinition(column.getTypeOid(), "integer", 4));
+        }
+        return new RowCodec(columns, types);
+    }
+
+    public List<ColumnDefinition> getColumns() {
+        return columns;
+    }
+
+    public List<TypeDefinition> getTypes() {
+        return types;
+    }
+
+    /**
+     * Физические типы колонок — схема для PageTuple и пачек исполнителя.
+     */
+    public List<ColumnType> getColumnTypes() {
+        return types.stream().map(ColumnType::of).toList();
+    }
+
+    public byte[] encode(List<Object> values) {
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Parameter count mismatch");
+        }
+
+        int size = 0;
+        byte[][] strings = new byte[values.size()][];
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value == null) {
+                throw new IllegalArgumentException("NULL is not supported for column " + columns.get(i).getName());
+            }
+            switch (types.get(i).name().toLowerCase()) {
+                case "integer" -> size += 4;
+                case "bigint" -> size += 8;
+                case "boolean" -> size += 1;
+                case "varchar" -> {
+                    strings[i] = value.toString().getBytes(StandardCharsets.UTF_8);
+                    if (strings[i].length > 0xFFFF) {
+                        throw new IllegalArgumentException("Value is too long for column " + columns.get(i).getName());
+                    }
+                    size += 2 + strings[i].length;
+                }
+                default -> throw new IllegalArgumentException("Unsupported type: " + types.get(i).name());
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            switch (types.get(i).name().toLowerCase()) {
+                case "integer" -> buffer.putInt(((Number) value).intValue());
+                case "bigint" -> buffer.putLong(((Number) value).longValue());
+                case "boolean" -> buffer.put((byte) ((Boolean) value ? 1 : 0));
+                case "varchar" -> {
+                    buffer.putShort((short) strings[i].length);
+                    buffer.put(strings[i]);
+                }
+                default -> throw new IllegalArgumentException("Unsupported type: " + types.get(i).name());
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Кодирует строку прямо из кортежа исполнителя, без промежуточного списка значений.
+     * Числа приводятся к типу колонки так же, как в encode(List).
+     */
+    public byte[] encode(Tuple row) {
+        if (row.size() != columns.size()) {
+            throw new IllegalArgumentException("Parameter count mismatch");
+        }
+
+        int size = 0;
+        byte[][] strings = new byte[row.size()][];
+        for (int i = 0; i < row.size(); i++) {
+            switch (types.get(i).name().toLowerCase()) {
+                case "integer" -> size += 4;
+                case "bigint" -> size += 8;
+                case "boolean" -> size += 1;
+                case "varchar" -> {
+                    strings[i] = row.type(i) == ColumnType.VARCHAR
+                            ? row.getUtf8(i)
+                            : String.valueOf(row.getValue(i)).getBytes(StandardCharsets.UTF_8);
+                    if (strings[i].length > 0xFFFF) {
+                        throw new IllegalArgumentException("Value is too long for column " + columns.get(i).getName());
+                    }
+                    size += 2 + strings[i].length;
+                }
+                default -> throw new IllegalArgumentException("Unsupported type: " + types.get(i).name());
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < row.size(); i++) {
+            switch (types.get(i).name().toLowerCase()) {
+                case "integer" -> buffer.putInt((int) row.getLong(i));
+                case "bigint" -> buffer.putLong(row.getLong(i));
+                case "boolean" -> buffer.put((byte) (row.getBoolean(i) ? 1 : 0));
+                case "varchar" -> {
+                    buffer.putShort((short) strings[i].length);
+                    buffer.put(strings[i]);
+                }
+                default -> throw new IllegalArgumentException("Unsupported type: " + types.get(i).name());
+            }
+        }
+        return buffer.array();
+    }
+
+    public List<Object> decode(byte[] row) {
+        ByteBuffer buffer = ByteBuffer.wrap(row).order(ByteOrder.LITTLE_ENDIAN);
+        List<Object> values = new ArrayList<>(columns.size());
+
+        for (TypeDefinition type : types) {
+            switch (type.name().toLowerCase()) {
+                case "integer" -> values.add(buffer.getInt());
+                case "bigint" -> values.add(buffer.getLong());
+                case "boolean" -> values.add(buffer.get() != 0);
+                case "varchar" -> {
+                    int len = buffer.getShort() & 0xFFFF;
+                    byte[] strBytes = new byte[len];
+                    buffer.get(strBytes);
+                    values.add(new String(strBytes, StandardCharsets.UTF_8));
+                }
+                default -> throw new IllegalArgumentException("Unsupported type: " + type.name());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,200 @@
+package ru.open.cu.student.catalog.operation;
+
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Дописывает пачку строк в конец кучи таблицы через ее буферный пул.
+ *
+ * Страница, в которую идут строки, закреплена в пуле и сбрасывается на диск один раз —
+ * когда заполнена или при закрытии, так что запись 10K строк стоит десятков записей страниц.
+ * Индексы таблицы открываются один раз на всю пачку, счетчик изменений растет при закрытии.
+ *
+ * Если строки дает запрос, читающий ту же таблицу (INSERT INTO t SELECT ... FROM t), appender
+ * создается с hideFromReaders: первая строка идет на новую страницу за концом, который сканирование
+ * запомнило при открытии, а ключи индексов копятся и попадают в индексы только при закрытии.
+ */
+public class TableAppender implements AutoCloseable {
+
+    private static final int MAX_ROW_SPACE = new HeapPage(0).freeSpace();
+
+    private final CatalogManager catalogManager;
+    private final ColumnRangeCache columnRanges;
+    private final TableDefinition table;
+    private final BufferPoolManager bufferPool;
+    private final RowCodec codec;
+    private final PageTuple row;
+    private final List<IndexDefinition> indexes;
+    private final BTreeIndex[] trees;
+    private final boolean hideFromReaders;
+
+    private HeapPage page;
+    private long appended;
+    // Отложенные записи индексов: ключи по индексам и общие rowId
+    private long[][] pendingKeys;
+    private long[] pendingRowIds;
+
+    public TableAppender(CatalogManager catalogManager, ColumnRangeCache columnRanges, TableDefinition table,
+                         BufferPoolManager bufferPool) {
+        this(catalogManager, columnRanges, table, bufferPool, false);
+    }
+
+    public TableAppender(CatalogManager catalogManager, ColumnRangeCache columnRanges, TableDefinition table,
+                         BufferPoolManager bufferPool, boolean hideFromReaders) {
+        this.catalogManager = catalogManager;
+        this.columnRanges = columnRanges;
+        this.hideFromReaders = hideFromReaders;
+        this.table = table;
+        this.bufferPool = bufferPool;
+        this.codec = RowCodec.forTable(catalogManager, table);
+        this.row = new PageTuple(codec.getColumnTypes());
+        this.indexes = catalogManager.getIndexes(table);
+        this.trees = new BTreeIndex[indexes.size()];
+        try {
+            for (int i = 0; i < trees.length; i++) {
+                trees[i] = BTreeIndex.open(Path.of(indexes.get(i).fileNode()));
+            }
+        } catch (RuntimeException e) {
+            closeIndexes();
+            throw e;
+        }
+    }
+
+    public void append(List<Object> values) {
+        append(codec.encode(values));
+    }
+
+    /**
+     * Дописывает строку результата исполнителя; кортеж читается сразу и не сохраняется.
+     */
+    public void append(Tuple values) {
+        if (values.size() != codec.getColumns().size()) {
+            throw new IllegalArgumentException("INSERT source returns " + values.size()
+                    + " columns, table " + table.getName() + " has " + codec.getColumns().size());
+        }
+        append(codec.encode(values));
+    }
+
+    private void append(byte[] rowData) {
+        int needed = rowData.length + HeapPage.SLOT_SIZE;
+        if (needed > MAX_ROW_SPACE) {
+            throw new IllegalStateException("Row is too large for a page: " + rowData.length + " bytes");
+        }
+
+        if (page == null && !hideFromReaders) {
+            page = pinLastPage();
+        }
+        if (page == null || page.freeSpace() < needed) {
+            if (page != null) {
+                release();
+            }
+            page = pinNewPage(bufferPool.getPageCount());
+        }
+
+        page.write(rowData);
+        int slot = page.size() - 1;
+        row.reset(page.bytes(), page.rowOffset(slot));
+        long rowId = BTreeIndex.rowId(page.getPageId(), slot);
+        if (hideFromReaders) {
+            defer(rowId);
+        } else {
+            for (int i = 0; i < trees.length; i++) {
+                trees[i].insert(row.getLong(indexes.get(i).columnPosition()), rowId);
+            }
+        }
+        columnRanges.extend(table, row::getLong);
+        appended++;
+    }
+
+    public long getAppendedRows() {
+        return appended;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (page != null) {
+                release();
+            }
+            if (pendingRowIds != null) {
+                int count = (int) appended;
+                for (int i = 0; i < trees.length; i++) {
+                    for (int k = 0; k < count; k++) {
+                        trees[i].insert(pendingKeys[i][k], pendingRowIds[k]);
+                    }
+                }
+            }
+        } finally {
+            closeIndexes();
+            if (appended > 0) {
+                catalogManager.recordModifications(table, appended);
+            }
+        }
+    }
+
+    private void defer(long rowId) {
+        if (trees.length == 0) {
+            return;
+        }
+        int k = (int) appended;
+        if (pendingRowIds == null) {
+            pendingRowIds = new long[1024];
+            pendingKeys = new long[trees.length][1024];
+        } else if (k == pendingRowIds.length) {
+            pendingRowIds = Arrays.copyOf(pendingRowIds, k * 2);
+            for (int i = 0; i < trees.length; i++) {
+                pendingKeys[i] = Arrays.copyOf(pendingKeys[i], k * 2);
+            }
+        }
+        pendingRowIds[k] = rowId;
+        for (int i = 0; i < trees.length; i++) {
+            pendingKeys[i][k] = row.getLong(indexes.get(i).columnPosition());
+        }
+    }
+
+    private HeapPage pinLastPage() {
+        int pageCount = bufferPool.getPageCount();
+        if (pageCount == 0) {
+            return null;
+        }
+        HeapPage last = (HeapPage) bufferPool.getPage(pageCount - 1).getPage();
+        bufferPool.pinPage(last.getPageId());
+        return last;
+    }
+
+    private HeapPage pinNewPage(int pageId) {
+        HeapPage fresh = new HeapPage(pageId);
+        bufferPool.newPage(fresh);
+        bufferPool.pinPage(pageId);
+        return fresh;
+    }
+
+    /**
+     * Страница помечается грязной, сбрасывается на диск и открепляется.
+     */
+    private void release() {
+        HeapPage filled = page;
+        page = null;
+        bufferPool.updatePage(filled.getPageId(), filled);
+        bufferPool.flushPage(filled.getPageId());
+        bufferPool.unpinPage(filled.getPageId());
+    }
+
+    private void closeIndexes() {
+        for (BTreeIndex tree : trees) {
+            if (tree != null) {
+                tree.close();
+            }
+        }
+    }
+}
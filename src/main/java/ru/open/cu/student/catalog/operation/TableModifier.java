@@ -0,0 +1,173 @@
+package ru.open.cu.student.catalog.operation;
+
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Меняет и удаляет строки кучи таблицы на страницах ее буферного пула.
+ *
+ * Страницу со строкой закрепляет и помечает грязной вызывающий; здесь меняются только ее слоты.
+ * Удаление ставит надгробие. Новая версия строки пишется на место старой, если помещается на ее страницу,
+ * иначе переезжает на новую страницу за концом таблицы, а исходный слот становится указателем туда.
+ * Индексы хранят исходный rowId строки, поэтому переезд их не трогает — меняются только записи
+ * индексов, чей ключ изменился. Страницы переезда лежат за концом, который сканирование запомнило
+ * при открытии, так что переехавшая строка не обрабатывается второй раз.
+ */
+public class TableModifier implements AutoCloseable {
+
+    private static final int MAX_ROW_SPACE = new HeapPage(0).freeSpace();
+
+    private final CatalogManager catalogManager;
+    private final ColumnRangeCache columnRanges;
+    private final TableDefinition table;
+    private final BufferPoolManager bufferPool;
+    private final PageTuple oldRow;
+    private final PageTuple newRow;
+    private final List<IndexDefinition> indexes;
+    private final BTreeIndex[] trees;
+
+    // Страница, куда переезжают строки, не поместившиеся на свою
+    private HeapPage target;
+    private long modified;
+
+    public TableModifier(CatalogManager catalogManager, ColumnRangeCache columnRanges, TableDefinition table,
+                         BufferPoolManager bufferPool) {
+        this.catalogManager = catalogManager;
+        this.columnRanges = columnRanges;
+        this.table = table;
+        this.bufferPool = bufferPool;
+        RowCodec codec = RowCodec.forTable(catalogManager, table);
+        this.oldRow = new PageTuple(codec.getColumnTypes());
+        this.newRow = new PageTuple(codec.getColumnTypes());
+        this.indexes = catalogManager.getIndexes(table);
+        this.trees = new BTreeIndex[indexes.size()];
+        try {
+            for (int i = 0; i < trees.length; i++) {
+                trees[i] = BTreeIndex.open(Path.of(indexes.get(i).fileNode()));
+            }
+        } catch (RuntimeException e) {
+            closeIndexes();
+            throw e;
+        }
+    }
+
+    /**
+     * Удаляет живую строку slot страницы page вместе с ее записями в индексах.
+     */
+    public void delete(HeapPage page, int slot) {
+        long home = homeRowId(page, slot);
+        oldRow.reset(page.bytes(), page.rowOffset(slot));
+        for (int i = 0; i < trees.length; i++) {
+            trees[i].delete(oldRow.getLong(indexes.get(i).columnPosition()), home);
+        }
+        if (page.isMoved(slot)) {
+            // У переехавшей строки удаляется и указатель в исходном слоте
+            HeapPage homePage = (HeapPage) bufferPool.getPage(BTreeIndex.pageOf(home)).getPage();
+            homePage.delete(BTreeIndex.slotOf(home));
+            bufferPool.updatePage(homePage.getPageId(), homePage);
+        }
+        page.delete(slot);
+        modified++;
+    }
+
+    /**
+     * Заменяет живую строку slot страницы page закодированной строкой row.
+     */
+    public void update(HeapPage page, int slot, byte[] row) {
+        if (HeapPage.movedRowSpace(row.length) > MAX_ROW_SPACE) {
+            throw new IllegalStateException("Row is too large for a page: " + row.length + " bytes");
+        }
+        long home = homeRowId(page, slot);
+        oldRow.reset(page.bytes(), page.rowOffset(slot));
+        newRow.reset(row, 0);
+        for (int i = 0; i < trees.length; i++) {
+            int position = indexes.get(i).columnPosition();
+            long oldKey = oldRow.getLong(position);
+            long newKey = newRow.getLong(position);
+            if (oldKey != newKey) {
+                trees[i].delete(oldKey, home);
+                trees[i].insert(newKey, home);
+            }
+        }
+
+        if (!page.replace(slot, row)) {
+            int movedTo = moveOut(row, home);
+            if (page.isMoved(slot)) {
+                // Строка уже переезжала: старая копия удаляется, указатель исходного слота переставляется
+                page.delete(slot);
+                HeapPage homePage = (HeapPage) bufferPool.getPage(BTreeIndex.pageOf(home)).getPage();
+                homePage.setForward(BTreeIndex.slotOf(home), movedTo);
+                bufferPool.updatePage(homePage.getPageId(), homePage);
+            } else {
+                page.setForward(slot, movedTo);
+            }
+        }
+        modified++;
+    }
+
+    public long getModifiedRows() {
+        return modified;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (target != null) {
+                release();
+            }
+        } finally {
+            closeIndexes();
+            if (modified > 0) {
+                catalogManager.recordModifications(table, modified);
+                columnRanges.forget(table);
+            }
+        }
+    }
+
+    private static long homeRowId(HeapPage page, int slot) {
+        return page.isMoved(slot) ? page.homeRowId(slot) : BTreeIndex.rowId(page.getPageId(), slot);
+    }
+
+    /**
+     * Пишет строку на страницу переезда и возвращает номер этой страницы.
+     */
+    private int moveOut(byte[] row, long home) {
+        if (target == null || target.freeSpace() < HeapPage.movedRowSpace(row.length)) {
+            if (target != null) {
+                release();
+            }
+            target = new HeapPage(bufferPool.getPageCount());
+            bufferPool.newPage(target);
+            bufferPool.pinPage(target.getPageId());
+        }
+        target.writeMoved(row, home);
+        return target.getPageId();
+    }
+
+    /**
+     * Страница переезда помечается грязной, сбрасывается на диск и открепляется.
+     */
+    private void release() {
+        HeapPage filled = target;
+        target = null;
+        bufferPool.updatePage(filled.getPageId(), filled);
+        bufferPool.flushPage(filled.getPageId());
+        bufferPool.unpinPage(filled.getPageId());
+    }
+
+    private void closeIndexes() {
+        for (BTreeIndex tree : trees) {
+            if (tree != null) {
+                tree.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.open.cu.student.catalog.statistics;
+
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TableStatistics;
+import ru.open.cu.student.memory.manager.PageFileManager;
+import ru.open.cu.student.memory.manager.ThrottledPageFileManager;
+
+import java.nio.file.Path;
+
+/**
+ * Фоновое обновление статистики (аналог autoanalyze).
+ *
+ * Таблица анализируется заново, когда число измененных с последнего ANALYZE строк превышает
+ * BASE_THRESHOLD + SCALE_FACTOR * rowCount. Таблицы с данными, но без статистики, анализируются сразу.
+ * Чтение страниц идет через ThrottledPageFileManager, чтобы не мешать пользовательским запросам.
+ */
+public class AutoAnalyzeDaemon {
+    public static final long BASE_THRESHOLD = 50;
+    public static final double SCALE_FACTOR = 0.1;
+
+    private static final long DEFAULT_INTERVAL_MILLIS = 5_000;
+    private static final int DEFAULT_PAGES_PER_DELAY = 32;
+    private static final long DEFAULT_DELAY_MILLIS = 10;
+
+    private final CatalogManager catalogManager;
+    private final PageFileManager pageFileManager;
+    private final StatisticsCollector collector;
+    private final long intervalMillis;
+    private volatile Thread worker;
+
+    public AutoAnalyzeDaemon(CatalogManager catalogManager, PageFileManager pageFileManager) {
+        this(catalogManager, pageFileManager, DEFAULT_INTERVAL_MILLIS, DEFAULT_PAGES_PER_DELAY, DEFAULT_DELAY_MILLIS);
+    }
+
+    public AutoAnalyzeDaemon(CatalogManager catalogManager, PageFileManager pageFileManager,
+                             long intervalMillis, int pagesPerDelay, long delayMillis) {
+        this.catalogManager = catalogManager;
+        this.pageFileManager = pageFileManager;
+        this.collector = new StatisticsCollector(catalogManager,
+                new ThrottledPageFileManager(pageFileManager, pagesPerDelay, delayMillis));
+        this.intervalMillis = intervalMillis;
+    }
+
+    public synchronized void start() {
+        if (worker != null) return;
+
+        worker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(intervalMillis);
+                    runOnce();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    System.err.println("Auto analyze failed: " + e.getMessage());
+                }
+            }
+        }, "auto-analyze");
+        // Демон не должен удерживать JVM при остановке сервера
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        if (worker == null) return;
+        worker.interrupt();
+        worker = null;
+    }
+
+    /**
+     * Один проход по каталогу. Возвращает число проанализированных таблиц.
+     */
+    public int runOnce() {
+        int analyzed = 0;
+        for (TableDefinition table : catalogManager.listTables()) {
+            if (!needsAnalyze(table)) continue;
+            try {
+                long seen = catalogManager.getModificationsSinceAnalyze(table);
+                catalogManager.updateStatistics(collector.analyze(table), seen);
+                analyzed++;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // Таблицу удалили или страница дописывается прямо сейчас — попробуем на следующем проходе
+                if (Thread.currentThread().isInterrupted()) break;
+            }
+        }
+        return analyzed;
+    }
+
+    boolean needsAnalyze(TableDefinition table) {
+        long changed = catalogManager.getModificationsSinceAnalyze(table);
+        TableStatistics stats = catalogManager.getStatistics(table);
+        if (stats == null) {
+            return changed > 0 || pageFileManager.pageCount(Path.of(table.getFileNode())) > 0;
+        }
+        return changed > BASE_THRESHOLD + SCALE_FACTOR * stats.getRowCount();
+    }
+}
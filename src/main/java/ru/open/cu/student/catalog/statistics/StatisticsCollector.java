@@ -0,0 +1,184 @@
+package ru.open.cu.student.catalog.statistics;
+
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.ColumnStatistics;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TableStatistics;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.memory.page.HeapPage;
+import ru.open.cu.student.memory.manager.PageFileManager;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Сбор статистики таблицы для ANALYZE.
+ *
+ * Читается блочная выборка страниц кучи (все страницы, если их не больше SAMPLE_PAGES),
+ * по строкам выборки считаются null fraction, min/max, HyperLogLog и equi-depth гистограмма.
+ * Число строк экстраполируется по среднему числу строк на прочитанную страницу.
+ * Если прочитаны все страницы, для колонки отмечается, не убывают ли ее значения в порядке строк кучи.
+ */
+public class StatisticsCollector {
+    public static final int SAMPLE_PAGES = 300;
+    public static final int HISTOGRAM_BUCKETS = 32;
+    private static final int HLL_PRECISION = 12;
+
+    private final CatalogManager catalogManager;
+    private final PageFileManager pageFileManager;
+    private final Random random;
+
+    public StatisticsCollector(CatalogManager catalogManager, PageFileManager pageFileManager) {
+        this(catalogManager, pageFileManager, new Random());
+    }
+
+    public StatisticsCollector(CatalogManager catalogManager, PageFileManager pageFileManager, Random random) {
+        this.catalogManager = catalogManager;
+        this.pageFileManager = pageFileManager;
+        this.random = random;
+    }
+
+    public TableStatistics analyze(TableDefinition table) {
+        RowCodec codec = RowCodec.forTable(catalogManager, table);
+        int columnCount = codec.getColumns().size();
+        Path path = Path.of(table.getFileNode());
+
+        int pageCount = pageFileManager.pageCount(path);
+        int[] pages = samplePages(pageCount);
+
+        List<List<Object>> values = new ArrayList<>(columnCount);
+        List<HyperLogLog> sketches = new ArrayList<>(columnCount);
+        long[] nulls = new long[columnCount];
+        // Страницы выборки идут по возрастанию номера, поэтому порядок строк — физический
+        boolean[] sorted = new boolean[columnCount];
+        Object[] previous = new Object[columnCount];
+        Arrays.fill(sorted, pages.length == pageCount);
+        for (int i = 0; i < columnCount; i++) {
+            values.add(new ArrayList<>());
+            sketches.add(new HyperLogLog(HLL_PRECISION));
+        }
+
+        PageTuple row = new PageTuple(codec.getColumnTypes());
+        long sampledRows = 0;
+        for (int pageId : pages) {
+            HeapPage page = (HeapPage) pageFileManager.read(pageId, path);
+            for (int slot = 0; slot < page.size(); slot++) {
+                if (!page.isLive(slot)) continue;
+                row.reset(page.bytes(), page.rowOffset(slot));
+                for (int i = 0; i < columnCount; i++) {
+                    Object value = normalize(row.getValue(i));
+                    if (value == null) {
+                        nulls[i]++;
+                        continue;
+                    }
+                    values.get(i).add(value);
+                    sketches.get(i).add(value);
+                    if (sorted[i] && previous[i] != null && PHYSICAL_ORDER.compare(previous[i], value) > 0) {
+                        sorted[i] = false;
+                    }
+                    previous[i] = value;
+                }
+                sampledRows++;
+            }
+        }
+
+        long rowCount = pages.length == 0 ? 0
+                : Math.round((double) sampledRows / pages.length * pageCount);
+
+        List<ColumnStatistics> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(columnStatistics(codec.getColumns().get(i).getPosition(), values.get(i),
+                    nulls[i], sketches.get(i), sampledRows, rowCount, sorted[i]));
+        }
+
+        return new TableStatistics(table.getOid(), rowCount, pageCount, sampledRows,
+                System.currentTimeMillis(), columns);
+    }
+
+    private int[] samplePages(int pageCount) {
+        if (pageCount <= SAMPLE_PAGES) {
+            int[] all = new int[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        // Алгоритм Флойда: SAMPLE_PAGES различных страниц без повторов
+        boolean[] chosen = new boolean[pageCount];
+        for (int j = pageCount - SAMPLE_PAGES; j < pageCount; j++) {
+            int candidate = random.nextInt(j + 1);
+            chosen[chosen[candidate] ? j : candidate] = true;
+        }
+        int[] sample = new int[SAMPLE_PAGES];
+        int n = 0;
+        for (int i = 0; i < pageCount; i++) {
+            if (chosen[i]) sample[n++] = i;
+        }
+        return sample;
+    }
+
+    private static ColumnStatistics columnStatistics(int position, List<Object> values, long nulls,
+                                                     HyperLogLog sketch, long sampledRows, long rowCount,
+                                                     boolean sorted) {
+        values.sort(VALUE_ORDER);
+        int n = values.size();
+        double nullFraction = sampledRows == 0 ? 0.0 : (double) nulls / sampledRows;
+        long nonNullCount = Math.round(rowCount * (1.0 - nullFraction));
+
+        long distinct = Math.min(sketch.estimate(), n);
+        if (sampledRows < rowCount && n > 0 && distinct >= n * 0.9) {
+            // В выборке почти все значения уникальны — считаем, что колонка уникальна и целиком
+            distinct = Math.round((double) distinct / sampledRows * rowCount);
+        }
+        distinct = Math.min(distinct, nonNullCount);
+
+        List<Object> bounds = new ArrayList<>();
+        if (n > 0) {
+            int buckets = Math.min(HISTOGRAM_BUCKETS, n - 1);
+            if (buckets == 0) {
+                bounds.add(values.get(0));
+            }
+            for (int b = 0; b <= buckets && buckets > 0; b++) {
+                bounds.add(values.get((int) ((long) b * (n - 1) / buckets)));
+            }
+        }
+
+        return new ColumnStatistics(position, nonNullCount, nullFraction, distinct,
+                n > 0 ? values.get(0) : null, n > 0 ? values.get(n - 1) : null, bounds, sorted);
+    }
+
+    /**
+     * Приводит значения к виду, в котором они хранятся в статистике: целые и boolean — Long, строки — String.
+     */
+    public static Object normalize(Object value) {
+        if (value == null) return null;
+        if (value instanceof Number n) return n.longValue();
+        if (value instanceof Boolean b) return b ? 1L : 0L;
+        return value.toString();
+    }
+
+    private static final Comparator<Object> VALUE_ORDER = (a, b) -> {
+        if (a instanceof Long x && b instanceof Long y) {
+            return Long.compare(x, y);
+        }
+        return a.toString().compareTo(b.toString());
+    };
+
+    /**
+     * Порядок, в котором исполнитель сравнивает ключи: строки — по байтам UTF-8, как в сортировке.
+     */
+    private static final Comparator<Object> PHYSICAL_ORDER = (a, b) -> {
+        if (a instanceof Long x && b instanceof Long y) {
+            return Long.compare(x, y);
+        }
+        return Arrays.compareUnsigned(a.toString().getBytes(StandardCharsets.UTF_8),
+                b.toString().getBytes(StandardCharsets.UTF_8));
+    };
+}
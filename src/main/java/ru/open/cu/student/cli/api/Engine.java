@@ -1,5 +1,7 @@
 package ru.open.cu.student.cli.api;
 
+import java.util.function.Consumer;
+
 /**
  * Движок выполнения "SQL"-команд.
  *
@@ -22,4 +24,28 @@ public interface Engine {
      *         Можно использовать символы перевода строки, если ответ многострочный.
      */
     String executeSql(String line);
-}
\ No newline at end of file
+
+    /**
+     * Выполнить команду, передавая ответ построчно по мере готовности.
+     *
+     * Реализация по умолчанию строит весь ответ через {@link #executeSql(String)};
+     * движки, умеющие отдавать строки результата потоком, переопределяют метод,
+     * чтобы память не зависела от размера результата.
+     *
+     * @param line строка команды от клиента
+     * @param out  получатель строк ответа
+     */
+    default void executeSql(String line, Consumer<String> out) {
+        for (String resultLine : executeSql(line).split("\n")) {
+            out.accept(resultLine);
+        }
+    }
+
+    /**
+     * Движок для одного клиентского соединения: состояние сеанса (например, запросы PREPARE)
+     * видно только через него. По умолчанию сеанса нет и возвращается сам движок.
+     */
+    default Engine openSession() {
+        return this;
+    }
+}
@@ -4,12 +4,19 @@ import ru.open.cu.student.cli.api.BackendWorker;
 import ru.open.cu.student.cli.api.Engine;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.net.Socket;
+import java.util.function.Consumer;
 
 public class DefaultBackendWorker implements BackendWorker {
+    // Через столько строк результата буфер сбрасывается в сокет и проверяется, жив ли клиент
+    static final int FLUSH_ROWS = 1024;
+
     private final Socket clientSocket;
     private final Engine engine;
 
@@ -20,12 +27,17 @@ public class DefaultBackendWorker implements BackendWorker {
 
     @Override
     public void run() {
+        // Подготовленные запросы клиента живут в его сеансе и не видны другим соединениям
+        Engine session = engine.openSession();
         try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-             PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
+             // Без autoflush: строки копятся в буфере и уходят в сокет каждые FLUSH_ROWS строк и после END
+             PrintWriter out = new PrintWriter(new BufferedWriter(
+                     new OutputStreamWriter(clientSocket.getOutputStream())), false)) {
 
             out.println("Welcome to T-Bank Database CLI!");
             out.println("Type 'help' for available commands, 'exit' or 'quit' to disconnect.");
             out.println("END");
+            out.flush();
 
             String inputLine;
             while ((inputLine = in.readLine()) != null) {
@@ -34,22 +46,23 @@ public class DefaultBackendWorker implements BackendWorker {
                 if (inputLine.equalsIgnoreCase("exit") || inputLine.equalsIgnoreCase("quit")) {
                     out.println("Connection closed.");
                     out.println("END");
+                    out.flush();
                     break;
                 }
 
                 if (inputLine.isEmpty()) {
                     out.println("END");
+                    out.flush();
                     continue;
                 }
 
-                String result = engine.executeSql(inputLine);
-
-                String[] lines = result.split("\n");
-                for (String line : lines) {
-                    out.println(line);
-                }
+                session.executeSql(inputLine, new ClientRows(out));
 
                 out.println("END");
+                // PrintWriter не бросает IOException: ошибку записи в сокет видно только через checkError
+                if (out.checkError()) {
+                    break;
+                }
             }
 
         } catch (IOException e) {
@@ -61,4 +74,32 @@ public class DefaultBackendWorker implements BackendWorker {
             }
         }
     }
+
+    /**
+     * Строки ответа клиенту. Если сокет перестал принимать данные (клиент отключился),
+     * следующая строка бросает исключение: оно прерывает выполнение, и исполнители запроса
+     * закрываются, а не досчитывают результат, который некому читать.
+     */
+    private static final class ClientRows implements Consumer<String> {
+        private final PrintWriter out;
+        private long rows;
+        private boolean lost;
+
+        ClientRows(PrintWriter out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(String line) {
+            if (lost) {
+                // Например, сообщение ERROR о самом обрыве: отправлять его уже некуда
+                return;
+            }
+            out.println(line);
+            if (++rows % FLUSH_ROWS == 0 && out.checkError()) {
+                lost = true;
+                throw new UncheckedIOException(new IOException("Client connection lost"));
+            }
+        }
+    }
 }
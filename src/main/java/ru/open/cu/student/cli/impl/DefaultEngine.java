@@ -1,16 +1,22 @@
 package ru.open.cu.student.cli.impl;
 
 import ru.open.cu.student.SqlProcessor;
+import ru.open.cu.student.ast.QueryTree;
 import ru.open.cu.student.cli.api.Engine;
 import ru.open.cu.student.catalog.manager.CatalogManager;
 import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
 import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
 import ru.open.cu.student.catalog.operation.DefaultOperationManager;
 import ru.open.cu.student.catalog.operation.OperationManager;
+import ru.open.cu.student.catalog.statistics.AutoAnalyzeDaemon;
 import ru.open.cu.student.execution.ExecutorFactory;
 import ru.open.cu.student.execution.ExecutorFactoryImpl;
 import ru.open.cu.student.execution.QueryExecutionEngineImpl;
 import ru.open.cu.student.execution.executors.Executor;
+import ru.open.cu.student.execution.executors.SortExecutor;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.TupleSchema;
 import ru.open.cu.student.lexer.DefaultLexer;
 import ru.open.cu.student.lexer.Lexer;
 import ru.open.cu.student.lexer.Token;
@@ -24,47 +30,199 @@ import ru.open.cu.student.optimizer.OptimizerImpl;
 import ru.open.cu.student.optimizer.node.PhysicalPlanNode;
 import ru.open.cu.student.parser.DefaultParser;
 import ru.open.cu.student.parser.Parser;
+import ru.open.cu.student.parser.nodes.DeallocateStmt;
+import ru.open.cu.student.parser.nodes.ExecuteStmt;
+import ru.open.cu.student.parser.nodes.PrepareStmt;
 import ru.open.cu.student.ast.AstNode;
 import ru.open.cu.student.planner.Planner;
 import ru.open.cu.student.planner.PlannerImpl;
 import ru.open.cu.student.planner.node.LogicalPlanNode;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
 
 public class DefaultEngine implements Engine {
 
     private final CatalogManager catalog = new DefaultCatalogManager();
 
+    // Лексер без состояния; разборщик и SqlProcessor у каждого сеанса свои
     private final Lexer lexer = new DefaultLexer();
-    private final Parser parser = new DefaultParser();
-
-    // SqlProcessor: использует lexer/parser и переводит в HW5 QueryTree (ru.open.cu.student.ast.*)
-    private final SqlProcessor sqlProcessor = new SqlProcessor(lexer, parser, catalog);
 
     private final Planner planner = new PlannerImpl(catalog);
-    private final Optimizer optimizer = new OptimizerImpl();
 
     // Storage/manager (не привязан к конкретному файлу)
     private final PageFileManager pfm = new HeapPageFileManager();
 
-    private final OperationManager opManager = new DefaultOperationManager(catalog);
+    // Степень параллельности сканирования выбирается по числу страниц таблицы,
+    // соединение слиянием — по статистике физического порядка таблиц
+    private final Optimizer optimizer = new OptimizerImpl(pfm, catalog);
+
+    // Сводки MIN/MAX колонок: их читает TableAggregate, расширяют вставки, сбрасывают UPDATE и DELETE
+    private final ColumnRangeCache columnRanges = new ColumnRangeCache();
+
+    private final OperationManager opManager = new DefaultOperationManager(catalog, columnRanges);
     private final QueryExecutionEngineImpl execEngine = new QueryExecutionEngineImpl();
 
+    // Фоновое обновление статистики для таблиц, которые заметно изменились
+    private final AutoAnalyzeDaemon autoAnalyze = new AutoAnalyzeDaemon(catalog, pfm);
+
+    // Планы запросов, отличающихся только литералами, общие для всех сеансов
+    private final PlanCache planCache = new PlanCache(PlanCache.DEFAULT_CAPACITY);
+
+    // Сеанс для вызовов executeSql напрямую у движка
+    private final Session defaultSession = new Session();
+
+    public DefaultEngine() {
+        autoAnalyze.start();
+    }
+
     @Override
     public String executeSql(String sql) {
-        try {
-            // 1) Lexer
-            List<Token> tokens = lexer.tokenize(sql);
-            log("TOKENS", tokens);
+        return defaultSession.executeSql(sql);
+    }
+
+    /**
+     * Строки результата уходят получателю сразу из дерева исполнителей,
+     * без промежуточного списка и общей строки ответа.
+     */
+    @Override
+    public void executeSql(String sql, Consumer<String> out) {
+        defaultSession.executeSql(sql, out);
+    }
+
+    @Override
+    public Engine openSession() {
+        return new Session();
+    }
+
+    public PlanCache getPlanCache() {
+        return planCache;
+    }
+
+    /**
+     * Сеанс клиента: свой разборщик и свои подготовленные запросы PREPARE.
+     * Каталог, планировщик, оптимизатор и хранилище общие для всех сеансов.
+     */
+    private final class Session implements Engine {
+        private final Parser parser = new DefaultParser();
+        private final SqlProcessor sqlProcessor = new SqlProcessor(lexer, parser, catalog);
+        private final Map<String, PreparedPlan> prepared = new HashMap<>();
+
+        @Override
+        public String executeSql(String sql) {
+            StringJoiner result = new StringJoiner("\n");
+            executeSql(sql, result::add);
+            return result.toString();
+        }
+
+        @Override
+        public void executeSql(String sql, Consumer<String> out) {
+            try {
+                // 1) Lexer
+                List<Token> tokens = lexer.tokenize(sql);
+                log("TOKENS", tokens);
+
+                PlanCache.Normalized normalized = PlanCache.normalize(tokens);
+                if (normalized != null) {
+                    executeCached(tokens, normalized, out);
+                    return;
+                }
+
+                // 2) Parser -> AST
+                AstNode ast = parser.parse(tokens);
+                log("AST", ast);
+
+                if (ast instanceof PrepareStmt prepare) {
+                    if (prepared.containsKey(prepare.name)) {
+                        throw new IllegalArgumentException("Prepared statement " + prepare.name + " already exists");
+                    }
+                    prepared.put(prepare.name, plan(prepare.statementTokens, prepare.statement));
+                    out.accept("OK");
+                } else if (ast instanceof ExecuteStmt execute) {
+                    executePrepared(execute, out);
+                } else if (ast instanceof DeallocateStmt deallocate) {
+                    if (deallocate.name == null) {
+                        prepared.clear();
+                    } else if (prepared.remove(deallocate.name) == null) {
+                        throw new IllegalArgumentException("Prepared statement " + deallocate.name + " does not exist");
+                    }
+                    out.accept("OK");
+                } else {
+                    PreparedPlan plan = plan(tokens, ast);
+                    plan.bind(List.of());
+                    run(plan, out);
+                }
+            } catch (Exception e) {
+                out.accept("ERROR: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Выполняет план из общего кеша; при промахе строит его по нормализованным токенам.
+         */
+        private void executeCached(List<Token> tokens, PlanCache.Normalized normalized, Consumer<String> out) {
+            PreparedPlan plan = planCache.acquire(normalized.key(), catalog.getVersion());
+            if (plan == null) {
+                plan = planNormalized(normalized);
+                if (plan == null) {
+                    // С параметрами вместо литералов запрос не планируется — выполняется как есть, мимо кеша
+                    PreparedPlan once = plan(tokens, parser.parse(tokens));
+                    once.bind(List.of());
+                    run(once, out);
+                    return;
+                }
+            }
+            plan.bind(normalized.values());
+            try {
+                run(plan, out);
+            } finally {
+                planCache.release(normalized.key(), plan);
+            }
+        }
+
+        private PreparedPlan planNormalized(PlanCache.Normalized normalized) {
+            try {
+                PreparedPlan plan = plan(normalized.tokens(), parser.parse(normalized.tokens()));
+                // Каждый литерал должен попасть в план параметром, иначе кешировать нечего подставлять
+                return plan.paramCount() == normalized.values().size() ? plan : null;
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
 
-            // 2) Parser -> AST
-            AstNode ast = parser.parse(tokens);
-            log("AST", ast);
+        private void executePrepared(ExecuteStmt execute, Consumer<String> out) {
+            PreparedPlan plan = prepared.get(execute.name);
+            if (plan == null) {
+                throw new IllegalArgumentException("Prepared statement " + execute.name + " does not exist");
+            }
+            // Аргументы — константные выражения: вычисляются без строки
+            ExpressionCompiler compiler = new ExpressionCompiler(new TupleSchema(List.of(), List.of()));
+            List<Object> values = new ArrayList<>(execute.args.size());
+            for (AstNode arg : execute.args) {
+                values.add(compiler.compile(sqlProcessor.translateExpr(arg)).evaluate(null));
+            }
 
-            // 3) SQL -> QueryTree
-            var queryTree = sqlProcessor.process(sql);
+            // После DDL или ANALYZE старый план может ссылаться на удаленные объекты
+            // или быть неоптимальным: план строится заново по сохраненным токенам
+            if (plan.catalogVersion() != catalog.getVersion()) {
+                plan = plan(plan.tokens(), parser.parse(plan.tokens()));
+                prepared.put(execute.name, plan);
+            }
+            plan.bind(values);
+            run(plan, out);
+        }
+
+        private PreparedPlan plan(List<Token> tokens, AstNode ast) {
+            // Версия читается до планирования: DDL посреди него приведет к перестроению при следующем EXECUTE
+            long version = catalog.getVersion();
+
+            // 3) AST -> QueryTree
+            QueryTree queryTree = sqlProcessor.process(ast);
             log("QUERY_TREE", queryTree);
 
             // 4) Planner -> Logical plan
@@ -75,38 +233,36 @@ public class DefaultEngine implements Engine {
             PhysicalPlanNode physical = optimizer.optimize(logical);
             log("PHYSICAL_PLAN", physical);
 
-            // Определяем путь к файлу таблицы (и создаём BufferPool для этого файла)
-            Path tableFile = resolveTableFile(queryTree);
+            return PreparedPlan.of(tokens, queryTree, physical, version);
+        }
+    }
 
-            BufferPoolManager bufferPool = new DefaultBufferPoolManager(
-                    16,
-                    pfm,
-                    new ClockReplacer(),
-                    new ClockReplacer(),
-                    tableFile
-            );
+    private void run(PreparedPlan plan, Consumer<String> out) {
+        // Определяем путь к файлу таблицы (и создаём BufferPool для этого файла)
+        Path tableFile = resolveTableFile(plan.queryTree());
 
-            ExecutorFactory executorFactory = new ExecutorFactoryImpl(catalog, opManager, bufferPool);
+        // Соединение читает несколько таблиц: у каждого файла данных свой пул
+        Map<Path, BufferPoolManager> bufferPools = new HashMap<>();
+        bufferPools.put(tableFile, newBufferPool(tableFile));
 
-            // 6) ExecutorFactory -> executor
-            Executor executor = executorFactory.createExecutor(physical);
-            log("EXECUTOR", executor.getClass().getSimpleName());
+        ExecutorFactory executorFactory = new ExecutorFactoryImpl(catalog, opManager, columnRanges,
+                table -> bufferPools.computeIfAbsent(tableFile(table), this::newBufferPool),
+                SortExecutor.DEFAULT_MEMORY_BUDGET);
 
-            // 7) execute
-            List<Object> rows = execEngine.execute(executor);
+        // 6) ExecutorFactory -> executor
+        Executor executor = executorFactory.createExecutor(plan.plan());
+        log("EXECUTOR", executor.getClass().getSimpleName());
 
-            // flush, чтобы персистилось
-            bufferPool.flushAllPages();
+        // 7) execute
+        long rows = execEngine.execute(executor, row -> out.accept(String.valueOf(row)));
 
-            if (rows.isEmpty()) return "OK";
-            return rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+        // flush, чтобы персистилось
+        bufferPools.values().forEach(BufferPoolManager::flushAllPages);
 
-        } catch (Exception e) {
-            return "ERROR: " + e.getMessage();
-        }
+        if (rows == 0) out.accept("OK");
     }
 
-    private Path resolveTableFile(ru.open.cu.student.ast.QueryTree qt) {
+    private Path resolveTableFile(QueryTree qt) {
         String tableName = (qt.rangeTable != null && !qt.rangeTable.isEmpty())
                 ? qt.rangeTable.get(0).relname
                 : null;
@@ -125,7 +281,10 @@ public class DefaultEngine implements Engine {
             // Если таблицы нет в каталоге — используем имя как файл
             return Path.of(tableName + ".dat").toAbsolutePath();
         }
+        return tableFile(table);
+    }
 
+    private Path tableFile(TableDefinition table) {
         // Если в TableDefinition есть fileNode — используем его
         String fileNode = table.getFileNode();
         if (fileNode != null && !fileNode.isBlank()) {
@@ -136,6 +295,16 @@ public class DefaultEngine implements Engine {
         return Path.of(table.getOid() + ".dat").toAbsolutePath();
     }
 
+    private BufferPoolManager newBufferPool(Path file) {
+        return new DefaultBufferPoolManager(
+                16,
+                pfm,
+                new ClockReplacer(),
+                new ClockReplacer(),
+                file
+        );
+    }
+
     // (логирование)
     private void log(String tag, Object o) {
         // System.out.println(tag + ": " + o);
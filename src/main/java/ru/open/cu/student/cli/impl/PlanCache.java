@@ -0,0 +1,211 @@
+package ru.open.cu.student.cli.impl;
+
+import ru.open.cu.student.SqlProcessor;
+import ru.open.cu.student.lexer.Token;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Общий для всех сеансов кеш физических планов SELECT/INSERT/UPDATE/DELETE.
+ *
+ * Ключ — текст запроса после нормализации: литералы заменены параметрами $n, а их значения
+ * подставляются в готовый план перед выполнением. Запросы, отличающиеся только литералами,
+ * выполняются без разбора, планирования и оптимизации.
+ *
+ * Значения параметров живут в узлах плана, поэтому по ключу хранится несколько экземпляров плана:
+ * сеанс забирает свой на время выполнения и возвращает после. Ключей не больше capacity,
+ * вытесняется давно не использованный. План, построенный до изменения каталога (DDL, ANALYZE),
+ * выбрасывается при следующем обращении.
+ */
+public final class PlanCache {
+    public static final int DEFAULT_CAPACITY = 256;
+    // Экземпляров одного плана — по числу сеансов, одновременно выполняющих один и тот же запрос
+    private static final int MAX_IDLE_PLANS = 4;
+    // Большие INSERT ... VALUES не кешируются: ключ длинный, а планировать их и так дешево
+    private static final int MAX_PARAMS = 512;
+    private static final Set<String> CACHED_STATEMENTS = Set.of("SELECT", "INSERT", "UPDATE", "DELETE");
+
+    /**
+     * Нормализованный запрос: токены с параметрами, значения параметров $1..$n и ключ кеша.
+     */
+    record Normalized(List<Token> tokens, List<Object> values, String key) {
+    }
+
+    private static final class Entry {
+        final long catalogVersion;
+        final ArrayDeque<PreparedPlan> idle = new ArrayDeque<>();
+
+        Entry(long catalogVersion) {
+            this.catalogVersion = catalogVersion;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public PlanCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Plan cache capacity must be positive: " + capacity);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Заменяет литералы запроса параметрами $n; null, если запрос не кешируется.
+     *
+     * Одинаковые литералы получают один номер: выражения GROUP BY сопоставляются со списком выборки
+     * по тексту, и после замены они должны совпадать так же, как до нее. Числа после LIMIT и OFFSET
+     * парсер ждет литералами, а -5 он читает как число, а не как выражение; число — целый элемент
+     * списка ORDER BY или GROUP BY — это номер колонки выборки. Такие литералы остаются частью ключа. Значение литерала вычисляется так же, как без кеша: в VALUES — по правилам
+     * SqlProcessor.valueLiteral, в выражениях — как константа ExpressionCompiler.
+     */
+    static Normalized normalize(List<Token> tokens) {
+        if (tokens.isEmpty() || !CACHED_STATEMENTS.contains(tokens.get(0).getType())) {
+            return null;
+        }
+        boolean insertValues = tokens.get(0).getType().equals("INSERT");
+        boolean inValues = false;
+        // Глубина скобок, на которой идет список ORDER BY/GROUP BY; -1 — вне списка
+        int depth = 0;
+        int byListDepth = -1;
+        List<Token> normalized = new ArrayList<>(tokens.size());
+        List<Object> values = new ArrayList<>();
+        Map<Token, Token> params = new HashMap<>();
+        StringBuilder key = new StringBuilder();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            String previous = i > 0 ? tokens.get(i - 1).getType() : "";
+            if (token.getType().equals("PARAM")) {
+                // Параметры $n без EXECUTE — ошибка, ее сообщит обычный путь
+                return null;
+            }
+            if (insertValues && token.getType().equals("VALUES")) {
+                inValues = true;
+            }
+            switch (token.getType()) {
+                case "LPAREN" -> depth++;
+                case "RPAREN" -> {
+                    depth--;
+                    if (depth < byListDepth) {
+                        byListDepth = -1;
+                    }
+                }
+                case "BY" -> byListDepth = depth;
+                default -> {
+                }
+            }
+            boolean byListItem = previous.equals("BY") || previous.equals("COMMA") && depth == byListDepth;
+
+            Object value = byListItem ? null : literalValue(token, previous, inValues);
+            if (value != null) {
+                Token param = params.get(token);
+                if (param == null) {
+                    values.add(value);
+                    param = new Token("PARAM", "$" + values.size());
+                    params.put(token, param);
+                }
+                token = param;
+            }
+            normalized.add(token);
+            key.append(token.getType()).append(':').append(token.getValue()).append(' ');
+        }
+        if (values.size() > MAX_PARAMS) {
+            return null;
+        }
+        return new Normalized(normalized, values, key.toString());
+    }
+
+    /**
+     * Значение литерала token или null, если токен остается в ключе как есть.
+     */
+    private static Object literalValue(Token token, String previous, boolean inValues) {
+        String type = token.getType();
+        String text = token.getValue();
+        boolean bool = type.equals("IDENT") && (text.equalsIgnoreCase("TRUE") || text.equalsIgnoreCase("FALSE"));
+        if (inValues) {
+            return type.equals("NUMBER") || type.equals("STRING") || bool ? SqlProcessor.valueLiteral(text) : null;
+        }
+        if (type.equals("STRING")) {
+            return text;
+        }
+        if (bool) {
+            return Boolean.valueOf(text);
+        }
+        if (type.equals("NUMBER") && !previous.equals("LIMIT") && !previous.equals("OFFSET") && !previous.equals("MINUS")) {
+            try {
+                long value = Long.parseLong(text);
+                return value == (int) value ? (Object) (int) value : (Object) value;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Забирает свободный экземпляр плана по ключу; null — промах, план строит вызывающий.
+     */
+    synchronized PreparedPlan acquire(String key, long catalogVersion) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.catalogVersion != catalogVersion) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null || entry.idle.isEmpty()) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.idle.pop();
+    }
+
+    /**
+     * Возвращает план после выполнения; устаревший план выбрасывается.
+     */
+    synchronized void release(String key, PreparedPlan plan) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.catalogVersion < plan.catalogVersion()) {
+            entry = new Entry(plan.catalogVersion());
+            entries.put(key, entry);
+        } else if (entry.catalogVersion > plan.catalogVersion()) {
+            return;
+        }
+        if (entry.idle.size() < MAX_IDLE_PLANS) {
+            entry.idle.push(plan);
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
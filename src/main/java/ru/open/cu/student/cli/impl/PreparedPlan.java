@@ -0,0 +1,40 @@
+package ru.open.cu.student.cli.impl;
+
+import ru.open.cu.student.ast.ParamRef;
+import ru.open.cu.student.ast.QueryTree;
+import ru.open.cu.student.lexer.Token;
+import ru.open.cu.student.optimizer.node.PhysicalPlanNode;
+
+import java.util.List;
+
+/**
+ * Готовый физический план запроса с параметрами $1..$paramCount.
+ *
+ * Узлы ParamRef общие у дерева запроса и плана, поэтому bind перед выполнением подставляет значения
+ * сразу во все выражения плана — без повторного разбора и планирования. Значения живут в узлах плана,
+ * так что один план не выполняется двумя потоками одновременно.
+ *
+ * @param tokens         токены запроса: по ним план перестраивается, когда меняется каталог
+ * @param catalogVersion версия каталога, при которой план построен
+ */
+record PreparedPlan(List<Token> tokens, QueryTree queryTree, PhysicalPlanNode plan,
+                    List<ParamRef> params, int paramCount, long catalogVersion) {
+
+    static PreparedPlan of(List<Token> tokens, QueryTree queryTree, PhysicalPlanNode plan, long catalogVersion) {
+        List<ParamRef> params = queryTree.collectParams();
+        int paramCount = params.stream().mapToInt(param -> param.number).max().orElse(0);
+        return new PreparedPlan(tokens, queryTree, plan, params, paramCount, catalogVersion);
+    }
+
+    /**
+     * Подставляет values.get(i) параметру $(i + 1).
+     */
+    void bind(List<Object> values) {
+        if (values.size() != paramCount) {
+            throw new IllegalArgumentException("Statement expects " + paramCount + " parameters, got " + values.size());
+        }
+        for (ParamRef param : params) {
+            param.bind(values.get(param.number - 1));
+        }
+    }
+}
@@ -6,10 +6,12 @@ import ru.open.cu.student.ast.QueryTree;
 import ru.open.cu.student.catalog.manager.CatalogManager;
 import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
 import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
 import ru.open.cu.student.catalog.operation.DefaultOperationManager;
 import ru.open.cu.student.catalog.operation.OperationManager;
 import ru.open.cu.student.cli.api.Engine;
 import ru.open.cu.student.execution.executors.Executor;
+import ru.open.cu.student.execution.executors.SortExecutor;
 import ru.open.cu.student.lexer.DefaultLexer;
 import ru.open.cu.student.lexer.Lexer;
 import ru.open.cu.student.lexer.Token;
@@ -29,7 +31,10 @@ import ru.open.cu.student.planner.PlannerImpl;
 import ru.open.cu.student.planner.node.LogicalPlanNode;
 
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class EngineImpl implements Engine {
@@ -44,7 +49,8 @@ public class EngineImpl implements Engine {
     private final Optimizer optimizer = new OptimizerImpl();
 
     private final PageFileManager pfm = new HeapPageFileManager();
-    private final OperationManager opManager = new DefaultOperationManager(catalog);
+    private final ColumnRangeCache columnRanges = new ColumnRangeCache();
+    private final OperationManager opManager = new DefaultOperationManager(catalog, columnRanges);
     private final QueryExecutionEngine execEngine = new QueryExecutionEngineImpl();
 
     @Override
@@ -71,16 +77,20 @@ public class EngineImpl implements Engine {
             // ✅ ВАЖНО: выбрать правильный файл данных для этой операции
             Path tableFile = resolveTableFile(queryTree);
 
-            // ✅ создаём BufferPool под конкретный файл таблицы
-            BufferPoolManager bufferPool = new DefaultBufferPoolManager(
+            // ✅ создаём BufferPool под конкретный файл таблицы; соединение читает еще и файлы других таблиц
+            Map<Path, BufferPoolManager> bufferPools = new HashMap<>();
+            Function<Path, BufferPoolManager> newPool = file -> new DefaultBufferPoolManager(
                     16,
                     pfm,
                     new ClockReplacer(),
                     new ClockReplacer(),
-                    tableFile
+                    file
             );
+            bufferPools.put(tableFile, newPool.apply(tableFile));
 
-            ExecutorFactory executorFactory = new ExecutorFactoryImpl(catalog, opManager, bufferPool);
+            ExecutorFactory executorFactory = new ExecutorFactoryImpl(catalog, opManager, columnRanges,
+                    table -> bufferPools.computeIfAbsent(Path.of(table.getFileNode()).toAbsolutePath(), newPool),
+                    SortExecutor.DEFAULT_MEMORY_BUDGET);
 
             // 6) ExecutorFactory -> executor
             Executor executor = executorFactory.createExecutor(physical);
@@ -90,7 +100,7 @@ public class EngineImpl implements Engine {
             List<Object> rows = execEngine.execute(executor);
 
             // flush, чтобы персистилось
-            bufferPool.flushAllPages();
+            bufferPools.values().forEach(BufferPoolManager::flushAllPages);
 
 if (rows.isEmpty()) return "OK";
         return rows.stream().map(String::valueOf).collect(Collectors.joining("\n"));
@@ -2,50 +2,342 @@ package ru.open.cu.student.execution;
 
 
 import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.catalog.operation.RowCodec;
 import ru.open.cu.student.catalog.operation.OperationManager;
+import ru.open.cu.student.catalog.statistics.StatisticsCollector;
 import ru.open.cu.student.execution.executors.*;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.sort.SortThreshold;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.RowBatch;
 import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
 import ru.open.cu.student.optimizer.node.*;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
 public class ExecutorFactoryImpl implements ExecutorFactory {
 
     private final CatalogManager catalogManager;
     private final OperationManager operationManager;
-    private final BufferPoolManager bufferPool;
+    private final ColumnRangeCache columnRanges;
+    private final Function<TableDefinition, BufferPoolManager> bufferPools;
+    private final long workMemory;
 
 
     public ExecutorFactoryImpl(CatalogManager catalogManager, OperationManager operationManager, BufferPoolManager bufferPool) {
+        this(catalogManager, operationManager, bufferPool, SortExecutor.DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * @param workMemory сколько байт сортировка, агрегация, хеш-соединение или CREATE INDEX держит в памяти до сброса на диск
+     */
+    public ExecutorFactoryImpl(CatalogManager catalogManager, OperationManager operationManager, BufferPoolManager bufferPool,
+                               long workMemory) {
+        this(catalogManager, operationManager, new ColumnRangeCache(), table -> bufferPool, workMemory);
+    }
+
+    /**
+     * @param columnRanges сводки MIN/MAX колонок, общие для всех запросов движка
+     * @param bufferPools  буферный пул файла данных таблицы: запрос с соединением читает несколько файлов
+     */
+    public ExecutorFactoryImpl(CatalogManager catalogManager, OperationManager operationManager, ColumnRangeCache columnRanges,
+                               Function<TableDefinition, BufferPoolManager> bufferPools, long workMemory) {
         this.catalogManager = catalogManager;
         this.operationManager = operationManager;
-        this.bufferPool = bufferPool;
+        this.columnRanges = columnRanges;
+        this.bufferPools = bufferPools;
+        this.workMemory = workMemory;
     }
 
     @Override
     public Executor createExecutor(PhysicalPlanNode plan) {
+        return createExecutor(plan, null, RowBatch.DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * morsels задан для конвейеров воркеров PhysicalGather: их сканирования делят таблицу по диапазонам.
+     * batchSize — размер пачки сканирования; под маленьким LIMIT он уменьшается, чтобы не читать лишние страницы.
+     * threshold — граница Top-N для сканирования; проходит только через узлы, не меняющие набор строк ниже Top-N.
+     */
+    private Executor createExecutor(PhysicalPlanNode plan, PageMorsels morsels, int batchSize, SortThreshold threshold) {
         if (plan instanceof PhysicalCreateNode create) {
             return new CreateTableExecutor(catalogManager, create.getTableDefinition());
 
+        } else if (plan instanceof PhysicalInsertNode insert && insert.getSource() != null) {
+            return new InsertExecutor(
+                    catalogManager,
+                    columnRanges,
+                    bufferPools.apply(insert.getTableDefinition()),
+                    insert.getTableDefinition(),
+                    createExecutor(insert.getSource()),
+                    insert.isSourceReadsTarget()
+            );
+
         } else if (plan instanceof PhysicalInsertNode insert) {
             return new InsertExecutor(
-                    operationManager,
+                    catalogManager,
+                    columnRanges,
+                    bufferPools.apply(insert.getTableDefinition()),
                     insert.getTableDefinition(),
-                    insert.getValues()
+                    insert.getRows()
             );
 
         } else if (plan instanceof PhysicalSeqScanNode scan) {
-            return new SeqScanExecutor(bufferPool, scan.getTableDefinition());
+            TableDefinition table = scan.getTableDefinition();
+            List<ColumnType> types = RowCodec.forTable(catalogManager, table).getColumnTypes();
+            BooleanEvaluator predicate = scan.getFilter() == null ? null
+                    : new ExpressionCompiler(inputSchema(scan)).compilePredicate(scan.getFilter());
+            if (threshold != null) {
+                BooleanEvaluator filter = predicate;
+                predicate = filter == null ? threshold : t -> filter.eval(t) && threshold.eval(t);
+            }
+            return new SeqScanExecutor(bufferPools.apply(table), table, types, batchSize, morsels, predicate,
+                    decodedColumns(table, scan.getRequiredColumns()));
 
         } else if (plan instanceof PhysicalFilterNode filter) {
-            Executor child = createExecutor(filter.getChild());
-            return new FilterExecutor(child, filter.getCondition());
+            Executor child = createExecutor(filter.getChild(), morsels, batchSize, threshold);
+            return new FilterExecutor(child, filter.getCondition(), inputSchema(filter.getChild()));
 
         } else if (plan instanceof PhysicalProjectNode project) {
-            Executor child = createExecutor(project.getChild());
-            return new ProjectExecutor(child, project.getTargetList());
+            Executor child = createExecutor(project.getChild(), morsels, batchSize, null);
+            return new ProjectExecutor(child, project.getTargetList(), inputSchema(project.getChild()));
+
+        } else if (plan instanceof PhysicalSortNode sort) {
+            // Размер пачки под LIMIT ограничивает только выдачу: вход сортировки читается целиком
+            Executor child = createExecutor(sort.getChild(), morsels, RowBatch.DEFAULT_CAPACITY, null);
+            return new SortExecutor(child, sort.getSortKeys(), inputSchema(sort.getChild()),
+                    carriedColumns(sort.getChild()), batchSize, workMemory, null);
+
+        } else if (plan instanceof PhysicalTopNNode topN) {
+            TupleSchema schema = inputSchema(topN.getChild());
+            SortRowEncoder encoder = SortRowEncoder.compile(topN.getSortKeys(), schema, carriedColumns(topN.getChild()));
+            // Худший ключ кучи проверяется в сканировании, до копирования строки в пачку
+            SortThreshold bound = new SortThreshold(encoder);
+            Executor child = createExecutor(topN.getChild(), morsels, RowBatch.DEFAULT_CAPACITY, bound);
+            return new TopNExecutor(child, encoder, topN.getLimit(), schema, batchSize, bound);
+
+        } else if (plan instanceof PhysicalHashAggregateNode aggregate) {
+            Executor child = createExecutor(aggregate.getChild(), morsels, RowBatch.DEFAULT_CAPACITY, null);
+            return new HashAggregateExecutor(child, aggregate.getGroupKeys(), aggregate.getAggregates(),
+                    inputSchema(aggregate.getChild()), carriedColumns(aggregate.getChild()),
+                    batchSize, workMemory, null);
+
+        } else if (plan instanceof PhysicalTableAggregateNode aggregate) {
+            TableDefinition table = aggregate.getScan().getTableDefinition();
+            return new TableAggregateExecutor(bufferPools.apply(table), columnRanges, table,
+                    aggregate.getAggregates(), inputSchema(aggregate.getScan()));
+
+        } else if (plan instanceof PhysicalHashJoinNode join) {
+            // Входы читаются полными пачками: под LIMIT уменьшается только выход соединения
+            Executor left = createExecutor(join.getLeft(), morsels, RowBatch.DEFAULT_CAPACITY, null);
+            Executor right = createExecutor(join.getRight(), morsels, RowBatch.DEFAULT_CAPACITY, null);
+            return new HashJoinExecutor(
+                    new JoinInput(left, join.getLeftKeys(), inputSchema(join.getLeft()), carriedColumns(join.getLeft())),
+                    new JoinInput(right, join.getRightKeys(), inputSchema(join.getRight()), carriedColumns(join.getRight())),
+                    join.isBuildLeft(), join.getCondition(), batchSize, workMemory, null);
+
+        } else if (plan instanceof PhysicalMergeJoinNode join) {
+            Executor left = createExecutor(join.getLeft(), morsels, RowBatch.DEFAULT_CAPACITY, null);
+            Executor right = createExecutor(join.getRight(), morsels, RowBatch.DEFAULT_CAPACITY, null);
+            return new MergeJoinExecutor(
+                    new JoinInput(left, List.of(join.getLeftKey()), inputSchema(join.getLeft()), carriedColumns(join.getLeft())),
+                    new JoinInput(right, List.of(join.getRightKey()), inputSchema(join.getRight()), carriedColumns(join.getRight())),
+                    join.getOp(), join.getCondition(), batchSize, workMemory, null);
+
+        } else if (plan instanceof PhysicalIndexNestedLoopJoinNode join) {
+            Executor outer = createExecutor(join.getOuter(), morsels, RowBatch.DEFAULT_CAPACITY, null);
+            PhysicalSeqScanNode inner = join.getInner();
+            return new IndexNestedLoopJoinExecutor(
+                    new JoinInput(outer, List.of(join.getOuterKey()), inputSchema(join.getOuter()), carriedColumns(join.getOuter())),
+                    bufferPools.apply(inner.getTableDefinition()), Path.of(join.getIndex().fileNode()),
+                    inputSchema(inner), carriedColumns(inner), inner.getFilter(),
+                    join.isInnerLeft(), join.getCondition(), batchSize);
+
+        } else if (plan instanceof PhysicalHashSemiJoinNode join) {
+            // Внутренний вход — подзапрос: он читается целиком, в том числе в воркерах Gather
+            Executor outer = createExecutor(join.getOuter(), morsels, batchSize, null);
+            Executor inner = createExecutor(join.getInner(), null, RowBatch.DEFAULT_CAPACITY, null);
+            return new HashSemiJoinExecutor(
+                    new JoinInput(outer, join.getOuterKeys(), inputSchema(join.getOuter()), carriedColumns(join.getOuter())),
+                    new JoinInput(inner, join.getInnerKeys(), inputSchema(join.getInner()), carriedColumns(join.getInner())),
+                    join.isAnti(), join.getCondition(), workMemory, null);
+
+        } else if (plan instanceof PhysicalLimitNode limit) {
+            long needed = limit.getCount() == null ? Long.MAX_VALUE : limit.getCount() + limit.getOffset();
+            int childBatch = (int) Math.max(1, Math.min(batchSize, needed));
+            Executor child = createExecutor(limit.getChild(), morsels, childBatch, null);
+            return new LimitExecutor(child, limit.getCount(), limit.getOffset());
+
+        } else if (plan instanceof PhysicalGatherNode gather) {
+            PageMorsels shared = new PageMorsels();
+            List<Executor> workers = new ArrayList<>(gather.getWorkers());
+            for (int i = 0; i < gather.getWorkers(); i++) {
+                workers.add(createExecutor(gather.getChild(), shared, batchSize, threshold));
+            }
+            return new GatherExecutor(workers, shared, bufferPools.apply(scanOf(gather.getChild()).getTableDefinition()));
+
+        } else if (plan instanceof PhysicalAnalyzeNode analyze) {
+            StatisticsCollector collector = new StatisticsCollector(catalogManager, new HeapPageFileManager());
+            return new AnalyzeExecutor(catalogManager, collector, analyze.getTables());
+
+        } else if (plan instanceof PhysicalCreateIndexNode createIndex) {
+            TableDefinition table = createIndex.getTableDefinition();
+            return new CreateIndexExecutor(catalogManager, bufferPools.apply(table), createIndex.getIndexName(),
+                    table, createIndex.getColumnName(), workMemory);
+
+        } else if (plan instanceof PhysicalUpdateNode update) {
+            TableDefinition table = update.getTableDefinition();
+            return new UpdateExecutor(catalogManager, columnRanges, bufferPools.apply(table), table,
+                    update.getAssignments(), update.getCondition());
+
+        } else if (plan instanceof PhysicalDeleteNode delete) {
+            TableDefinition table = delete.getTableDefinition();
+            return new DeleteExecutor(catalogManager, columnRanges, bufferPools.apply(table), table, delete.getCondition());
         }
 
         throw new UnsupportedOperationException(
                 "Unsupported physical plan node: " + plan.getClass().getSimpleName()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Маска колонок для декодирования в порядке хранения строки; null — декодировать все.
+     */
+    private boolean[] decodedColumns(TableDefinition table, Set<Integer> requiredColumns) {
+        if (requiredColumns == null) {
+            return null;
+        }
+        List<ColumnDefinition> columns = RowCodec.forTable(catalogManager, table).getColumns();
+        boolean[] decoded = new boolean[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            decoded[i] = requiredColumns.contains(columns.get(i).getPosition());
+        }
+        return decoded;
+    }
+
+    /**
+     * Колонки, которые выдает узел: фильтр, сортировка, LIMIT, Gather и полусоединение пропускают колонки
+     * ребенка без изменений, поэтому схема берется у сканирования, агрегации, соединения или проекции под ними.
+     * В соединении колонки сканирования называются "псевдоним.колонка".
+     */
+    private TupleSchema inputSchema(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalSeqScanNode scan) {
+            RowCodec codec = RowCodec.forTable(catalogManager, scan.getTableDefinition());
+            if (scan.getAlias() == null) {
+                return TupleSchema.of(codec.getColumns(), codec.getColumnTypes());
+            }
+            List<String> names = codec.getColumns().stream()
+                    .map(column -> scan.getAlias() + "." + column.getName())
+                    .toList();
+            return new TupleSchema(names, codec.getColumnTypes());
+        } else if (joinInputs(plan) != null) {
+            List<PhysicalPlanNode> inputs = joinInputs(plan);
+            return HashJoinExecutor.outputSchema(inputSchema(inputs.get(0)), inputSchema(inputs.get(1)));
+        } else if (plan instanceof PhysicalHashAggregateNode aggregate) {
+            TupleSchema input = inputSchema(aggregate.getChild());
+            return new TupleSchema(aggregate.getOutputColumns(),
+                    HashAggregateExecutor.outputTypes(aggregate.getGroupKeys(), aggregate.getAggregates(), input));
+        } else if (plan instanceof PhysicalTableAggregateNode aggregate) {
+            return new TupleSchema(aggregate.getOutputColumns(),
+                    HashAggregateExecutor.outputTypes(List.of(), aggregate.getAggregates(), inputSchema(aggregate.getScan())));
+        } else if (plan instanceof PhysicalProjectNode project) {
+            return ProjectExecutor.outputSchema(project.getTargetList(), inputSchema(project.getChild()));
+        }
+        PhysicalPlanNode source = rowSource(plan);
+        if (source != null) {
+            return inputSchema(source);
+        }
+        throw new UnsupportedOperationException(
+                "Cannot determine columns of " + plan.getClass().getSimpleName()
+        );
+    }
+
+    /**
+     * Какие колонки строк узла действительно прочитаны сканированием; null — все.
+     * Сортировка и агрегация не переносят остальные колонки в свои записи.
+     */
+    private boolean[] carriedColumns(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalSeqScanNode scan) {
+            return decodedColumns(scan.getTableDefinition(), scan.getRequiredColumns());
+        } else if (joinInputs(plan) != null) {
+            List<PhysicalPlanNode> inputs = joinInputs(plan);
+            boolean[] left = carriedColumns(inputs.get(0));
+            boolean[] right = carriedColumns(inputs.get(1));
+            if (left == null && right == null) {
+                return null;
+            }
+            int leftSize = inputSchema(inputs.get(0)).size();
+            boolean[] carried = new boolean[leftSize + inputSchema(inputs.get(1)).size()];
+            for (int i = 0; i < carried.length; i++) {
+                carried[i] = i < leftSize ? left == null || left[i] : right == null || right[i - leftSize];
+            }
+            return carried;
+        }
+        PhysicalPlanNode source = rowSource(plan);
+        return source == null ? null : carriedColumns(source);
+    }
+
+    /**
+     * Левый и правый входы узла соединения или null, если узел не соединение.
+     */
+    private static List<PhysicalPlanNode> joinInputs(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalHashJoinNode join) {
+            return List.of(join.getLeft(), join.getRight());
+        } else if (plan instanceof PhysicalMergeJoinNode join) {
+            return List.of(join.getLeft(), join.getRight());
+        } else if (plan instanceof PhysicalIndexNestedLoopJoinNode join) {
+            return List.of(join.getLeft(), join.getRight());
+        }
+        return null;
+    }
+
+    /**
+     * Сканирование в основании конвейера воркеров Gather.
+     */
+    private static PhysicalSeqScanNode scanOf(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalSeqScanNode scan) {
+            return scan;
+        } else if (plan instanceof PhysicalProjectNode project) {
+            return scanOf(project.getChild());
+        }
+        PhysicalPlanNode source = rowSource(plan);
+        if (source == null) {
+            throw new UnsupportedOperationException(
+                    "Cannot parallelize " + plan.getClass().getSimpleName()
+            );
+        }
+        return scanOf(source);
+    }
+
+    /**
+     * Ребенок узла, чьи строки узел выдает без изменения схемы, или null.
+     */
+    private static PhysicalPlanNode rowSource(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalFilterNode filter) {
+            return filter.getChild();
+        } else if (plan instanceof PhysicalSortNode sort) {
+            return sort.getChild();
+        } else if (plan instanceof PhysicalTopNNode topN) {
+            return topN.getChild();
+        } else if (plan instanceof PhysicalGatherNode gather) {
+            return gather.getChild();
+        } else if (plan instanceof PhysicalLimitNode limit) {
+            return limit.getChild();
+        } else if (plan instanceof PhysicalHashSemiJoinNode join) {
+            return join.getOuter();
+        }
+        return null;
+    }
+}
@@ -6,4 +6,11 @@ import java.util.List;
 
 public interface QueryExecutionEngine {
     List<Object> execute(Executor executor);
+
+    /**
+     * Выполняет дерево исполнителей и передает строки в sink, не накапливая результат.
+     *
+     * @return число переданных строк
+     */
+    long execute(Executor executor, RowSink sink);
 }
@@ -2,6 +2,9 @@ package ru.open.cu.student.execution;
 
 
 import ru.open.cu.student.execution.executors.Executor;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.RowBatch;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -10,30 +13,51 @@ import java.util.List;
  * QueryExecutionEngineImpl — точка входа для выполнения уже подготовленного запроса.
  *
  * Он принимает готовый Executor (верхний в дереве исполнителей),
- * выполняет стандартный цикл open → next* → close и возвращает результаты.
+ * выполняет стандартный цикл open → next* → close и передает строки получателю
+ * по одной, либо собирает их в список.
  */
 public class QueryExecutionEngineImpl implements QueryExecutionEngine {
 
     @Override
     public List<Object> execute(Executor executor) {
+        List<Object> results = new ArrayList<>();
+        // Кортежи исполнителей переиспользуются, поэтому сохраняем копию значений
+        execute(executor, row -> results.add(row instanceof Tuple tuple ? tuple.toList() : row));
+        return results;
+    }
+
+    @Override
+    public long execute(Executor executor, RowSink sink) {
         if (executor == null) {
             throw new IllegalArgumentException("Executor is null");
         }
 
-        List<Object> results = new ArrayList<>();
-
+        long count = 0;
         try {
             executor.open();
 
-            Object row;
-            while ((row = executor.next()) != null) {
-                results.add(row);
+            if (executor.supportsBatch()) {
+                // Пачками: строка пачки отдается получателю через переиспользуемый кортеж
+                BatchTuple tuple = new BatchTuple();
+                RowBatch batch;
+                while ((batch = executor.nextBatch()) != null) {
+                    for (int k = 0; k < batch.selectedCount(); k++) {
+                        sink.accept(tuple.reset(batch, batch.selectedRow(k)));
+                        count++;
+                    }
+                }
+            } else {
+                Object row;
+                while ((row = executor.next()) != null) {
+                    sink.accept(row);
+                    count++;
+                }
             }
 
         } finally {
             executor.close();
         }
 
-        return results;
+        return count;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package ru.open.cu.student.execution;
+
+/**
+ * Получатель строк результата, которому QueryExecutionEngine отдает строки по мере их появления.
+ *
+ * Строка (обычно {@link ru.open.cu.student.execution.tuple.Tuple}) действительна только
+ * во время вызова accept: исполнители переиспользуют кортежи и пачки. Если строку нужно
+ * сохранить, получатель делает копию сам (например, через Tuple.toList()).
+ */
+@FunctionalInterface
+public interface RowSink {
+    void accept(Object row);
+}
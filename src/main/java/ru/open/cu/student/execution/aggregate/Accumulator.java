@@ -0,0 +1,118 @@
+package ru.open.cu.student.execution.aggregate;
+
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.BooleanVector;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.IntVector;
+import ru.open.cu.student.execution.vector.LongVector;
+import ru.open.cu.student.execution.vector.VarcharVector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Состояние одного агрегата сразу для всех групп: примитивные массивы, индекс — номер группы.
+ *
+ * NULL в движке нет, поэтому COUNT(x) совпадает с COUNT(*), а SUM/MIN/MAX/AVG по пустому входу
+ * дают 0 (пустую строку для varchar). AVG считается в целых с отбрасыванием дробной части,
+ * как деление «/».
+ */
+public final class Accumulator {
+    // Примерная память на группу: элементы массивов состояния
+    public static final int STATE_BYTES = 24;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final String function;
+    private final CompiledExpression argument;
+    private final ColumnType resultType;
+    private long[] values = new long[0];
+    private long[] counts = new long[0];
+    private byte[][] strings = new byte[0][];
+
+    private Accumulator(String function, CompiledExpression argument, ColumnType resultType) {
+        this.function = function;
+        this.argument = argument;
+        this.resultType = resultType;
+    }
+
+    public static Accumulator compile(FuncCall call, ExpressionCompiler compiler) {
+        CompiledExpression argument = call.star ? null : compiler.compile(call.args.get(0));
+        ColumnType resultType = switch (call.name) {
+            case "COUNT" -> ColumnType.BIGINT;
+            case "SUM", "AVG" -> {
+                if (!argument.isNumeric()) {
+                    throw new IllegalArgumentException(call.name + " requires a numeric argument: " + call);
+                }
+                yield ColumnType.BIGINT;
+            }
+            case "MIN", "MAX" -> argument.type();
+            default -> throw new IllegalArgumentException("Unknown aggregate function: " + call.name);
+        };
+        return new Accumulator(call.name, argument, resultType);
+    }
+
+    public ColumnType resultType() {
+        return resultType;
+    }
+
+    public void ensureCapacity(int groups) {
+        if (groups <= counts.length) return;
+        int capacity = Math.max(groups, counts.length * 2);
+        counts = Arrays.copyOf(counts, capacity);
+        values = Arrays.copyOf(values, capacity);
+        if (resultType == ColumnType.VARCHAR) {
+            strings = Arrays.copyOf(strings, capacity);
+        }
+    }
+
+    public void add(int group, Tuple row) {
+        switch (function) {
+            case "COUNT" -> counts[group]++;
+            case "SUM", "AVG" -> {
+                values[group] = Math.addExact(values[group], argument.asLong().eval(row));
+                counts[group]++;
+            }
+            case "MIN", "MAX" -> {
+                boolean max = function.equals("MAX");
+                if (resultType == ColumnType.VARCHAR) {
+                    byte[] value = argument.isColumn() ? row.getUtf8(argument.columnIndex())
+                            : argument.asString().eval(row).getBytes(StandardCharsets.UTF_8);
+                    int cmp = counts[group] == 0 ? 0 : Arrays.compareUnsigned(value, strings[group]);
+                    if (counts[group] == 0 || (max ? cmp > 0 : cmp < 0)) strings[group] = value;
+                } else {
+                    long value = resultType == ColumnType.BOOLEAN
+                            ? (argument.asBoolean().eval(row) ? 1 : 0) : argument.asLong().eval(row);
+                    if (counts[group] == 0 || (max ? value > values[group] : value < values[group])) {
+                        values[group] = value;
+                    }
+                }
+                counts[group]++;
+            }
+            default -> throw new IllegalStateException("Unknown aggregate function: " + function);
+        }
+    }
+
+    /**
+     * Пишет итог группы в строку row вектора типа resultType().
+     */
+    public void write(int group, ColumnVector vector, int row) {
+        long result = switch (function) {
+            case "COUNT" -> counts[group];
+            case "AVG" -> counts[group] == 0 ? 0 : values[group] / counts[group];
+            default -> values[group];
+        };
+        switch (resultType) {
+            case INTEGER -> ((IntVector) vector).values[row] = (int) result;
+            case BIGINT -> ((LongVector) vector).values[row] = result;
+            case BOOLEAN -> ((BooleanVector) vector).values[row] = result != 0;
+            case VARCHAR -> {
+                byte[] value = strings[group] == null ? EMPTY : strings[group];
+                ((VarcharVector) vector).set(row, value, 0, value.length);
+            }
+        }
+    }
+}
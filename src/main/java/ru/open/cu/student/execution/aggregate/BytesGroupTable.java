@@ -0,0 +1,90 @@
+package ru.open.cu.student.execution.aggregate;
+
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.sort.SortRecord;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Группы по составному или нецелочисленному ключу: ключ кодируется в байты формата строки
+ * (varchar с префиксом длины, поэтому кодирование однозначно), эти же байты потом
+ * раскладываются в выходные векторы.
+ */
+final class BytesGroupTable extends GroupTable {
+    // Заголовки массива, ByteBuffer, узла HashMap и Integer
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final List<CompiledExpression> keys;
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private final Map<ByteBuffer, Integer> groups = new HashMap<>();
+    private final List<byte[]> groupRows = new ArrayList<>();
+    private long memoryBytes;
+
+    BytesGroupTable(List<CompiledExpression> keys) {
+        this.keys = keys;
+    }
+
+    @Override
+    public int find(Tuple row, boolean insert) {
+        byte[] record = encode(row);
+        Integer group = groups.get(ByteBuffer.wrap(record));
+        if (group != null) {
+            return group;
+        }
+        if (!insert) {
+            return -1;
+        }
+
+        int id = groupRows.size();
+        groupRows.add(record);
+        groups.put(ByteBuffer.wrap(record), id);
+        memoryBytes += record.length + ENTRY_OVERHEAD;
+        return id;
+    }
+
+    private byte[] encode(Tuple row) {
+        builder.reset();
+        for (CompiledExpression key : keys) {
+            switch (key.type()) {
+                case INTEGER -> builder.valueInt((int) key.asLong().eval(row));
+                case BIGINT -> builder.valueLong(key.asLong().eval(row));
+                case BOOLEAN -> builder.valueBoolean(key.asBoolean().eval(row));
+                case VARCHAR -> builder.valueUtf8(key.isColumn() ? row.getUtf8(key.columnIndex())
+                        : key.asString().eval(row).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public long hash(Tuple row) {
+        return ByteBuffer.wrap(encode(row)).hashCode();
+    }
+
+    @Override
+    public void writeKey(int group, RowBatch batch, int row) {
+        byte[] record = groupRows.get(group);
+        int pos = SortRecord.payloadOffset(record);
+        for (int c = 0; c < keys.size(); c++) {
+            pos = batch.column(c).decode(record, pos, row);
+        }
+    }
+
+    @Override
+    public int size() {
+        return groupRows.size();
+    }
+
+    @Override
+    public long memoryBytes() {
+        return memoryBytes;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.open.cu.student.execution.aggregate;
+
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.util.List;
+
+/**
+ * Хеш-таблица групп: сопоставляет ключу группы плотный номер 0..size()-1,
+ * по которому агрегаты хранят свое состояние.
+ */
+public abstract class GroupTable {
+
+    /**
+     * Таблица под набор ключей: один целочисленный ключ — открытая адресация по long,
+     * иначе — ключ в виде байтов строки.
+     */
+    public static GroupTable create(List<CompiledExpression> keys) {
+        if (keys.size() == 1 && keys.get(0).isNumeric()) {
+            return new LongGroupTable(keys.get(0));
+        }
+        return new BytesGroupTable(keys);
+    }
+
+    /**
+     * Номер группы строки; если группы нет — новая группа при insert, иначе -1.
+     */
+    public abstract int find(Tuple row, boolean insert);
+
+    /**
+     * Хеш ключа строки, не зависящий от размера таблицы — для выбора партиции при сбросе на диск.
+     */
+    public abstract long hash(Tuple row);
+
+    /**
+     * Пишет значения ключа группы в колонки [0, число ключей) строки row пачки.
+     */
+    public abstract void writeKey(int group, RowBatch batch, int row);
+
+    public abstract int size();
+
+    /**
+     * Примерный объем памяти таблицы в байтах.
+     */
+    public abstract long memoryBytes();
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
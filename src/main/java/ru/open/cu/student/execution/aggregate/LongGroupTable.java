@@ -0,0 +1,99 @@
+package ru.open.cu.student.execution.aggregate;
+
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.LongEvaluator;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.IntVector;
+import ru.open.cu.student.execution.vector.LongVector;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.util.Arrays;
+
+/**
+ * Группы по одному целочисленному ключу: открытая адресация с линейным пробированием
+ * в примитивных массивах, без упаковки ключей.
+ */
+final class LongGroupTable extends GroupTable {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final LongEvaluator key;
+    private final boolean integer;
+    private long[] slotKeys = new long[INITIAL_CAPACITY];
+    // Номер группы + 1; 0 — пустой слот
+    private int[] slotGroups = new int[INITIAL_CAPACITY];
+    private long[] groupKeys = new long[INITIAL_CAPACITY / 2];
+    private int size;
+
+    LongGroupTable(CompiledExpression key) {
+        this.key = key.asLong();
+        this.integer = key.type() == ColumnType.INTEGER;
+    }
+
+    @Override
+    public int find(Tuple row, boolean insert) {
+        long value = key.eval(row);
+        int mask = slotGroups.length - 1;
+        int slot = (int) mix(value) & mask;
+        while (slotGroups[slot] != 0) {
+            if (slotKeys[slot] == value) {
+                return slotGroups[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!insert) {
+            return -1;
+        }
+
+        if (size == groupKeys.length) {
+            groupKeys = Arrays.copyOf(groupKeys, size * 2);
+        }
+        groupKeys[size] = value;
+        slotKeys[slot] = value;
+        slotGroups[slot] = ++size;
+        if (size * 2 > slotGroups.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    private void rehash() {
+        long[] keys = new long[slotKeys.length * 2];
+        int[] groups = new int[slotGroups.length * 2];
+        int mask = groups.length - 1;
+        for (int g = 0; g < size; g++) {
+            int slot = (int) mix(groupKeys[g]) & mask;
+            while (groups[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = groupKeys[g];
+            groups[slot] = g + 1;
+        }
+        slotKeys = keys;
+        slotGroups = groups;
+    }
+
+    @Override
+    public long hash(Tuple row) {
+        return key.eval(row);
+    }
+
+    @Override
+    public void writeKey(int group, RowBatch batch, int row) {
+        if (integer) {
+            ((IntVector) batch.column(0)).values[row] = (int) groupKeys[group];
+        } else {
+            ((LongVector) batch.column(0)).values[row] = groupKeys[group];
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long memoryBytes() {
+        return slotKeys.length * 12L + groupKeys.length * 8L;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.statistics.StatisticsCollector;
+
+import java.util.List;
+
+/**
+ * Исполнитель ANALYZE.
+ * Собирает статистику по каждой таблице и сохраняет ее в каталог; строк не возвращает.
+ */
+public class AnalyzeExecutor implements Executor {
+
+    private final CatalogManager catalogManager;
+    private final StatisticsCollector collector;
+    private final List<TableDefinition> tables;
+
+    public AnalyzeExecutor(CatalogManager catalogManager, StatisticsCollector collector,
+                           List<TableDefinition> tables) {
+        this.catalogManager = catalogManager;
+        this.collector = collector;
+        this.tables = tables;
+    }
+
+    @Override
+    public void open() { }
+
+    @Override
+    public Object next() {
+        for (TableDefinition table : tables) {
+            long seen = catalogManager.getModificationsSinceAnalyze(table);
+            catalogManager.updateStatistics(collector.analyze(table), seen);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() { }
+}
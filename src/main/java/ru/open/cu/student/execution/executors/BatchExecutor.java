@@ -0,0 +1,42 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+/**
+ * База для исполнителей, работающих пачками.
+ * Построчный next() выдает выбранные строки очередной пачки как Tuple-окно на пачку
+ * (один и тот же объект, действительный до следующего вызова).
+ */
+public abstract class BatchExecutor implements Executor {
+
+    private final BatchTuple tuple = new BatchTuple();
+    private RowBatch current;
+    private int position;
+
+    @Override
+    public Object next() {
+        while (current == null || position >= current.selectedCount()) {
+            current = nextBatch();
+            position = 0;
+            if (current == null) return null;
+        }
+        return tuple.reset(current, current.selectedRow(position++));
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return true;
+    }
+
+    @Override
+    public abstract RowBatch nextBatch();
+
+    /**
+     * Сбрасывает построчный курсор; вызывается из open()/close() наследников.
+     */
+    protected void resetRowCursor() {
+        current = null;
+        position = 0;
+    }
+}
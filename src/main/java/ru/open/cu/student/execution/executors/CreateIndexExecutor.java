@@ -0,0 +1,104 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.execution.sort.ExternalSorter;
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.sort.SortRecord;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.nio.file.Path;
+
+/**
+ * Исполнитель CREATE INDEX.
+ *
+ * Регистрирует индекс в каталоге, читает таблицу целиком, сортирует пары (значение, rowId)
+ * внешней сортировкой в пределах memoryBudget и загружает B+-дерево снизу вверх за один проход.
+ * Если сборка не удалась, индекс удаляется из каталога. Строк не возвращает.
+ */
+public class CreateIndexExecutor implements Executor {
+
+    private final CatalogManager catalogManager;
+    private final BufferPoolManager bufferPool;
+    private final String indexName;
+    private final TableDefinition table;
+    private final String columnName;
+    private final long memoryBudget;
+
+    public CreateIndexExecutor(CatalogManager catalogManager, BufferPoolManager bufferPool, String indexName,
+                               TableDefinition table, String columnName, long memoryBudget) {
+        this.catalogManager = catalogManager;
+        this.bufferPool = bufferPool;
+        this.indexName = indexName;
+        this.table = table;
+        this.columnName = columnName;
+        this.memoryBudget = memoryBudget;
+    }
+
+    @Override
+    public void open() { }
+
+    @Override
+    public Object next() {
+        IndexDefinition index = catalogManager.createIndex(indexName, table, columnName);
+        try {
+            build(index);
+        } catch (RuntimeException e) {
+            catalogManager.dropIndex(indexName);
+            throw e;
+        }
+        return null;
+    }
+
+    private void build(IndexDefinition index) {
+        PageTuple row = new PageTuple(RowCodec.forTable(catalogManager, table).getColumnTypes());
+        SortRecordBuilder builder = new SortRecordBuilder();
+        try (ExternalSorter sorter = new ExternalSorter(memoryBudget, null);
+             BTreeIndex.Loader loader = BTreeIndex.load(Path.of(index.fileNode()))) {
+            int pageCount = bufferPool.getPageCount();
+            for (int pageId = 0; pageId < pageCount; pageId++) {
+                var bufferSlot = bufferPool.getPage(pageId);
+                if (bufferSlot == null) break; // Страницы закончились
+
+                HeapPage page = (HeapPage) bufferSlot.getPage();
+                for (int slot = 0; slot < page.size(); slot++) {
+                    if (!page.isLive(slot)) continue;
+                    long key = row.reset(page.bytes(), page.rowOffset(slot)).getLong(index.columnPosition());
+                    // Индекс ссылается на исходный слот переехавшей строки, чтение идет по указателю оттуда
+                    long rowId = page.isMoved(slot) ? page.homeRowId(slot) : BTreeIndex.rowId(pageId, slot);
+                    builder.reset();
+                    builder.keyLong(key, false);
+                    builder.keyLong(rowId, false);
+                    sorter.add(builder.build());
+                }
+            }
+
+            RecordSource sorted = sorter.sorted();
+            for (byte[] record = sorted.next(); record != null; record = sorted.next()) {
+                loader.add(readKey(record, 0), readKey(record, 1));
+            }
+            loader.finish();
+        }
+    }
+
+    /**
+     * Компонент ключа записи сортировки: 8 байт big-endian с инвертированным знаковым битом.
+     */
+    private static long readKey(byte[] record, int component) {
+        long bits = 0;
+        int from = SortRecord.HEADER_SIZE + component * 8;
+        for (int i = from; i < from + 8; i++) {
+            bits = bits << 8 | (record[i] & 0xFF);
+        }
+        return bits ^ Long.MIN_VALUE;
+    }
+
+    @Override
+    public void close() { }
+}
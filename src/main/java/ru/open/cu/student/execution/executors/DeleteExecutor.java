@@ -0,0 +1,84 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.catalog.operation.TableModifier;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.page.HeapPage;
+
+/**
+ * Исполнитель DELETE FROM table [WHERE condition].
+ *
+ * Страницы кучи обходятся через буферный пул, подходящие строки получают надгробие в слоте;
+ * страница с удалениями помечается грязной один раз, данные строк не переписываются.
+ */
+public class DeleteExecutor implements Executor {
+
+    private final CatalogManager catalogManager;
+    private final ColumnRangeCache columnRanges;
+    private final BufferPoolManager bufferPool;
+    private final TableDefinition tableDefinition;
+    private final Expr condition;
+    private boolean done;
+
+    public DeleteExecutor(CatalogManager catalogManager, ColumnRangeCache columnRanges, BufferPoolManager bufferPool,
+                          TableDefinition tableDefinition, Expr condition) {
+        this.catalogManager = catalogManager;
+        this.columnRanges = columnRanges;
+        this.bufferPool = bufferPool;
+        this.tableDefinition = tableDefinition;
+        this.condition = condition;
+    }
+
+    @Override
+    public void open() {
+        done = false;
+    }
+
+    @Override
+    public Object next() {
+        if (done) return null;
+        done = true;
+
+        RowCodec codec = RowCodec.forTable(catalogManager, tableDefinition);
+        BooleanEvaluator predicate = condition == null ? null
+                : new ExpressionCompiler(TupleSchema.of(codec.getColumns(), codec.getColumnTypes())).compilePredicate(condition);
+
+        PageTuple tuple = new PageTuple(codec.getColumnTypes());
+        int pageCount = bufferPool.getPageCount();
+        try (TableModifier modifier = new TableModifier(catalogManager, columnRanges, tableDefinition, bufferPool)) {
+            for (int pageId = 0; pageId < pageCount; pageId++) {
+                var bufferSlot = bufferPool.getPage(pageId);
+                if (bufferSlot == null) break;
+
+                HeapPage page = (HeapPage) bufferSlot.getPage();
+                bufferPool.pinPage(pageId);
+                try {
+                    boolean changed = false;
+                    for (int slot = 0; slot < page.size(); slot++) {
+                        if (!page.isLive(slot)) continue;
+                        if (predicate != null && !predicate.eval(tuple.reset(page.bytes(), page.rowOffset(slot)))) continue;
+                        modifier.delete(page, slot);
+                        changed = true;
+                    }
+                    if (changed) {
+                        bufferPool.updatePage(pageId, page);
+                    }
+                } finally {
+                    bufferPool.unpinPage(pageId);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() { }
+}
@@ -1,5 +1,7 @@
 package ru.open.cu.student.execution.executors;
 
+import ru.open.cu.student.execution.vector.RowBatch;
+
 /**
  * Базовый интерфейс исполнителя (Executor).
  *
@@ -7,9 +9,27 @@ package ru.open.cu.student.execution.executors;
  *  - open() — инициализация ресурсов
  *  - next() — получение следующей строки результата
  *  - close() — освобождение ресурсов
+ *
+ * Исполнители SELECT дополнительно умеют отдавать строки пачками (nextBatch()),
+ * чтобы не платить за виртуальный вызов и упаковку значений на каждой строке.
  */
 public interface Executor {
     void open();
     Object next();
     void close();
+
+    /**
+     * Поддерживает ли исполнитель пакетный режим.
+     */
+    default boolean supportsBatch() {
+        return false;
+    }
+
+    /**
+     * Следующая пачка строк или null, если данных больше нет.
+     * Один и тот же исполнитель нельзя читать одновременно через next() и nextBatch().
+     */
+    default RowBatch nextBatch() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support batch mode");
+    }
 }
\ No newline at end of file
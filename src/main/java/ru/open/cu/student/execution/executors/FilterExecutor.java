@@ -1,85 +1,58 @@
 package ru.open.cu.student.execution.executors;
 
-import ru.open.cu.student.ast.AConst;
-import ru.open.cu.student.ast.AExpr;
-import ru.open.cu.student.ast.AstNode;
 import ru.open.cu.student.ast.Expr;
-
-import java.nio.ByteBuffer;
-
-public class FilterExecutor implements Executor {
+import ru.open.cu.student.execution.expression.BatchFilter;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+/**
+ * Исполнитель WHERE над пачками: условие сужает вектор выбора, данные не копируются.
+ *
+ * Условие компилируется один раз при открытии (см. {@link ExpressionCompiler}),
+ * дальше на каждую пачку вызывается готовый фильтр.
+ */
+public class FilterExecutor extends BatchExecutor {
     private final Executor child;
     private final Expr condition;
+    private final TupleSchema schema;
+    private BatchFilter filter;
     private boolean isOpen;
 
-    public FilterExecutor(Executor child, Expr condition) {
+    public FilterExecutor(Executor child, Expr condition, TupleSchema schema) {
         this.child = child;
         this.condition = condition;
+        this.schema = schema;
     }
 
     @Override
     public void open() {
+        if (filter == null) {
+            filter = new ExpressionCompiler(schema).compileFilter(condition);
+        }
         child.open();
+        resetRowCursor();
         isOpen = true;
     }
 
     @Override
-    public Object next() {
+    public RowBatch nextBatch() {
         if (!isOpen) return null;
 
-        Object rowData;
-        while ((rowData = child.next()) != null) {
-            if (passesFilter(rowData)) {
-                return rowData;
+        RowBatch batch;
+        while ((batch = child.nextBatch()) != null) {
+            filter.apply(batch);
+            if (batch.selectedCount() > 0) {
+                return batch;
             }
         }
         return null;
     }
 
-    private boolean passesFilter(Object rowData) {
-        // Проверяем, что condition это AExpr
-        if (!(condition instanceof AExpr)) {
-            return false;
-        }
-
-        AExpr aexpr = (AExpr) condition;
-
-        // Проверяем, что данные в байтовом формате
-        if (!(rowData instanceof byte[])) {
-            return false;
-        }
-
-        byte[] data = (byte[]) rowData;
-
-        // Получаем значение из данных (простая реализация - первое поле)
-        int value = ByteBuffer.wrap(data).getInt(0);
-
-        // Обрабатываем правую часть выражения
-        AstNode rightNode = aexpr.getRight();
-        if (rightNode instanceof AConst) {
-            Object constValue = ((AConst) rightNode).value;
-            if (constValue instanceof Integer) {
-                int filterValue = (Integer) constValue;
-
-                // Применяем оператор
-                switch (aexpr.getOp()) {
-                    case "=": return value == filterValue;
-                    case ">": return value > filterValue;
-                    case "<": return value < filterValue;
-                    case ">=": return value >= filterValue;
-                    case "<=": return value <= filterValue;
-                    case "!=": return value != filterValue;
-                    default: return false;
-                }
-            }
-        }
-
-        return false;
-    }
-
     @Override
     public void close() {
         child.close();
+        resetRowCursor();
         isOpen = false;
     }
-}
\ No newline at end of file
+}
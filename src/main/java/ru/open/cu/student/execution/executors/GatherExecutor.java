@@ -0,0 +1,178 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Обмен (exchange) для параллельного сканирования: собирает пачки нескольких воркеров в один поток.
+ *
+ * Каждый воркер — своя копия конвейера scan → filter → project, сканирование которой забирает
+ * диапазоны страниц из общего {@link PageMorsels}. Воркеры выполняются в общем ForkJoinPool,
+ * выбранные строки своих пачек копируют в пачку обмена и кладут в ограниченную очередь:
+ * если потребитель не успевает, воркеры ждут, и память не растет с размером таблицы.
+ * Порядок строк между диапазонами не сохраняется.
+ */
+public class GatherExecutor extends BatchExecutor {
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private static final RowBatch END = new RowBatch(new ColumnVector[0], 0);
+    private static final long OFFER_TIMEOUT_MILLIS = 50;
+
+    private final List<Executor> workers;
+    private final PageMorsels morsels;
+    private final BufferPoolManager bufferPool;
+    private final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final ConcurrentLinkedQueue<RowBatch> freeBatches = new ConcurrentLinkedQueue<>();
+    private BlockingQueue<RowBatch> queue;
+    private AtomicInteger running;
+    private RowBatch returned;
+    private volatile boolean cancelled;
+    private boolean isOpen;
+
+    public GatherExecutor(List<Executor> workers, PageMorsels morsels, BufferPoolManager bufferPool) {
+        this.workers = workers;
+        this.morsels = morsels;
+        this.bufferPool = bufferPool;
+    }
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    @Override
+    public void open() {
+        morsels.reset(bufferPool.getPageCount());
+        queue = new ArrayBlockingQueue<>(workers.size() * 2);
+        running = new AtomicInteger(workers.size());
+        failure.set(null);
+        freeBatches.clear();
+        returned = null;
+        cancelled = false;
+        resetRowCursor();
+        isOpen = true;
+
+        tasks.clear();
+        for (Executor worker : workers) {
+            tasks.add(POOL.submit(() -> runWorker(worker)));
+        }
+    }
+
+    private void runWorker(Executor worker) {
+        try {
+            worker.open();
+            RowBatch batch;
+            while (!cancelled && (batch = worker.nextBatch()) != null) {
+                if (batch.selectedCount() == 0) continue;
+                RowBatch copy = freeBatches.poll();
+                if (copy == null || copy.capacity() < batch.selectedCount()) {
+                    copy = allocateLike(batch);
+                }
+                copy.copySelectedFrom(batch);
+                put(copy);
+            }
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            try {
+                worker.close();
+            } finally {
+                if (running.decrementAndGet() == 0) {
+                    put(END);
+                }
+            }
+        }
+    }
+
+    private static RowBatch allocateLike(RowBatch batch) {
+        ColumnVector[] vectors = new ColumnVector[batch.columnCount()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = ColumnVector.allocate(batch.column(i).type(), batch.capacity());
+        }
+        return new RowBatch(vectors, batch.capacity());
+    }
+
+    /**
+     * Кладет пачку в очередь, пока обмен не закрыт. Ожидание оформлено через ManagedBlocker,
+     * чтобы ForkJoinPool мог подключить запасной поток вместо заблокированного.
+     */
+    private void put(RowBatch batch) {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                private boolean done;
+
+                @Override
+                public boolean block() throws InterruptedException {
+                    while (!done && !cancelled) {
+                        done = queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return done || cancelled || (done = queue.offer(batch));
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
+
+        if (returned != null) {
+            freeBatches.offer(returned);
+            returned = null;
+        }
+
+        RowBatch batch;
+        try {
+            batch = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel scan", e);
+        }
+
+        Throwable error = failure.get();
+        if (error != null) {
+            throw error instanceof RuntimeException re ? re
+                    : new IllegalStateException("Parallel scan failed: " + error.getMessage(), error);
+        }
+        if (batch == END) {
+            isOpen = false;
+            return null;
+        }
+        returned = batch;
+        return batch;
+    }
+
+    @Override
+    public void close() {
+        cancelled = true;
+        for (ForkJoinTask<?> task : tasks) {
+            task.quietlyJoin();
+        }
+        tasks.clear();
+        if (queue != null) {
+            queue.clear();
+        }
+        freeBatches.clear();
+        returned = null;
+        resetRowCursor();
+        isOpen = false;
+    }
+}
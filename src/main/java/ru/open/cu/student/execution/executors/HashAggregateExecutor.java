@@ -0,0 +1,252 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.execution.aggregate.Accumulator;
+import ru.open.cu.student.execution.aggregate.GroupTable;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.sort.SpillFile;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель GROUP BY: хеш-агрегация с гибридным сбросом на диск.
+ *
+ * Пока таблица групп помещается в memoryBudget, все строки агрегируются в памяти.
+ * После переполнения новые группы больше не создаются: строки уже известных групп
+ * по-прежнему агрегируются на месте, а строки остальных уходят в одну из SPILL_PARTITIONS
+ * партиций на диске по хешу ключа. Каждая группа целиком оказывается либо в памяти, либо
+ * в одной партиции, поэтому партиции затем агрегируются независимо тем же способом
+ * (с другим хешем на каждом уровне).
+ *
+ * Выход: значения ключей группировки, затем значения агрегатов.
+ */
+public class HashAggregateExecutor extends BatchExecutor {
+    public static final int SPILL_PARTITIONS = 16;
+    // Глубже партиции больше не делятся: агрегируются в памяти сверх бюджета
+    private static final int MAX_SPILL_DEPTH = 6;
+
+    private final Executor child;
+    private final List<Expr> groupKeys;
+    private final List<FuncCall> aggregates;
+    private final TupleSchema schema;
+    private final boolean[] carried;
+    private final int batchSize;
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final BatchTuple tuple = new BatchTuple();
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private final Deque<Partition> pending = new ArrayDeque<>();
+    private List<CompiledExpression> keys;
+    private SortRowEncoder rowEncoder;
+    private GroupTable table;
+    private List<Accumulator> accumulators;
+    private int position;
+    private RowBatch output;
+    private int spilledPartitions;
+
+    /**
+     * @param carried какие колонки ребенка нужны запросу (остальные не пишутся в партиции); null — все
+     * @param tempDir каталог для партиций; null — системный каталог временных файлов
+     */
+    public HashAggregateExecutor(Executor child, List<Expr> groupKeys, List<FuncCall> aggregates, TupleSchema schema,
+                                 boolean[] carried, int batchSize, long memoryBudget, Path tempDir) {
+        this.child = child;
+        this.groupKeys = groupKeys;
+        this.aggregates = aggregates;
+        this.schema = schema;
+        this.carried = carried;
+        this.batchSize = batchSize;
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Типы выходных колонок: ключи группировки, затем агрегаты.
+     */
+    public static List<ColumnType> outputTypes(List<Expr> groupKeys, List<FuncCall> aggregates, TupleSchema schema) {
+        ExpressionCompiler compiler = new ExpressionCompiler(schema);
+        List<ColumnType> types = new ArrayList<>();
+        for (Expr key : groupKeys) {
+            types.add(compiler.compile(key).type());
+        }
+        for (FuncCall aggregate : aggregates) {
+            types.add(Accumulator.compile(aggregate, compiler).resultType());
+        }
+        return types;
+    }
+
+    @Override
+    public void open() {
+        ExpressionCompiler compiler = new ExpressionCompiler(schema);
+        keys = new ArrayList<>(groupKeys.size());
+        for (Expr key : groupKeys) {
+            keys.add(compiler.compile(key));
+        }
+        rowEncoder = new SortRowEncoder(List.of(), new boolean[0], schema, carried);
+        output = RowBatch.allocate(outputTypes(groupKeys, aggregates, schema), batchSize);
+        spilledPartitions = 0;
+
+        child.open();
+        try {
+            build(child::nextBatch, 0);
+        } finally {
+            child.close();
+        }
+
+        // Агрегат без GROUP BY всегда дает одну строку, даже по пустому входу
+        if (groupKeys.isEmpty() && table.size() == 0) {
+            table.find(null, true);
+            accumulators.forEach(acc -> acc.ensureCapacity(1));
+        }
+        resetRowCursor();
+    }
+
+    private void build(Supplier<RowBatch> input, int depth) {
+        ExpressionCompiler compiler = new ExpressionCompiler(schema);
+        table = GroupTable.create(keys);
+        accumulators = new ArrayList<>(aggregates.size());
+        for (FuncCall aggregate : aggregates) {
+            accumulators.add(Accumulator.compile(aggregate, compiler));
+        }
+        position = 0;
+
+        SpillFile[] partitions = null;
+        RowBatch batch;
+        while ((batch = input.get()) != null) {
+            for (int k = 0; k < batch.selectedCount(); k++) {
+                tuple.reset(batch, batch.selectedRow(k));
+                int before = table.size();
+                int group = table.find(tuple, partitions == null);
+                if (group < 0) {
+                    partitions[partition(table.hash(tuple), depth)].write(rowEncoder.encode(tuple, builder));
+                    continue;
+                }
+                if (table.size() > before) {
+                    for (Accumulator acc : accumulators) {
+                        acc.ensureCapacity(table.size());
+                    }
+                    if (depth < MAX_SPILL_DEPTH && memoryBytes() > memoryBudget) {
+                        partitions = createPartitions();
+                    }
+                }
+                for (Accumulator acc : accumulators) {
+                    acc.add(group, tuple);
+                }
+            }
+        }
+
+        if (partitions != null) {
+            for (SpillFile partition : partitions) {
+                if (partition.records() > 0) {
+                    pending.add(new Partition(partition, depth + 1));
+                } else {
+                    partition.close();
+                }
+            }
+        }
+    }
+
+    private long memoryBytes() {
+        return table.memoryBytes() + (long) table.size() * Accumulator.STATE_BYTES * accumulators.size();
+    }
+
+    private SpillFile[] createPartitions() {
+        SpillFile[] partitions = new SpillFile[SPILL_PARTITIONS];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = SpillFile.create(tempDir, "agg-part-");
+        }
+        spilledPartitions += partitions.length;
+        return partitions;
+    }
+
+    /**
+     * Номер партиции по старшим битам перемешанного хеша; уровень вложенности меняет перемешивание,
+     * чтобы партиция при повторном сбросе делилась дальше, а не попадала целиком в одну партицию.
+     * Тем же способом делит строки хеш-соединение.
+     */
+    static int partition(long hash, int depth) {
+        long z = hash ^ (depth + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z ^= z >>> 33;
+        return (int) (z >>> 60);
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (table == null) return null;
+
+        while (position >= table.size()) {
+            Partition next = pending.poll();
+            if (next == null) return null;
+            try {
+                RecordSource records = next.file().read();
+                RowBatch input = RowBatch.allocate(schema.types(), RowBatch.DEFAULT_CAPACITY);
+                build(() -> readBatch(records, input), next.depth());
+            } finally {
+                next.file().close();
+            }
+        }
+
+        output.reset();
+        int row = 0;
+        int keyCount = keys.size();
+        while (row < output.capacity() && position < table.size()) {
+            table.writeKey(position, output, row);
+            for (int a = 0; a < accumulators.size(); a++) {
+                accumulators.get(a).write(position, output.column(keyCount + a), row);
+            }
+            position++;
+            row++;
+        }
+        output.setSize(row);
+        return output;
+    }
+
+    private static RowBatch readBatch(RecordSource records, RowBatch batch) {
+        batch.reset();
+        int row = 0;
+        byte[] record;
+        while (row < batch.capacity() && (record = records.next()) != null) {
+            SortRowEncoder.decode(record, batch, row++);
+        }
+        batch.setSize(row);
+        return row > 0 ? batch : null;
+    }
+
+    /**
+     * Сколько файлов партиций было создано — для тестов и отладки.
+     */
+    public int getSpilledPartitions() {
+        return spilledPartitions;
+    }
+
+    @Override
+    public void close() {
+        for (Partition partition : pending) {
+            partition.file().close();
+        }
+        pending.clear();
+        table = null;
+        accumulators = null;
+        output = null;
+        resetRowCursor();
+    }
+
+    private record Partition(SpillFile file, int depth) {
+    }
+}
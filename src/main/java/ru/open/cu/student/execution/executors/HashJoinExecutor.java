@@ -0,0 +1,374 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.join.JoinHashTable;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.sort.SpillFile;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.JoinedTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель внутреннего соединения: хеш-таблица по одному входу (построение), второй вход
+ * (зонд) читается потоком и для каждой строки выдает строки построения с тем же ключом.
+ *
+ * Если сторона построения не помещается в memoryBudget, оба входа делятся по хешу ключа
+ * на SPILL_PARTITIONS партиций на диске (Grace hash join): равные ключи попадают в партиции
+ * с одним номером, и пары партиций соединяются независимо — с тем же делением глубже,
+ * если и партиция не помещается. Пустая сторона построения означает пустой результат: зонд не читается.
+ *
+ * Выход: колонки левого входа, затем правого, независимо от того, какой вход построения.
+ */
+public class HashJoinExecutor extends BatchExecutor {
+    public static final int SPILL_PARTITIONS = HashAggregateExecutor.SPILL_PARTITIONS;
+    // Глубже партиции больше не делятся: строятся в памяти сверх бюджета
+    private static final int MAX_SPILL_DEPTH = 6;
+
+    private final JoinInput build;
+    private final JoinInput probe;
+    private final boolean buildLeft;
+    private final Expr condition;
+    private final int batchSize;
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private final BatchTuple buildTuple = new BatchTuple();
+    private final BatchTuple probeTuple = new BatchTuple();
+    private final JoinedTuple joined = new JoinedTuple();
+    private final Deque<Partition> pending = new ArrayDeque<>();
+    private List<CompiledExpression> buildKeys;
+    private List<CompiledExpression> probeKeys;
+    private SortRowEncoder buildEncoder;
+    private SortRowEncoder probeEncoder;
+    private BooleanEvaluator predicate;
+    private JoinHashTable table;
+    private RowBatch output;
+    private RowBatch buildRow;
+    private int buildOffset;
+    private int probeOffset;
+
+    private Supplier<RowBatch> probeInput;
+    private boolean probeOpen;
+    private Partition current;
+    private RowBatch probeBatch;
+    private int probeIndex;
+    private int probeRow;
+    private int match = -1;
+    private int spilledPartitions;
+
+    /**
+     * @param buildLeft хеш-таблица строится по левому входу; иначе по правому
+     * @param condition условие над выходом, кроме равенства ключей (может быть null)
+     * @param tempDir   каталог для партиций; null — системный каталог временных файлов
+     */
+    public HashJoinExecutor(JoinInput left, JoinInput right, boolean buildLeft, Expr condition,
+                            int batchSize, long memoryBudget, Path tempDir) {
+        this.build = buildLeft ? left : right;
+        this.probe = buildLeft ? right : left;
+        this.buildLeft = buildLeft;
+        this.condition = condition;
+        this.batchSize = batchSize;
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    /**
+     * Схема выхода: колонки левого входа, затем правого.
+     */
+    public static TupleSchema outputSchema(TupleSchema left, TupleSchema right) {
+        List<String> names = new ArrayList<>(left.names());
+        names.addAll(right.names());
+        List<ColumnType> types = new ArrayList<>(left.types());
+        types.addAll(right.types());
+        return new TupleSchema(names, types);
+    }
+
+    @Override
+    public void open() {
+        buildKeys = compileKeys(build);
+        probeKeys = compileKeys(probe);
+        buildEncoder = new SortRowEncoder(List.of(), new boolean[0], build.schema(), build.carried());
+        probeEncoder = new SortRowEncoder(List.of(), new boolean[0], probe.schema(), probe.carried());
+
+        TupleSchema left = buildLeft ? build.schema() : probe.schema();
+        TupleSchema right = buildLeft ? probe.schema() : build.schema();
+        TupleSchema schema = outputSchema(left, right);
+        predicate = condition == null ? null : new ExpressionCompiler(schema).compilePredicate(condition);
+        output = RowBatch.allocate(schema.types(), batchSize);
+        buildRow = RowBatch.allocate(build.schema().types(), 1);
+        buildOffset = buildLeft ? 0 : left.size();
+        probeOffset = buildLeft ? left.size() : 0;
+        spilledPartitions = 0;
+        probeInput = null;
+        probeBatch = null;
+        match = -1;
+
+        SpillFile[] partitions;
+        build.child().open();
+        try {
+            partitions = build(build.child()::nextBatch, 0);
+        } finally {
+            build.child().close();
+        }
+
+        probe.child().open();
+        probeOpen = true;
+        if (partitions != null) {
+            partitionProbe(probe.child()::nextBatch, partitions, 0);
+            closeProbe();
+        } else if (table.size() > 0) {
+            probeInput = probe.child()::nextBatch;
+        } else {
+            closeProbe();
+        }
+        resetRowCursor();
+    }
+
+    private static List<CompiledExpression> compileKeys(JoinInput input) {
+        ExpressionCompiler compiler = new ExpressionCompiler(input.schema());
+        List<CompiledExpression> keys = new ArrayList<>(input.keys().size());
+        for (Expr key : input.keys()) {
+            keys.add(compiler.compile(key));
+        }
+        return keys;
+    }
+
+    /**
+     * Строит хеш-таблицу по входу. При переполнении бюджета возвращает партиции, в которые ушли
+     * все строки построения (таблица остается пустой), иначе null.
+     */
+    private SpillFile[] build(Supplier<RowBatch> input, int depth) {
+        table = JoinHashTable.create(buildKeys, probeKeys);
+        SpillFile[] partitions = null;
+
+        RowBatch batch;
+        while ((batch = input.get()) != null) {
+            for (int k = 0; k < batch.selectedCount(); k++) {
+                buildTuple.reset(batch, batch.selectedRow(k));
+                if (partitions != null) {
+                    writePartition(partitions, table.buildHash(buildTuple), depth, buildEncoder, buildTuple);
+                    continue;
+                }
+                table.insert(buildTuple, buildEncoder.encode(buildTuple, builder));
+                if (depth < MAX_SPILL_DEPTH && table.addedBytes() > memoryBudget) {
+                    partitions = spillTable(depth);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Перекладывает строки таблицы в новые партиции и очищает таблицу.
+     */
+    private SpillFile[] spillTable(int depth) {
+        SpillFile[] partitions = createPartitions("join-build-");
+        RecordSource records = table.records();
+        RowBatch batch = RowBatch.allocate(build.schema().types(), RowBatch.DEFAULT_CAPACITY);
+        BatchTuple tuple = new BatchTuple();
+        while (readBatch(records, batch) != null) {
+            for (int row = 0; row < batch.size(); row++) {
+                tuple.reset(batch, row);
+                writePartition(partitions, table.buildHash(tuple), depth, buildEncoder, tuple);
+            }
+        }
+        table = JoinHashTable.create(buildKeys, probeKeys);
+        return partitions;
+    }
+
+    /**
+     * Делит вход зонда по партициям построения; строки, чья партиция построения пуста, отбрасываются.
+     * Непустые пары партиций ставятся в очередь.
+     */
+    private void partitionProbe(Supplier<RowBatch> input, SpillFile[] buildPartitions, int depth) {
+        SpillFile[] partitions = createPartitions("join-probe-");
+        long buildRecords = 0;
+        for (SpillFile partition : buildPartitions) {
+            buildRecords += partition.records();
+        }
+        RowBatch batch;
+        while ((batch = input.get()) != null) {
+            for (int k = 0; k < batch.selectedCount(); k++) {
+                probeTuple.reset(batch, batch.selectedRow(k));
+                long hash = table.probeHash(probeTuple);
+                if (buildPartitions[HashAggregateExecutor.partition(hash, depth)].records() > 0) {
+                    writePartition(partitions, hash, depth, probeEncoder, probeTuple);
+                }
+            }
+        }
+
+        for (int i = 0; i < partitions.length; i++) {
+            if (buildPartitions[i].records() > 0 && partitions[i].records() > 0) {
+                // Партиция, в которую ушли все строки (например, с одним ключом), делением не уменьшится:
+                // она строится в памяти целиком
+                int next = buildPartitions[i].records() < buildRecords ? depth + 1 : MAX_SPILL_DEPTH;
+                pending.add(new Partition(buildPartitions[i], partitions[i], next));
+            } else {
+                buildPartitions[i].close();
+                partitions[i].close();
+            }
+        }
+    }
+
+    private void writePartition(SpillFile[] partitions, long hash, int depth, SortRowEncoder encoder, BatchTuple tuple) {
+        partitions[HashAggregateExecutor.partition(hash, depth)].write(encoder.encode(tuple, builder));
+    }
+
+    private SpillFile[] createPartitions(String prefix) {
+        SpillFile[] partitions = new SpillFile[SPILL_PARTITIONS];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = SpillFile.create(tempDir, prefix);
+        }
+        spilledPartitions += partitions.length;
+        return partitions;
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (output == null) return null;
+
+        output.reset();
+        int row = 0;
+        while (row < output.capacity()) {
+            if (match >= 0) {
+                if (emit(match, row)) row++;
+                match = table.next(match);
+            } else if (probeBatch != null && ++probeIndex < probeBatch.selectedCount()) {
+                probeRow = probeBatch.selectedRow(probeIndex);
+                match = table.first(probeTuple.reset(probeBatch, probeRow));
+            } else if (probeInput != null && (probeBatch = probeInput.get()) != null) {
+                probeIndex = -1;
+            } else if (!nextPartition()) {
+                break;
+            }
+        }
+        output.setSize(row);
+        return row > 0 ? output : null;
+    }
+
+    /**
+     * Пишет пару (текущая строка зонда, строка построения) в строку row выхода, если она проходит условие.
+     */
+    private boolean emit(int buildId, int row) {
+        byte[] record = table.row(buildId);
+        int buildSize = build.schema().size();
+        if (predicate != null) {
+            buildRow.reset();
+            SortRowEncoder.decode(record, buildRow, 0);
+            buildTuple.reset(buildRow, 0);
+            probeTuple.reset(probeBatch, probeRow);
+            if (!predicate.eval(buildLeft ? joined.reset(buildTuple, probeTuple) : joined.reset(probeTuple, buildTuple))) {
+                return false;
+            }
+        }
+
+        SortRowEncoder.decode(record, output, row, buildOffset, buildSize);
+        boolean[] carried = probe.carried();
+        for (int c = 0; c < probe.schema().size(); c++) {
+            // Колонки, которые сканирование не декодировало, не копируются: запрос их не читает
+            if (carried == null || carried[c]) {
+                output.column(probeOffset + c).copy(probeBatch.column(c), probeRow, row);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Переходит к следующей паре партиций; false — соединение закончено.
+     */
+    private boolean nextPartition() {
+        closeProbe();
+        closeCurrent();
+        probeBatch = null;
+        Partition next = pending.poll();
+        if (next == null) {
+            probeInput = null;
+            return false;
+        }
+
+        current = next;
+        RecordSource buildRecords = next.build().read();
+        RowBatch buildBatch = RowBatch.allocate(build.schema().types(), RowBatch.DEFAULT_CAPACITY);
+        SpillFile[] partitions = build(() -> readBatch(buildRecords, buildBatch), next.depth());
+
+        RecordSource probeRecords = next.probe().read();
+        RowBatch probeScratch = RowBatch.allocate(probe.schema().types(), RowBatch.DEFAULT_CAPACITY);
+        Supplier<RowBatch> input = () -> readBatch(probeRecords, probeScratch);
+        if (partitions != null) {
+            // Партиция снова не поместилась: делится дальше, ее пары встают в очередь
+            partitionProbe(input, partitions, next.depth());
+            probeInput = null;
+        } else {
+            probeInput = input;
+        }
+        return true;
+    }
+
+    private static RowBatch readBatch(RecordSource records, RowBatch batch) {
+        batch.reset();
+        int row = 0;
+        byte[] record;
+        while (row < batch.capacity() && (record = records.next()) != null) {
+            SortRowEncoder.decode(record, batch, row++);
+        }
+        batch.setSize(row);
+        return row > 0 ? batch : null;
+    }
+
+    /**
+     * Сколько файлов партиций было создано (обеих сторон) — для тестов и отладки.
+     */
+    public int getSpilledPartitions() {
+        return spilledPartitions;
+    }
+
+    private void closeProbe() {
+        if (probeOpen) {
+            probe.child().close();
+            probeOpen = false;
+        }
+    }
+
+    private void closeCurrent() {
+        if (current != null) {
+            current.build().close();
+            current.probe().close();
+            current = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeProbe();
+        closeCurrent();
+        for (Partition partition : pending) {
+            partition.build().close();
+            partition.probe().close();
+        }
+        pending.clear();
+        probeInput = null;
+        probeBatch = null;
+        match = -1;
+        table = null;
+        output = null;
+        resetRowCursor();
+    }
+
+    private record Partition(SpillFile build, SpillFile probe, int depth) {
+    }
+}
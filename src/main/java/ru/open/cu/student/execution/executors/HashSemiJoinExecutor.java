@@ -0,0 +1,338 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.join.JoinHashTable;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.sort.SpillFile;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.JoinedTuple;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель полусоединения (anti — антисоединения): хеш-таблица строится по внутреннему входу,
+ * внешний читается потоком, и в каждой его пачке остаются строки, у которых есть (anti — нет)
+ * строка внутреннего входа с тем же ключом, проходящая условие. Как и в фильтре, сужается
+ * вектор выбора, данные внешнего входа не копируются, и каждая строка выдается не больше одного раза.
+ *
+ * При переполнении memoryBudget оба входа делятся по хешу ключа на партиции на диске, как
+ * в {@link HashJoinExecutor}. Строки внешнего входа с пустой партицией построения отбрасываются
+ * полусоединением и целиком проходят антисоединение.
+ *
+ * Выход: колонки внешнего входа; условие вычисляется над «колонки внешнего, затем внутреннего».
+ */
+public class HashSemiJoinExecutor extends BatchExecutor {
+    public static final int SPILL_PARTITIONS = HashAggregateExecutor.SPILL_PARTITIONS;
+    private static final int MAX_SPILL_DEPTH = 6;
+
+    private final JoinInput outer;
+    private final JoinInput inner;
+    private final boolean anti;
+    private final Expr condition;
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private final BatchTuple buildTuple = new BatchTuple();
+    private final BatchTuple probeTuple = new BatchTuple();
+    private final JoinedTuple joined = new JoinedTuple();
+    private final Deque<Partition> pending = new ArrayDeque<>();
+    private List<CompiledExpression> buildKeys;
+    private List<CompiledExpression> probeKeys;
+    private SortRowEncoder buildEncoder;
+    private SortRowEncoder probeEncoder;
+    private BooleanEvaluator predicate;
+    private JoinHashTable table;
+    private RowBatch buildRow;
+
+    private Supplier<RowBatch> probeInput;
+    private boolean probeOpen;
+    private boolean isOpen;
+    private Partition current;
+    private int spilledPartitions;
+
+    /**
+     * @param condition условие над парой строк, кроме равенства ключей (может быть null)
+     * @param tempDir   каталог для партиций; null — системный каталог временных файлов
+     */
+    public HashSemiJoinExecutor(JoinInput outer, JoinInput inner, boolean anti, Expr condition,
+                                long memoryBudget, Path tempDir) {
+        this.outer = outer;
+        this.inner = inner;
+        this.anti = anti;
+        this.condition = condition;
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    @Override
+    public void open() {
+        buildKeys = compileKeys(inner);
+        probeKeys = compileKeys(outer);
+        buildEncoder = new SortRowEncoder(List.of(), new boolean[0], inner.schema(), inner.carried());
+        probeEncoder = new SortRowEncoder(List.of(), new boolean[0], outer.schema(), outer.carried());
+        predicate = condition == null ? null
+                : new ExpressionCompiler(HashJoinExecutor.outputSchema(outer.schema(), inner.schema())).compilePredicate(condition);
+        buildRow = RowBatch.allocate(inner.schema().types(), 1);
+        spilledPartitions = 0;
+        probeInput = null;
+        isOpen = true;
+
+        SpillFile[] partitions;
+        inner.child().open();
+        try {
+            partitions = build(inner.child()::nextBatch, 0);
+        } finally {
+            inner.child().close();
+        }
+
+        outer.child().open();
+        probeOpen = true;
+        if (partitions != null) {
+            partitionProbe(outer.child()::nextBatch, partitions, 0);
+            closeProbe();
+        } else if (table.size() > 0 || anti) {
+            probeInput = outer.child()::nextBatch;
+        } else {
+            closeProbe();
+        }
+        resetRowCursor();
+    }
+
+    private static List<CompiledExpression> compileKeys(JoinInput input) {
+        ExpressionCompiler compiler = new ExpressionCompiler(input.schema());
+        List<CompiledExpression> keys = new ArrayList<>(input.keys().size());
+        for (Expr key : input.keys()) {
+            keys.add(compiler.compile(key));
+        }
+        return keys;
+    }
+
+    /**
+     * Строит хеш-таблицу по внутреннему входу. При переполнении бюджета возвращает партиции,
+     * в которые ушли все его строки (таблица остается пустой), иначе null.
+     */
+    private SpillFile[] build(Supplier<RowBatch> input, int depth) {
+        table = JoinHashTable.create(buildKeys, probeKeys);
+        SpillFile[] partitions = null;
+
+        RowBatch batch;
+        while ((batch = input.get()) != null) {
+            for (int k = 0; k < batch.selectedCount(); k++) {
+                buildTuple.reset(batch, batch.selectedRow(k));
+                if (partitions != null) {
+                    writePartition(partitions, table.buildHash(buildTuple), depth, buildEncoder, buildTuple);
+                    continue;
+                }
+                table.insert(buildTuple, buildEncoder.encode(buildTuple, builder));
+                if (depth < MAX_SPILL_DEPTH && table.addedBytes() > memoryBudget) {
+                    partitions = spillTable(depth);
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private SpillFile[] spillTable(int depth) {
+        SpillFile[] partitions = createPartitions("semi-build-");
+        RecordSource records = table.records();
+        RowBatch batch = RowBatch.allocate(inner.schema().types(), RowBatch.DEFAULT_CAPACITY);
+        BatchTuple tuple = new BatchTuple();
+        while (readBatch(records, batch) != null) {
+            for (int row = 0; row < batch.size(); row++) {
+                tuple.reset(batch, row);
+                writePartition(partitions, table.buildHash(tuple), depth, buildEncoder, tuple);
+            }
+        }
+        table = JoinHashTable.create(buildKeys, probeKeys);
+        return partitions;
+    }
+
+    /**
+     * Делит внешний вход по партициям построения. Строки с пустой партицией построения
+     * полусоединению не нужны, а антисоединению нужны все — его пары встают в очередь и без построения.
+     */
+    private void partitionProbe(Supplier<RowBatch> input, SpillFile[] buildPartitions, int depth) {
+        SpillFile[] partitions = createPartitions("semi-probe-");
+        long buildRecords = 0;
+        for (SpillFile partition : buildPartitions) {
+            buildRecords += partition.records();
+        }
+        RowBatch batch;
+        while ((batch = input.get()) != null) {
+            for (int k = 0; k < batch.selectedCount(); k++) {
+                probeTuple.reset(batch, batch.selectedRow(k));
+                long hash = table.probeHash(probeTuple);
+                if (anti || buildPartitions[HashAggregateExecutor.partition(hash, depth)].records() > 0) {
+                    writePartition(partitions, hash, depth, probeEncoder, probeTuple);
+                }
+            }
+        }
+
+        for (int i = 0; i < partitions.length; i++) {
+            if (partitions[i].records() > 0 && (anti || buildPartitions[i].records() > 0)) {
+                // Партиция, в которую ушли все строки (например, с одним ключом), делением не уменьшится:
+                // она строится в памяти целиком
+                int next = buildPartitions[i].records() < buildRecords ? depth + 1 : MAX_SPILL_DEPTH;
+                pending.add(new Partition(buildPartitions[i], partitions[i], next));
+            } else {
+                buildPartitions[i].close();
+                partitions[i].close();
+            }
+        }
+    }
+
+    private void writePartition(SpillFile[] partitions, long hash, int depth, SortRowEncoder encoder, BatchTuple tuple) {
+        partitions[HashAggregateExecutor.partition(hash, depth)].write(encoder.encode(tuple, builder));
+    }
+
+    private SpillFile[] createPartitions(String prefix) {
+        SpillFile[] partitions = new SpillFile[SPILL_PARTITIONS];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = SpillFile.create(tempDir, prefix);
+        }
+        spilledPartitions += partitions.length;
+        return partitions;
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
+
+        while (true) {
+            RowBatch batch = probeInput != null ? probeInput.get() : null;
+            if (batch == null) {
+                if (!nextPartition()) return null;
+                continue;
+            }
+            filter(batch);
+            if (batch.selectedCount() > 0) {
+                return batch;
+            }
+        }
+    }
+
+    /**
+     * Оставляет в выборе пачки строки, у которых пара найдена (anti — не найдена).
+     */
+    private void filter(RowBatch batch) {
+        if (table.size() == 0) {
+            // Пустая сторона построения: антисоединение пропускает все, полусоединение сюда не попадает
+            if (!anti) batch.setSelected(0);
+            return;
+        }
+        int[] sel = batch.selection();
+        int count = batch.selectedCount();
+        int out = 0;
+        for (int k = 0; k < count; k++) {
+            int r = batch.selectedRow(k);
+            if (hasMatch(probeTuple.reset(batch, r)) != anti) sel[out++] = r;
+        }
+        batch.setSelected(out);
+    }
+
+    private boolean hasMatch(BatchTuple probeRow) {
+        for (int id = table.first(probeRow); id >= 0; id = table.next(id)) {
+            if (predicate == null) {
+                return true;
+            }
+            buildRow.reset();
+            SortRowEncoder.decode(table.row(id), buildRow, 0);
+            if (predicate.eval(joined.reset(probeRow, buildTuple.reset(buildRow, 0)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Переходит к следующей паре партиций; false — соединение закончено.
+     */
+    private boolean nextPartition() {
+        closeProbe();
+        closeCurrent();
+        Partition next = pending.poll();
+        if (next == null) {
+            probeInput = null;
+            return false;
+        }
+
+        current = next;
+        RecordSource buildRecords = next.build().read();
+        RowBatch buildBatch = RowBatch.allocate(inner.schema().types(), RowBatch.DEFAULT_CAPACITY);
+        SpillFile[] partitions = build(() -> readBatch(buildRecords, buildBatch), next.depth());
+
+        RecordSource probeRecords = next.probe().read();
+        RowBatch probeScratch = RowBatch.allocate(outer.schema().types(), RowBatch.DEFAULT_CAPACITY);
+        Supplier<RowBatch> input = () -> readBatch(probeRecords, probeScratch);
+        if (partitions != null) {
+            partitionProbe(input, partitions, next.depth());
+            probeInput = null;
+        } else {
+            probeInput = input;
+        }
+        return true;
+    }
+
+    private static RowBatch readBatch(RecordSource records, RowBatch batch) {
+        batch.reset();
+        int row = 0;
+        byte[] record;
+        while (row < batch.capacity() && (record = records.next()) != null) {
+            SortRowEncoder.decode(record, batch, row++);
+        }
+        batch.setSize(row);
+        return row > 0 ? batch : null;
+    }
+
+    /**
+     * Сколько файлов партиций было создано (обеих сторон) — для тестов и отладки.
+     */
+    public int getSpilledPartitions() {
+        return spilledPartitions;
+    }
+
+    private void closeProbe() {
+        if (probeOpen) {
+            outer.child().close();
+            probeOpen = false;
+        }
+    }
+
+    private void closeCurrent() {
+        if (current != null) {
+            current.build().close();
+            current.probe().close();
+            current = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeProbe();
+        closeCurrent();
+        for (Partition partition : pending) {
+            partition.build().close();
+            partition.probe().close();
+        }
+        pending.clear();
+        probeInput = null;
+        table = null;
+        isOpen = false;
+        resetRowCursor();
+    }
+
+    private record Partition(SpillFile build, SpillFile probe, int depth) {
+    }
+}
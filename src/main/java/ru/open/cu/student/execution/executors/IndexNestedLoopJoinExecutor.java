@@ -0,0 +1,328 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.expression.LongEvaluator;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.JoinedTuple;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Исполнитель соединения через индекс: строки внешнего входа ищут пары во внутренней таблице
+ * по ее индексу на колонке соединения, внутренняя таблица целиком не читается.
+ *
+ * Поиски идут окнами по WINDOW внешних строк: ключи окна сортируются и схлопываются в различные,
+ * и индекс проходится по ним по возрастанию, поэтому курсор переиспользует текущий лист,
+ * а повторяющийся внешний ключ ищется один раз. Найденные rowId сортируются по (страница, строка),
+ * и каждая страница кучи читается из буферного пула один раз на порцию совпадений.
+ * Совпадения собираются порциями не больше MATCH_LIMIT, так что память не зависит от числа повторов ключа.
+ *
+ * Фильтр внутреннего сканирования проверяется по байтам страницы до записи строки в выход.
+ * Выход: колонки левого входа, затем правого; порядок строк не сохраняется.
+ */
+public class IndexNestedLoopJoinExecutor extends BatchExecutor {
+    // Номер ключа окна упаковывается в младшие биты совпадения рядом с rowId
+    private static final int WINDOW_BITS = 12;
+    static final int WINDOW = 1 << WINDOW_BITS;
+    static final int MATCH_LIMIT = 8192;
+
+    private final JoinInput outer;
+    private final BufferPoolManager innerHeap;
+    private final Path indexFile;
+    private final TupleSchema innerSchema;
+    private final boolean[] innerDecoded;
+    private final Expr innerFilter;
+    private final boolean innerLeft;
+    private final Expr condition;
+    private final int batchSize;
+    private final BatchTuple outerTuple = new BatchTuple();
+    private final JoinedTuple joined = new JoinedTuple();
+
+    private BTreeIndex index;
+    private BTreeIndex.Cursor cursor;
+    private LongEvaluator outerKey;
+    private BooleanEvaluator innerPredicate;
+    private BooleanEvaluator predicate;
+    private PageTuple innerTuple;
+    private RowBatch output;
+    private int innerOffset;
+    private int outerOffset;
+    private int decodedEnd;
+
+    private RowBatch outerBatch;
+    private boolean outerDone;
+    private int windowEnd;
+    // Различные ключи окна по возрастанию и строки пачки каждого ключа: groupRows[groupStart[k] .. groupStart[k + 1])
+    private final long[] keys = new long[WINDOW];
+    private final long[] distinct = new long[WINDOW];
+    private final int[] groupOf = new int[WINDOW];
+    private final int[] groupStart = new int[WINDOW + 1];
+    private final int[] groupRows = new int[WINDOW];
+    private int distinctCount;
+    private int probe;
+    private boolean positioned;
+
+    // Совпадения порции: rowId << WINDOW_BITS | номер ключа, по возрастанию
+    private final long[] matches = new long[MATCH_LIMIT];
+    private int matchCount;
+    private int matchPos;
+    private boolean matchLoaded;
+    private int groupPos;
+    private HeapPage page;
+    private int innerStart;
+
+    /**
+     * @param outer        внешний вход с единственным ключом соединения
+     * @param innerHeap    буферный пул файла внутренней таблицы
+     * @param indexFile    файл индекса внутренней таблицы по колонке соединения
+     * @param innerSchema  колонки внутренней таблицы
+     * @param innerDecoded какие колонки внутренней таблицы нужны запросу; null — все
+     * @param innerFilter  условие внутреннего сканирования (может быть null)
+     * @param innerLeft    внутренняя таблица — левый вход соединения
+     * @param condition    условие над парой строк, кроме равенства ключей (может быть null)
+     */
+    public IndexNestedLoopJoinExecutor(JoinInput outer, BufferPoolManager innerHeap, Path indexFile,
+                                       TupleSchema innerSchema, boolean[] innerDecoded, Expr innerFilter,
+                                       boolean innerLeft, Expr condition, int batchSize) {
+        if (outer.keys().size() != 1) {
+            throw new IllegalArgumentException("Index join needs exactly one outer key");
+        }
+        this.outer = outer;
+        this.innerHeap = innerHeap;
+        this.indexFile = indexFile;
+        this.innerSchema = innerSchema;
+        this.innerDecoded = innerDecoded;
+        this.innerFilter = innerFilter;
+        this.innerLeft = innerLeft;
+        this.condition = condition;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void open() {
+        CompiledExpression key = new ExpressionCompiler(outer.schema()).compile(outer.keys().get(0));
+        if (!key.isNumeric()) {
+            throw new IllegalArgumentException("Cannot look up " + key.type() + " in an integer index");
+        }
+        outerKey = key.asLong();
+        innerPredicate = innerFilter == null ? null : new ExpressionCompiler(innerSchema).compilePredicate(innerFilter);
+
+        TupleSchema left = innerLeft ? innerSchema : outer.schema();
+        TupleSchema right = innerLeft ? outer.schema() : innerSchema;
+        TupleSchema schema = HashJoinExecutor.outputSchema(left, right);
+        predicate = condition == null ? null : new ExpressionCompiler(schema).compilePredicate(condition);
+        innerTuple = new PageTuple(innerSchema.types());
+        output = RowBatch.allocate(schema.types(), batchSize);
+        innerOffset = innerLeft ? 0 : left.size();
+        outerOffset = innerLeft ? left.size() : 0;
+        decodedEnd = innerSchema.size();
+        if (innerDecoded != null) {
+            while (decodedEnd > 0 && !innerDecoded[decodedEnd - 1]) decodedEnd--;
+        }
+
+        index = BTreeIndex.open(indexFile);
+        cursor = index.cursor();
+        outerBatch = null;
+        outerDone = false;
+        distinctCount = 0;
+        probe = 0;
+        matchCount = 0;
+        matchPos = 0;
+        page = null;
+        outer.child().open();
+        resetRowCursor();
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (output == null) return null;
+
+        output.reset();
+        int row = 0;
+        while (row < output.capacity()) {
+            if (matchPos < matchCount) {
+                row = emit(row);
+            } else if (probe < distinctCount) {
+                collectMatches();
+            } else if (outerBatch != null && windowEnd < outerBatch.selectedCount()) {
+                loadWindow();
+            } else if (!outerDone && (outerBatch = outer.child().nextBatch()) != null) {
+                windowEnd = 0;
+            } else {
+                outerDone = true;
+                outerBatch = null;
+                break;
+            }
+        }
+        output.setSize(row);
+        return row > 0 ? output : null;
+    }
+
+    /**
+     * Следующие WINDOW строк внешней пачки: различные ключи по возрастанию и строки каждого ключа.
+     */
+    private void loadWindow() {
+        int start = windowEnd;
+        windowEnd = Math.min(outerBatch.selectedCount(), start + WINDOW);
+        int n = windowEnd - start;
+        for (int i = 0; i < n; i++) {
+            keys[i] = outerKey.eval(outerTuple.reset(outerBatch, outerBatch.selectedRow(start + i)));
+        }
+
+        System.arraycopy(keys, 0, distinct, 0, n);
+        Arrays.sort(distinct, 0, n);
+        distinctCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinctCount == 0 || distinct[distinctCount - 1] != distinct[i]) {
+                distinct[distinctCount++] = distinct[i];
+            }
+        }
+
+        // Строки пачки группируются по ключу подсчетом
+        Arrays.fill(groupStart, 0, distinctCount + 1, 0);
+        for (int i = 0; i < n; i++) {
+            groupOf[i] = Arrays.binarySearch(distinct, 0, distinctCount, keys[i]);
+            groupStart[groupOf[i] + 1]++;
+        }
+        for (int k = 0; k < distinctCount; k++) {
+            groupStart[k + 1] += groupStart[k];
+        }
+        int[] fill = Arrays.copyOf(groupStart, distinctCount);
+        for (int i = 0; i < n; i++) {
+            groupRows[fill[groupOf[i]]++] = outerBatch.selectedRow(start + i);
+        }
+
+        probe = 0;
+        positioned = false;
+    }
+
+    /**
+     * Ищет в индексе ключи окна по возрастанию, пока порция совпадений не заполнится, и сортирует ее по rowId.
+     * Поиск, прерванный посреди повторов ключа, продолжается с той же позиции курсора.
+     */
+    private void collectMatches() {
+        matchCount = 0;
+        matchPos = 0;
+        matchLoaded = false;
+        while (probe < distinctCount && matchCount < MATCH_LIMIT) {
+            long key = distinct[probe];
+            if (!positioned) {
+                cursor.seek(key);
+                positioned = true;
+            }
+            while (cursor.hasEntry() && cursor.key() == key && matchCount < MATCH_LIMIT) {
+                matches[matchCount++] = cursor.rowId() << WINDOW_BITS | probe;
+                cursor.advance();
+            }
+            if (cursor.hasEntry() && cursor.key() == key) {
+                break;
+            }
+            // Индекс кончился: у остальных ключей окна пар нет
+            probe = cursor.hasEntry() ? probe + 1 : distinctCount;
+            positioned = false;
+        }
+        Arrays.sort(matches, 0, matchCount);
+    }
+
+    /**
+     * Пишет пары для совпадений порции, начиная со строки row выхода; возвращает следующую свободную строку.
+     */
+    private int emit(int row) {
+        while (matchPos < matchCount && row < output.capacity()) {
+            long match = matches[matchPos];
+            int group = (int) (match & (WINDOW - 1));
+            if (!matchLoaded) {
+                long rowId = match >>> WINDOW_BITS;
+                int pageId = BTreeIndex.pageOf(rowId);
+                if (page == null || page.getPageId() != pageId) {
+                    page = (HeapPage) innerHeap.getPage(pageId).getPage();
+                }
+                int slot = BTreeIndex.slotOf(rowId);
+                if (page.isForward(slot)) {
+                    // Строка переехала: индекс хранит исходный слот, сама строка лежит на странице из указателя
+                    page = (HeapPage) innerHeap.getPage(page.forwardPage(slot)).getPage();
+                    slot = page.findMoved(rowId);
+                }
+                innerStart = page.rowOffset(slot);
+                innerTuple.reset(page.bytes(), innerStart);
+                if (innerPredicate != null && !innerPredicate.eval(innerTuple)) {
+                    matchPos++;
+                    continue;
+                }
+                matchLoaded = true;
+                groupPos = groupStart[group];
+            }
+
+            int groupEnd = groupStart[group + 1];
+            while (groupPos < groupEnd && row < output.capacity()) {
+                int outerRow = groupRows[groupPos++];
+                if (write(outerRow, row)) {
+                    row++;
+                }
+            }
+            if (groupPos == groupEnd) {
+                matchPos++;
+                matchLoaded = false;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Пишет пару (внешняя строка outerRow, текущая внутренняя строка) в строку row выхода, если она проходит условие.
+     */
+    private boolean write(int outerRow, int row) {
+        if (predicate != null) {
+            outerTuple.reset(outerBatch, outerRow);
+            if (!predicate.eval(innerLeft ? joined.reset(innerTuple, outerTuple) : joined.reset(outerTuple, innerTuple))) {
+                return false;
+            }
+        }
+
+        byte[] bytes = page.bytes();
+        int pos = innerStart;
+        for (int c = 0; c < decodedEnd; c++) {
+            ColumnVector column = output.column(innerOffset + c);
+            pos = innerDecoded == null || innerDecoded[c] ? column.decode(bytes, pos, row) : column.skip(bytes, pos);
+        }
+        boolean[] carried = outer.carried();
+        for (int c = 0; c < outer.schema().size(); c++) {
+            // Колонки, которые сканирование не декодировало, не копируются: запрос их не читает
+            if (carried == null || carried[c]) {
+                output.column(outerOffset + c).copy(outerBatch.column(c), outerRow, row);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сколько раз читались листы индекса — для тестов и отладки.
+     */
+    public long getLeafReads() {
+        return index == null ? 0 : index.getLeafReads();
+    }
+
+    @Override
+    public void close() {
+        outer.child().close();
+        if (index != null) {
+            index.close();
+        }
+        outerBatch = null;
+        output = null;
+        page = null;
+        resetRowCursor();
+    }
+}
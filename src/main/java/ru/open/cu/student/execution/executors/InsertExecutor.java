@@ -1,46 +1,117 @@
 package ru.open.cu.student.execution.executors;
 
 
+import ru.open.cu.student.catalog.manager.CatalogManager;
 import ru.open.cu.student.catalog.model.TableDefinition;
-import ru.open.cu.student.catalog.operation.OperationManager;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.catalog.operation.TableAppender;
 import ru.open.cu.student.ast.AConst;
 import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.ParamRef;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
 
 import java.util.List;
 
 /**
- * Исполнитель для операции INSERT INTO table VALUES (...).
- * Получает объект Table и конкретные значения.
+ * Исполнитель для операции INSERT INTO table VALUES (...), (...) и INSERT INTO table SELECT ....
+ * Все строки дописываются одной пачкой через буферный пул таблицы: каждая страница
+ * пишется на диск один раз, а не после каждой строки.
+ * Строки источника SELECT кодируются прямо из его кортежей по мере выдачи, без промежуточного списка.
  */
 public class InsertExecutor implements Executor {
 
-    private final OperationManager operationManager;
+    private final CatalogManager catalogManager;
+    private final ColumnRangeCache columnRanges;
+    private final BufferPoolManager bufferPool;
     private final TableDefinition tableDefinition;
-    private final List<Expr> values;
+    private final List<List<Expr>> rows;
+    private final Executor source;
+    private final boolean sourceReadsTarget;
+    private boolean done;
 
-    public InsertExecutor(OperationManager operationManager, TableDefinition tableDefinition, List<Expr> values) {
-        this.operationManager = operationManager;
+    public InsertExecutor(CatalogManager catalogManager, ColumnRangeCache columnRanges, BufferPoolManager bufferPool,
+                          TableDefinition tableDefinition, List<List<Expr>> rows) {
+        this.catalogManager = catalogManager;
+        this.columnRanges = columnRanges;
+        this.bufferPool = bufferPool;
         this.tableDefinition = tableDefinition;
-        this.values = values;
+        this.rows = rows;
+        this.source = null;
+        this.sourceReadsTarget = false;
+    }
+
+    /**
+     * @param sourceReadsTarget источник читает ту же таблицу: новые строки прячутся от его сканирования
+     */
+    public InsertExecutor(CatalogManager catalogManager, ColumnRangeCache columnRanges, BufferPoolManager bufferPool,
+                          TableDefinition tableDefinition, Executor source, boolean sourceReadsTarget) {
+        this.catalogManager = catalogManager;
+        this.columnRanges = columnRanges;
+        this.bufferPool = bufferPool;
+        this.tableDefinition = tableDefinition;
+        this.rows = null;
+        this.source = source;
+        this.sourceReadsTarget = sourceReadsTarget;
     }
 
     @Override
     public void open() {
+        done = false;
     }
 
     @Override
     public Object next() {
-        // Преобразуем Expr в Object (предполагаем AConst)
-        List<Object> rowValues = values.stream()
-                .map(expr -> ((AConst) expr).value)
-                .toList();
-
-        // Используем новый метод insert(OperationManager)
-        operationManager.insert(tableDefinition.getName(), rowValues);
+        if (done) return null;
+        done = true;
 
+        if (source != null) {
+            insertFromSource();
+            return null;
+        }
+        try (TableAppender appender = new TableAppender(catalogManager, columnRanges, tableDefinition, bufferPool)) {
+            for (List<Expr> row : rows) {
+                // Преобразуем Expr в Object: константа VALUES или значение параметра $n
+                appender.append(row.stream()
+                        .map(expr -> expr instanceof ParamRef param ? param.getValue() : ((AConst) expr).value)
+                        .toList());
+            }
+        }
         return null;
     }
 
+    /**
+     * Источник открывается до первой записи: его сканирования запоминают границу таблицы до вставки.
+     */
+    @SuppressWarnings("unchecked")
+    private void insertFromSource() {
+        source.open();
+        try (TableAppender appender = new TableAppender(catalogManager, columnRanges, tableDefinition, bufferPool, sourceReadsTarget)) {
+            if (source.supportsBatch()) {
+                BatchTuple tuple = new BatchTuple();
+                RowBatch batch;
+                while ((batch = source.nextBatch()) != null) {
+                    for (int k = 0; k < batch.selectedCount(); k++) {
+                        appender.append(tuple.reset(batch, batch.selectedRow(k)));
+                    }
+                }
+            } else {
+                Object row;
+                while ((row = source.next()) != null) {
+                    if (row instanceof Tuple tuple) {
+                        appender.append(tuple);
+                    } else {
+                        appender.append((List<Object>) row);
+                    }
+                }
+            }
+        } finally {
+            source.close();
+        }
+    }
+
     @Override
     public void close() { }
-}
\ No newline at end of file
+}
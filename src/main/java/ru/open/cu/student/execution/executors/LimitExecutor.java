@@ -0,0 +1,106 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.execution.vector.RowBatch;
+
+/**
+ * Исполнитель LIMIT/OFFSET.
+ *
+ * Первые offset строк отбрасываются сужением вектора выбора, после count выданных строк
+ * ребенок больше не вызывается — сканирование под ним не читает оставшиеся страницы.
+ * count == null означает «без ограничения».
+ */
+public class LimitExecutor extends BatchExecutor {
+    private final Executor child;
+    private final Long count;
+    private final long offset;
+    private long skipped;
+    private long produced;
+    private boolean done;
+    private boolean isOpen;
+
+    public LimitExecutor(Executor child, Long count, long offset) {
+        this.child = child;
+        this.count = count;
+        this.offset = offset;
+    }
+
+    @Override
+    public void open() {
+        child.open();
+        skipped = 0;
+        produced = 0;
+        done = count != null && count == 0;
+        resetRowCursor();
+        isOpen = true;
+    }
+
+    @Override
+    public boolean supportsBatch() {
+        return child.supportsBatch();
+    }
+
+    @Override
+    public Object next() {
+        if (child.supportsBatch()) {
+            return super.next();
+        }
+        if (!isOpen || done) return null;
+
+        Object row;
+        while ((row = child.next()) != null) {
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            produced++;
+            done = count != null && produced >= count;
+            return row;
+        }
+        done = true;
+        return null;
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen || done) return null;
+
+        RowBatch batch;
+        while ((batch = child.nextBatch()) != null) {
+            int selected = batch.selectedCount();
+
+            int skip = (int) Math.min(offset - skipped, selected);
+            if (skip > 0) {
+                int[] sel = batch.selection();
+                for (int k = skip; k < selected; k++) {
+                    sel[k - skip] = batch.selectedRow(k);
+                }
+                selected -= skip;
+                skipped += skip;
+                batch.setSelected(selected);
+            }
+
+            if (count != null && produced + selected >= count) {
+                selected = (int) (count - produced);
+                batch.truncateSelection(selected);
+                done = true;
+            }
+            produced += selected;
+
+            if (selected > 0) {
+                return batch;
+            }
+            if (done) {
+                return null;
+            }
+        }
+        done = true;
+        return null;
+    }
+
+    @Override
+    public void close() {
+        child.close();
+        resetRowCursor();
+        isOpen = false;
+    }
+}
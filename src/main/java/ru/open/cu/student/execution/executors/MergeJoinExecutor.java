@@ -0,0 +1,328 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.join.JoinRowBuffer;
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.JoinedTuple;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Исполнитель внутреннего соединения слиянием двух входов, упорядоченных по возрастанию ключа
+ * (у каждого входа ровно один ключ). Ключи связаны оператором op: левый ключ op правый ключ.
+ *
+ * Одна сторона (внешняя) читается потоком, вторая (внутренняя) — тоже потоком, но ее строки,
+ * которые могут совпасть с текущей внешней, копятся в JoinRowBuffer:
+ * для "=" — группа строк с ключом текущей внешней строки (повторяющиеся внешние ключи используют ее заново),
+ * для неравенства — растущий префикс внутренней стороны (для "&lt;" и "&lt;=" внешней становится правая сторона).
+ * При уникальных ключах равенства память не зависит от размера входов.
+ *
+ * Порядок входов проверяется на лету: убывание ключа — ошибка, а не неверный результат.
+ * Выход: колонки левого входа, затем правого; он упорядочен по ключу внешней стороны.
+ */
+public class MergeJoinExecutor extends BatchExecutor {
+
+    private final JoinInput outer;
+    private final JoinInput inner;
+    private final boolean outerLeft;
+    private final boolean equi;
+    // Внутренняя строка входит в префикс при ключе строго меньше внешнего (иначе — меньше или равном)
+    private final boolean strict;
+    private final Expr condition;
+    private final int batchSize;
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private final BatchTuple outerTuple = new BatchTuple();
+    private final BatchTuple innerTuple = new BatchTuple();
+    private final BatchTuple bufferedTuple = new BatchTuple();
+    private final JoinedTuple joined = new JoinedTuple();
+
+    private JoinRowBuffer buffer;
+    private SortRowEncoder innerEncoder;
+    private BooleanEvaluator predicate;
+    private RowBatch output;
+    private RowBatch bufferedRow;
+    private int innerOffset;
+    private int outerOffset;
+    private JoinKey outerKey;
+    private JoinKey previousOuterKey;
+    private JoinKey innerKey;
+    private JoinKey previousInnerKey;
+    private JoinKey groupKey;
+
+    private RowBatch outerBatch;
+    private int outerIndex;
+    private int outerRow;
+    private boolean outerDone;
+    private RowBatch innerBatch;
+    private int innerIndex;
+    private boolean innerLoaded;
+    private boolean innerDone;
+    private RecordSource matches;
+
+    /**
+     * @param op        оператор между ключами: "=", "&lt;", "&lt;=", "&gt;" или "&gt;="
+     * @param condition условие над выходом, кроме условия на ключи (может быть null)
+     * @param tempDir   каталог для переполнившего память буфера; null — системный каталог временных файлов
+     */
+    public MergeJoinExecutor(JoinInput left, JoinInput right, String op, Expr condition,
+                             int batchSize, long memoryBudget, Path tempDir) {
+        if (left.keys().size() != 1 || right.keys().size() != 1) {
+            throw new IllegalArgumentException("Merge join needs exactly one key on each side");
+        }
+        switch (op) {
+            case "=", ">", ">=" -> {
+                this.outer = left;
+                this.inner = right;
+                this.outerLeft = true;
+            }
+            case "<", "<=" -> {
+                this.outer = right;
+                this.inner = left;
+                this.outerLeft = false;
+            }
+            default -> throw new IllegalArgumentException("Unsupported merge join operator: " + op);
+        }
+        this.equi = op.equals("=");
+        this.strict = op.length() == 1;
+        this.condition = condition;
+        this.batchSize = batchSize;
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    @Override
+    public void open() {
+        CompiledExpression outerExpr = new ExpressionCompiler(outer.schema()).compile(outer.keys().get(0));
+        CompiledExpression innerExpr = new ExpressionCompiler(inner.schema()).compile(inner.keys().get(0));
+        boolean comparable = outerExpr.isNumeric() ? innerExpr.isNumeric() : outerExpr.type() == innerExpr.type();
+        if (!comparable) {
+            throw new IllegalArgumentException("Cannot join " + outerExpr.type() + " with " + innerExpr.type());
+        }
+        outerKey = new JoinKey(outerExpr, outer.keys().get(0));
+        previousOuterKey = new JoinKey(outerExpr, outer.keys().get(0));
+        innerKey = new JoinKey(innerExpr, inner.keys().get(0));
+        previousInnerKey = new JoinKey(innerExpr, inner.keys().get(0));
+        groupKey = new JoinKey(outerExpr, outer.keys().get(0));
+
+        TupleSchema left = outerLeft ? outer.schema() : inner.schema();
+        TupleSchema right = outerLeft ? inner.schema() : outer.schema();
+        TupleSchema schema = HashJoinExecutor.outputSchema(left, right);
+        predicate = condition == null ? null : new ExpressionCompiler(schema).compilePredicate(condition);
+        innerEncoder = new SortRowEncoder(List.of(), new boolean[0], inner.schema(), inner.carried());
+        output = RowBatch.allocate(schema.types(), batchSize);
+        bufferedRow = RowBatch.allocate(inner.schema().types(), 1);
+        outerOffset = outerLeft ? 0 : left.size();
+        innerOffset = outerLeft ? left.size() : 0;
+        buffer = new JoinRowBuffer(memoryBudget, tempDir);
+
+        outerBatch = null;
+        outerDone = false;
+        innerBatch = null;
+        innerLoaded = false;
+        innerDone = false;
+        matches = null;
+        outer.child().open();
+        inner.child().open();
+        resetRowCursor();
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (output == null) return null;
+
+        output.reset();
+        int row = 0;
+        while (row < output.capacity()) {
+            if (matches != null) {
+                byte[] record = matches.next();
+                if (record == null) {
+                    matches = null;
+                } else if (emit(record, row)) {
+                    row++;
+                }
+            } else if (outerBatch != null && ++outerIndex < outerBatch.selectedCount()) {
+                outerRow = outerBatch.selectedRow(outerIndex);
+                outerTuple.reset(outerBatch, outerRow);
+                if (!advance()) {
+                    outerDone = true;
+                    outerBatch = null;
+                } else if (!buffer.isEmpty()) {
+                    matches = buffer.records();
+                }
+            } else if (!outerDone && (outerBatch = outer.child().nextBatch()) != null) {
+                outerIndex = -1;
+            } else {
+                outerDone = true;
+                break;
+            }
+        }
+        output.setSize(row);
+        return row > 0 ? output : null;
+    }
+
+    /**
+     * Подтягивает в буфер внутренние строки, которые могут совпасть с текущей внешней строкой.
+     * false — совпадений больше не будет ни у этой, ни у следующих внешних строк.
+     */
+    private boolean advance() {
+        outerKey.load(outerTuple);
+        checkOrder(outerKey, previousOuterKey);
+
+        if (!equi) {
+            while (innerAvailable() && (strict ? innerKey.compareTo(outerKey) < 0 : innerKey.compareTo(outerKey) <= 0)) {
+                consumeInner(true);
+            }
+            return innerAvailable() || !buffer.isEmpty();
+        }
+
+        if (!buffer.isEmpty() && outerKey.compareTo(groupKey) == 0) {
+            return true;
+        }
+        buffer.clear();
+        while (innerAvailable() && innerKey.compareTo(outerKey) < 0) {
+            consumeInner(false);
+        }
+        while (innerAvailable() && innerKey.compareTo(outerKey) == 0) {
+            consumeInner(true);
+        }
+        groupKey.copyFrom(outerKey);
+        return innerAvailable() || !buffer.isEmpty();
+    }
+
+    /**
+     * Встает на очередную внутреннюю строку, если текущая уже разобрана; false — внутренняя сторона кончилась.
+     */
+    private boolean innerAvailable() {
+        if (innerLoaded) {
+            return true;
+        }
+        while (innerBatch == null || ++innerIndex >= innerBatch.selectedCount()) {
+            if (innerDone || (innerBatch = inner.child().nextBatch()) == null) {
+                innerDone = true;
+                innerBatch = null;
+                return false;
+            }
+            innerIndex = -1;
+        }
+        innerTuple.reset(innerBatch, innerBatch.selectedRow(innerIndex));
+        innerKey.load(innerTuple);
+        checkOrder(innerKey, previousInnerKey);
+        innerLoaded = true;
+        return true;
+    }
+
+    private void consumeInner(boolean keep) {
+        if (keep) {
+            buffer.add(innerEncoder.encode(innerTuple, builder));
+        }
+        innerLoaded = false;
+    }
+
+    private static void checkOrder(JoinKey current, JoinKey previous) {
+        if (previous.loaded && current.compareTo(previous) < 0) {
+            throw new IllegalStateException("Merge join input is not sorted on " + current.source
+                    + "; run ANALYZE to refresh table statistics");
+        }
+        previous.copyFrom(current);
+    }
+
+    /**
+     * Пишет пару (текущая внешняя строка, строка буфера) в строку row выхода, если она проходит условие.
+     */
+    private boolean emit(byte[] record, int row) {
+        if (predicate != null) {
+            bufferedRow.reset();
+            SortRowEncoder.decode(record, bufferedRow, 0);
+            bufferedTuple.reset(bufferedRow, 0);
+            outerTuple.reset(outerBatch, outerRow);
+            if (!predicate.eval(outerLeft ? joined.reset(outerTuple, bufferedTuple) : joined.reset(bufferedTuple, outerTuple))) {
+                return false;
+            }
+        }
+
+        SortRowEncoder.decode(record, output, row, innerOffset, inner.schema().size());
+        boolean[] carried = outer.carried();
+        for (int c = 0; c < outer.schema().size(); c++) {
+            // Колонки, которые сканирование не декодировало, не копируются: запрос их не читает
+            if (carried == null || carried[c]) {
+                output.column(outerOffset + c).copy(outerBatch.column(c), outerRow, row);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Сколько раз буфер внутренней стороны сбрасывался на диск — для тестов и отладки.
+     */
+    public int getSpilledSegments() {
+        return buffer == null ? 0 : buffer.getSpilledSegments();
+    }
+
+    @Override
+    public void close() {
+        outer.child().close();
+        inner.child().close();
+        if (buffer != null) {
+            buffer.close();
+        }
+        matches = null;
+        outerBatch = null;
+        innerBatch = null;
+        output = null;
+        resetRowCursor();
+    }
+
+    /**
+     * Значение ключа строки: целые и boolean сравниваются как long, строки — по байтам UTF-8,
+     * как их упорядочивает сортировка.
+     */
+    private static final class JoinKey {
+        private final CompiledExpression expr;
+        private final Expr source;
+        private long value;
+        private byte[] bytes;
+        private boolean loaded;
+
+        JoinKey(CompiledExpression expr, Expr source) {
+            this.expr = expr;
+            this.source = source;
+        }
+
+        void load(Tuple row) {
+            switch (expr.type()) {
+                case INTEGER, BIGINT -> value = expr.asLong().eval(row);
+                case BOOLEAN -> value = expr.asBoolean().eval(row) ? 1 : 0;
+                case VARCHAR -> bytes = expr.isColumn() ? row.getUtf8(expr.columnIndex())
+                        : expr.asString().eval(row).getBytes(StandardCharsets.UTF_8);
+            }
+            loaded = true;
+        }
+
+        void copyFrom(JoinKey other) {
+            value = other.value;
+            bytes = other.bytes;
+            loaded = other.loaded;
+        }
+
+        int compareTo(JoinKey other) {
+            return expr.type() == ColumnType.VARCHAR ? Arrays.compareUnsigned(bytes, other.bytes)
+                    : Long.compare(value, other.value);
+        }
+    }
+}
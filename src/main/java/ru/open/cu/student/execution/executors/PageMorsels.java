@@ -0,0 +1,51 @@
+package ru.open.cu.student.execution.executors;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Раздача страниц кучи параллельным сканированиям небольшими диапазонами (morsels).
+ *
+ * Каждый воркер забирает следующий диапазон, когда закончил предыдущий, поэтому
+ * неравномерная стоимость страниц (разная селективность фильтра) выравнивается сама.
+ */
+public class PageMorsels {
+    public static final int DEFAULT_MORSEL_PAGES = 16;
+
+    private final int morselPages;
+    private final AtomicInteger nextPage = new AtomicInteger();
+    private volatile int pageCount;
+
+    public PageMorsels() {
+        this(DEFAULT_MORSEL_PAGES);
+    }
+
+    public PageMorsels(int morselPages) {
+        if (morselPages <= 0) {
+            throw new IllegalArgumentException("morselPages must be positive: " + morselPages);
+        }
+        this.morselPages = morselPages;
+    }
+
+    /**
+     * Начинает новый проход по таблице из pageCount страниц.
+     */
+    public void reset(int pageCount) {
+        this.pageCount = pageCount;
+        nextPage.set(0);
+    }
+
+    /**
+     * Первая страница следующего диапазона или -1, если страницы закончились.
+     */
+    public int claim() {
+        int start = nextPage.getAndAdd(morselPages);
+        return start < pageCount ? start : -1;
+    }
+
+    /**
+     * Граница (не включительно) диапазона, начинающегося со start.
+     */
+    public int end(int start) {
+        return Math.min(start + morselPages, pageCount);
+    }
+}
@@ -1,77 +1,138 @@
 package ru.open.cu.student.execution.executors;
 
-import ru.open.cu.student.ast.TargetEntry;
 import ru.open.cu.student.ast.ColumnRef;
-import ru.open.cu.student.ast.AConst;
+import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.RowBatch;
 
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Исполнитель SELECT-списка.
+ *
+ * Колонки дочерней пачки передаются в выходную пачку по ссылке, константы заполняются
+ * в собственные векторы один раз на пачку, вычисляемые выражения компилируются при открытии
+ * и считаются только для выбранных строк.
  */
-public class ProjectExecutor implements Executor {
+public class ProjectExecutor extends BatchExecutor {
     private final Executor child;
     private final List<TargetEntry> targetList;
+    private final TupleSchema schema;
+    private final List<CompiledExpression> targets = new ArrayList<>();
+    private final BatchTuple tuple = new BatchTuple();
+    private RowBatch output;
+    private ColumnVector[] ownVectors;
     private boolean isOpen;
 
-    public ProjectExecutor(Executor child, List<TargetEntry> targetList) {
+    public ProjectExecutor(Executor child, List<TargetEntry> targetList, TupleSchema schema) {
         this.child = child;
         this.targetList = targetList;
+        this.schema = schema;
+    }
+
+    /**
+     * Схема выхода: имя колонки — псевдоним или текст выражения, SELECT * — колонки входа.
+     */
+    public static TupleSchema outputSchema(List<TargetEntry> targetList, TupleSchema input) {
+        if (targetList.isEmpty()) {
+            return input;
+        }
+        ExpressionCompiler compiler = new ExpressionCompiler(input);
+        List<String> names = new ArrayList<>();
+        List<ColumnType> types = new ArrayList<>();
+        for (TargetEntry target : targetList) {
+            if (target.expr instanceof ColumnRef ref && ref.column.equals("*")) {
+                names.addAll(input.names());
+                types.addAll(input.types());
+            } else {
+                names.add(target.alias != null ? target.alias : target.expr.toString());
+                types.add(compiler.compile(target.expr).type());
+            }
+        }
+        return new TupleSchema(names, types);
     }
 
     @Override
     public void open() {
         child.open();
+        resolveTargets();
+        output = null;
+        resetRowCursor();
         isOpen = true;
     }
 
-    @Override
-    public Object next() {
-        if (!isOpen) return null;
+    private void resolveTargets() {
+        targets.clear();
+        ExpressionCompiler compiler = new ExpressionCompiler(schema);
 
-        Object rowData = child.next();
-        if (rowData == null) return null;
+        for (TargetEntry target : targetList) {
+            if (target.expr instanceof ColumnRef ref && ref.column.equals("*")) {
+                // SELECT * — все колонки по порядку
+                addAllColumns();
+            } else {
+                targets.add(compiler.compile(target.expr));
+            }
+        }
 
-        // Простая проекция - возвращаем только нужные поля
-        return extractProjectedFields((byte[]) rowData);
+        if (targetList.isEmpty()) {
+            addAllColumns();
+        }
     }
 
-    private Object extractProjectedFields(byte[] rowData) {
-        if (targetList.isEmpty()) {
-            return rowData; // SELECT * - возвращаем все
+    private void addAllColumns() {
+        for (int i = 0; i < schema.size(); i++) {
+            targets.add(CompiledExpression.column(i, schema.type(i)));
         }
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
 
-        List<Object> result = new ArrayList<>();
-        ByteBuffer buffer = ByteBuffer.wrap(rowData);
+        RowBatch input = child.nextBatch();
+        if (input == null) return null;
 
-        for (TargetEntry target : targetList) {
-            if (target.expr instanceof ColumnRef) {
-                // Для простоты - все поля int и идут по порядку
-                String colName = ((ColumnRef) target.expr).column;
-                int fieldIndex = getFieldIndex(colName);
-                result.add(buffer.getInt(fieldIndex * 4));
-            } else if (target.expr instanceof AConst) {
-                result.add(((AConst) target.expr).value);
+        if (output == null) {
+            output = new RowBatch(new ColumnVector[targets.size()], input.capacity());
+            ownVectors = new ColumnVector[targets.size()];
+            for (int i = 0; i < targets.size(); i++) {
+                if (!targets.get(i).isColumn()) {
+                    ownVectors[i] = ColumnVector.allocate(targets.get(i).type(), input.capacity());
+                }
             }
         }
-        return result;
-    }
 
-    private int getFieldIndex(String columnName) {
-        // Простая логика - для демонстрации
-        return switch (columnName) {
-            case "id" -> 0;
-            case "name" -> 1;
-            case "age" -> 2;
-            default -> 0;
-        };
+        for (int i = 0; i < targets.size(); i++) {
+            CompiledExpression target = targets.get(i);
+            if (target.isColumn()) {
+                output.setColumn(i, input.column(target.columnIndex()));
+            } else if (target.isConstant()) {
+                ownVectors[i].fill(target.constantValue(), input.size());
+                output.setColumn(i, ownVectors[i]);
+            } else {
+                ColumnVector vector = ownVectors[i];
+                vector.reset();
+                for (int k = 0; k < input.selectedCount(); k++) {
+                    int r = input.selectedRow(k);
+                    target.evaluateInto(vector, r, tuple.reset(input, r));
+                }
+                output.setColumn(i, vector);
+            }
+        }
+        output.copySelectionFrom(input);
+        return output;
     }
 
     @Override
     public void close() {
         child.close();
+        resetRowCursor();
         isOpen = false;
     }
-}
\ No newline at end of file
+}
@@ -1,26 +1,96 @@
 package ru.open.cu.student.execution.executors;
 
 import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.RowBatch;
 import ru.open.cu.student.memory.buffer.BufferPoolManager;
 import ru.open.cu.student.memory.page.HeapPage;
 
+import java.util.List;
+
 /**
  * Исполнитель последовательного сканирования таблицы.
+ *
+ * Строки декодируются прямо из байтов страницы в колоночные векторы пачки,
+ * без промежуточного byte[] на каждую строку. В построчном режиме next() отдает PageTuple
+ * поверх байтов страницы — колонки читаются только при обращении.
+ *
+ * Если передан {@link PageMorsels}, сканирование читает не всю таблицу, а диапазоны страниц,
+ * которые забирает из общей раздачи, — так несколько сканирований делят одну таблицу.
+ *
+ * Условие WHERE, переданное в сканирование, проверяется прямо по байтам страницы через PageTuple:
+ * в пачку декодируются только подходящие строки, отвергнутые не копируются вовсе.
+ *
+ * Если задан набор нужных колонок, остальные колонки пропускаются по длине без декодирования,
+ * а хвост строки после последней нужной колонки не читается совсем. Номера колонок пачки
+ * при этом остаются позициями таблицы, векторы ненужных колонок просто не заполняются.
  */
-public class SeqScanExecutor implements Executor {
+public class SeqScanExecutor extends BatchExecutor {
     private final BufferPoolManager bufferPool;
+    private final List<ColumnType> columnTypes;
+    private final int batchSize;
+    private final PageMorsels morsels;
+    private final BooleanEvaluator predicate;
+    private final boolean[] decoded;
+    private final int decodedEnd;
+    private RowBatch batch;
+    private PageTuple tuple;
     private int currentPageId;
     private int currentRowIndex;
+    private int endPageId;
     private boolean isOpen;
 
-    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition) {
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition, List<ColumnType> columnTypes) {
+        this(bufferPool, tableDefinition, columnTypes, RowBatch.DEFAULT_CAPACITY);
+    }
+
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition,
+                           List<ColumnType> columnTypes, int batchSize) {
+        this(bufferPool, tableDefinition, columnTypes, batchSize, null);
+    }
+
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition,
+                           List<ColumnType> columnTypes, int batchSize, PageMorsels morsels) {
+        this(bufferPool, tableDefinition, columnTypes, batchSize, morsels, null);
+    }
+
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition,
+                           List<ColumnType> columnTypes, int batchSize, PageMorsels morsels,
+                           BooleanEvaluator predicate) {
+        this(bufferPool, tableDefinition, columnTypes, batchSize, morsels, predicate, null);
+    }
+
+    /**
+     * @param decoded какие колонки декодировать в пачку (по позиции); null — все
+     */
+    public SeqScanExecutor(BufferPoolManager bufferPool, TableDefinition tableDefinition,
+                           List<ColumnType> columnTypes, int batchSize, PageMorsels morsels,
+                           BooleanEvaluator predicate, boolean[] decoded) {
         this.bufferPool = bufferPool;
+        this.columnTypes = columnTypes;
+        this.batchSize = batchSize;
+        this.morsels = morsels;
+        this.predicate = predicate;
+        this.decoded = decoded;
+        int end = columnTypes.size();
+        if (decoded != null) {
+            while (end > 0 && !decoded[end - 1]) end--;
+        }
+        this.decodedEnd = end;
     }
 
     @Override
     public void open() {
         currentPageId = 0;
         currentRowIndex = 0;
+        // С раздачей диапазонов первый диапазон забирается при первом чтении
+        endPageId = morsels == null ? bufferPool.getPageCount() : 0;
+        batch = RowBatch.allocate(columnTypes, batchSize);
+        tuple = new PageTuple(columnTypes);
+        resetRowCursor();
         isOpen = true;
     }
 
@@ -28,23 +98,74 @@ public class SeqScanExecutor implements Executor {
     public Object next() {
         if (!isOpen) return null;
 
-        while (true) {
+        while (hasPage()) {
             var bufferSlot = bufferPool.getPage(currentPageId);
             if (bufferSlot == null) return null; // Страницы закончились
 
             HeapPage page = (HeapPage) bufferSlot.getPage();
+            while (currentRowIndex < page.size()) {
+                int slot = currentRowIndex++;
+                if (!page.isLive(slot)) continue;
+                tuple.reset(page.bytes(), page.rowOffset(slot));
+                if (predicate == null || predicate.eval(tuple)) {
+                    return tuple;
+                }
+            }
+            // Переходим к следующей странице
+            currentPageId++;
+            currentRowIndex = 0;
+        }
+        return null;
+    }
 
-            // Если есть строки на текущей странице
-            if (currentRowIndex < page.size()) {
-                byte[] rowData = page.read(currentRowIndex);
-                currentRowIndex++;
-                return rowData; // Возвращаем сырые байты строки
-            } else {
+    @Override
+    public RowBatch nextBatch() {
+        if (!isOpen) return null;
+
+        batch.reset();
+        while (!batch.isFull() && hasPage()) {
+            var bufferSlot = bufferPool.getPage(currentPageId);
+            if (bufferSlot == null) break; // Страницы закончились
+
+            HeapPage page = (HeapPage) bufferSlot.getPage();
+            byte[] bytes = page.bytes();
+            int rows = page.size();
+
+            // Забираем строки текущей страницы, пока есть место в пачке
+            while (currentRowIndex < rows && !batch.isFull()) {
+                int slot = currentRowIndex++;
+                if (!page.isLive(slot)) continue;
+                int pos = page.rowOffset(slot);
+                if (predicate != null && !predicate.eval(tuple.reset(bytes, pos))) {
+                    continue;
+                }
+                int row = batch.addRow();
+                for (int c = 0; c < decodedEnd; c++) {
+                    ColumnVector column = batch.column(c);
+                    pos = decoded == null || decoded[c] ? column.decode(bytes, pos, row) : column.skip(bytes, pos);
+                }
+            }
+
+            if (currentRowIndex >= rows) {
                 // Переходим к следующей странице
                 currentPageId++;
                 currentRowIndex = 0;
             }
         }
+
+        return batch.size() > 0 ? batch : null;
+    }
+
+    private boolean hasPage() {
+        if (currentPageId < endPageId) return true;
+        if (morsels == null) return false;
+
+        int start = morsels.claim();
+        if (start < 0) return false;
+        currentPageId = start;
+        currentRowIndex = 0;
+        endPageId = morsels.end(start);
+        return true;
     }
 
     @Override
@@ -52,5 +173,6 @@ public class SeqScanExecutor implements Executor {
         isOpen = false;
         currentPageId = 0;
         currentRowIndex = 0;
+        resetRowCursor();
     }
-}
\ No newline at end of file
+}
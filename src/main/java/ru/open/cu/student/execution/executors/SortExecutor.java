@@ -0,0 +1,106 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.SortKey;
+import ru.open.cu.student.execution.sort.ExternalSorter;
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.sort.SortRecord;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Исполнитель ORDER BY — внешняя сортировка слиянием.
+ *
+ * При открытии весь вход ребенка превращается в записи {@link SortRecord}: нормализованный ключ,
+ * сравниваемый одним memcmp, плюс значения колонок в формате строки. Записи сортирует
+ * {@link ExternalSorter}: сверх memoryBudget они уходят на диск отсортированными прогонами,
+ * которые затем сливаются деревом проигравших. Выдача декодирует записи обратно в пачки.
+ */
+public class SortExecutor extends BatchExecutor {
+    public static final long DEFAULT_MEMORY_BUDGET = 16L * 1024 * 1024;
+
+    private final Executor child;
+    private final List<SortKey> sortKeys;
+    private final TupleSchema schema;
+    private final boolean[] carried;
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final int batchSize;
+    private final BatchTuple tuple = new BatchTuple();
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private ExternalSorter sorter;
+    private RecordSource sorted;
+    private RowBatch output;
+
+    /**
+     * @param carried какие колонки ребенка переносить в выход (остальные не читаются запросом); null — все
+     * @param tempDir каталог для прогонов; null — системный каталог временных файлов
+     */
+    public SortExecutor(Executor child, List<SortKey> sortKeys, TupleSchema schema, boolean[] carried,
+                        int batchSize, long memoryBudget, Path tempDir) {
+        this.child = child;
+        this.sortKeys = sortKeys;
+        this.schema = schema;
+        this.carried = carried;
+        this.batchSize = batchSize;
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    @Override
+    public void open() {
+        SortRowEncoder encoder = SortRowEncoder.compile(sortKeys, schema, carried);
+        sorter = new ExternalSorter(memoryBudget, tempDir);
+        child.open();
+        try {
+            RowBatch batch;
+            while ((batch = child.nextBatch()) != null) {
+                for (int k = 0; k < batch.selectedCount(); k++) {
+                    sorter.add(encoder.encode(tuple.reset(batch, batch.selectedRow(k)), builder));
+                }
+            }
+        } finally {
+            child.close();
+        }
+
+        sorted = sorter.sorted();
+        output = RowBatch.allocate(schema.types(), batchSize);
+        resetRowCursor();
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (sorted == null) return null;
+
+        output.reset();
+        int row = 0;
+        byte[] record;
+        while (row < output.capacity() && (record = sorted.next()) != null) {
+            SortRowEncoder.decode(record, output, row++);
+        }
+        output.setSize(row);
+        return row > 0 ? output : null;
+    }
+
+    /**
+     * Сколько прогонов сортировка сбросила на диск — для тестов и отладки.
+     */
+    public int getSpilledRuns() {
+        return sorter == null ? 0 : sorter.getSpilledRuns();
+    }
+
+    @Override
+    public void close() {
+        if (sorter != null) {
+            sorter.close();
+        }
+        sorted = null;
+        output = null;
+        resetRowCursor();
+    }
+}
@@ -0,0 +1,133 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.IntVector;
+import ru.open.cu.student.execution.vector.LongVector;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.util.List;
+
+/**
+ * Исполнитель COUNT/MIN/MAX по всей таблице без чтения строк.
+ *
+ * COUNT — сумма живых слотов страниц кучи, строки не декодируются.
+ * MIN/MAX целочисленной колонки берутся из сводки [min, max] ({@link ColumnRangeCache}); если сводки еще нет,
+ * она заводится и досчитывается одним проходом по одной колонке, дальше ее поддерживают вставки,
+ * а UPDATE и DELETE сбрасывают.
+ * Как и в HashAggregate, MIN/MAX по пустой таблице дают 0.
+ */
+public class TableAggregateExecutor extends BatchExecutor {
+    private final BufferPoolManager heap;
+    private final ColumnRangeCache columnRanges;
+    private final TableDefinition table;
+    private final List<FuncCall> aggregates;
+    private final TupleSchema schema;
+    private RowBatch output;
+    private boolean done;
+    private int pagesRead;
+
+    /**
+     * @param schema колонки таблицы, по именам которых разрешаются аргументы MIN/MAX
+     */
+    public TableAggregateExecutor(BufferPoolManager heap, ColumnRangeCache columnRanges, TableDefinition table,
+                                  List<FuncCall> aggregates, TupleSchema schema) {
+        this.heap = heap;
+        this.columnRanges = columnRanges;
+        this.table = table;
+        this.aggregates = aggregates;
+        this.schema = schema;
+    }
+
+    @Override
+    public void open() {
+        output = RowBatch.allocate(HashAggregateExecutor.outputTypes(List.of(), aggregates, schema), 1);
+        done = false;
+        pagesRead = 0;
+        resetRowCursor();
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (output == null || done) return null;
+        done = true;
+
+        output.reset();
+        int row = output.addRow();
+        long rows = -1;
+        for (int i = 0; i < aggregates.size(); i++) {
+            FuncCall call = aggregates.get(i);
+            long value;
+            if (call.name.equals("COUNT")) {
+                if (rows < 0) rows = countRows();
+                value = rows;
+            } else {
+                long[] range = columnRange(schema.indexOf(((ColumnRef) call.args.get(0)).column));
+                value = range[0] > range[1] ? 0 : call.name.equals("MIN") ? range[0] : range[1];
+            }
+            ColumnVector column = output.column(i);
+            if (column instanceof IntVector ints) {
+                ints.values[row] = (int) value;
+            } else {
+                ((LongVector) column).values[row] = value;
+            }
+        }
+        return output;
+    }
+
+    private long countRows() {
+        long rows = 0;
+        int pageCount = heap.getPageCount();
+        for (int pageId = 0; pageId < pageCount; pageId++) {
+            rows += ((HeapPage) heap.getPage(pageId).getPage()).liveCount();
+            pagesRead++;
+        }
+        return rows;
+    }
+
+    private long[] columnRange(int position) {
+        long[] range = columnRanges.get(table, position);
+        if (range != null) {
+            return range;
+        }
+        // Строки, вставленные после track, сводка учтет сама, даже если проход их не увидит
+        columnRanges.track(table, position);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        PageTuple tuple = new PageTuple(schema.types());
+        int pageCount = heap.getPageCount();
+        for (int pageId = 0; pageId < pageCount; pageId++) {
+            HeapPage page = (HeapPage) heap.getPage(pageId).getPage();
+            for (int slot = 0; slot < page.size(); slot++) {
+                if (!page.isLive(slot)) continue;
+                long value = tuple.reset(page.bytes(), page.rowOffset(slot)).getLong(position);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            pagesRead++;
+        }
+        columnRanges.complete(table, position, min, max);
+        range = columnRanges.get(table, position);
+        return range != null ? range : new long[]{min, max};
+    }
+
+    /**
+     * Сколько страниц кучи прочитал последний запуск; 0, если все ответы пришли из сводок.
+     */
+    public int getPagesRead() {
+        return pagesRead;
+    }
+
+    @Override
+    public void close() {
+        output = null;
+        resetRowCursor();
+    }
+}
@@ -0,0 +1,138 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.execution.sort.SortRecord;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.sort.SortThreshold;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.util.Arrays;
+
+/**
+ * Исполнитель ORDER BY ... LIMIT n для небольших n: вместо полной сортировки держит
+ * max-кучу из n лучших записей (память O(n), время O(rows · log n)).
+ *
+ * Для каждой строки сначала кодируется только ключ; если куча заполнена и ключ не лучше
+ * худшего в ней, строка отбрасывается без сборки записи. Худший ключ публикуется
+ * в {@link SortThreshold}, который сканирование проверяет еще на байтах страницы.
+ */
+public class TopNExecutor extends BatchExecutor {
+    private final Executor child;
+    private final SortRowEncoder encoder;
+    private final int limit;
+    private final TupleSchema schema;
+    private final int batchSize;
+    private final SortThreshold threshold;
+    private final BatchTuple tuple = new BatchTuple();
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private byte[][] heap;
+    private int size;
+    private int position;
+    private RowBatch output;
+
+    /**
+     * @param threshold граница, которую читает сканирование под этим узлом; null — не проталкивается
+     */
+    public TopNExecutor(Executor child, SortRowEncoder encoder, int limit, TupleSchema schema,
+                        int batchSize, SortThreshold threshold) {
+        this.child = child;
+        this.encoder = encoder;
+        this.limit = limit;
+        this.schema = schema;
+        this.batchSize = batchSize;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void open() {
+        heap = new byte[limit][];
+        size = 0;
+        if (limit > 0) {
+            child.open();
+            try {
+                RowBatch batch;
+                while ((batch = child.nextBatch()) != null) {
+                    for (int k = 0; k < batch.selectedCount(); k++) {
+                        offer(batch, batch.selectedRow(k));
+                    }
+                }
+            } finally {
+                child.close();
+            }
+        }
+
+        Arrays.sort(heap, 0, size, SortRecord.KEY_ORDER);
+        position = 0;
+        output = RowBatch.allocate(schema.types(), batchSize);
+        resetRowCursor();
+    }
+
+    private void offer(RowBatch batch, int row) {
+        tuple.reset(batch, row);
+        builder.reset();
+        encoder.encodeKey(tuple, builder);
+        if (size == limit && builder.compareKey(heap[0]) >= 0) {
+            return;
+        }
+
+        encoder.encodeValues(tuple, builder);
+        byte[] record = builder.build();
+        if (size < limit) {
+            heap[size] = record;
+            siftUp(size++);
+        } else {
+            heap[0] = record;
+            siftDown(0);
+        }
+        if (size == limit && threshold != null) {
+            threshold.update(heap[0]);
+        }
+    }
+
+    private void siftUp(int i) {
+        byte[] record = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (SortRecord.compare(heap[parent], record) >= 0) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = record;
+    }
+
+    private void siftDown(int i) {
+        byte[] record = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && SortRecord.compare(heap[child + 1], heap[child]) > 0) child++;
+            if (SortRecord.compare(record, heap[child]) >= 0) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = record;
+    }
+
+    @Override
+    public RowBatch nextBatch() {
+        if (heap == null || position >= size) return null;
+
+        output.reset();
+        int row = 0;
+        while (row < output.capacity() && position < size) {
+            SortRowEncoder.decode(heap[position++], output, row++);
+        }
+        output.setSize(row);
+        return output;
+    }
+
+    @Override
+    public void close() {
+        heap = null;
+        size = 0;
+        output = null;
+        resetRowCursor();
+    }
+}
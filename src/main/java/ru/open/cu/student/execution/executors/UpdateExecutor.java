@@ -0,0 +1,118 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.catalog.operation.TableModifier;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.memory.buffer.BufferPoolManager;
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Исполнитель UPDATE table SET col = expr, ... [WHERE condition].
+ *
+ * Страницы кучи обходятся через буферный пул до конца, запомненного при старте: каждая страница
+ * закрепляется, подходящие строки меняются прямо в ней, и страница помечается грязной один раз.
+ * Новые значения считаются по старой версии строки до ее изменения; строка той же длины
+ * пишется на место, длиннее — переезжает (см. {@link TableModifier}).
+ */
+public class UpdateExecutor implements Executor {
+
+    private final CatalogManager catalogManager;
+    private final ColumnRangeCache columnRanges;
+    private final BufferPoolManager bufferPool;
+    private final TableDefinition tableDefinition;
+    private final List<TargetEntry> assignments;
+    private final Expr condition;
+    private boolean done;
+
+    public UpdateExecutor(CatalogManager catalogManager, ColumnRangeCache columnRanges, BufferPoolManager bufferPool,
+                          TableDefinition tableDefinition, List<TargetEntry> assignments, Expr condition) {
+        this.catalogManager = catalogManager;
+        this.columnRanges = columnRanges;
+        this.bufferPool = bufferPool;
+        this.tableDefinition = tableDefinition;
+        this.assignments = assignments;
+        this.condition = condition;
+    }
+
+    @Override
+    public void open() {
+        done = false;
+    }
+
+    @Override
+    public Object next() {
+        if (done) return null;
+        done = true;
+
+        RowCodec codec = RowCodec.forTable(catalogManager, tableDefinition);
+        TupleSchema schema = TupleSchema.of(codec.getColumns(), codec.getColumnTypes());
+        ExpressionCompiler compiler = new ExpressionCompiler(schema);
+        BooleanEvaluator predicate = condition == null ? null : compiler.compilePredicate(condition);
+
+        // Выражение для каждой колонки; null — колонка не меняется
+        CompiledExpression[] values = new CompiledExpression[schema.size()];
+        for (TargetEntry assignment : assignments) {
+            int position = schema.indexOf(assignment.alias);
+            CompiledExpression value = compiler.compile(assignment.expr);
+            checkAssignable(assignment.alias, schema.type(position), value);
+            values[position] = value;
+        }
+
+        PageTuple tuple = new PageTuple(codec.getColumnTypes());
+        List<Object> row = new ArrayList<>(schema.size());
+        int pageCount = bufferPool.getPageCount();
+        try (TableModifier modifier = new TableModifier(catalogManager, columnRanges, tableDefinition, bufferPool)) {
+            for (int pageId = 0; pageId < pageCount; pageId++) {
+                var bufferSlot = bufferPool.getPage(pageId);
+                if (bufferSlot == null) break;
+
+                HeapPage page = (HeapPage) bufferSlot.getPage();
+                bufferPool.pinPage(pageId);
+                try {
+                    boolean changed = false;
+                    for (int slot = 0; slot < page.size(); slot++) {
+                        if (!page.isLive(slot)) continue;
+                        tuple.reset(page.bytes(), page.rowOffset(slot));
+                        if (predicate != null && !predicate.eval(tuple)) continue;
+
+                        row.clear();
+                        for (int c = 0; c < values.length; c++) {
+                            row.add(values[c] == null ? tuple.getValue(c) : values[c].evaluate(tuple));
+                        }
+                        modifier.update(page, slot, codec.encode(row));
+                        changed = true;
+                    }
+                    if (changed) {
+                        bufferPool.updatePage(pageId, page);
+                    }
+                } finally {
+                    bufferPool.unpinPage(pageId);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void checkAssignable(String column, ColumnType type, CompiledExpression value) {
+        boolean numeric = type == ColumnType.INTEGER || type == ColumnType.BIGINT;
+        if (numeric ? !value.isNumeric() : value.type() != type) {
+            throw new IllegalArgumentException("Cannot assign " + value.type() + " to column " + column + " of type " + type);
+        }
+    }
+
+    @Override
+    public void close() { }
+}
@@ -0,0 +1,11 @@
+package ru.open.cu.student.execution.expression;
+
+import ru.open.cu.student.execution.vector.RowBatch;
+
+/**
+ * Условие WHERE над пачкой: оставляет в векторе выбора только подходящие строки.
+ */
+@FunctionalInterface
+public interface BatchFilter {
+    void apply(RowBatch batch);
+}
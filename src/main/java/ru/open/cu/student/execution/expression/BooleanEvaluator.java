@@ -0,0 +1,11 @@
+package ru.open.cu.student.execution.expression;
+
+import ru.open.cu.student.execution.tuple.Tuple;
+
+/**
+ * Скомпилированный предикат или логическое выражение.
+ */
+@FunctionalInterface
+public interface BooleanEvaluator {
+    boolean eval(Tuple tuple);
+}
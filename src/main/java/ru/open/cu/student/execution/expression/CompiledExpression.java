@@ -0,0 +1,138 @@
+package ru.open.cu.student.execution.expression;
+
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.BooleanVector;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.IntVector;
+import ru.open.cu.student.execution.vector.LongVector;
+import ru.open.cu.student.execution.vector.VarcharVector;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Результат компиляции выражения: тип результата и вычислитель соответствующего вида.
+ *
+ * Для голой ссылки на колонку и для константы дополнительно известны номер колонки
+ * и значение — исполнители используют это, чтобы не вычислять выражение построчно.
+ */
+public final class CompiledExpression {
+
+    private final ColumnType type;
+    private final LongEvaluator longEvaluator;
+    private final BooleanEvaluator booleanEvaluator;
+    private final StringEvaluator stringEvaluator;
+    private final int column;
+    private final Object constant;
+
+    private CompiledExpression(ColumnType type, LongEvaluator longEvaluator, BooleanEvaluator booleanEvaluator,
+                               StringEvaluator stringEvaluator, int column, Object constant) {
+        this.type = type;
+        this.longEvaluator = longEvaluator;
+        this.booleanEvaluator = booleanEvaluator;
+        this.stringEvaluator = stringEvaluator;
+        this.column = column;
+        this.constant = constant;
+    }
+
+    public static CompiledExpression column(int index, ColumnType type) {
+        return switch (type) {
+            case INTEGER -> new CompiledExpression(type, t -> t.getInt(index), null, null, index, null);
+            case BIGINT -> new CompiledExpression(type, t -> t.getLong(index), null, null, index, null);
+            case BOOLEAN -> new CompiledExpression(type, null, t -> t.getBoolean(index), null, index, null);
+            case VARCHAR -> new CompiledExpression(type, null, null, t -> t.getString(index), index, null);
+        };
+    }
+
+    public static CompiledExpression constant(Object value) {
+        ColumnType type = ColumnType.ofValue(value);
+        return switch (type) {
+            case INTEGER, BIGINT -> {
+                long v = ((Number) value).longValue();
+                yield new CompiledExpression(type, t -> v, null, null, -1, value);
+            }
+            case BOOLEAN -> {
+                boolean v = (Boolean) value;
+                yield new CompiledExpression(type, null, t -> v, null, -1, value);
+            }
+            case VARCHAR -> {
+                String v = value.toString();
+                yield new CompiledExpression(type, null, null, t -> v, -1, v);
+            }
+        };
+    }
+
+    public static CompiledExpression ofLong(ColumnType type, LongEvaluator evaluator) {
+        return new CompiledExpression(type, evaluator, null, null, -1, null);
+    }
+
+    public static CompiledExpression ofBoolean(BooleanEvaluator evaluator) {
+        return new CompiledExpression(ColumnType.BOOLEAN, null, evaluator, null, -1, null);
+    }
+
+    public ColumnType type() {
+        return type;
+    }
+
+    public boolean isNumeric() {
+        return type == ColumnType.INTEGER || type == ColumnType.BIGINT;
+    }
+
+    public boolean isColumn() {
+        return column >= 0;
+    }
+
+    public int columnIndex() {
+        return column;
+    }
+
+    public boolean isConstant() {
+        return constant != null;
+    }
+
+    public Object constantValue() {
+        return constant;
+    }
+
+    public LongEvaluator asLong() {
+        if (longEvaluator == null) throw new IllegalArgumentException("Expected a number, got " + type);
+        return longEvaluator;
+    }
+
+    public BooleanEvaluator asBoolean() {
+        if (booleanEvaluator == null) throw new IllegalArgumentException("Expected a boolean, got " + type);
+        return booleanEvaluator;
+    }
+
+    public StringEvaluator asString() {
+        if (stringEvaluator == null) throw new IllegalArgumentException("Expected a varchar, got " + type);
+        return stringEvaluator;
+    }
+
+    /**
+     * Значение для клиента (с упаковкой).
+     */
+    public Object evaluate(Tuple tuple) {
+        return switch (type) {
+            case INTEGER -> (int) longEvaluator.eval(tuple);
+            case BIGINT -> longEvaluator.eval(tuple);
+            case BOOLEAN -> booleanEvaluator.eval(tuple);
+            case VARCHAR -> stringEvaluator.eval(tuple);
+        };
+    }
+
+    /**
+     * Вычисляет выражение и пишет результат в строку row вектора того же типа.
+     */
+    public void evaluateInto(ColumnVector vector, int row, Tuple tuple) {
+        switch (type) {
+            case INTEGER -> ((IntVector) vector).values[row] = (int) longEvaluator.eval(tuple);
+            case BIGINT -> ((LongVector) vector).values[row] = longEvaluator.eval(tuple);
+            case BOOLEAN -> ((BooleanVector) vector).values[row] = booleanEvaluator.eval(tuple);
+            case VARCHAR -> {
+                byte[] bytes = stringEvaluator.eval(tuple).getBytes(StandardCharsets.UTF_8);
+                ((VarcharVector) vector).set(row, bytes, 0, bytes.length);
+            }
+        }
+    }
+}
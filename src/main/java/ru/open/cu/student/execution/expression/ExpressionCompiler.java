@@ -0,0 +1,416 @@
+package ru.open.cu.student.execution.expression;
+
+import ru.open.cu.student.ast.AConst;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.AstNode;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Const;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.ast.InExpr;
+import ru.open.cu.student.ast.ParamRef;
+import ru.open.cu.student.ast.SubLink;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Компилятор выражений WHERE и SELECT-списка в дерево типизированных замыканий.
+ *
+ * Типы и номера колонок разрешаются один раз при компиляции, оператор выбирается
+ * отдельной лямбдой на каждую комбинацию — при вычислении нет ни разбора AST,
+ * ни упаковки чисел, ни ветвления по типу. Константные подвыражения сворачиваются.
+ * Целые вычисляются в long; результат integer, если оба операнда integer, иначе bigint.
+ * IN со списком констант проверяется одним поиском в хеш-множестве, а не цепочкой сравнений.
+ */
+public class ExpressionCompiler {
+    private final TupleSchema schema;
+
+    public ExpressionCompiler(TupleSchema schema) {
+        this.schema = schema;
+    }
+
+    public CompiledExpression compile(AstNode node) {
+        if (node instanceof ColumnRef ref) {
+            return compileColumn(ref);
+        }
+        if (node instanceof AConst ac) {
+            return constant(ac.value);
+        }
+        if (node instanceof Const c) {
+            return constant(c.getValue());
+        }
+        if (node instanceof ParamRef param) {
+            // Значение параметра подставлено до выполнения плана — для исполнителя это константа
+            return constant(param.getValue());
+        }
+        if (node instanceof AExpr expr) {
+            CompiledExpression compiled = compileOperator(expr);
+            // Выражение без колонок вычисляется один раз при компиляции
+            return isConstantTree(expr) ? CompiledExpression.constant(compiled.evaluate(null)) : compiled;
+        }
+        if (node instanceof InExpr in) {
+            CompiledExpression compiled = compileIn(in);
+            return isConstantTree(in) ? CompiledExpression.constant(compiled.evaluate(null)) : compiled;
+        }
+        if (node instanceof SubLink link) {
+            // Планировщик выносит подзапросы WHERE в полусоединения
+            throw new IllegalArgumentException("Subqueries are supported only as AND-ed WHERE conditions: " + link);
+        }
+        if (node instanceof FuncCall call) {
+            // Агрегаты вычисляет HashAggregate, выше него на их место подставлены ссылки на колонки
+            throw new IllegalArgumentException("Aggregate functions are not allowed here: " + call);
+        }
+        throw new IllegalArgumentException("Unsupported expression: " + node);
+    }
+
+    public BooleanEvaluator compilePredicate(AstNode node) {
+        CompiledExpression compiled = compile(node);
+        if (compiled.type() != ColumnType.BOOLEAN) {
+            throw new IllegalArgumentException("WHERE condition must be boolean: " + node);
+        }
+        return compiled.asBoolean();
+    }
+
+    /**
+     * Фильтр пачки: сравнения колонки с константой и IN по списку чисел идут векторными циклами по примитивным массивам,
+     * AND применяется как последовательное сужение выбора, остальное — построчно скомпилированным предикатом.
+     */
+    public BatchFilter compileFilter(AstNode node) {
+        if (node instanceof AExpr expr && expr.getOp().equalsIgnoreCase("AND")) {
+            BatchFilter left = compileFilter(expr.getLeft());
+            BatchFilter right = compileFilter(expr.getRight());
+            return batch -> {
+                left.apply(batch);
+                if (batch.selectedCount() > 0) right.apply(batch);
+            };
+        }
+
+        if (node instanceof AExpr expr && isComparison(expr.getOp())) {
+            CompiledExpression left = compile(expr.getLeft());
+            CompiledExpression right = compile(expr.getRight());
+            String op = normalizeOp(expr.getOp());
+            if (left.isColumn() && right.isConstant()) {
+                checkComparable(left, right);
+                return VectorFilters.compare(left.columnIndex(), op, right.constantValue());
+            }
+            if (right.isColumn() && left.isConstant()) {
+                checkComparable(left, right);
+                return VectorFilters.compare(right.columnIndex(), flip(op), left.constantValue());
+            }
+        }
+
+        if (node instanceof InExpr in) {
+            CompiledExpression operand = compile(in.expr);
+            List<CompiledExpression> values = compileList(in, operand);
+            if (operand.isColumn() && operand.isNumeric() && allConstant(values)) {
+                return VectorFilters.in(operand.columnIndex(), longSet(values));
+            }
+        }
+
+        BooleanEvaluator predicate = compilePredicate(node);
+        BatchTuple tuple = new BatchTuple();
+        return batch -> {
+            int[] sel = batch.selection();
+            int count = batch.selectedCount();
+            int out = 0;
+            for (int k = 0; k < count; k++) {
+                int r = batch.selectedRow(k);
+                if (predicate.eval(tuple.reset(batch, r))) sel[out++] = r;
+            }
+            batch.setSelected(out);
+        };
+    }
+
+    /**
+     * Ссылка на колонку. Парсер представляет числовые литералы как ColumnRef, поэтому имя,
+     * не найденное среди колонок, но являющееся числом, становится константой.
+     */
+    private CompiledExpression compileColumn(ColumnRef ref) {
+        int index = schema.indexOf(ref.column);
+        if (index >= 0) {
+            return CompiledExpression.column(index, schema.type(index));
+        }
+        try {
+            long value = Long.parseLong(ref.column);
+            return constant(value == (int) value ? (Object) (int) value : (Object) value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Column not found: " + ref.column);
+        }
+    }
+
+    private static CompiledExpression constant(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("NULL is not supported in expressions");
+        }
+        return CompiledExpression.constant(value);
+    }
+
+    private CompiledExpression compileOperator(AExpr expr) {
+        String op = normalizeOp(expr.getOp());
+        switch (op) {
+            case "AND", "OR" -> {
+                BooleanEvaluator l = compile(expr.getLeft()).asBoolean();
+                BooleanEvaluator r = compile(expr.getRight()).asBoolean();
+                return op.equals("AND")
+                        ? CompiledExpression.ofBoolean(t -> l.eval(t) && r.eval(t))
+                        : CompiledExpression.ofBoolean(t -> l.eval(t) || r.eval(t));
+            }
+            case "NOT" -> {
+                BooleanEvaluator x = compile(expr.getRight()).asBoolean();
+                return CompiledExpression.ofBoolean(t -> !x.eval(t));
+            }
+            case "+", "-", "*", "/", "%" -> {
+                return arithmetic(op, compile(expr.getLeft()), compile(expr.getRight()));
+            }
+            case "=", "!=", "<", "<=", ">", ">=" -> {
+                return comparison(op, compile(expr.getLeft()), compile(expr.getRight()));
+            }
+            default -> throw new IllegalArgumentException("Unsupported operator: " + expr.getOp());
+        }
+    }
+
+    /**
+     * expr IN (...): список констант становится хеш-множеством (для чисел — примитивным),
+     * список с колонками проверяется сравнениями по очереди.
+     */
+    private CompiledExpression compileIn(InExpr in) {
+        CompiledExpression operand = compile(in.expr);
+        List<CompiledExpression> values = compileList(in, operand);
+
+        if (!allConstant(values)) {
+            BooleanEvaluator[] tests = new BooleanEvaluator[values.size()];
+            for (int i = 0; i < tests.length; i++) {
+                tests[i] = comparison("=", operand, values.get(i)).asBoolean();
+            }
+            return CompiledExpression.ofBoolean(t -> {
+                for (BooleanEvaluator test : tests) {
+                    if (test.eval(t)) return true;
+                }
+                return false;
+            });
+        }
+
+        if (operand.isNumeric()) {
+            LongHashSet set = longSet(values);
+            if (operand.isColumn()) {
+                int i = operand.columnIndex();
+                return operand.type() == ColumnType.INTEGER
+                        ? CompiledExpression.ofBoolean(t -> set.contains(t.getInt(i)))
+                        : CompiledExpression.ofBoolean(t -> set.contains(t.getLong(i)));
+            }
+            LongEvaluator x = operand.asLong();
+            return CompiledExpression.ofBoolean(t -> set.contains(x.eval(t)));
+        }
+        if (operand.type() == ColumnType.VARCHAR) {
+            Set<String> set = new HashSet<>();
+            for (CompiledExpression value : values) {
+                set.add((String) value.constantValue());
+            }
+            StringEvaluator x = operand.asString();
+            return CompiledExpression.ofBoolean(t -> set.contains(x.eval(t)));
+        }
+        boolean hasTrue = values.stream().anyMatch(v -> (Boolean) v.constantValue());
+        boolean hasFalse = values.stream().anyMatch(v -> !(Boolean) v.constantValue());
+        BooleanEvaluator x = operand.asBoolean();
+        return CompiledExpression.ofBoolean(t -> x.eval(t) ? hasTrue : hasFalse);
+    }
+
+    private List<CompiledExpression> compileList(InExpr in, CompiledExpression operand) {
+        List<CompiledExpression> values = new ArrayList<>(in.values.size());
+        for (AstNode value : in.values) {
+            CompiledExpression compiled = compile(value);
+            checkComparable(operand, compiled);
+            values.add(compiled);
+        }
+        return values;
+    }
+
+    private static boolean allConstant(List<CompiledExpression> values) {
+        for (CompiledExpression value : values) {
+            if (!value.isConstant()) return false;
+        }
+        return true;
+    }
+
+    private static LongHashSet longSet(List<CompiledExpression> values) {
+        long[] keys = new long[values.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((Number) values.get(i).constantValue()).longValue();
+        }
+        return new LongHashSet(keys);
+    }
+
+    private static CompiledExpression arithmetic(String op, CompiledExpression left, CompiledExpression right) {
+        if (!left.isNumeric() || !right.isNumeric()) {
+            throw new IllegalArgumentException("Operator " + op + " requires numbers, got "
+                    + left.type() + " and " + right.type());
+        }
+        ColumnType type = left.type() == ColumnType.INTEGER && right.type() == ColumnType.INTEGER
+                ? ColumnType.INTEGER : ColumnType.BIGINT;
+        LongEvaluator l = left.asLong();
+        LongEvaluator r = right.asLong();
+        LongEvaluator result = switch (op) {
+            case "+" -> t -> l.eval(t) + r.eval(t);
+            case "-" -> t -> l.eval(t) - r.eval(t);
+            case "*" -> t -> l.eval(t) * r.eval(t);
+            case "/" -> t -> {
+                long a = l.eval(t);
+                return a / divisor(r.eval(t));
+            };
+            case "%" -> t -> {
+                long a = l.eval(t);
+                return a % divisor(r.eval(t));
+            };
+            default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+        };
+        return CompiledExpression.ofLong(type, result);
+    }
+
+    private static long divisor(long value) {
+        if (value == 0) throw new ArithmeticException("division by zero");
+        return value;
+    }
+
+    private static CompiledExpression comparison(String op, CompiledExpression left, CompiledExpression right) {
+        checkComparable(left, right);
+
+        if (left.isNumeric()) {
+            // Самый частый случай — колонка против константы: константа захватывается в лямбду как long
+            if (left.isColumn() && right.isConstant()) {
+                return CompiledExpression.ofBoolean(compareLongConstant(op, left, ((Number) right.constantValue()).longValue()));
+            }
+            if (right.isColumn() && left.isConstant()) {
+                return CompiledExpression.ofBoolean(compareLongConstant(flip(op), right, ((Number) left.constantValue()).longValue()));
+            }
+            LongEvaluator l = left.asLong();
+            LongEvaluator r = right.asLong();
+            return CompiledExpression.ofBoolean(switch (op) {
+                case "=" -> t -> l.eval(t) == r.eval(t);
+                case "!=" -> t -> l.eval(t) != r.eval(t);
+                case "<" -> t -> l.eval(t) < r.eval(t);
+                case "<=" -> t -> l.eval(t) <= r.eval(t);
+                case ">" -> t -> l.eval(t) > r.eval(t);
+                case ">=" -> t -> l.eval(t) >= r.eval(t);
+                default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+            });
+        }
+
+        if (left.type() == ColumnType.VARCHAR) {
+            // Колонка против литерала сравнивается по байтам UTF-8 прямо в кортеже, без создания строки
+            if (left.isColumn() && right.isConstant()) {
+                return CompiledExpression.ofBoolean(compareUtf8Constant(op, left.columnIndex(), (String) right.constantValue()));
+            }
+            if (right.isColumn() && left.isConstant()) {
+                return CompiledExpression.ofBoolean(compareUtf8Constant(flip(op), right.columnIndex(), (String) left.constantValue()));
+            }
+            StringEvaluator l = left.asString();
+            StringEvaluator r = right.asString();
+            return CompiledExpression.ofBoolean(t -> matches(op, compareUtf16AsUtf8(l.eval(t), r.eval(t))));
+        }
+
+        BooleanEvaluator l = left.asBoolean();
+        BooleanEvaluator r = right.asBoolean();
+        return CompiledExpression.ofBoolean(t -> matches(op, Boolean.compare(l.eval(t), r.eval(t))));
+    }
+
+    private static BooleanEvaluator compareLongConstant(String op, CompiledExpression column, long c) {
+        int i = column.columnIndex();
+        if (column.type() == ColumnType.INTEGER) {
+            return switch (op) {
+                case "=" -> t -> t.getInt(i) == c;
+                case "!=" -> t -> t.getInt(i) != c;
+                case "<" -> t -> t.getInt(i) < c;
+                case "<=" -> t -> t.getInt(i) <= c;
+                case ">" -> t -> t.getInt(i) > c;
+                case ">=" -> t -> t.getInt(i) >= c;
+                default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+            };
+        }
+        return switch (op) {
+            case "=" -> t -> t.getLong(i) == c;
+            case "!=" -> t -> t.getLong(i) != c;
+            case "<" -> t -> t.getLong(i) < c;
+            case "<=" -> t -> t.getLong(i) <= c;
+            case ">" -> t -> t.getLong(i) > c;
+            case ">=" -> t -> t.getLong(i) >= c;
+            default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+        };
+    }
+
+    private static BooleanEvaluator compareUtf8Constant(String op, int index, String constant) {
+        byte[] c = constant.getBytes(StandardCharsets.UTF_8);
+        return switch (op) {
+            case "=" -> t -> t.compareUtf8(index, c) == 0;
+            case "!=" -> t -> t.compareUtf8(index, c) != 0;
+            case "<" -> t -> t.compareUtf8(index, c) < 0;
+            case "<=" -> t -> t.compareUtf8(index, c) <= 0;
+            case ">" -> t -> t.compareUtf8(index, c) > 0;
+            case ">=" -> t -> t.compareUtf8(index, c) >= 0;
+            default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+        };
+    }
+
+    /**
+     * Сравнение строк в том же порядке, что и побайтовое сравнение UTF-8 в хранилище.
+     */
+    private static int compareUtf16AsUtf8(String a, String b) {
+        return Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void checkComparable(CompiledExpression left, CompiledExpression right) {
+        boolean sameKind = left.isNumeric() ? right.isNumeric() : left.type() == right.type();
+        if (!sameKind) {
+            throw new IllegalArgumentException("Cannot compare " + left.type() + " with " + right.type());
+        }
+    }
+
+    private boolean isConstantTree(AstNode node) {
+        if (node == null || node instanceof AConst || node instanceof Const || node instanceof ParamRef) return true;
+        if (node instanceof ColumnRef ref) return schema.indexOf(ref.column) < 0;
+        if (node instanceof AExpr expr) return isConstantTree(expr.getLeft()) && isConstantTree(expr.getRight());
+        if (node instanceof InExpr in) return isConstantTree(in.expr) && in.values.stream().allMatch(this::isConstantTree);
+        return false;
+    }
+
+    static boolean matches(String op, int cmp) {
+        return switch (op) {
+            case "=" -> cmp == 0;
+            case "!=" -> cmp != 0;
+            case "<" -> cmp < 0;
+            case "<=" -> cmp <= 0;
+            case ">" -> cmp > 0;
+            case ">=" -> cmp >= 0;
+            default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+        };
+    }
+
+    private static boolean isComparison(String op) {
+        return switch (normalizeOp(op)) {
+            case "=", "!=", "<", "<=", ">", ">=" -> true;
+            default -> false;
+        };
+    }
+
+    private static String normalizeOp(String op) {
+        String upper = op.toUpperCase();
+        return upper.equals("<>") ? "!=" : upper;
+    }
+
+    static String flip(String op) {
+        return switch (op) {
+            case "<" -> ">";
+            case "<=" -> ">=";
+            case ">" -> "<";
+            case ">=" -> "<=";
+            default -> op;
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package ru.open.cu.student.execution.expression;
+
+import ru.open.cu.student.execution.tuple.Tuple;
+
+/**
+ * Скомпилированное целочисленное выражение (integer и bigint вычисляются в long).
+ */
+@FunctionalInterface
+public interface LongEvaluator {
+    long eval(Tuple tuple);
+}
@@ -0,0 +1,56 @@
+package ru.open.cu.student.execution.expression;
+
+/**
+ * Неизменяемое множество long для IN со списком констант: открытая адресация с линейным
+ * пробированием в примитивном массиве. 0 — признак пустого слота, сам 0 хранится отдельным флагом.
+ */
+final class LongHashSet {
+    private final long[] slots;
+    private final int mask;
+    private boolean containsZero;
+
+    LongHashSet(long[] values) {
+        int capacity = Integer.highestOneBit(Math.max(values.length, 1) * 2 - 1) << 1;
+        this.slots = new long[Math.max(capacity, 16)];
+        this.mask = slots.length - 1;
+        for (long value : values) {
+            add(value);
+        }
+    }
+
+    private void add(long value) {
+        if (value == 0) {
+            containsZero = true;
+            return;
+        }
+        int slot = (int) mix(value) & mask;
+        while (slots[slot] != 0) {
+            if (slots[slot] == value) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = value;
+    }
+
+    boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int slot = (int) mix(value) & mask;
+        long current;
+        while ((current = slots[slot]) != 0) {
+            if (current == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.open.cu.student.execution.expression;
+
+import ru.open.cu.student.execution.tuple.Tuple;
+
+/**
+ * Скомпилированное строковое выражение.
+ */
+@FunctionalInterface
+public interface StringEvaluator {
+    String eval(Tuple tuple);
+}
@@ -0,0 +1,112 @@
+package ru.open.cu.student.execution.expression;
+
+import ru.open.cu.student.execution.vector.BooleanVector;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.IntVector;
+import ru.open.cu.student.execution.vector.LongVector;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.execution.vector.VarcharVector;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Векторные фильтры «колонка оператор константа» и «колонка IN (константы)»: отдельный цикл по примитивному массиву
+ * для каждого типа и оператора, без вызовов на каждую строку.
+ */
+final class VectorFilters {
+
+    private VectorFilters() {
+    }
+
+    static BatchFilter compare(int column, String op, Object constant) {
+        if (constant instanceof String s) {
+            byte[] c = s.getBytes(StandardCharsets.UTF_8);
+            return batch -> {
+                VarcharVector v = (VarcharVector) batch.column(column);
+                int[] sel = batch.selection();
+                int count = batch.selectedCount();
+                int out = 0;
+                for (int k = 0; k < count; k++) {
+                    int r = batch.selectedRow(k);
+                    if (ExpressionCompiler.matches(op, v.compare(r, c))) sel[out++] = r;
+                }
+                batch.setSelected(out);
+            };
+        }
+        if (constant instanceof Boolean b) {
+            boolean c = b;
+            return batch -> {
+                boolean[] v = ((BooleanVector) batch.column(column)).values;
+                int[] sel = batch.selection();
+                int count = batch.selectedCount();
+                int out = 0;
+                for (int k = 0; k < count; k++) {
+                    int r = batch.selectedRow(k);
+                    if (ExpressionCompiler.matches(op, Boolean.compare(v[r], c))) sel[out++] = r;
+                }
+                batch.setSelected(out);
+            };
+        }
+        long c = ((Number) constant).longValue();
+        return batch -> {
+            ColumnVector vector = batch.column(column);
+            if (vector instanceof IntVector iv) {
+                filterInt(batch, iv.values, op, c);
+            } else {
+                filterLong(batch, ((LongVector) vector).values, op, c);
+            }
+        };
+    }
+
+    /**
+     * Числовая колонка IN (список констант): один поиск в хеш-множестве на строку.
+     */
+    static BatchFilter in(int column, LongHashSet set) {
+        return batch -> {
+            ColumnVector vector = batch.column(column);
+            int[] sel = batch.selection();
+            int count = batch.selectedCount();
+            int out = 0;
+            if (vector instanceof IntVector iv) {
+                int[] v = iv.values;
+                for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (set.contains(v[r])) sel[out++] = r; }
+            } else {
+                long[] v = ((LongVector) vector).values;
+                for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (set.contains(v[r])) sel[out++] = r; }
+            }
+            batch.setSelected(out);
+        };
+    }
+
+    private static void filterInt(RowBatch batch, int[] v, String op, long c) {
+        int[] sel = batch.selection();
+        int count = batch.selectedCount();
+        int out = 0;
+        switch (op) {
+            case "=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] == c) sel[out++] = r; } }
+            case "!=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] != c) sel[out++] = r; } }
+            case "<" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] < c) sel[out++] = r; } }
+            case "<=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] <= c) sel[out++] = r; } }
+            case ">" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] > c) sel[out++] = r; } }
+            case ">=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] >= c) sel[out++] = r; } }
+            default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+        }
+        batch.setSelected(out);
+    }
+
+    private static void filterLong(RowBatch batch, long[] v, String op, long c) {
+        int[] sel = batch.selection();
+        int count = batch.selectedCount();
+        int out = 0;
+        switch (op) {
+            case "=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] == c) sel[out++] = r; } }
+            case "!=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] != c) sel[out++] = r; } }
+            case "<" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] < c) sel[out++] = r; } }
+            case "<=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] <= c) sel[out++] = r; } }
+            case ">" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] > c) sel[out++] = r; } }
+            case ">=" -> { for (int k = 0; k < count; k++) { int r = batch.selectedRow(k); if (v[r] >= c) sel[out++] = r; } }
+            default -> throw new IllegalArgumentException("Unsupported operator: " + op);
+        }
+        batch.setSelected(out);
+    }
+}
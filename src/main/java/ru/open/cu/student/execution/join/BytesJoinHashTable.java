@@ -0,0 +1,76 @@
+package ru.open.cu.student.execution.join;
+
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.sort.SortRecordBuilder;
+import ru.open.cu.student.execution.tuple.Tuple;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Соединение по составному или нецелочисленному ключу: ключ кодируется ключевыми байтами
+ * SortRecordBuilder (однозначно, целые — как long), цепочки хранятся в HashMap по этим байтам.
+ */
+final class BytesJoinHashTable extends JoinHashTable {
+    // Заголовки массива, ByteBuffer, узла HashMap и Integer
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final List<CompiledExpression> buildKeys;
+    private final List<CompiledExpression> probeKeys;
+    private final SortRecordBuilder builder = new SortRecordBuilder();
+    private final Map<ByteBuffer, Integer> heads = new HashMap<>();
+    private long keyBytes;
+
+    BytesJoinHashTable(List<CompiledExpression> buildKeys, List<CompiledExpression> probeKeys) {
+        this.buildKeys = buildKeys;
+        this.probeKeys = probeKeys;
+    }
+
+    @Override
+    protected int link(Tuple buildRow, int id) {
+        byte[] key = encode(buildKeys, buildRow);
+        Integer head = heads.put(ByteBuffer.wrap(key), id);
+        if (head == null) {
+            keyBytes += key.length + ENTRY_OVERHEAD;
+            return -1;
+        }
+        return head;
+    }
+
+    @Override
+    public int first(Tuple probeRow) {
+        Integer head = heads.get(ByteBuffer.wrap(encode(probeKeys, probeRow)));
+        return head == null ? -1 : head;
+    }
+
+    private byte[] encode(List<CompiledExpression> keys, Tuple row) {
+        builder.reset();
+        for (CompiledExpression key : keys) {
+            switch (key.type()) {
+                case INTEGER, BIGINT -> builder.keyLong(key.asLong().eval(row), false);
+                case BOOLEAN -> builder.keyBoolean(key.asBoolean().eval(row), false);
+                case VARCHAR -> builder.keyUtf8(key.isColumn() ? row.getUtf8(key.columnIndex())
+                        : key.asString().eval(row).getBytes(StandardCharsets.UTF_8), false);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public long buildHash(Tuple buildRow) {
+        return ByteBuffer.wrap(encode(buildKeys, buildRow)).hashCode();
+    }
+
+    @Override
+    public long probeHash(Tuple probeRow) {
+        return ByteBuffer.wrap(encode(probeKeys, probeRow)).hashCode();
+    }
+
+    @Override
+    protected long indexBytes() {
+        return keyBytes;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.open.cu.student.execution.join;
+
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Хеш-таблица стороны построения хеш-соединения.
+ *
+ * Строки построения хранятся готовыми записями (формат SortRowEncoder) и связаны в цепочки
+ * по ключу: first() дает первую строку с ключом строки зонда, next() — следующую с тем же ключом.
+ * Ключи обеих сторон приводятся к одному виду (integer и bigint сравниваются как long),
+ * поэтому buildHash и probeHash совпадают для равных ключей — по ним же выбирается партиция на диске.
+ */
+public abstract class JoinHashTable {
+    // Заголовок массива записи и ссылка на нее в списке строк
+    private static final int ROW_OVERHEAD = 24;
+
+    private final List<byte[]> rows = new ArrayList<>();
+    private int[] next = new int[1024];
+    private long rowBytes;
+    // Объем пустой таблицы: массивы цепочек и индекса, заведенные до первой строки
+    private long emptyBytes;
+
+    /**
+     * Таблица под пары ключей: один целочисленный ключ — открытая адресация по long,
+     * иначе — ключ в виде байтов. Без ключей все строки попадают в одну цепочку (декартово произведение).
+     */
+    public static JoinHashTable create(List<CompiledExpression> buildKeys, List<CompiledExpression> probeKeys) {
+        if (buildKeys.size() != probeKeys.size()) {
+            throw new IllegalArgumentException("Join key count mismatch");
+        }
+        for (int i = 0; i < buildKeys.size(); i++) {
+            CompiledExpression build = buildKeys.get(i);
+            CompiledExpression probe = probeKeys.get(i);
+            boolean comparable = build.isNumeric() ? probe.isNumeric() : build.type() == probe.type();
+            if (!comparable) {
+                throw new IllegalArgumentException("Cannot join " + build.type() + " with " + probe.type());
+            }
+        }
+        if (buildKeys.size() == 1 && buildKeys.get(0).isNumeric()) {
+            return new LongJoinHashTable(buildKeys.get(0), probeKeys.get(0));
+        }
+        return new BytesJoinHashTable(buildKeys, probeKeys);
+    }
+
+    /**
+     * Добавляет строку построения; record — ее запись, которую потом вернет row().
+     */
+    public void insert(Tuple buildRow, byte[] record) {
+        int id = rows.size();
+        if (id == 0) {
+            emptyBytes = memoryBytes();
+        }
+        if (id == next.length) {
+            next = Arrays.copyOf(next, id * 2);
+        }
+        rows.add(record);
+        next[id] = link(buildRow, id);
+        rowBytes += record.length + ROW_OVERHEAD;
+    }
+
+    /**
+     * Делает строку id головой цепочки ее ключа и возвращает прежнюю голову или -1.
+     */
+    protected abstract int link(Tuple buildRow, int id);
+
+    /**
+     * Первая строка построения с ключом строки зонда или -1.
+     */
+    public abstract int first(Tuple probeRow);
+
+    /**
+     * Следующая строка построения с тем же ключом или -1.
+     */
+    public int next(int row) {
+        return next[row];
+    }
+
+    public byte[] row(int row) {
+        return rows.get(row);
+    }
+
+    public abstract long buildHash(Tuple buildRow);
+
+    public abstract long probeHash(Tuple probeRow);
+
+    /**
+     * Записи всех строк в порядке добавления — чтобы переложить их в партиции при переполнении.
+     */
+    public RecordSource records() {
+        int[] position = {0};
+        return () -> position[0] < rows.size() ? rows.get(position[0]++) : null;
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Примерный объем памяти таблицы в байтах.
+     */
+    public long memoryBytes() {
+        return rowBytes + next.length * 4L + indexBytes();
+    }
+
+    /**
+     * Память, которую заняли строки сверх пустой таблицы. С бюджетом сравнивается она:
+     * иначе при бюджете меньше начальных массивов сбрасывалась бы уже первая строка.
+     */
+    public long addedBytes() {
+        return rows.isEmpty() ? 0 : memoryBytes() - emptyBytes;
+    }
+
+    protected abstract long indexBytes();
+
+    static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.open.cu.student.execution.join;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.executors.Executor;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+
+import java.util.List;
+
+/**
+ * Вход соединения: исполнитель, ключи соединения над его схемой и какие колонки нужны запросу (null — все).
+ */
+public record JoinInput(Executor child, List<Expr> keys, TupleSchema schema, boolean[] carried) {
+}
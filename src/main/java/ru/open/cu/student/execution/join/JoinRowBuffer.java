@@ -0,0 +1,110 @@
+package ru.open.cu.student.execution.join;
+
+import ru.open.cu.student.execution.sort.RecordSource;
+import ru.open.cu.student.execution.sort.SpillFile;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Буфер строк внутренней стороны соединения слиянием: группа строк с одним ключом
+ * или растущий префикс для условия-неравенства.
+ *
+ * Записи держатся в памяти, пока укладываются в memoryBudget; переполнившая бюджет порция
+ * уходит во временный файл целиком. records() читает файлы и хвост в памяти с начала
+ * и вызывается для каждой строки внешней стороны заново.
+ */
+public final class JoinRowBuffer implements AutoCloseable {
+    // Заголовок массива записи и ссылка на нее в списке
+    private static final int ROW_OVERHEAD = 24;
+
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final List<SpillFile> segments = new ArrayList<>();
+    private final List<byte[]> rows = new ArrayList<>();
+    private long rowBytes;
+    private long size;
+    private int spilledSegments;
+
+    /**
+     * @param tempDir каталог для файлов; null — системный каталог временных файлов
+     */
+    public JoinRowBuffer(long memoryBudget, Path tempDir) {
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    public void add(byte[] record) {
+        rows.add(record);
+        rowBytes += record.length + ROW_OVERHEAD;
+        size++;
+        if (rowBytes > memoryBudget) {
+            SpillFile segment = SpillFile.create(tempDir, "merge-join-");
+            for (byte[] row : rows) {
+                segment.write(row);
+            }
+            segments.add(segment);
+            spilledSegments++;
+            rows.clear();
+            rowBytes = 0;
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Все записи буфера: сначала сброшенные на диск, затем из памяти. Буфер не меняется, пока источник читается.
+     */
+    public RecordSource records() {
+        Iterator<SpillFile> files = segments.iterator();
+        Iterator<byte[]> memory = rows.iterator();
+        return new RecordSource() {
+            private RecordSource file;
+
+            @Override
+            public byte[] next() {
+                while (file != null || files.hasNext()) {
+                    if (file == null) {
+                        file = files.next().read();
+                    }
+                    byte[] record = file.next();
+                    if (record != null) {
+                        return record;
+                    }
+                    file = null;
+                }
+                return memory.hasNext() ? memory.next() : null;
+            }
+        };
+    }
+
+    /**
+     * Сколько файлов было создано за время жизни буфера — для тестов и отладки.
+     */
+    public int getSpilledSegments() {
+        return spilledSegments;
+    }
+
+    public void clear() {
+        for (SpillFile segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        rows.clear();
+        rowBytes = 0;
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+}
@@ -0,0 +1,84 @@
+package ru.open.cu.student.execution.join;
+
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.LongEvaluator;
+import ru.open.cu.student.execution.tuple.Tuple;
+
+/**
+ * Соединение по одному целочисленному ключу: открытая адресация с линейным пробированием,
+ * слот хранит ключ и голову цепочки строк с этим ключом.
+ */
+final class LongJoinHashTable extends JoinHashTable {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final LongEvaluator buildKey;
+    private final LongEvaluator probeKey;
+    private long[] slotKeys = new long[INITIAL_CAPACITY];
+    // Номер головы цепочки + 1; 0 — пустой слот
+    private int[] slotHeads = new int[INITIAL_CAPACITY];
+    private int keys;
+
+    LongJoinHashTable(CompiledExpression buildKey, CompiledExpression probeKey) {
+        this.buildKey = buildKey.asLong();
+        this.probeKey = probeKey.asLong();
+    }
+
+    @Override
+    protected int link(Tuple buildRow, int id) {
+        long value = buildKey.eval(buildRow);
+        int slot = find(value);
+        int head = slotHeads[slot] - 1;
+        slotKeys[slot] = value;
+        slotHeads[slot] = id + 1;
+        if (head < 0 && ++keys * 2 > slotHeads.length) {
+            rehash();
+        }
+        return head;
+    }
+
+    @Override
+    public int first(Tuple probeRow) {
+        return slotHeads[find(probeKey.eval(probeRow))] - 1;
+    }
+
+    /**
+     * Слот с ключом value или пустой слот, где ему место.
+     */
+    private int find(long value) {
+        int mask = slotHeads.length - 1;
+        int slot = (int) mix(value) & mask;
+        while (slotHeads[slot] != 0 && slotKeys[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = slotKeys;
+        int[] oldHeads = slotHeads;
+        slotKeys = new long[oldKeys.length * 2];
+        slotHeads = new int[oldHeads.length * 2];
+        for (int i = 0; i < oldHeads.length; i++) {
+            if (oldHeads[i] != 0) {
+                int slot = find(oldKeys[i]);
+                slotKeys[slot] = oldKeys[i];
+                slotHeads[slot] = oldHeads[i];
+            }
+        }
+    }
+
+    @Override
+    public long buildHash(Tuple buildRow) {
+        return buildKey.eval(buildRow);
+    }
+
+    @Override
+    public long probeHash(Tuple probeRow) {
+        return probeKey.eval(probeRow);
+    }
+
+    @Override
+    protected long indexBytes() {
+        return slotKeys.length * 12L;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.open.cu.student.execution.sort;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Внешняя сортировка записей {@link SortRecord}.
+ *
+ * Записи копятся в памяти, пока их объем не превысит memoryBudget; тогда буфер сортируется
+ * и сбрасывается на диск отдельным отсортированным прогоном (run). В sorted() прогоны и остаток
+ * в памяти сливаются деревом проигравших; если прогонов больше MAX_FAN_IN, сначала выполняются
+ * промежуточные слияния. Временные файлы удаляются в close().
+ */
+public class ExternalSorter implements AutoCloseable {
+    public static final int MAX_FAN_IN = 64;
+    // Заголовок массива и ссылка на него в списке
+    private static final int RECORD_OVERHEAD = 24;
+
+    private final long memoryBudget;
+    private final Path tempDir;
+    private final List<byte[]> buffer = new ArrayList<>();
+    private final List<SpillFile> runs = new ArrayList<>();
+    private long bufferedBytes;
+    private int spilledRuns;
+
+    /**
+     * @param tempDir каталог для прогонов; null — системный каталог временных файлов
+     */
+    public ExternalSorter(long memoryBudget, Path tempDir) {
+        this.memoryBudget = memoryBudget;
+        this.tempDir = tempDir;
+    }
+
+    public void add(byte[] record) {
+        buffer.add(record);
+        bufferedBytes += record.length + RECORD_OVERHEAD;
+        if (bufferedBytes >= memoryBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Сколько прогонов было сброшено на диск (включая промежуточные слияния).
+     */
+    public int getSpilledRuns() {
+        return spilledRuns;
+    }
+
+    /**
+     * Все добавленные записи в порядке ключей. Вызывается один раз, после последнего add().
+     */
+    public RecordSource sorted() {
+        buffer.sort(SortRecord.KEY_ORDER);
+        if (runs.isEmpty()) {
+            Iterator<byte[]> it = buffer.iterator();
+            return () -> it.hasNext() ? it.next() : null;
+        }
+
+        // Остаток в памяти займет один вход финального слияния
+        while (runs.size() + 1 > MAX_FAN_IN) {
+            List<SpillFile> group = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+            runs.subList(0, MAX_FAN_IN).clear();
+            List<RecordSource> inputs = new ArrayList<>();
+            for (SpillFile run : group) {
+                inputs.add(run.read());
+            }
+            runs.add(writeRun(new LoserTree(inputs)));
+            for (SpillFile run : group) {
+                run.close();
+            }
+        }
+
+        List<RecordSource> inputs = new ArrayList<>();
+        for (SpillFile run : runs) {
+            inputs.add(run.read());
+        }
+        if (!buffer.isEmpty()) {
+            Iterator<byte[]> it = buffer.iterator();
+            inputs.add(() -> it.hasNext() ? it.next() : null);
+        }
+        return new LoserTree(inputs);
+    }
+
+    private void spill() {
+        buffer.sort(SortRecord.KEY_ORDER);
+        Iterator<byte[]> it = buffer.iterator();
+        runs.add(writeRun(() -> it.hasNext() ? it.next() : null));
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private SpillFile writeRun(RecordSource source) {
+        SpillFile run = SpillFile.create(tempDir, "sort-run-");
+        byte[] record;
+        while ((record = source.next()) != null) {
+            run.write(record);
+        }
+        spilledRuns++;
+        return run;
+    }
+
+    @Override
+    public void close() {
+        for (SpillFile run : runs) {
+            run.close();
+        }
+        runs.clear();
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+}
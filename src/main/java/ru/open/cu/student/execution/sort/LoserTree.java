@@ -0,0 +1,71 @@
+package ru.open.cu.student.execution.sort;
+
+import java.util.List;
+
+/**
+ * k-путевое слияние отсортированных потоков на дереве проигравших.
+ *
+ * Во внутренних узлах хранится проигравший в матче на этом узле, в tree[0] — общий победитель.
+ * После выдачи записи заменяется только голова победившего потока, и переигрываются
+ * матчи на пути от его листа к корню: log2(k) сравнений на запись.
+ */
+final class LoserTree implements RecordSource {
+    private final RecordSource[] sources;
+    private final byte[][] heads;
+    private final int[] tree;
+    private final int k;
+
+    LoserTree(List<RecordSource> sources) {
+        this.sources = sources.toArray(new RecordSource[0]);
+        this.k = this.sources.length;
+        this.heads = new byte[k][];
+        this.tree = new int[Math.max(k, 1)];
+        for (int i = 0; i < k; i++) {
+            heads[i] = this.sources[i].next();
+        }
+        tree[0] = k == 0 ? -1 : build(1);
+    }
+
+    /**
+     * Листья — узлы k..2k-1 (лист p соответствует потоку p - k), родитель узла n — n / 2.
+     */
+    private int build(int node) {
+        if (node >= k) return node - k;
+        int left = build(2 * node);
+        int right = build(2 * node + 1);
+        if (wins(left, right)) {
+            tree[node] = right;
+            return left;
+        }
+        tree[node] = left;
+        return right;
+    }
+
+    /**
+     * Побеждает меньшая запись; исчерпанный поток проигрывает всем.
+     */
+    private boolean wins(int a, int b) {
+        if (heads[a] == null) return heads[b] == null;
+        return heads[b] == null || SortRecord.compare(heads[a], heads[b]) <= 0;
+    }
+
+    @Override
+    public byte[] next() {
+        if (k == 0) return null;
+
+        int winner = tree[0];
+        byte[] record = heads[winner];
+        if (record == null) return null;
+
+        heads[winner] = sources[winner].next();
+        for (int node = (winner + k) / 2; node > 0; node /= 2) {
+            int loser = tree[node];
+            if (wins(loser, winner)) {
+                tree[node] = winner;
+                winner = loser;
+            }
+        }
+        tree[0] = winner;
+        return record;
+    }
+}
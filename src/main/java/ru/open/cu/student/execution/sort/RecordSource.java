@@ -0,0 +1,13 @@
+package ru.open.cu.student.execution.sort;
+
+/**
+ * Поток записей сортировки в порядке ключей.
+ */
+@FunctionalInterface
+public interface RecordSource {
+
+    /**
+     * Следующая запись или null, если записи закончились.
+     */
+    byte[] next();
+}
@@ -0,0 +1,35 @@
+package ru.open.cu.student.execution.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Формат записи внешней сортировки: [длина ключа, 4 байта big-endian][нормализованный ключ][данные строки].
+ *
+ * Ключ закодирован так, что порядок записей — это побайтовый беззнаковый порядок ключей,
+ * поэтому сравнение двух записей — один вызов Arrays.compareUnsigned.
+ */
+public final class SortRecord {
+    public static final int HEADER_SIZE = 4;
+
+    public static final Comparator<byte[]> KEY_ORDER = SortRecord::compare;
+
+    private SortRecord() {
+    }
+
+    public static int keyLength(byte[] record) {
+        return ((record[0] & 0xFF) << 24) | ((record[1] & 0xFF) << 16) | ((record[2] & 0xFF) << 8) | (record[3] & 0xFF);
+    }
+
+    /**
+     * Позиция данных строки (сразу за ключом).
+     */
+    public static int payloadOffset(byte[] record) {
+        return HEADER_SIZE + keyLength(record);
+    }
+
+    public static int compare(byte[] a, byte[] b) {
+        return Arrays.compareUnsigned(a, HEADER_SIZE, HEADER_SIZE + keyLength(a),
+                b, HEADER_SIZE, HEADER_SIZE + keyLength(b));
+    }
+}
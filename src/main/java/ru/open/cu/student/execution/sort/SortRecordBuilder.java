@@ -0,0 +1,114 @@
+package ru.open.cu.student.execution.sort;
+
+import java.util.Arrays;
+
+/**
+ * Сборка записи сортировки: сначала компоненты ключа, затем значения колонок строки.
+ *
+ * Кодирование ключа (порядок байтов = порядок значений):
+ * - целые — 8 байт big-endian с инвертированным знаковым битом;
+ * - boolean — один байт 0/1;
+ * - varchar — байты UTF-8, где 0x00 экранируется как 0x00 0xFF, и терминатор 0x00 0x00,
+ *   поэтому строка-префикс меньше своего продолжения, а составные ключи не смешиваются.
+ * Для DESC все байты компонента инвертируются.
+ *
+ * Значения колонок пишутся в формате строки RowCodec (little-endian) и читаются обратно
+ * через ColumnVector.decode.
+ */
+public final class SortRecordBuilder {
+    private byte[] key = new byte[64];
+    private int keyLength;
+    private byte[] payload = new byte[128];
+    private int payloadLength;
+
+    public SortRecordBuilder reset() {
+        keyLength = 0;
+        payloadLength = 0;
+        return this;
+    }
+
+    public void keyLong(long value, boolean descending) {
+        long bits = value ^ Long.MIN_VALUE;
+        ensureKey(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            putKey((int) (bits >>> shift), descending);
+        }
+    }
+
+    public void keyBoolean(boolean value, boolean descending) {
+        ensureKey(1);
+        putKey(value ? 1 : 0, descending);
+    }
+
+    public void keyUtf8(byte[] bytes, boolean descending) {
+        ensureKey(bytes.length * 2 + 2);
+        for (byte b : bytes) {
+            putKey(b, descending);
+            if (b == 0) putKey(0xFF, descending);
+        }
+        putKey(0, descending);
+        putKey(0, descending);
+    }
+
+    public void valueInt(int value) {
+        ensurePayload(4);
+        for (int i = 0; i < 4; i++) {
+            payload[payloadLength++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    public void valueLong(long value) {
+        ensurePayload(8);
+        for (int i = 0; i < 8; i++) {
+            payload[payloadLength++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    public void valueBoolean(boolean value) {
+        ensurePayload(1);
+        payload[payloadLength++] = (byte) (value ? 1 : 0);
+    }
+
+    public void valueUtf8(byte[] bytes) {
+        ensurePayload(2 + bytes.length);
+        payload[payloadLength++] = (byte) bytes.length;
+        payload[payloadLength++] = (byte) (bytes.length >>> 8);
+        System.arraycopy(bytes, 0, payload, payloadLength, bytes.length);
+        payloadLength += bytes.length;
+    }
+
+    /**
+     * Сравнение уже записанного ключа с ключом готовой записи — без сборки новой записи.
+     */
+    public int compareKey(byte[] record) {
+        return Arrays.compareUnsigned(key, 0, keyLength,
+                record, SortRecord.HEADER_SIZE, SortRecord.HEADER_SIZE + SortRecord.keyLength(record));
+    }
+
+    public byte[] build() {
+        byte[] record = new byte[SortRecord.HEADER_SIZE + keyLength + payloadLength];
+        record[0] = (byte) (keyLength >>> 24);
+        record[1] = (byte) (keyLength >>> 16);
+        record[2] = (byte) (keyLength >>> 8);
+        record[3] = (byte) keyLength;
+        System.arraycopy(key, 0, record, SortRecord.HEADER_SIZE, keyLength);
+        System.arraycopy(payload, 0, record, SortRecord.HEADER_SIZE + keyLength, payloadLength);
+        return record;
+    }
+
+    private void putKey(int b, boolean descending) {
+        key[keyLength++] = (byte) (descending ? ~b : b);
+    }
+
+    private void ensureKey(int extra) {
+        if (keyLength + extra > key.length) {
+            key = Arrays.copyOf(key, Math.max(key.length * 2, keyLength + extra));
+        }
+    }
+
+    private void ensurePayload(int extra) {
+        if (payloadLength + extra > payload.length) {
+            payload = Arrays.copyOf(payload, Math.max(payload.length * 2, payloadLength + extra));
+        }
+    }
+}
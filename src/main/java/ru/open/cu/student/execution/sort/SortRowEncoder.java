@@ -0,0 +1,98 @@
+package ru.open.cu.student.execution.sort;
+
+import ru.open.cu.student.ast.SortKey;
+import ru.open.cu.student.execution.expression.CompiledExpression;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Перевод строк входа сортировки в записи {@link SortRecord} и обратно.
+ *
+ * Ключи — уже скомпилированные выражения над схемой входа; значения колонок пишутся в формате строки,
+ * чтобы decode мог разложить запись прямо по векторам выходной пачки.
+ */
+public final class SortRowEncoder {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final List<CompiledExpression> keys;
+    private final boolean[] descending;
+    private final TupleSchema schema;
+    private final boolean[] carried;
+
+    /**
+     * @param carried какие колонки входа переносить в запись (остальные не читаются запросом); null — все
+     */
+    public SortRowEncoder(List<CompiledExpression> keys, boolean[] descending, TupleSchema schema, boolean[] carried) {
+        this.keys = keys;
+        this.descending = descending;
+        this.schema = schema;
+        this.carried = carried;
+    }
+
+    public static SortRowEncoder compile(List<SortKey> sortKeys, TupleSchema schema, boolean[] carried) {
+        ExpressionCompiler compiler = new ExpressionCompiler(schema);
+        List<CompiledExpression> keys = new ArrayList<>(sortKeys.size());
+        boolean[] descending = new boolean[sortKeys.size()];
+        for (int i = 0; i < sortKeys.size(); i++) {
+            keys.add(compiler.compile(sortKeys.get(i).expr));
+            descending[i] = sortKeys.get(i).descending;
+        }
+        return new SortRowEncoder(keys, descending, schema, carried);
+    }
+
+    public void encodeKey(Tuple tuple, SortRecordBuilder builder) {
+        for (int i = 0; i < keys.size(); i++) {
+            CompiledExpression key = keys.get(i);
+            switch (key.type()) {
+                case INTEGER, BIGINT -> builder.keyLong(key.asLong().eval(tuple), descending[i]);
+                case BOOLEAN -> builder.keyBoolean(key.asBoolean().eval(tuple), descending[i]);
+                case VARCHAR -> builder.keyUtf8(key.isColumn() ? tuple.getUtf8(key.columnIndex())
+                        : key.asString().eval(tuple).getBytes(StandardCharsets.UTF_8), descending[i]);
+            }
+        }
+    }
+
+    public void encodeValues(Tuple tuple, SortRecordBuilder builder) {
+        for (int c = 0; c < schema.size(); c++) {
+            // Непрочитанные колонки пишутся значением по умолчанию, чтобы формат записи не зависел от запроса
+            boolean present = carried == null || carried[c];
+            switch (schema.type(c)) {
+                case INTEGER -> builder.valueInt(present ? tuple.getInt(c) : 0);
+                case BIGINT -> builder.valueLong(present ? tuple.getLong(c) : 0);
+                case BOOLEAN -> builder.valueBoolean(present && tuple.getBoolean(c));
+                case VARCHAR -> builder.valueUtf8(present ? tuple.getUtf8(c) : EMPTY);
+            }
+        }
+    }
+
+    public byte[] encode(Tuple tuple, SortRecordBuilder builder) {
+        builder.reset();
+        encodeKey(tuple, builder);
+        encodeValues(tuple, builder);
+        return builder.build();
+    }
+
+    /**
+     * Раскладывает значения записи в строку row пачки со схемой входа.
+     */
+    public static void decode(byte[] record, RowBatch batch, int row) {
+        decode(record, batch, row, 0, batch.columnCount());
+    }
+
+    /**
+     * Раскладывает count значений записи в колонки [firstColumn, firstColumn + count) строки row —
+     * когда схема входа занимает часть колонок пачки (сторона соединения).
+     */
+    public static void decode(byte[] record, RowBatch batch, int row, int firstColumn, int count) {
+        int pos = SortRecord.payloadOffset(record);
+        for (int c = 0; c < count; c++) {
+            pos = batch.column(firstColumn + c).decode(record, pos, row);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.open.cu.student.execution.sort;
+
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.tuple.Tuple;
+
+/**
+ * Динамическая граница Top-N, проталкиваемая в сканирование: пропускает только строки,
+ * чей ключ меньше текущего худшего ключа в куче.
+ *
+ * Граница только убывает, поэтому ее можно читать без блокировки из воркеров параллельного
+ * сканирования: устаревшее значение лишь пропустит строку, которую куча потом отбросит сама.
+ */
+public final class SortThreshold implements BooleanEvaluator {
+    private final SortRowEncoder encoder;
+    private final ThreadLocal<SortRecordBuilder> builders = ThreadLocal.withInitial(SortRecordBuilder::new);
+    private volatile byte[] bound;
+
+    public SortThreshold(SortRowEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * Новая граница — запись с худшим ключом, который еще попадает в результат.
+     */
+    public void update(byte[] record) {
+        bound = record;
+    }
+
+    @Override
+    public boolean eval(Tuple tuple) {
+        byte[] current = bound;
+        if (current == null) return true;
+
+        SortRecordBuilder builder = builders.get().reset();
+        encoder.encodeKey(tuple, builder);
+        return builder.compareKey(current) < 0;
+    }
+}
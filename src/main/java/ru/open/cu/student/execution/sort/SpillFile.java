@@ -0,0 +1,109 @@
+package ru.open.cu.student.execution.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Временный файл записей с префиксом длины: прогоны сортировки, партиции агрегации.
+ *
+ * Сначала записи только дописываются, затем read() закрывает запись и открывает чтение с начала;
+ * повторный read() снова читает файл с начала.
+ * close() закрывает потоки и удаляет файл.
+ */
+public final class SpillFile implements AutoCloseable {
+    private static final int IO_BUFFER = 64 * 1024;
+
+    private final Path path;
+    private DataOutputStream out;
+    private DataInputStream in;
+    private long records;
+
+    private SpillFile(Path path) throws IOException {
+        this.path = path;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), IO_BUFFER));
+    }
+
+    /**
+     * @param tempDir каталог для файла; null — системный каталог временных файлов
+     */
+    public static SpillFile create(Path tempDir, String prefix) {
+        try {
+            Path path = tempDir == null ? Files.createTempFile(prefix, ".tmp")
+                    : Files.createTempFile(tempDir, prefix, ".tmp");
+            return new SpillFile(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create spill file", e);
+        }
+    }
+
+    public void write(byte[] record) {
+        try {
+            out.writeInt(record.length);
+            out.write(record);
+            records++;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write spill file " + path, e);
+        }
+    }
+
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Записи в порядке записи. После вызова файл только читается.
+     */
+    public RecordSource read() {
+        try {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+            if (in != null) {
+                in.close();
+            }
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), IO_BUFFER));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open spill file " + path, e);
+        }
+        DataInputStream stream = in;
+        return () -> {
+            try {
+                int length;
+                try {
+                    length = stream.readInt();
+                } catch (EOFException e) {
+                    return null;
+                }
+                byte[] record = new byte[length];
+                stream.readFully(record);
+                return record;
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read spill file " + path, e);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (out != null) out.close();
+            if (in != null) in.close();
+        } catch (IOException e) {
+            // Файл все равно удаляется ниже
+        }
+        out = null;
+        in = null;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Временный файл в системном каталоге — не повод прерывать запрос
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.open.cu.student.execution.tuple;
+
+import ru.open.cu.student.execution.vector.BooleanVector;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.ColumnVector;
+import ru.open.cu.student.execution.vector.IntVector;
+import ru.open.cu.student.execution.vector.LongVector;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.execution.vector.VarcharVector;
+
+import java.util.Arrays;
+
+/**
+ * Кортеж-окно на одну строку пачки: чтение идет прямо из векторов.
+ */
+public final class BatchTuple extends Tuple {
+
+    private RowBatch batch;
+    private int row;
+
+    public BatchTuple reset(RowBatch batch, int row) {
+        this.batch = batch;
+        this.row = row;
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return batch.columnCount();
+    }
+
+    @Override
+    public ColumnType type(int index) {
+        return batch.column(index).type();
+    }
+
+    @Override
+    public int getInt(int index) {
+        if (batch.column(index) instanceof IntVector v) return v.values[row];
+        throw typeMismatch(index, "integer");
+    }
+
+    @Override
+    public long getLong(int index) {
+        ColumnVector column = batch.column(index);
+        if (column instanceof LongVector v) return v.values[row];
+        if (column instanceof IntVector v) return v.values[row];
+        throw typeMismatch(index, "bigint");
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        if (batch.column(index) instanceof BooleanVector v) return v.values[row];
+        throw typeMismatch(index, "boolean");
+    }
+
+    @Override
+    public byte[] getUtf8(int index) {
+        if (batch.column(index) instanceof VarcharVector v) {
+            return Arrays.copyOfRange(v.data, v.offsets[row], v.offsets[row] + v.lengths[row]);
+        }
+        throw typeMismatch(index, "varchar");
+    }
+
+    @Override
+    public int compareUtf8(int index, byte[] other) {
+        if (batch.column(index) instanceof VarcharVector v) return v.compare(row, other);
+        throw typeMismatch(index, "varchar");
+    }
+
+    @Override
+    public String getString(int index) {
+        if (batch.column(index) instanceof VarcharVector v) return v.getString(row);
+        throw typeMismatch(index, "varchar");
+    }
+}
@@ -0,0 +1,61 @@
+package ru.open.cu.student.execution.tuple;
+
+import ru.open.cu.student.execution.vector.ColumnType;
+
+/**
+ * Строка соединения без копирования: колонки [0, left.size()) читаются из left, остальные — из right.
+ * Нужна, чтобы проверить условие соединения до записи пары строк в выходную пачку.
+ */
+public final class JoinedTuple extends Tuple {
+
+    private Tuple left;
+    private Tuple right;
+    private int leftSize;
+
+    public JoinedTuple reset(Tuple left, Tuple right) {
+        this.left = left;
+        this.right = right;
+        this.leftSize = left.size();
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return leftSize + right.size();
+    }
+
+    @Override
+    public ColumnType type(int index) {
+        return index < leftSize ? left.type(index) : right.type(index - leftSize);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return index < leftSize ? left.getInt(index) : right.getInt(index - leftSize);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return index < leftSize ? left.getLong(index) : right.getLong(index - leftSize);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return index < leftSize ? left.getBoolean(index) : right.getBoolean(index - leftSize);
+    }
+
+    @Override
+    public byte[] getUtf8(int index) {
+        return index < leftSize ? left.getUtf8(index) : right.getUtf8(index - leftSize);
+    }
+
+    @Override
+    public int compareUtf8(int index, byte[] other) {
+        return index < leftSize ? left.compareUtf8(index, other) : right.compareUtf8(index - leftSize, other);
+    }
+
+    @Override
+    public String getString(int index) {
+        return index < leftSize ? left.getString(index) : right.getString(index - leftSize);
+    }
+}
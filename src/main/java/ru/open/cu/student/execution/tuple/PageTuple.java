@@ -0,0 +1,113 @@
+package ru.open.cu.student.execution.tuple;
+
+import ru.open.cu.student.execution.vector.ColumnType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Кортеж поверх байтов строки внутри страницы (или любого другого массива).
+ *
+ * Смещения колонок вычисляются лениво и кэшируются: доступ к первой колонке ничего не стоит,
+ * а к колонке за varchar — один проход по длинам предыдущих полей.
+ * Один экземпляр переиспользуется для всех строк через reset().
+ */
+public final class PageTuple extends Tuple {
+
+    private final ColumnType[] types;
+    private final int[] offsets;
+    private int resolved;
+    private byte[] data;
+
+    public PageTuple(List<ColumnType> types) {
+        this.types = types.toArray(new ColumnType[0]);
+        this.offsets = new int[this.types.length + 1];
+    }
+
+    /**
+     * Привязывает кортеж к строке, начинающейся с позиции start в data.
+     */
+    public PageTuple reset(byte[] data, int start) {
+        this.data = data;
+        this.offsets[0] = start;
+        this.resolved = 0;
+        return this;
+    }
+
+    public byte[] data() {
+        return data;
+    }
+
+    /**
+     * Абсолютная позиция колонки index в data.
+     */
+    public int offset(int index) {
+        while (resolved < index) {
+            offsets[resolved + 1] = offsets[resolved] + RowFormat.width(types[resolved], data, offsets[resolved]);
+            resolved++;
+        }
+        return offsets[index];
+    }
+
+    /**
+     * Копия кортежа, не зависящая от страницы.
+     */
+    public PageTuple detach() {
+        int start = offset(0);
+        int end = offset(types.length);
+        return new PageTuple(Arrays.asList(types)).reset(Arrays.copyOfRange(data, start, end), 0);
+    }
+
+    @Override
+    public int size() {
+        return types.length;
+    }
+
+    @Override
+    public ColumnType type(int index) {
+        return types[index];
+    }
+
+    @Override
+    public int getInt(int index) {
+        if (types[index] != ColumnType.INTEGER) throw typeMismatch(index, "integer");
+        return RowFormat.readInt(data, offset(index));
+    }
+
+    @Override
+    public long getLong(int index) {
+        return switch (types[index]) {
+            case INTEGER -> RowFormat.readInt(data, offset(index));
+            case BIGINT -> RowFormat.readLong(data, offset(index));
+            default -> throw typeMismatch(index, "bigint");
+        };
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        if (types[index] != ColumnType.BOOLEAN) throw typeMismatch(index, "boolean");
+        return data[offset(index)] != 0;
+    }
+
+    @Override
+    public byte[] getUtf8(int index) {
+        if (types[index] != ColumnType.VARCHAR) throw typeMismatch(index, "varchar");
+        int pos = offset(index);
+        return Arrays.copyOfRange(data, pos + 2, pos + 2 + RowFormat.readShort(data, pos));
+    }
+
+    @Override
+    public String getString(int index) {
+        if (types[index] != ColumnType.VARCHAR) throw typeMismatch(index, "varchar");
+        int pos = offset(index);
+        return new String(data, pos + 2, RowFormat.readShort(data, pos), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int compareUtf8(int index, byte[] other) {
+        int pos = offset(index);
+        int len = RowFormat.readShort(data, pos);
+        return Arrays.compareUnsigned(data, pos + 2, pos + 2 + len, other, 0, other.length);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.open.cu.student.execution.tuple;
+
+import ru.open.cu.student.execution.vector.ColumnType;
+
+/**
+ * Подмножество колонок другого кортежа без копирования значений.
+ */
+public final class ProjectedTuple extends Tuple {
+
+    private final Tuple source;
+    private final int[] columns;
+
+    public ProjectedTuple(Tuple source, int[] columns) {
+        this.source = source;
+        this.columns = columns;
+    }
+
+    @Override
+    public int size() {
+        return columns.length;
+    }
+
+    @Override
+    public ColumnType type(int index) {
+        return source.type(columns[index]);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return source.getInt(columns[index]);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return source.getLong(columns[index]);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return source.getBoolean(columns[index]);
+    }
+
+    @Override
+    public byte[] getUtf8(int index) {
+        return source.getUtf8(columns[index]);
+    }
+
+    @Override
+    public int compareUtf8(int index, byte[] other) {
+        return source.compareUtf8(columns[index], other);
+    }
+
+    @Override
+    public String getString(int index) {
+        return source.getString(columns[index]);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.open.cu.student.execution.tuple;
+
+import ru.open.cu.student.execution.vector.ColumnType;
+
+/**
+ * Чтение полей строки в формате RowCodec прямо из массива байтов (little-endian),
+ * без ByteBuffer и без копирования.
+ */
+public final class RowFormat {
+
+    private RowFormat() {
+    }
+
+    public static int readInt(byte[] src, int pos) {
+        return (src[pos] & 0xFF)
+                | (src[pos + 1] & 0xFF) << 8
+                | (src[pos + 2] & 0xFF) << 16
+                | (src[pos + 3] & 0xFF) << 24;
+    }
+
+    public static long readLong(byte[] src, int pos) {
+        return (readInt(src, pos) & 0xFFFFFFFFL) | ((long) readInt(src, pos + 4) << 32);
+    }
+
+    public static int readShort(byte[] src, int pos) {
+        return (src[pos] & 0xFF) | (src[pos + 1] & 0xFF) << 8;
+    }
+
+    /**
+     * Полная длина поля, начинающегося с pos, вместе с префиксом длины у varchar.
+     */
+    public static int width(ColumnType type, byte[] src, int pos) {
+        return switch (type) {
+            case INTEGER -> 4;
+            case BIGINT -> 8;
+            case BOOLEAN -> 1;
+            case VARCHAR -> 2 + readShort(src, pos);
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package ru.open.cu.student.execution.tuple;
+
+import ru.open.cu.student.execution.vector.ColumnType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Строка результата, привязанная к схеме, с типизированным доступом к колонкам.
+ *
+ * Реализации читают значения из того места, где они уже лежат (байты страницы, векторы пачки),
+ * поэтому примитивные accessors не упаковывают значения и не выделяют память.
+ * Объекты создаются только в getValue/toList — когда значение нужно клиенту.
+ *
+ * Кортеж, полученный из Executor.next(), может переиспользоваться исполнителем
+ * и действителен только до следующего вызова next(); для хранения нужен toList().
+ */
+public abstract class Tuple {
+
+    public abstract int size();
+
+    public abstract ColumnType type(int index);
+
+    public abstract int getInt(int index);
+
+    /**
+     * Значение integer или bigint колонки.
+     */
+    public abstract long getLong(int index);
+
+    public abstract boolean getBoolean(int index);
+
+    /**
+     * Байты UTF-8 varchar колонки (копия).
+     */
+    public abstract byte[] getUtf8(int index);
+
+    public String getString(int index) {
+        return new String(getUtf8(index), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Побайтовое сравнение varchar колонки с байтами UTF-8 (порядок совпадает с порядком кодовых точек).
+     */
+    public int compareUtf8(int index, byte[] other) {
+        return Arrays.compareUnsigned(getUtf8(index), other);
+    }
+
+    public Object getValue(int index) {
+        return switch (type(index)) {
+            case INTEGER -> getInt(index);
+            case BIGINT -> getLong(index);
+            case BOOLEAN -> getBoolean(index);
+            case VARCHAR -> getString(index);
+        };
+    }
+
+    public List<Object> toList() {
+        List<Object> values = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            values.add(getValue(i));
+        }
+        return values;
+    }
+
+    protected IllegalStateException typeMismatch(int index, String expected) {
+        return new IllegalStateException("Column " + index + " is " + type(index) + ", not " + expected);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Tuple other && toList().equals(other.toList());
+    }
+
+    @Override
+    public int hashCode() {
+        return toList().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
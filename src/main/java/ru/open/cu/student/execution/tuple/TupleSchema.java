@@ -0,0 +1,44 @@
+package ru.open.cu.student.execution.tuple;
+
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.execution.vector.ColumnType;
+
+import java.util.List;
+
+/**
+ * Схема строк, которые выдает исполнитель: имена колонок и их физические типы.
+ */
+public record TupleSchema(List<String> names, List<ColumnType> types) {
+
+    public TupleSchema {
+        if (names.size() != types.size()) {
+            throw new IllegalArgumentException("names and types size mismatch");
+        }
+        names = List.copyOf(names);
+        types = List.copyOf(types);
+    }
+
+    public static TupleSchema of(List<ColumnDefinition> columns, List<ColumnType> types) {
+        return new TupleSchema(columns.stream().map(ColumnDefinition::getName).toList(), types);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public ColumnType type(int index) {
+        return types.get(index);
+    }
+
+    /**
+     * Номер колонки по имени без учета регистра или -1.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.open.cu.student.execution.vector;
+
+public final class BooleanVector extends ColumnVector {
+
+    public final boolean[] values;
+
+    public BooleanVector(int capacity) {
+        super(capacity);
+        this.values = new boolean[capacity];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.BOOLEAN;
+    }
+
+    @Override
+    public int decode(byte[] src, int pos, int row) {
+        values[row] = src[pos] != 0;
+        return pos + 1;
+    }
+
+    @Override
+    public int skip(byte[] src, int pos) {
+        return pos + 1;
+    }
+
+    @Override
+    public void fill(Object value, int count) {
+        java.util.Arrays.fill(values, 0, count, (Boolean) value);
+    }
+
+    @Override
+    public void copy(ColumnVector src, int srcRow, int row) {
+        values[row] = ((BooleanVector) src).values[srcRow];
+    }
+
+    @Override
+    public Object get(int row) {
+        return values[row];
+    }
+}
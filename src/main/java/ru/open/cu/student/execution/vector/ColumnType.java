@@ -0,0 +1,33 @@
+package ru.open.cu.student.execution.vector;
+
+import ru.open.cu.student.catalog.model.TypeDefinition;
+
+/**
+ * Физический тип колонки в исполнителе.
+ */
+public enum ColumnType {
+    INTEGER,
+    BIGINT,
+    BOOLEAN,
+    VARCHAR;
+
+    public static ColumnType of(TypeDefinition type) {
+        return switch (type.name().toLowerCase()) {
+            case "integer" -> INTEGER;
+            case "bigint" -> BIGINT;
+            case "boolean" -> BOOLEAN;
+            case "varchar" -> VARCHAR;
+            default -> throw new IllegalArgumentException("Unsupported type: " + type.name());
+        };
+    }
+
+    /**
+     * Тип константы из запроса: Integer, Long, Boolean или строка.
+     */
+    public static ColumnType ofValue(Object value) {
+        if (value instanceof Integer) return INTEGER;
+        if (value instanceof Long) return BIGINT;
+        if (value instanceof Boolean) return BOOLEAN;
+        return VARCHAR;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.open.cu.student.execution.vector;
+
+/**
+ * Колонка пачки строк: значения одного типа в примитивном массиве.
+ *
+ * Формат decode совпадает с форматом строки RowCodec (little-endian), см. RowFormat.
+ */
+public abstract class ColumnVector {
+
+    protected final int capacity;
+
+    protected ColumnVector(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public static ColumnVector allocate(ColumnType type, int capacity) {
+        return switch (type) {
+            case INTEGER -> new IntVector(capacity);
+            case BIGINT -> new LongVector(capacity);
+            case BOOLEAN -> new BooleanVector(capacity);
+            case VARCHAR -> new VarcharVector(capacity);
+        };
+    }
+
+    public abstract ColumnType type();
+
+    /**
+     * Читает значение строки row из src начиная с pos и возвращает позицию следующей колонки.
+     */
+    public abstract int decode(byte[] src, int pos, int row);
+
+    /**
+     * Пропускает значение без декодирования; возвращает позицию следующей колонки.
+     */
+    public abstract int skip(byte[] src, int pos);
+
+    /**
+     * Записывает одно и то же значение в строки [0, count).
+     */
+    public abstract void fill(Object value, int count);
+
+    /**
+     * Копирует значение строки srcRow колонки того же типа в строку row.
+     */
+    public abstract void copy(ColumnVector src, int srcRow, int row);
+
+    /**
+     * Значение строки в виде объекта — только для выдачи результата клиенту.
+     */
+    public abstract Object get(int row);
+
+    public void reset() {
+    }
+}
@@ -0,0 +1,44 @@
+package ru.open.cu.student.execution.vector;
+
+import ru.open.cu.student.execution.tuple.RowFormat;
+
+public final class IntVector extends ColumnVector {
+
+    public final int[] values;
+
+    public IntVector(int capacity) {
+        super(capacity);
+        this.values = new int[capacity];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.INTEGER;
+    }
+
+    @Override
+    public int decode(byte[] src, int pos, int row) {
+        values[row] = RowFormat.readInt(src, pos);
+        return pos + 4;
+    }
+
+    @Override
+    public int skip(byte[] src, int pos) {
+        return pos + 4;
+    }
+
+    @Override
+    public void fill(Object value, int count) {
+        java.util.Arrays.fill(values, 0, count, ((Number) value).intValue());
+    }
+
+    @Override
+    public void copy(ColumnVector src, int srcRow, int row) {
+        values[row] = ((IntVector) src).values[srcRow];
+    }
+
+    @Override
+    public Object get(int row) {
+        return values[row];
+    }
+}
@@ -0,0 +1,44 @@
+package ru.open.cu.student.execution.vector;
+
+import ru.open.cu.student.execution.tuple.RowFormat;
+
+public final class LongVector extends ColumnVector {
+
+    public final long[] values;
+
+    public LongVector(int capacity) {
+        super(capacity);
+        this.values = new long[capacity];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.BIGINT;
+    }
+
+    @Override
+    public int decode(byte[] src, int pos, int row) {
+        values[row] = RowFormat.readLong(src, pos);
+        return pos + 8;
+    }
+
+    @Override
+    public int skip(byte[] src, int pos) {
+        return pos + 8;
+    }
+
+    @Override
+    public void fill(Object value, int count) {
+        java.util.Arrays.fill(values, 0, count, ((Number) value).longValue());
+    }
+
+    @Override
+    public void copy(ColumnVector src, int srcRow, int row) {
+        values[row] = ((LongVector) src).values[srcRow];
+    }
+
+    @Override
+    public Object get(int row) {
+        return values[row];
+    }
+}
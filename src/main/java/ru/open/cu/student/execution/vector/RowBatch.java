@@ -0,0 +1,161 @@
+package ru.open.cu.student.execution.vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пачка строк в колоночном виде плюс вектор выбора (selection vector).
+ *
+ * Фильтры не перекладывают данные, а сужают выбор: selectedRow(k) — физический номер k-й
+ * прошедшей строки. Пока выбор не задан, выбраны все строки [0, size).
+ * Пачка переиспользуется исполнителем между вызовами nextBatch(), поэтому потребитель
+ * должен закончить с ней до следующего вызова.
+ */
+public final class RowBatch {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final ColumnVector[] columns;
+    private final int capacity;
+    private final int[] selection;
+    private int size;
+    private int selectedCount;
+    private boolean selectionActive;
+
+    public RowBatch(ColumnVector[] columns, int capacity) {
+        this.columns = columns;
+        this.capacity = capacity;
+        this.selection = new int[capacity];
+    }
+
+    public static RowBatch allocate(List<ColumnType> types, int capacity) {
+        ColumnVector[] vectors = new ColumnVector[types.size()];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = ColumnVector.allocate(types.get(i), capacity);
+        }
+        return new RowBatch(vectors, capacity);
+    }
+
+    public ColumnVector column(int index) {
+        return columns[index];
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Очищает пачку перед заполнением.
+     */
+    public void reset() {
+        size = 0;
+        selectedCount = 0;
+        selectionActive = false;
+        for (ColumnVector column : columns) {
+            column.reset();
+        }
+    }
+
+    /**
+     * Занимает следующую строку для заполнения и возвращает ее номер.
+     */
+    public int addRow() {
+        selectedCount++;
+        return size++;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+        if (!selectionActive) {
+            selectedCount = size;
+        }
+    }
+
+    public int selectedCount() {
+        return selectedCount;
+    }
+
+    public int selectedRow(int k) {
+        return selectionActive ? selection[k] : k;
+    }
+
+    /**
+     * Массив для записи нового выбора; фильтр пишет в него физические номера строк и вызывает setSelected.
+     * Запись на место текущего выбора безопасна: k-я выходная строка пишется не раньше, чем прочитана k-я входная.
+     */
+    public int[] selection() {
+        return selection;
+    }
+
+    public void setSelected(int count) {
+        selectedCount = count;
+        selectionActive = true;
+    }
+
+    /**
+     * Оставляет в выборе только первые count выбранных строк.
+     */
+    public void truncateSelection(int count) {
+        if (!selectionActive) {
+            for (int k = 0; k < count; k++) {
+                selection[k] = k;
+            }
+            selectionActive = true;
+        }
+        selectedCount = count;
+    }
+
+    /**
+     * Подменяет вектор колонки — проекция передает векторы дочерней пачки без копирования.
+     */
+    public void setColumn(int index, ColumnVector vector) {
+        columns[index] = vector;
+    }
+
+    public void copySelectionFrom(RowBatch other) {
+        size = other.size;
+        selectedCount = other.selectedCount;
+        selectionActive = other.selectionActive;
+        if (selectionActive) {
+            System.arraycopy(other.selection, 0, selection, 0, selectedCount);
+        }
+    }
+
+    /**
+     * Переписывает в эту пачку только выбранные строки other, подряд и без вектора выбора.
+     * Колонки должны совпадать по числу и типам.
+     */
+    public void copySelectedFrom(RowBatch other) {
+        reset();
+        int count = other.selectedCount();
+        for (int k = 0; k < count; k++) {
+            int src = other.selectedRow(k);
+            for (int c = 0; c < columns.length; c++) {
+                columns[c].copy(other.columns[c], src, k);
+            }
+        }
+        setSize(count);
+    }
+
+    /**
+     * Значения строки в виде списка объектов — для выдачи клиенту.
+     */
+    public List<Object> materialize(int row) {
+        List<Object> values = new ArrayList<>(columns.length);
+        for (ColumnVector column : columns) {
+            values.add(column.get(row));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,87 @@
+package ru.open.cu.student.execution.vector;
+
+import ru.open.cu.student.execution.tuple.RowFormat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Строковая колонка: байты UTF-8 всех строк пачки подряд в data, для каждой строки — смещение и длина.
+ */
+public final class VarcharVector extends ColumnVector {
+
+    public byte[] data;
+    public final int[] offsets;
+    public final int[] lengths;
+    private int used;
+
+    public VarcharVector(int capacity) {
+        super(capacity);
+        this.data = new byte[capacity * 16];
+        this.offsets = new int[capacity];
+        this.lengths = new int[capacity];
+    }
+
+    @Override
+    public ColumnType type() {
+        return ColumnType.VARCHAR;
+    }
+
+    @Override
+    public int decode(byte[] src, int pos, int row) {
+        int len = RowFormat.readShort(src, pos);
+        set(row, src, pos + 2, len);
+        return pos + 2 + len;
+    }
+
+    @Override
+    public int skip(byte[] src, int pos) {
+        return pos + 2 + RowFormat.readShort(src, pos);
+    }
+
+    @Override
+    public void fill(Object value, int count) {
+        reset();
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        for (int row = 0; row < count; row++) {
+            set(row, bytes, 0, bytes.length);
+        }
+    }
+
+    public void set(int row, byte[] src, int from, int len) {
+        if (used + len > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, used + len));
+        }
+        System.arraycopy(src, from, data, used, len);
+        offsets[row] = used;
+        lengths[row] = len;
+        used += len;
+    }
+
+    public String getString(int row) {
+        return new String(data, offsets[row], lengths[row], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Побайтовое сравнение с other (UTF-8 упорядочивается так же, как кодовые точки).
+     */
+    public int compare(int row, byte[] other) {
+        return Arrays.compareUnsigned(data, offsets[row], offsets[row] + lengths[row], other, 0, other.length);
+    }
+
+    @Override
+    public void copy(ColumnVector src, int srcRow, int row) {
+        VarcharVector other = (VarcharVector) src;
+        set(row, other.data, other.offsets[srcRow], other.lengths[srcRow]);
+    }
+
+    @Override
+    public Object get(int row) {
+        return getString(row);
+    }
+
+    @Override
+    public void reset() {
+        used = 0;
+    }
+}
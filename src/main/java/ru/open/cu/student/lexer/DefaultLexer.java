@@ -74,6 +74,16 @@ public class DefaultLexer implements Lexer{
                 continue;
             }
 
+            // Параметры подготовленных запросов: $1, $2, ...
+            if (currentChar == '$' && position + 1 < length && Character.isDigit(sql.charAt(position + 1))) {
+                int start = position++;
+                while (position < length && Character.isDigit(sql.charAt(position))) {
+                    position++;
+                }
+                tokens.add(new Token("PARAM", sql.substring(start, position)));
+                continue;
+            }
+
             // Обрабатываем числа
             if (Character.isDigit(currentChar)) {
                 StringBuilder number = new StringBuilder();
@@ -96,12 +106,25 @@ public class DefaultLexer implements Lexer{
                     position++;
                     break;
                 case '>':
-                    tokens.add(new Token("GT", ">"));
-                    position++;
+                    if (position + 1 < length && sql.charAt(position + 1) == '=') {
+                        tokens.add(new Token("GE", ">="));
+                        position += 2;
+                    } else {
+                        tokens.add(new Token("GT", ">"));
+                        position++;
+                    }
                     break;
                 case '<':
-                    tokens.add(new Token("LT", "<"));
-                    position++;
+                    if (position + 1 < length && sql.charAt(position + 1) == '=') {
+                        tokens.add(new Token("LE", "<="));
+                        position += 2;
+                    } else if (position + 1 < length && sql.charAt(position + 1) == '>') {
+                        tokens.add(new Token("NEQ", "<>"));
+                        position += 2;
+                    } else {
+                        tokens.add(new Token("LT", "<"));
+                        position++;
+                    }
                     break;
                 case '=':
                     tokens.add(new Token("EQ", "="));
@@ -132,6 +155,22 @@ public class DefaultLexer implements Lexer{
                     tokens.add(new Token("DOT", "."));
                     position++;
                     break;
+                case '+':
+                    tokens.add(new Token("PLUS", "+"));
+                    position++;
+                    break;
+                case '-':
+                    tokens.add(new Token("MINUS", "-"));
+                    position++;
+                    break;
+                case '/':
+                    tokens.add(new Token("SLASH", "/"));
+                    position++;
+                    break;
+                case '%':
+                    tokens.add(new Token("PERCENT", "%"));
+                    position++;
+                    break;
                 default:
                     // Неизвестный символ
                     tokens.add(new Token("UNKNOWN", String.valueOf(currentChar)));
@@ -153,6 +192,7 @@ public class DefaultLexer implements Lexer{
             case "DELETE" -> "DELETE";
             case "CREATE" -> "CREATE";
             case "TABLE" -> "TABLE";
+            case "INDEX" -> "INDEX";
             case "DROP" -> "DROP";
             case "ALTER" -> "ALTER";
             case "AND" -> "AND";
@@ -161,6 +201,23 @@ public class DefaultLexer implements Lexer{
             case "INTO" -> "INTO";
             case "VALUES" -> "VALUES";
             case "SET" -> "SET";
+            case "ANALYZE" -> "ANALYZE";
+            case "GROUP" -> "GROUP";
+            case "ORDER" -> "ORDER";
+            case "BY" -> "BY";
+            case "ASC" -> "ASC";
+            case "DESC" -> "DESC";
+            case "LIMIT" -> "LIMIT";
+            case "OFFSET" -> "OFFSET";
+            case "JOIN" -> "JOIN";
+            case "INNER" -> "INNER";
+            case "ON" -> "ON";
+            case "DISTINCT" -> "DISTINCT";
+            case "IN" -> "IN";
+            case "EXISTS" -> "EXISTS";
+            case "PREPARE" -> "PREPARE";
+            case "EXECUTE" -> "EXECUTE";
+            case "DEALLOCATE" -> "DEALLOCATE";
             default -> "IDENT";
         };
     }
@@ -16,7 +16,7 @@ public class Token {
 
     @Override
     public String toString() {
-        if ("IDENT".equals(type) || "NUMBER".equals(type)) {
+        if ("IDENT".equals(type) || "NUMBER".equals(type) || "PARAM".equals(type)) {
             return type + "(" + value + ")";
         }
         return type;
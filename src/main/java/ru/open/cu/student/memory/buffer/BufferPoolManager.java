@@ -12,9 +12,22 @@ public interface BufferPoolManager {
 
     void pinPage(int pageId);
 
+    default void unpinPage(int pageId) {
+    }
+
+    /**
+     * Кладет в пул новую страницу за концом файла; до сброса она грязная и живет только в пуле.
+     */
+    BufferSlot newPage(Page page);
+
     void flushPage(int pageId);
 
     void flushAllPages();
 
     List<BufferSlot> getDirtyPages();
+
+    /**
+     * Число страниц в файле с учетом еще не сброшенных на диск страниц пула.
+     */
+    int getPageCount();
 }
@@ -11,6 +11,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Буферный пул одного файла данных. Методы потокобезопасны: пул может читаться
+ * несколькими воркерами параллельного сканирования одновременно.
+ */
 public class DefaultBufferPoolManager implements BufferPoolManager {
 
     private final int poolSize;
@@ -33,35 +37,49 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
         this.dataPath = dataPath;
     }
 
+    /**
+     * Страница читается с диска вне блокировки, чтобы параллельные сканирования не ждали
+     * чужой ввод-вывод; если за это время страницу загрузил другой поток, берется его слот.
+     */
     @Override
     public BufferSlot getPage(int pageId) {
+        synchronized (this) {
+            BufferSlot slot = store.get(pageId);
+            if (slot != null) {
+                slot.incrementUsage();
+                updateReplacers(slot);
+                return slot;
+            }
+        }
+
+        Page page = pgManager.read(pageId, dataPath);
 
-        if (store.containsKey(pageId)) {
+        synchronized (this) {
             BufferSlot slot = store.get(pageId);
-            slot.incrementUsage();
+            if (slot != null) {
+                slot.incrementUsage();
+                updateReplacers(slot);
+                return slot;
+            }
 
-            updateReplacers(slot);
-            return slot;
-        }
+            if (store.size() >= poolSize) {
+                evictPage();
+            }
 
-        if (store.size() >= poolSize) {
-            evictPage();
-        }
+            BufferSlot newSlot = new BufferSlot(pageId, page);
+            store.put(pageId, newSlot);
 
-        Page page = pgManager.read(pageId, dataPath);
-        BufferSlot newSlot = new BufferSlot(pageId, page);
-        store.put(pageId, newSlot);
+            if (!newSlot.isPinned()) {
+                primaryReplacer.push(newSlot);
+                secondaryReplacer.push(newSlot);
+            }
 
-        if (!newSlot.isPinned()) {
-            primaryReplacer.push(newSlot);
-            secondaryReplacer.push(newSlot);
+            return newSlot;
         }
-
-        return newSlot;
     }
 
     @Override
-    public void updatePage(int pageId, Page page) {
+    public synchronized void updatePage(int pageId, Page page) {
         if (!store.containsKey(pageId)) {
             throw new IllegalArgumentException("Page not in buffer: " + pageId);
         }
@@ -74,7 +92,7 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
     }
 
     @Override
-    public void pinPage(int pageId) {
+    public synchronized void pinPage(int pageId) {
         BufferSlot slot = store.get(pageId);
         if (slot == null) {
             throw new IllegalArgumentException("Page not found in buffer: " + pageId);
@@ -85,7 +103,8 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
         secondaryReplacer.delete(pageId);
     }
 
-    public void unpinPage(int pageId) {
+    @Override
+    public synchronized void unpinPage(int pageId) {
         BufferSlot slot = store.get(pageId);
         if (slot == null) {
             throw new IllegalArgumentException("Page not found in buffer: " + pageId);
@@ -97,7 +116,24 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
     }
 
     @Override
-    public void flushPage(int pageId) {
+    public synchronized BufferSlot newPage(Page page) {
+        if (store.containsKey(page.getPageId())) {
+            throw new IllegalArgumentException("Page already in buffer: " + page.getPageId());
+        }
+        if (store.size() >= poolSize) {
+            evictPage();
+        }
+
+        BufferSlot slot = new BufferSlot(page.getPageId(), page);
+        slot.setDirty(true);
+        store.put(page.getPageId(), slot);
+        primaryReplacer.push(slot);
+        secondaryReplacer.push(slot);
+        return slot;
+    }
+
+    @Override
+    public synchronized void flushPage(int pageId) {
         BufferSlot slot = store.get(pageId);
         if (slot == null) {
             return;
@@ -110,7 +146,7 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
     }
 
     @Override
-    public void flushAllPages() {
+    public synchronized void flushAllPages() {
         for (BufferSlot slot : store.values()) {
             if (slot.isDirty()) {
                 pgManager.write(slot.getPage(), dataPath);
@@ -120,7 +156,16 @@ public class DefaultBufferPoolManager implements BufferPoolManager {
     }
 
     @Override
-    public List<BufferSlot> getDirtyPages() {
+    public synchronized int getPageCount() {
+        int count = pgManager.pageCount(dataPath);
+        for (int pageId : store.keySet()) {
+            count = Math.max(count, pageId + 1);
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized List<BufferSlot> getDirtyPages() {
         return store.values().stream()
                 .filter(BufferSlot::isDirty)
                 .collect(Collectors.toList());
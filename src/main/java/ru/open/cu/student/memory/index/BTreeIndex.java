@@ -0,0 +1,423 @@
+package ru.open.cu.student.memory.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Упорядоченный индекс по целочисленной колонке: B+-дерево в отдельном файле.
+ *
+ * Страница 0 — метаданные ([int сигнатура][int корень][int высота]), остальные — {@link BTreePage}.
+ * Запись индекса — пара (значение колонки, rowId), где rowId = номер страницы кучи &lt;&lt; 16 | номер строки.
+ *
+ * Внутренние страницы читаются один раз и держатся в памяти, пока индекс открыт; листы читаются
+ * по требованию. {@link Cursor} держит текущий лист и переиспользует его, пока следующий искомый ключ
+ * лежит в нем или в соседнем справа, поэтому возрастающие ключи проходят дерево без спусков от корня.
+ * Открытый индекс не видит изменений, сделанных через другой экземпляр.
+ */
+public final class BTreeIndex implements AutoCloseable {
+    private static final int META_SIGNATURE = 0xB7EE00;
+    // Массовая загрузка оставляет в страницах место под последующие вставки
+    private static final int LEAF_FILL = BTreePage.LEAF_CAPACITY * 9 / 10;
+    private static final int INNER_FILL = BTreePage.INNER_CAPACITY * 9 / 10;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<Integer, BTreePage> innerPages = new HashMap<>();
+    private int root;
+    private int height;
+    private int pageCount;
+    private long leafReads;
+
+    private BTreeIndex(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Открывает индекс; пустой файл становится пустым деревом из одного листа.
+     */
+    public static BTreeIndex open(Path path) {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open index " + path, e);
+        }
+        BTreeIndex index = new BTreeIndex(path, channel);
+        try {
+            index.pageCount = (int) (channel.size() / BTreePage.PAGE_SIZE);
+            if (index.pageCount == 0) {
+                index.pageCount = 2;
+                writePage(channel, path, BTreePage.empty(1, true));
+                writeMeta(channel, path, 1, 1);
+            }
+            ByteBuffer meta = ByteBuffer.wrap(readBytes(channel, path, 0));
+            if (meta.getInt(0) != META_SIGNATURE) {
+                throw new IllegalStateException("Invalid index meta page in " + path);
+            }
+            index.root = meta.getInt(4);
+            index.height = meta.getInt(8);
+            return index;
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e instanceof RuntimeException r ? r : new RuntimeException("Failed to open index " + path, e);
+        }
+    }
+
+    /**
+     * Загрузчик, который перезаписывает файл деревом из пар, поданных по возрастанию.
+     */
+    public static Loader load(Path path) {
+        try {
+            return new Loader(path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create index " + path, e);
+        }
+    }
+
+    public static long rowId(int pageId, int slot) {
+        return (long) pageId << 16 | slot;
+    }
+
+    public static int pageOf(long rowId) {
+        return (int) (rowId >>> 16);
+    }
+
+    public static int slotOf(long rowId) {
+        return (int) (rowId & 0xFFFF);
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Сколько раз читались листы — для тестов и отладки.
+     */
+    public long getLeafReads() {
+        return leafReads;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Добавляет пару в дерево. Переполненная страница делится пополам, а вставка в конец самого правого листа
+     * (возрастающие ключи) оставляет левый лист полным.
+     */
+    public void insert(long key, long rowId) {
+        int[] path = new int[height];
+        int pageId = root;
+        for (int level = height - 1; level > 0; level--) {
+            path[level] = pageId;
+            pageId = inner(pageId).childFor(key, rowId);
+        }
+
+        BTreePage leaf = readLeaf(pageId);
+        int position = leaf.upperBound(key, rowId);
+        if (leaf.count() < BTreePage.LEAF_CAPACITY) {
+            leaf.insert(position, key, rowId, BTreePage.NO_PAGE);
+            writePage(channel, this.path, leaf);
+            return;
+        }
+
+        int splitAt = position == leaf.count() && leaf.link() == BTreePage.NO_PAGE ? position : leaf.count() / 2;
+        BTreePage right = BTreePage.empty(pageCount++, true);
+        leaf.moveTail(splitAt, right);
+        right.setLink(leaf.link());
+        leaf.setLink(right.getPageId());
+        if (position < splitAt) {
+            leaf.insert(position, key, rowId, BTreePage.NO_PAGE);
+        } else {
+            right.insert(position - splitAt, key, rowId, BTreePage.NO_PAGE);
+        }
+        writePage(channel, this.path, right);
+        writePage(channel, this.path, leaf);
+        insertSeparator(path, 1, leaf.getPageId(), right.key(0), right.rowId(0), right.getPageId());
+    }
+
+    /**
+     * Удаляет пару из дерева; false, если ее не было. Страницы не сливаются: опустевший лист
+     * остается в цепочке, курсор его просто проходит.
+     */
+    public boolean delete(long key, long rowId) {
+        int pageId = root;
+        for (int level = height - 1; level > 0; level--) {
+            pageId = inner(pageId).childFor(key, rowId);
+        }
+
+        BTreePage leaf = readLeaf(pageId);
+        int position = leaf.upperBound(key, rowId) - 1;
+        if (position < 0 || leaf.key(position) != key || leaf.rowId(position) != rowId) {
+            return false;
+        }
+        leaf.remove(position);
+        writePage(channel, this.path, leaf);
+        return true;
+    }
+
+    /**
+     * Добавляет в родителя уровня level границу между страницами left и right, деля родителя при переполнении.
+     */
+    private void insertSeparator(int[] path, int level, int left, long key, long rowId, int right) {
+        if (level == height) {
+            BTreePage newRoot = BTreePage.empty(pageCount++, false);
+            newRoot.setLink(left);
+            newRoot.insert(0, key, rowId, right);
+            writeInner(newRoot);
+            root = newRoot.getPageId();
+            height++;
+            writeMeta(channel, this.path, root, height);
+            return;
+        }
+
+        BTreePage node = inner(path[level]);
+        if (node.count() < BTreePage.INNER_CAPACITY) {
+            node.insert(node.upperBound(key, rowId), key, rowId, right);
+            writeInner(node);
+            return;
+        }
+
+        // Средняя запись уходит в родителя, ее ребенок становится самым левым у новой страницы
+        int middle = node.count() / 2;
+        long upKey = node.key(middle);
+        long upRowId = node.rowId(middle);
+        BTreePage sibling = BTreePage.empty(pageCount++, false);
+        sibling.setLink(node.child(middle));
+        node.moveTail(middle + 1, sibling);
+        node.setCount(middle);
+        BTreePage target = BTreePage.compare(key, rowId, upKey, upRowId) < 0 ? node : sibling;
+        target.insert(target.upperBound(key, rowId), key, rowId, right);
+        writeInner(sibling);
+        writeInner(node);
+        insertSeparator(path, level + 1, node.getPageId(), upKey, upRowId, sibling.getPageId());
+    }
+
+    private BTreePage inner(int pageId) {
+        BTreePage page = innerPages.get(pageId);
+        if (page == null) {
+            page = readPage(channel, path, pageId);
+            innerPages.put(pageId, page);
+        }
+        return page;
+    }
+
+    private void writeInner(BTreePage page) {
+        innerPages.put(page.getPageId(), page);
+        writePage(channel, path, page);
+    }
+
+    private BTreePage readLeaf(int pageId) {
+        leafReads++;
+        return readPage(channel, path, pageId);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close index " + path, e);
+        }
+    }
+
+    private static BTreePage readPage(FileChannel channel, Path path, int pageId) {
+        BTreePage page;
+        try {
+            page = new BTreePage(pageId, readBytes(channel, path, pageId));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read index page " + pageId + " of " + path, e);
+        }
+        if (!page.isValid()) {
+            throw new IllegalStateException("Invalid index page signature at id=" + pageId + " in " + path);
+        }
+        return page;
+    }
+
+    private static byte[] readBytes(FileChannel channel, Path path, int pageId) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BTreePage.PAGE_SIZE);
+        long position = (long) pageId * BTreePage.PAGE_SIZE;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalStateException("Index page " + pageId + " is beyond the end of " + path);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static void writePage(FileChannel channel, Path path, BTreePage page) {
+        write(channel, path, page.getPageId(), page.bytes());
+    }
+
+    private static void writeMeta(FileChannel channel, Path path, int root, int height) {
+        ByteBuffer meta = ByteBuffer.allocate(BTreePage.PAGE_SIZE);
+        meta.putInt(0, META_SIGNATURE);
+        meta.putInt(4, root);
+        meta.putInt(8, height);
+        write(channel, path, 0, meta.array());
+    }
+
+    private static void write(FileChannel channel, Path path, int pageId, byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = (long) pageId * BTreePage.PAGE_SIZE;
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, position + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write index page " + pageId + " of " + path, e);
+        }
+    }
+
+    /**
+     * Позиция в листьях индекса. seek() ищет первую запись с ключом не меньше заданного;
+     * если ключи seek() возрастают, текущий лист и следующий за ним проверяются до спуска от корня.
+     */
+    public final class Cursor {
+        private BTreePage leaf;
+        private int position;
+
+        private Cursor() {
+        }
+
+        public void seek(long key) {
+            if (leaf != null && leaf.count() > 0 && leaf.key(0) < key) {
+                if (key <= leaf.key(leaf.count() - 1)) {
+                    position = leaf.lowerBound(key);
+                    return;
+                }
+                // Все ключи текущего листа меньше key: первая подходящая запись — в следующем листе или дальше
+                if (leaf.link() != BTreePage.NO_PAGE) {
+                    BTreePage next = readLeaf(leaf.link());
+                    if (next.count() > 0 && key <= next.key(next.count() - 1)) {
+                        leaf = next;
+                        position = next.lowerBound(key);
+                        return;
+                    }
+                }
+            }
+
+            int pageId = root;
+            for (int level = height - 1; level > 0; level--) {
+                pageId = inner(pageId).childFor(key, Long.MIN_VALUE);
+            }
+            leaf = readLeaf(pageId);
+            position = leaf.lowerBound(key);
+            settle();
+        }
+
+        public boolean hasEntry() {
+            return leaf != null && position < leaf.count();
+        }
+
+        public long key() {
+            return leaf.key(position);
+        }
+
+        public long rowId() {
+            return leaf.rowId(position);
+        }
+
+        public void advance() {
+            position++;
+            settle();
+        }
+
+        private void settle() {
+            while (position >= leaf.count() && leaf.link() != BTreePage.NO_PAGE) {
+                leaf = readLeaf(leaf.link());
+                position = 0;
+            }
+        }
+    }
+
+    /**
+     * Массовая загрузка: пары приходят по возрастанию, листы пишутся по мере заполнения,
+     * а на каждом внутреннем уровне открыта только правая страница.
+     */
+    public static final class Loader implements AutoCloseable {
+        private final Path path;
+        private final FileChannel channel;
+        // Уровень 0 — текущий лист, дальше — правые страницы внутренних уровней
+        private final List<BTreePage> levels = new ArrayList<>();
+        private int pageCount = 2;
+        private long lastKey;
+        private long lastRowId;
+        private long entries;
+
+        private Loader(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+            levels.add(BTreePage.empty(1, true));
+        }
+
+        public void add(long key, long rowId) {
+            if (entries > 0 && BTreePage.compare(key, rowId, lastKey, lastRowId) <= 0) {
+                throw new IllegalArgumentException("Index entries must be added in ascending order");
+            }
+            BTreePage leaf = levels.get(0);
+            if (leaf.count() == LEAF_FILL) {
+                BTreePage next = BTreePage.empty(pageCount++, true);
+                leaf.setLink(next.getPageId());
+                writePage(channel, path, leaf);
+                levels.set(0, next);
+                push(1, leaf.getPageId(), key, rowId, next.getPageId());
+                leaf = next;
+            }
+            leaf.insert(leaf.count(), key, rowId, BTreePage.NO_PAGE);
+            lastKey = key;
+            lastRowId = rowId;
+            entries++;
+        }
+
+        private void push(int level, int left, long key, long rowId, int right) {
+            if (level == levels.size()) {
+                BTreePage node = BTreePage.empty(pageCount++, false);
+                node.setLink(left);
+                levels.add(node);
+            }
+            BTreePage node = levels.get(level);
+            if (node.count() < INNER_FILL) {
+                node.insert(node.count(), key, rowId, right);
+                return;
+            }
+            BTreePage next = BTreePage.empty(pageCount++, false);
+            next.setLink(right);
+            writePage(channel, path, node);
+            levels.set(level, next);
+            push(level + 1, node.getPageId(), key, rowId, next.getPageId());
+        }
+
+        public long getEntries() {
+            return entries;
+        }
+
+        /**
+         * Дописывает открытые страницы всех уровней и метаданные; после этого индекс можно открыть.
+         */
+        public void finish() {
+            for (BTreePage page : levels) {
+                writePage(channel, path, page);
+            }
+            writeMeta(channel, path, levels.get(levels.size() - 1).getPageId(), levels.size());
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to close index " + path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ru.open.cu.student.memory.index;
+
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Страница B+-дерева индекса.
+ *
+ * Заголовок: [int сигнатура][byte лист][byte 0][short число записей][int ссылка][int 0].
+ * Лист хранит записи (long ключ, long rowId) по возрастанию пары, ссылка — следующий лист (-1 у последнего).
+ * Внутренняя страница хранит записи (long ключ, long rowId, int ребенок): в поддереве ребенка записи
+ * лежат пары не меньше ее пары, а ссылка — самый левый ребенок, с парами меньше первой записи.
+ * Пары уникальны, поэтому повторяющиеся ключи делятся между листами без особых случаев.
+ */
+public final class BTreePage {
+    public static final int PAGE_SIZE = HeapPage.PAGE_SIZE;
+    public static final int NO_PAGE = -1;
+    private static final int SIGNATURE = 0xB7EE01;
+    private static final int HEADER_SIZE = 16;
+    private static final int LEAF_ENTRY = 16;
+    private static final int INNER_ENTRY = 20;
+    public static final int LEAF_CAPACITY = (PAGE_SIZE - HEADER_SIZE) / LEAF_ENTRY;
+    public static final int INNER_CAPACITY = (PAGE_SIZE - HEADER_SIZE) / INNER_ENTRY;
+
+    private final int pageId;
+    private final ByteBuffer data;
+
+    public BTreePage(int pageId, byte[] bytes) {
+        this.pageId = pageId;
+        this.data = ByteBuffer.wrap(bytes);
+    }
+
+    public static BTreePage empty(int pageId, boolean leaf) {
+        BTreePage page = new BTreePage(pageId, new byte[PAGE_SIZE]);
+        page.data.putInt(0, SIGNATURE);
+        page.data.put(4, (byte) (leaf ? 1 : 0));
+        page.setLink(NO_PAGE);
+        return page;
+    }
+
+    public byte[] bytes() {
+        return data.array();
+    }
+
+    public int getPageId() {
+        return pageId;
+    }
+
+    public boolean isValid() {
+        return data.getInt(0) == SIGNATURE;
+    }
+
+    public boolean isLeaf() {
+        return data.get(4) == 1;
+    }
+
+    public int count() {
+        return data.getShort(6) & 0xFFFF;
+    }
+
+    void setCount(int count) {
+        data.putShort(6, (short) count);
+    }
+
+    /**
+     * Следующий лист у листа, самый левый ребенок у внутренней страницы.
+     */
+    public int link() {
+        return data.getInt(8);
+    }
+
+    void setLink(int pageId) {
+        data.putInt(8, pageId);
+    }
+
+    public long key(int i) {
+        return data.getLong(offset(i));
+    }
+
+    public long rowId(int i) {
+        return data.getLong(offset(i) + 8);
+    }
+
+    /**
+     * Ребенок записи i внутренней страницы; для i = -1 — самый левый ребенок.
+     */
+    public int child(int i) {
+        return i < 0 ? link() : data.getInt(offset(i) + 16);
+    }
+
+    /**
+     * Первая запись с ключом не меньше key; count(), если таких нет.
+     */
+    public int lowerBound(long key) {
+        int low = 0;
+        int high = count();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Первая запись с парой больше (key, rowId); count(), если таких нет.
+     */
+    public int upperBound(long key, long rowId) {
+        int low = 0;
+        int high = count();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(key(mid), rowId(mid), key, rowId) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Ребенок внутренней страницы, в поддереве которого лежит пара (key, rowId).
+     */
+    public int childFor(long key, long rowId) {
+        return child(upperBound(key, rowId) - 1);
+    }
+
+    /**
+     * Вставляет запись на место position, сдвигая хвост; child у листа не используется.
+     */
+    void insert(int position, long key, long rowId, int child) {
+        int count = count();
+        int size = entrySize();
+        byte[] bytes = data.array();
+        System.arraycopy(bytes, offset(position), bytes, offset(position + 1), (count - position) * size);
+        int at = offset(position);
+        data.putLong(at, key);
+        data.putLong(at + 8, rowId);
+        if (!isLeaf()) {
+            data.putInt(at + 16, child);
+        }
+        setCount(count + 1);
+    }
+
+    /**
+     * Удаляет запись position, сдвигая хвост влево.
+     */
+    void remove(int position) {
+        int count = count();
+        int size = entrySize();
+        byte[] bytes = data.array();
+        System.arraycopy(bytes, offset(position + 1), bytes, offset(position), (count - position - 1) * size);
+        setCount(count - 1);
+    }
+
+    /**
+     * Переносит записи начиная с from в конец target; на этой странице остаются первые from записей.
+     */
+    void moveTail(int from, BTreePage target) {
+        int moved = count() - from;
+        System.arraycopy(data.array(), offset(from), target.data.array(), target.offset(target.count()), moved * entrySize());
+        target.setCount(target.count() + moved);
+        setCount(from);
+    }
+
+    private int entrySize() {
+        return isLeaf() ? LEAF_ENTRY : INNER_ENTRY;
+    }
+
+    private int offset(int i) {
+        return HEADER_SIZE + i * entrySize();
+    }
+
+    public static int compare(long key, long rowId, long otherKey, long otherRowId) {
+        int byKey = Long.compare(key, otherKey);
+        return byKey != 0 ? byKey : Long.compare(rowId, otherRowId);
+    }
+}
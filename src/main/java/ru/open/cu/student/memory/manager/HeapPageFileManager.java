@@ -74,4 +74,13 @@ public class HeapPageFileManager implements PageFileManager {
         }
         return page;
     }
+
+    @Override
+    public int pageCount(Path path) {
+        try {
+            return Files.exists(path) ? (int) (Files.size(path) / PAGE_SIZE) : 0;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to get size of file: " + path, e);
+        }
+    }
 }
@@ -8,4 +8,6 @@ public interface PageFileManager {
     void write(Page page, Path path);
 
     Page read(int pageId, Path path);
+
+    int pageCount(Path path);
 }
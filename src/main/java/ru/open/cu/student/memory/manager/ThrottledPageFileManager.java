@@ -0,0 +1,52 @@
+package ru.open.cu.student.memory.manager;
+
+import ru.open.cu.student.memory.page.Page;
+
+import java.nio.file.Path;
+
+/**
+ * Обертка над PageFileManager, ограничивающая скорость чтения для фоновых задач.
+ *
+ * После каждых pagesPerDelay прочитанных страниц поток засыпает на delayMillis,
+ * чтобы фоновый сбор статистики не отнимал диск у пользовательских запросов.
+ */
+public class ThrottledPageFileManager implements PageFileManager {
+
+    private final PageFileManager delegate;
+    private final int pagesPerDelay;
+    private final long delayMillis;
+    private int pagesSinceDelay;
+
+    public ThrottledPageFileManager(PageFileManager delegate, int pagesPerDelay, long delayMillis) {
+        if (pagesPerDelay <= 0) {
+            throw new IllegalArgumentException("pagesPerDelay must be positive");
+        }
+        this.delegate = delegate;
+        this.pagesPerDelay = pagesPerDelay;
+        this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public void write(Page page, Path path) {
+        delegate.write(page, path);
+    }
+
+    @Override
+    public Page read(int pageId, Path path) {
+        if (++pagesSinceDelay >= pagesPerDelay) {
+            pagesSinceDelay = 0;
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while throttling page reads", e);
+            }
+        }
+        return delegate.read(pageId, path);
+    }
+
+    @Override
+    public int pageCount(Path path) {
+        return delegate.pageCount(path);
+    }
+}
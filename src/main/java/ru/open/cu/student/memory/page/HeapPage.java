@@ -2,10 +2,26 @@ package ru.open.cu.student.memory.page;
 
 import java.nio.ByteBuffer;
 
+/**
+ * Страница кучи: заголовок, массив слотов [short смещение][short длина] и данные строк с конца страницы.
+ *
+ * Номер слота — постоянный адрес строки (rowId индексов), поэтому слоты не переиспользуются и не сдвигаются.
+ * Старшие биты длины — состояние слота:
+ *  DEAD — строка удалена (надгробие);
+ *  FORWARD — строка переехала на другую страницу: смещение и младшие биты длины хранят номер той страницы;
+ *  MOVED — строка, переехавшая сюда: перед ее данными лежит long rowId исходного слота.
+ * Сканирования читают только живые слоты: переехавшая строка видна один раз, на новом месте.
+ */
 public class HeapPage implements Page {
 
     public static final int PAGE_SIZE = 8192;
+    public static final int SLOT_SIZE = 4;
     private static final int HEADER_SIZE = 10;
+    private static final int DEAD = 0x8000;
+    private static final int FORWARD = 0x4000;
+    private static final int MOVED = 0x2000;
+    private static final int LENGTH_MASK = 0x1FFF;
+    private static final int HOME_SIZE = 8;
 
     private final ByteBuffer data;
     private final int pageId;
@@ -48,15 +64,186 @@ public class HeapPage implements Page {
         return data.getShort(8) & 0xFFFF;
     }
 
+    /**
+     * Свободное место между массивом слотов и данными кортежей.
+     */
+    public int freeSpace() {
+        return upper() - lower();
+    }
+
     @Override
     public boolean isValid() {
         return data.getInt(0) == 0xDBDB01;
     }
 
+    /**
+     * Смещение строки index внутри страницы — для чтения без копирования через bytes().
+     */
+    public int rowOffset(int index) {
+        return data.getShort(HEADER_SIZE + index * SLOT_SIZE) & 0xFFFF;
+    }
+
+    public int rowLength(int index) {
+        return slotFlags(index) & LENGTH_MASK;
+    }
+
+    private int slotFlags(int index) {
+        return data.getShort(HEADER_SIZE + index * SLOT_SIZE + 2) & 0xFFFF;
+    }
+
+    private void setSlot(int index, int offset, int flags) {
+        data.putShort(HEADER_SIZE + index * SLOT_SIZE, (short) offset);
+        data.putShort(HEADER_SIZE + index * SLOT_SIZE + 2, (short) flags);
+    }
+
+    /**
+     * Слот содержит строку, которую видят сканирования: не удален и не переадресован.
+     */
+    public boolean isLive(int index) {
+        return (slotFlags(index) & (DEAD | FORWARD)) == 0;
+    }
+
+    public boolean isForward(int index) {
+        return (slotFlags(index) & FORWARD) != 0;
+    }
+
+    public boolean isMoved(int index) {
+        return (slotFlags(index) & (MOVED | DEAD)) == MOVED;
+    }
+
+    /**
+     * Страница, куда переехала строка переадресованного слота.
+     */
+    public int forwardPage(int index) {
+        return (slotFlags(index) & LENGTH_MASK) << 16 | rowOffset(index);
+    }
+
+    /**
+     * rowId исходного слота переехавшей строки.
+     */
+    public long homeRowId(int index) {
+        return data.getLong(rowOffset(index) - HOME_SIZE);
+    }
+
+    public int liveCount() {
+        int live = 0;
+        for (int i = 0; i < size(); i++) {
+            if (isLive(i)) live++;
+        }
+        return live;
+    }
+
+    /**
+     * Слот переехавшей строки с исходным rowId home; -1, если такой нет.
+     */
+    public int findMoved(long home) {
+        for (int i = 0; i < size(); i++) {
+            if (isMoved(i) && homeRowId(i) == home) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Ставит надгробие; место строки освобождается при следующем сжатии страницы.
+     */
+    public void delete(int index) {
+        setSlot(index, rowOffset(index), DEAD);
+    }
+
+    /**
+     * Превращает слот в указатель на страницу pageId, куда переехала строка.
+     */
+    public void setForward(int index, int pageId) {
+        if (pageId >>> 16 > LENGTH_MASK) {
+            throw new IllegalStateException("Page id is too large for a forwarding pointer: " + pageId);
+        }
+        setSlot(index, pageId & 0xFFFF, FORWARD | pageId >>> 16);
+    }
+
+    /**
+     * Заменяет данные живой строки. Версия не длиннее старой пишется на место старой,
+     * более длинная — в освободившееся после сжатия страницы место; слот строки не меняется.
+     * Возвращает false, если новая версия на странице не помещается (страница при этом не меняется).
+     */
+    public boolean replace(int index, byte[] row) {
+        int flags = slotFlags(index);
+        if (row.length <= (flags & LENGTH_MASK)) {
+            data.put(rowOffset(index), row);
+            setSlot(index, rowOffset(index), flags & ~LENGTH_MASK | row.length);
+            return true;
+        }
+
+        int prefix = (flags & MOVED) != 0 ? HOME_SIZE : 0;
+        if (PAGE_SIZE - lower() - liveBytes(index) < row.length + prefix) {
+            return false;
+        }
+        long home = prefix > 0 ? homeRowId(index) : 0;
+        setSlot(index, rowOffset(index), DEAD);
+        compact();
+        int upper = upper() - row.length - prefix;
+        if (prefix > 0) {
+            data.putLong(upper, home);
+        }
+        data.put(upper + prefix, row);
+        data.putShort(8, (short) upper);
+        setSlot(index, upper + prefix, (flags & MOVED) | row.length);
+        return true;
+    }
+
+    /**
+     * Дописывает переехавшую строку с исходным rowId home; возвращает ее слот.
+     */
+    public int writeMoved(byte[] row, long home) {
+        byte[] withHome = new byte[HOME_SIZE + row.length];
+        ByteBuffer.wrap(withHome).putLong(home).put(row);
+        write(withHome);
+        int index = size() - 1;
+        setSlot(index, rowOffset(index) + HOME_SIZE, MOVED | row.length);
+        return index;
+    }
+
+    /**
+     * Свободное место для переехавшей строки длины length вместе со слотом.
+     */
+    public static int movedRowSpace(int length) {
+        return HOME_SIZE + length + SLOT_SIZE;
+    }
+
+    /**
+     * Плотно переупаковывает данные живых и переехавших строк, освобождая место удаленных.
+     */
+    public void compact() {
+        byte[] bytes = data.array();
+        byte[] copy = bytes.clone();
+        int upper = PAGE_SIZE;
+        for (int i = 0; i < size(); i++) {
+            if (!isLive(i)) continue;
+            int prefix = isMoved(i) ? HOME_SIZE : 0;
+            int length = rowLength(i) + prefix;
+            upper -= length;
+            System.arraycopy(copy, rowOffset(i) - prefix, bytes, upper, length);
+            setSlot(i, upper + prefix, slotFlags(i));
+        }
+        data.putShort(8, (short) upper);
+    }
+
+    /**
+     * Байты данных живых строк, кроме строки except.
+     */
+    private int liveBytes(int except) {
+        int bytes = 0;
+        for (int i = 0; i < size(); i++) {
+            if (i != except && isLive(i)) {
+                bytes += rowLength(i) + (isMoved(i) ? HOME_SIZE : 0);
+            }
+        }
+        return bytes;
+    }
+
     @Override
     public byte[] read(int index) {
-        var offset = data.getShort(HEADER_SIZE + index * 4) & 0xFFFF;
-        var length = data.getShort(HEADER_SIZE + index * 4 + 2) & 0xFFFF;
+        var offset = rowOffset(index);
+        var length = rowLength(index);
 
         var result = new byte[length];
         data.get(offset, result);
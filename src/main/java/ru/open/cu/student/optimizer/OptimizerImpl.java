@@ -1,13 +1,90 @@
 package ru.open.cu.student.optimizer;
 
 
+import ru.open.cu.student.ast.AConst;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Const;
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.ast.ParamRef;
+import ru.open.cu.student.ast.SortKey;
+import ru.open.cu.student.catalog.manager.CatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.ColumnStatistics;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TableStatistics;
+import ru.open.cu.student.memory.manager.PageFileManager;
 import ru.open.cu.student.optimizer.node.*;
 import ru.open.cu.student.planner.node.*;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отображение логического плана на физический.
+ *
+ * Если известен PageFileManager, конвейер SELECT над большой таблицей оборачивается
+ * в PhysicalGather: число воркеров растет с числом страниц таблицы (по одному
+ * на PAGES_PER_WORKER страниц), но не больше числа ядер.
+ * ORDER BY с небольшим LIMIT выполняется через PhysicalTopN.
+ * Хеш-соединение строит таблицу по входу, меньшему по оценке в страницах.
+ * Если оба входа соединения уже упорядочены по ключу (таблица физически отсортирована по колонке
+ * по данным ANALYZE и с тех пор не менялась), выбирается соединение слиянием без сортировки и без хеш-таблицы.
+ * Если у одной стороны соединения есть индекс по колонке ключа, а другая по оценке дает не больше строк,
+ * чем страниц в индексированной таблице, каждая внешняя строка ищет пары через индекс (IndexNestedLoopJoin).
+ * COUNT/MIN/MAX по всей таблице без WHERE и GROUP BY не читают строк (PhysicalTableAggregate).
+ * Подзапросы IN / EXISTS выполняются хеш-полусоединением с таблицей по результату подзапроса.
+ */
 public class OptimizerImpl implements Optimizer {
+    public static final int PAGES_PER_WORKER = 64;
+    // До стольких строк (LIMIT + OFFSET) ORDER BY выполняется кучей Top-N, а не полной сортировкой
+    public static final int TOP_N_MAX_ROWS = 10_000;
+    // Доля строк, которую оставляет условие, при оценке размера входа соединения
+    private static final double FILTER_SELECTIVITY = 1.0 / 3;
+    // Строк на страницу кучи, если таблицу еще не анализировали
+    private static final int DEFAULT_ROWS_PER_PAGE = 100;
+    // Неравенство между ключами и то же условие с переставленными сторонами
+    private static final Map<String, String> RANGE_OPS = Map.of("<", ">", "<=", ">=", ">", "<", ">=", "<=");
+
+    private final PageFileManager pageFileManager;
+    private final CatalogManager catalogManager;
+    private final int maxWorkers;
+
+    public OptimizerImpl() {
+        this(null, null, 1);
+    }
+
+    public OptimizerImpl(PageFileManager pageFileManager) {
+        this(pageFileManager, null, Runtime.getRuntime().availableProcessors());
+    }
+
+    public OptimizerImpl(PageFileManager pageFileManager, int maxWorkers) {
+        this(pageFileManager, null, maxWorkers);
+    }
+
+    public OptimizerImpl(PageFileManager pageFileManager, CatalogManager catalogManager) {
+        this(pageFileManager, catalogManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param catalogManager источник статистики таблиц; null — физический порядок таблиц неизвестен
+     */
+    public OptimizerImpl(PageFileManager pageFileManager, CatalogManager catalogManager, int maxWorkers) {
+        this.pageFileManager = pageFileManager;
+        this.catalogManager = catalogManager;
+        this.maxWorkers = maxWorkers;
+    }
 
     @Override
     public PhysicalPlanNode optimize(LogicalPlanNode logicalPlan) {
+        return parallelize(toPhysical(logicalPlan));
+    }
+
+    private PhysicalPlanNode toPhysical(LogicalPlanNode logicalPlan) {
 
         // --- CREATE TABLE ---
         if (logicalPlan instanceof CreateTableNode ln) {
@@ -15,20 +92,80 @@ public class OptimizerImpl implements Optimizer {
 
             // --- INSERT ---
         } else if (logicalPlan instanceof InsertNode ln) {
-            return new PhysicalInsertNode(ln.getTableDefinition(), ln.getValues());
+            if (ln.getSource() != null) {
+                return new PhysicalInsertNode(ln.getTableDefinition(), toPhysical(ln.getSource()), ln.isSourceReadsTarget());
+            }
+            return new PhysicalInsertNode(ln.getTableDefinition(), ln.getRows());
+
+        } else if (logicalPlan instanceof LimitNode ln) {
+            PhysicalPlanNode child = topN(ln);
+            if (child == null) {
+                child = toPhysical(ln.getChild());
+            }
+            return new PhysicalLimitNode(ln.getCount(), ln.getOffset(), child);
 
         } else if (logicalPlan instanceof ProjectNode ln) {
-            PhysicalPlanNode child = optimize(ln.getChild());
+            PhysicalPlanNode child = toPhysical(ln.getChild());
             return new PhysicalProjectNode(ln.getTargetList(), child);
 
+        } else if (logicalPlan instanceof AggregateNode ln) {
+            PhysicalPlanNode tableAggregate = tableAggregate(ln);
+            if (tableAggregate != null) {
+                return tableAggregate;
+            }
+            PhysicalPlanNode child = toPhysical(ln.getChild());
+            return new PhysicalHashAggregateNode(ln.getGroupKeys(), ln.getAggregates(), ln.getOutputColumns(), child);
+
+        } else if (logicalPlan instanceof SortNode ln) {
+            PhysicalPlanNode child = toPhysical(ln.getChild());
+            return new PhysicalSortNode(ln.getSortKeys(), child);
+
+        } else if (logicalPlan instanceof JoinNode ln) {
+            PhysicalPlanNode left = toPhysical(ln.getLeft());
+            PhysicalPlanNode right = toPhysical(ln.getRight());
+            PhysicalPlanNode indexJoin = indexJoin(ln, left, right);
+            if (indexJoin != null) {
+                return indexJoin;
+            }
+            PhysicalPlanNode merge = mergeJoin(ln, left, right);
+            if (merge != null) {
+                return merge;
+            }
+            // При равных оценках (в том числе без PageFileManager) таблица строится по правому входу
+            boolean buildLeft = estimatePages(left) < estimatePages(right);
+            return new PhysicalHashJoinNode(ln.getLeftKeys(), ln.getRightKeys(), ln.getCondition(), buildLeft, left, right);
+
+        } else if (logicalPlan instanceof SemiJoinNode ln) {
+            return new PhysicalHashSemiJoinNode(ln.getOuterKeys(), ln.getInnerKeys(), ln.getCondition(), ln.isAnti(),
+                    toPhysical(ln.getOuter()), toPhysical(ln.getInner()));
+
             // --- SELECT - Filter ---
         } else if (logicalPlan instanceof FilterNode ln) {
-            PhysicalPlanNode child = optimize(ln.getChild());
+            if (ln.getChild() instanceof ScanNode scan) {
+                // Условие над таблицей проверяется прямо в сканировании по байтам страницы
+                return new PhysicalSeqScanNode(scan.getTableDefinition(), ln.getCondition(), scan.getRequiredColumns(),
+                        scan.getAlias());
+            }
+            PhysicalPlanNode child = toPhysical(ln.getChild());
             return new PhysicalFilterNode(ln.getCondition(), child);
 
             // --- SELECT - Scan ---
         } else if (logicalPlan instanceof ScanNode ln) {
-            return new PhysicalSeqScanNode(ln.getTableDefinition());
+            return new PhysicalSeqScanNode(ln.getTableDefinition(), null, ln.getRequiredColumns(), ln.getAlias());
+
+            // --- ANALYZE ---
+        } else if (logicalPlan instanceof AnalyzeNode ln) {
+            return new PhysicalAnalyzeNode(ln.getTables());
+
+            // --- CREATE INDEX ---
+        } else if (logicalPlan instanceof CreateIndexNode ln) {
+            return new PhysicalCreateIndexNode(ln.getIndexName(), ln.getTableDefinition(), ln.getColumnName());
+
+            // --- UPDATE / DELETE ---
+        } else if (logicalPlan instanceof UpdateNode ln) {
+            return new PhysicalUpdateNode(ln.getTableDefinition(), ln.getAssignments(), ln.getCondition());
+        } else if (logicalPlan instanceof DeleteNode ln) {
+            return new PhysicalDeleteNode(ln.getTableDefinition(), ln.getCondition());
         }
 
 
@@ -36,4 +173,388 @@ public class OptimizerImpl implements Optimizer {
                 "Unsupported logical node type: " + logicalPlan.getClass().getSimpleName()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Limit над Project над Sort с небольшим count + offset заменяет полную сортировку на Top-N.
+     * Возвращает Project над Top-N или null, если шаблон не подходит.
+     */
+    private PhysicalPlanNode topN(LimitNode limit) {
+        if (limit.getCount() == null
+                || !(limit.getChild() instanceof ProjectNode project)
+                || !(project.getChild() instanceof SortNode sort)) {
+            return null;
+        }
+        long rows = limit.getCount() + limit.getOffset();
+        if (rows > TOP_N_MAX_ROWS) {
+            return null;
+        }
+        PhysicalPlanNode topN = new PhysicalTopNNode(sort.getSortKeys(), (int) rows, toPhysical(sort.getChild()));
+        return new PhysicalProjectNode(project.getTargetList(), topN);
+    }
+
+    /**
+     * Грубая оценка объема выхода узла в страницах; без PageFileManager — 0.
+     */
+    private double estimatePages(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalSeqScanNode scan) {
+            if (pageFileManager == null) {
+                return 0;
+            }
+            double pages = pageFileManager.pageCount(Path.of(scan.getTableDefinition().getFileNode()));
+            return scan.getFilter() == null ? pages : pages * FILTER_SELECTIVITY;
+        } else if (plan instanceof PhysicalFilterNode filter) {
+            return estimatePages(filter.getChild()) * FILTER_SELECTIVITY;
+        } else if (plan instanceof PhysicalHashJoinNode join) {
+            // Соединение по внешнему ключу дает не больше строк, чем больший вход
+            return Math.max(estimatePages(join.getLeft()), estimatePages(join.getRight()));
+        } else if (plan instanceof PhysicalMergeJoinNode join) {
+            return Math.max(estimatePages(join.getLeft()), estimatePages(join.getRight()));
+        } else if (plan instanceof PhysicalIndexNestedLoopJoinNode join) {
+            // Через индекс соединяется только небольшой внешний вход
+            return estimatePages(join.getOuter());
+        } else if (plan instanceof PhysicalHashSemiJoinNode join) {
+            return estimatePages(join.getOuter()) * FILTER_SELECTIVITY;
+        }
+        return 0;
+    }
+
+    /**
+     * Грубая оценка числа строк выхода узла: по статистике ANALYZE, а без нее — по числу страниц таблицы.
+     * Для узлов, которые оценить нечем, — бесконечность.
+     */
+    private double estimateRows(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalSeqScanNode scan) {
+            TableDefinition table = scan.getTableDefinition();
+            TableStatistics statistics = catalogManager.getStatistics(table);
+            double rows = statistics != null ? statistics.getRowCount()
+                    : (double) pageFileManager.pageCount(Path.of(table.getFileNode())) * DEFAULT_ROWS_PER_PAGE;
+            List<Expr> conjuncts = new ArrayList<>();
+            splitConjuncts(scan.getFilter(), conjuncts);
+            for (Expr conjunct : conjuncts) {
+                rows *= selectivity(scan, statistics, conjunct);
+            }
+            return rows;
+        } else if (plan instanceof PhysicalFilterNode filter) {
+            return estimateRows(filter.getChild()) * FILTER_SELECTIVITY;
+        } else if (plan instanceof PhysicalSortNode sort) {
+            return estimateRows(sort.getChild());
+        } else if (plan instanceof PhysicalIndexNestedLoopJoinNode join) {
+            return estimateRows(join.getOuter());
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Доля строк, которую оставляет условие сканирования: для "колонка = константа" — 1 / число различных значений
+     * по статистике, для остальных условий — FILTER_SELECTIVITY.
+     */
+    private double selectivity(PhysicalSeqScanNode scan, TableStatistics statistics, Expr conjunct) {
+        if (statistics != null && conjunct instanceof AExpr cmp && cmp.getOp().equals("=")) {
+            ColumnDefinition column = scanColumn(scan, (Expr) cmp.getLeft());
+            Expr other = (Expr) cmp.getRight();
+            if (column == null) {
+                column = scanColumn(scan, other);
+                other = (Expr) cmp.getLeft();
+            }
+            ColumnStatistics columnStatistics = column != null ? statistics.getColumn(column.getPosition()) : null;
+            if (columnStatistics != null && columnStatistics.getDistinctCount() > 0 && isConstant(other)) {
+                return 1.0 / columnStatistics.getDistinctCount();
+            }
+        }
+        return FILTER_SELECTIVITY;
+    }
+
+    private static boolean isConstant(Expr expr) {
+        if (expr instanceof ColumnRef ref) {
+            // Парсер представляет числовые литералы как ColumnRef
+            return ref.table == null && ref.column.matches("-?\\d+");
+        }
+        return expr instanceof Const || expr instanceof AConst || expr instanceof ParamRef;
+    }
+
+    /**
+     * COUNT/MIN/MAX по всей таблице без GROUP BY и WHERE отвечаются без чтения строк, если каждый агрегат —
+     * COUNT (NULL в движке нет, так что COUNT(x) — это число строк) или MIN/MAX колонки integer/bigint,
+     * для которой каталог ведет сводку. Иначе null.
+     */
+    private PhysicalPlanNode tableAggregate(AggregateNode aggregate) {
+        if (!aggregate.getGroupKeys().isEmpty() || !(aggregate.getChild() instanceof ScanNode scan)) {
+            return null;
+        }
+        PhysicalSeqScanNode node = new PhysicalSeqScanNode(scan.getTableDefinition(), null, scan.getRequiredColumns(),
+                scan.getAlias());
+        for (FuncCall call : aggregate.getAggregates()) {
+            boolean supported = switch (call.name) {
+                case "COUNT" -> call.star || call.args.get(0) instanceof ColumnRef;
+                case "MIN", "MAX" -> {
+                    ColumnDefinition column = catalogManager == null ? null : scanColumn(node, (Expr) call.args.get(0));
+                    yield column != null && (column.getTypeOid() == 23 || column.getTypeOid() == 20);
+                }
+                default -> false;
+            };
+            if (!supported) {
+                return null;
+            }
+        }
+        return new PhysicalTableAggregateNode(aggregate.getAggregates(), aggregate.getOutputColumns(), node);
+    }
+
+    /**
+     * Колонка таблицы сканирования, на которую ссылается expr ("псевдоним.колонка" или просто имя), или null.
+     */
+    private ColumnDefinition scanColumn(PhysicalSeqScanNode scan, Expr expr) {
+        if (!(expr instanceof ColumnRef ref) || ref.table != null) {
+            return null;
+        }
+        for (ColumnDefinition definition : catalogManager.getTableColumns(scan.getTableDefinition())) {
+            String name = scan.getAlias() != null ? scan.getAlias() + "." + definition.getName() : definition.getName();
+            if (name.equalsIgnoreCase(ref.column)) {
+                return definition;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Соединение через индекс, если одна сторона — сканирование таблицы с индексом по колонке ключа равенства,
+     * а другая по оценке дает не больше строк, чем страниц в этой таблице: тогда поиск по индексу на каждую
+     * внешнюю строку дешевле, чем прочитать таблицу целиком для хеш-таблицы. Из подходящих вариантов берется
+     * вариант с меньшим внешним входом. Иначе null.
+     */
+    private PhysicalPlanNode indexJoin(JoinNode join, PhysicalPlanNode left, PhysicalPlanNode right) {
+        if (catalogManager == null || pageFileManager == null) {
+            return null;
+        }
+        List<Expr> leftKeys = join.getLeftKeys();
+        List<Expr> rightKeys = join.getRightKeys();
+        PhysicalIndexNestedLoopJoinNode best = null;
+        double bestRows = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < leftKeys.size(); i++) {
+            for (boolean innerLeft : new boolean[]{false, true}) {
+                PhysicalPlanNode outer = innerLeft ? right : left;
+                if (!((innerLeft ? left : right) instanceof PhysicalSeqScanNode inner)) {
+                    continue;
+                }
+                IndexDefinition index = indexOn(inner, (innerLeft ? leftKeys : rightKeys).get(i));
+                if (index == null) {
+                    continue;
+                }
+                double outerRows = estimateRows(outer);
+                int innerPages = pageFileManager.pageCount(Path.of(inner.getTableDefinition().getFileNode()));
+                if (outerRows > innerPages || outerRows >= bestRows) {
+                    continue;
+                }
+                Expr residual = join.getCondition();
+                for (int j = 0; j < leftKeys.size(); j++) {
+                    if (j != i) {
+                        residual = and(residual, new AExpr("=", leftKeys.get(j), rightKeys.get(j)));
+                    }
+                }
+                best = new PhysicalIndexNestedLoopJoinNode((innerLeft ? rightKeys : leftKeys).get(i), index, residual,
+                        outer, inner, innerLeft);
+                bestRows = outerRows;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Индекс таблицы сканирования по колонке key или null.
+     */
+    private IndexDefinition indexOn(PhysicalSeqScanNode scan, Expr key) {
+        if (scan.getAlias() == null) {
+            return null;
+        }
+        ColumnDefinition column = scanColumn(scan, key);
+        if (column == null) {
+            return null;
+        }
+        for (IndexDefinition index : catalogManager.getIndexes(scan.getTableDefinition())) {
+            if (index.columnPosition() == column.getPosition()) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Соединение слиянием, если оба входа уже упорядочены по ключам одного из условий:
+     * равенства (ключи соединения) или, когда равенств нет, неравенства между колонками входов.
+     * Остальные условия становятся условием над парой строк. Иначе null.
+     */
+    private PhysicalPlanNode mergeJoin(JoinNode join, PhysicalPlanNode left, PhysicalPlanNode right) {
+        List<Expr> leftKeys = join.getLeftKeys();
+        List<Expr> rightKeys = join.getRightKeys();
+        for (int i = 0; i < leftKeys.size(); i++) {
+            if (orderedOn(left, leftKeys.get(i)) && orderedOn(right, rightKeys.get(i))) {
+                Expr residual = join.getCondition();
+                for (int j = 0; j < leftKeys.size(); j++) {
+                    if (j != i) {
+                        residual = and(residual, new AExpr("=", leftKeys.get(j), rightKeys.get(j)));
+                    }
+                }
+                return new PhysicalMergeJoinNode(leftKeys.get(i), "=", rightKeys.get(i), residual, left, right);
+            }
+        }
+        if (!leftKeys.isEmpty()) {
+            // С равенством хеш-соединение линейно, слияние по неравенству — нет
+            return null;
+        }
+
+        List<Expr> conjuncts = new ArrayList<>();
+        splitConjuncts(join.getCondition(), conjuncts);
+        for (Expr conjunct : conjuncts) {
+            if (!(conjunct instanceof AExpr cmp) || !RANGE_OPS.containsKey(cmp.getOp())) {
+                continue;
+            }
+            Expr a = (Expr) cmp.getLeft();
+            Expr b = (Expr) cmp.getRight();
+            PhysicalMergeJoinNode merge = null;
+            Expr residual = null;
+            for (Expr other : conjuncts) {
+                if (other != conjunct) residual = and(residual, other);
+            }
+            if (orderedOn(left, a) && orderedOn(right, b)) {
+                merge = new PhysicalMergeJoinNode(a, cmp.getOp(), b, residual, left, right);
+            } else if (orderedOn(left, b) && orderedOn(right, a)) {
+                merge = new PhysicalMergeJoinNode(b, RANGE_OPS.get(cmp.getOp()), a, residual, left, right);
+            }
+            if (merge != null) {
+                return merge;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Упорядочен ли выход узла по возрастанию колонки key.
+     * Фильтр порядок сохраняет, соединение слиянием — порядок своей внешней стороны; Gather и хеш-соединение его теряют.
+     */
+    private boolean orderedOn(PhysicalPlanNode plan, Expr key) {
+        if (!(key instanceof ColumnRef ref) || ref.table != null) {
+            return false;
+        }
+        if (plan instanceof PhysicalSeqScanNode scan) {
+            return clustered(scan, ref.column);
+        } else if (plan instanceof PhysicalFilterNode filter) {
+            return orderedOn(filter.getChild(), key);
+        } else if (plan instanceof PhysicalSortNode sort) {
+            SortKey first = sort.getSortKeys().get(0);
+            return !first.descending && first.expr instanceof ColumnRef sorted && sorted.table == null
+                    && sorted.column.equalsIgnoreCase(ref.column);
+        } else if (plan instanceof PhysicalMergeJoinNode join) {
+            boolean outerLeft = !join.getOp().startsWith("<");
+            if (orderedOn(outerLeft ? join.getLeft() : join.getRight(), key)) {
+                return true;
+            }
+            // При равенстве внутренний ключ совпадает с внешним в каждой строке выхода
+            Expr innerKey = outerLeft ? join.getRightKey() : join.getLeftKey();
+            return join.getOp().equals("=") && innerKey instanceof ColumnRef inner && inner.table == null
+                    && inner.column.equalsIgnoreCase(ref.column);
+        }
+        return false;
+    }
+
+    /**
+     * Таблица сканирования физически упорядочена по колонке column ("псевдоним.колонка"):
+     * так сказал последний ANALYZE, и с тех пор в таблице ничего не менялось.
+     */
+    private boolean clustered(PhysicalSeqScanNode scan, String column) {
+        if (catalogManager == null || scan.getAlias() == null) {
+            return false;
+        }
+        TableDefinition table = scan.getTableDefinition();
+        TableStatistics statistics = catalogManager.getStatistics(table);
+        if (statistics == null || catalogManager.getModificationsSinceAnalyze(table) > 0) {
+            return false;
+        }
+        for (ColumnDefinition definition : catalogManager.getTableColumns(table)) {
+            if ((scan.getAlias() + "." + definition.getName()).equalsIgnoreCase(column)) {
+                ColumnStatistics columnStatistics = statistics.getColumn(definition.getPosition());
+                return columnStatistics != null && columnStatistics.isSorted();
+            }
+        }
+        return false;
+    }
+
+    private static void splitConjuncts(Expr expr, List<Expr> conjuncts) {
+        if (expr instanceof AExpr a && a.getOp().equalsIgnoreCase("AND")) {
+            splitConjuncts((Expr) a.getLeft(), conjuncts);
+            splitConjuncts((Expr) a.getRight(), conjuncts);
+        } else if (expr != null) {
+            conjuncts.add(expr);
+        }
+    }
+
+    private static Expr and(Expr left, Expr right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        return new AExpr("AND", left, right);
+    }
+
+    private PhysicalPlanNode parallelize(PhysicalPlanNode plan) {
+        if (pageFileManager == null || maxWorkers < 2) {
+            return plan;
+        }
+
+        if (plan instanceof PhysicalInsertNode insert && insert.getSource() != null) {
+            // Запрос-источник читается параллельно, вставка идет в одном потоке
+            return new PhysicalInsertNode(insert.getTableDefinition(), parallelize(insert.getSource()),
+                    insert.isSourceReadsTarget());
+        } else if (plan instanceof PhysicalLimitNode limit) {
+            // Limit остается над Gather: он один решает, когда остановить всех воркеров
+            return new PhysicalLimitNode(limit.getCount(), limit.getOffset(), parallelize(limit.getChild()));
+        } else if (plan instanceof PhysicalSortNode sort) {
+            // Сортировка собирает весь вход в одном потоке, параллельно читается то, что под ней
+            return new PhysicalSortNode(sort.getSortKeys(), parallelize(sort.getChild()));
+        } else if (plan instanceof PhysicalTopNNode topN) {
+            return new PhysicalTopNNode(topN.getSortKeys(), topN.getLimit(), parallelize(topN.getChild()));
+        } else if (plan instanceof PhysicalHashAggregateNode aggregate) {
+            // Агрегация идет в одном потоке над собранным потоком воркеров
+            return new PhysicalHashAggregateNode(aggregate.getGroupKeys(), aggregate.getAggregates(),
+                    aggregate.getOutputColumns(), parallelize(aggregate.getChild()));
+        } else if (plan instanceof PhysicalHashJoinNode join) {
+            // Соединение идет в одном потоке, каждый вход читается параллельно сам по себе
+            return new PhysicalHashJoinNode(join.getLeftKeys(), join.getRightKeys(), join.getCondition(),
+                    join.isBuildLeft(), parallelize(join.getLeft()), parallelize(join.getRight()));
+        } else if (plan instanceof PhysicalMergeJoinNode) {
+            // Gather перемешивает строки воркеров, а слиянию нужен порядок входов: они читаются в одном потоке
+            return plan;
+        } else if (plan instanceof PhysicalIndexNestedLoopJoinNode join) {
+            // Внутренняя таблица читается только через индекс, параллельно читается внешний вход
+            return new PhysicalIndexNestedLoopJoinNode(join.getOuterKey(), join.getIndex(), join.getCondition(),
+                    parallelize(join.getOuter()), join.getInner(), join.isInnerLeft());
+        } else if (plan instanceof PhysicalHashSemiJoinNode join) {
+            // Как и хеш-соединение: в одном потоке, каждый вход читается параллельно
+            return new PhysicalHashSemiJoinNode(join.getOuterKeys(), join.getInnerKeys(), join.getCondition(), join.isAnti(),
+                    parallelize(join.getOuter()), parallelize(join.getInner()));
+        }
+
+        PhysicalSeqScanNode scan = pipelineScan(plan);
+        if (scan == null) {
+            if (plan instanceof PhysicalProjectNode project) {
+                // Проекция над сортировкой, агрегацией или соединением: параллельно читается то, что под ними
+                return new PhysicalProjectNode(project.getTargetList(), parallelize(project.getChild()));
+            }
+            return plan;
+        }
+
+        int pages = pageFileManager.pageCount(Path.of(scan.getTableDefinition().getFileNode()));
+        int workers = Math.min(maxWorkers, pages / PAGES_PER_WORKER);
+        return workers >= 2 ? new PhysicalGatherNode(workers, plan) : plan;
+    }
+
+    /**
+     * Сканирование под цепочкой Project/Filter или null, если план не такой конвейер.
+     */
+    private static PhysicalSeqScanNode pipelineScan(PhysicalPlanNode plan) {
+        if (plan instanceof PhysicalProjectNode project) {
+            return pipelineScan(project.getChild());
+        } else if (plan instanceof PhysicalFilterNode filter) {
+            return pipelineScan(filter.getChild());
+        } else if (plan instanceof PhysicalSeqScanNode scan) {
+            return scan;
+        }
+        return null;
+    }
+}
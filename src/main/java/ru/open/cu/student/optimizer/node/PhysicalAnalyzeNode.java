@@ -0,0 +1,27 @@
+package ru.open.cu.student.optimizer.node;
+
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+import java.util.List;
+
+/**
+ * Физический узел ANALYZE — сбор статистики по выборке страниц кучи.
+ */
+public class PhysicalAnalyzeNode extends PhysicalPlanNode {
+
+    private final List<TableDefinition> tables;
+
+    public PhysicalAnalyzeNode(List<TableDefinition> tables) {
+        super("PhysicalAnalyze");
+        this.tables = tables;
+    }
+
+    public List<TableDefinition> getTables() {
+        return tables;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalAnalyze(" + tables.stream().map(TableDefinition::getName).toList() + ")\n";
+    }
+}
@@ -0,0 +1,37 @@
+package ru.open.cu.student.optimizer.node;
+
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+/**
+ * Физический узел CREATE INDEX — сборка B+-дерева по строкам таблицы.
+ */
+public class PhysicalCreateIndexNode extends PhysicalPlanNode {
+
+    private final String indexName;
+    private final TableDefinition tableDefinition;
+    private final String columnName;
+
+    public PhysicalCreateIndexNode(String indexName, TableDefinition tableDefinition, String columnName) {
+        super("PhysicalCreateIndex");
+        this.indexName = indexName;
+        this.tableDefinition = tableDefinition;
+        this.columnName = columnName;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalCreateIndex(" + indexName + " ON " + tableDefinition.getName() + " (" + columnName + "))\n";
+    }
+}
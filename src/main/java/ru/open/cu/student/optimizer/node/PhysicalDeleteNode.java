@@ -0,0 +1,33 @@
+package ru.open.cu.student.optimizer.node;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+/**
+ * Физический узел DELETE FROM table [WHERE condition]: надгробия в слотах подходящих строк.
+ */
+public class PhysicalDeleteNode extends PhysicalPlanNode {
+
+    private final TableDefinition tableDefinition;
+    private final Expr condition;
+
+    public PhysicalDeleteNode(TableDefinition tableDefinition, Expr condition) {
+        super("PhysicalDelete");
+        this.tableDefinition = tableDefinition;
+        this.condition = condition;
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalDelete(" + tableDefinition.getName()
+                + (condition != null ? ", where=" + condition : "") + ")\n";
+    }
+}
@@ -0,0 +1,30 @@
+package ru.open.cu.student.optimizer.node;
+
+
+/**
+ * Параллельное выполнение: поддерево child (scan → filter → project) запускается
+ * в workers экземплярах над разными диапазонами страниц, результаты сливаются в один поток.
+ */
+public class PhysicalGatherNode extends PhysicalPlanNode {
+    private final int workers;
+    private final PhysicalPlanNode child;
+
+    public PhysicalGatherNode(int workers, PhysicalPlanNode child) {
+        super("PhysicalGather");
+        this.workers = workers;
+        this.child = child;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public PhysicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalGather(workers=" + workers + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,49 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.FuncCall;
+
+import java.util.List;
+
+/**
+ * Физический узел HashAggregate — хеш-агрегация со сбросом партиций на диск при нехватке памяти.
+ * outputColumns — имена выходных колонок из логического узла (ключи, затем агрегаты).
+ */
+public class PhysicalHashAggregateNode extends PhysicalPlanNode {
+    private final List<Expr> groupKeys;
+    private final List<FuncCall> aggregates;
+    private final List<String> outputColumns;
+    private final PhysicalPlanNode child;
+
+    public PhysicalHashAggregateNode(List<Expr> groupKeys, List<FuncCall> aggregates, List<String> outputColumns,
+                                     PhysicalPlanNode child) {
+        super("PhysicalHashAggregate");
+        this.groupKeys = groupKeys;
+        this.aggregates = aggregates;
+        this.outputColumns = outputColumns;
+        this.child = child;
+    }
+
+    public List<Expr> getGroupKeys() {
+        return groupKeys;
+    }
+
+    public List<FuncCall> getAggregates() {
+        return aggregates;
+    }
+
+    public List<String> getOutputColumns() {
+        return outputColumns;
+    }
+
+    public PhysicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalHashAggregate(groupBy=" + groupKeys + ", " + aggregates + ")\n"
+                + child.prettyPrint(indent + "  ");
+    }
+}
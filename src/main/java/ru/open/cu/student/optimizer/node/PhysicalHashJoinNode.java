@@ -0,0 +1,62 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.Expr;
+
+import java.util.List;
+
+/**
+ * Физический узел HashJoin — хеш-соединение с партиционированием на диск (Grace) при нехватке памяти.
+ * buildLeft — хеш-таблица строится по левому входу, правый служит зондом; выход всегда
+ * в порядке «колонки левого входа, затем правого».
+ */
+public class PhysicalHashJoinNode extends PhysicalPlanNode {
+    private final List<Expr> leftKeys;
+    private final List<Expr> rightKeys;
+    private final Expr condition;
+    private final boolean buildLeft;
+    private final PhysicalPlanNode left;
+    private final PhysicalPlanNode right;
+
+    public PhysicalHashJoinNode(List<Expr> leftKeys, List<Expr> rightKeys, Expr condition, boolean buildLeft,
+                                PhysicalPlanNode left, PhysicalPlanNode right) {
+        super("PhysicalHashJoin");
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.condition = condition;
+        this.buildLeft = buildLeft;
+        this.left = left;
+        this.right = right;
+    }
+
+    public List<Expr> getLeftKeys() {
+        return leftKeys;
+    }
+
+    public List<Expr> getRightKeys() {
+        return rightKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    public boolean isBuildLeft() {
+        return buildLeft;
+    }
+
+    public PhysicalPlanNode getLeft() {
+        return left;
+    }
+
+    public PhysicalPlanNode getRight() {
+        return right;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalHashJoin(" + leftKeys + " = " + rightKeys
+                + (condition != null ? ", " + condition : "") + ", build=" + (buildLeft ? "left" : "right") + ")\n"
+                + left.prettyPrint(indent + "  ") + right.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,61 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.Expr;
+
+import java.util.List;
+
+/**
+ * Физический узел HashSemiJoin — хеш-полусоединение (anti — антисоединение): хеш-таблица строится
+ * по внутреннему входу с партиционированием на диск (Grace), внешний вход служит зондом.
+ * Выход — отобранные строки внешнего входа.
+ */
+public class PhysicalHashSemiJoinNode extends PhysicalPlanNode {
+    private final List<Expr> outerKeys;
+    private final List<Expr> innerKeys;
+    private final Expr condition;
+    private final boolean anti;
+    private final PhysicalPlanNode outer;
+    private final PhysicalPlanNode inner;
+
+    public PhysicalHashSemiJoinNode(List<Expr> outerKeys, List<Expr> innerKeys, Expr condition, boolean anti,
+                                    PhysicalPlanNode outer, PhysicalPlanNode inner) {
+        super(anti ? "PhysicalHashAntiJoin" : "PhysicalHashSemiJoin");
+        this.outerKeys = outerKeys;
+        this.innerKeys = innerKeys;
+        this.condition = condition;
+        this.anti = anti;
+        this.outer = outer;
+        this.inner = inner;
+    }
+
+    public List<Expr> getOuterKeys() {
+        return outerKeys;
+    }
+
+    public List<Expr> getInnerKeys() {
+        return innerKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    public boolean isAnti() {
+        return anti;
+    }
+
+    public PhysicalPlanNode getOuter() {
+        return outer;
+    }
+
+    public PhysicalPlanNode getInner() {
+        return inner;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + getNodeType() + "(" + outerKeys + " = " + innerKeys + (condition != null ? ", " + condition : "") + ")\n"
+                + outer.prettyPrint(indent + "  ") + inner.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,71 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+
+/**
+ * Физический узел IndexNestedLoopJoin — соединение, в котором строки внешнего входа ищут пары
+ * во внутренней таблице через ее индекс: outerKey = индексируемая колонка index.
+ * inner — сканирование внутренней таблицы: само оно не выполняется, но его фильтр и набор колонок
+ * применяются к найденным строкам. condition — остальные условия над парой строк (может быть null).
+ * Выход в порядке «колонки левого входа, затем правого»; innerLeft — внутренняя таблица слева.
+ */
+public class PhysicalIndexNestedLoopJoinNode extends PhysicalPlanNode {
+    private final Expr outerKey;
+    private final IndexDefinition index;
+    private final Expr condition;
+    private final PhysicalPlanNode outer;
+    private final PhysicalSeqScanNode inner;
+    private final boolean innerLeft;
+
+    public PhysicalIndexNestedLoopJoinNode(Expr outerKey, IndexDefinition index, Expr condition,
+                                           PhysicalPlanNode outer, PhysicalSeqScanNode inner, boolean innerLeft) {
+        super("PhysicalIndexNestedLoopJoin");
+        this.outerKey = outerKey;
+        this.index = index;
+        this.condition = condition;
+        this.outer = outer;
+        this.inner = inner;
+        this.innerLeft = innerLeft;
+    }
+
+    public Expr getOuterKey() {
+        return outerKey;
+    }
+
+    public IndexDefinition getIndex() {
+        return index;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    public PhysicalPlanNode getOuter() {
+        return outer;
+    }
+
+    public PhysicalSeqScanNode getInner() {
+        return inner;
+    }
+
+    public boolean isInnerLeft() {
+        return innerLeft;
+    }
+
+    public PhysicalPlanNode getLeft() {
+        return innerLeft ? inner : outer;
+    }
+
+    public PhysicalPlanNode getRight() {
+        return innerLeft ? outer : inner;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalIndexNestedLoopJoin(" + outerKey + " -> " + index.name()
+                + (condition != null ? ", " + condition : "") + (innerLeft ? ", inner=left" : "") + ")\n"
+                + outer.prettyPrint(indent + "  ") + inner.prettyPrint(indent + "  ");
+    }
+}
@@ -7,30 +7,57 @@ import ru.open.cu.student.ast.Expr;
 import java.util.List;
 
 /**
- * Физический узел INSERT INTO table VALUES (...).
- * Хранит готовый объект Table и список значений.
+ * Физический узел INSERT INTO table VALUES (...), (...) или INSERT INTO table SELECT ....
+ * Хранит готовый объект Table и либо значения всех вставляемых строк, либо план запроса-источника.
+ * sourceReadsTarget — источник читает ту же таблицу, и новые строки не должны попасть в его чтение.
  */
 public class PhysicalInsertNode extends PhysicalPlanNode {
 
     private final TableDefinition tableDefinition;
-    private final List<Expr> values;
+    private final List<List<Expr>> rows;
+    private final PhysicalPlanNode source;
+    private final boolean sourceReadsTarget;
 
-    public PhysicalInsertNode(TableDefinition tableDefinition, List<Expr> values) {
+    public PhysicalInsertNode(TableDefinition tableDefinition, List<List<Expr>> rows) {
+        this(tableDefinition, rows, null, false);
+    }
+
+    public PhysicalInsertNode(TableDefinition tableDefinition, PhysicalPlanNode source, boolean sourceReadsTarget) {
+        this(tableDefinition, null, source, sourceReadsTarget);
+    }
+
+    private PhysicalInsertNode(TableDefinition tableDefinition, List<List<Expr>> rows, PhysicalPlanNode source, boolean sourceReadsTarget) {
         super("PhysicalInsert");
         this.tableDefinition = tableDefinition;
-        this.values = values;
+        this.rows = rows;
+        this.source = source;
+        this.sourceReadsTarget = sourceReadsTarget;
     }
 
     public TableDefinition getTableDefinition() {
         return tableDefinition;
     }
 
-    public List<Expr> getValues() {
-        return values;
+    /**
+     * Строки VALUES; null у INSERT ... SELECT.
+     */
+    public List<List<Expr>> getRows() {
+        return rows;
+    }
+
+    public PhysicalPlanNode getSource() {
+        return source;
+    }
+
+    public boolean isSourceReadsTarget() {
+        return sourceReadsTarget;
     }
 
     @Override
     public String prettyPrint(String indent) {
-        return indent + "PhysicalInsert(" + tableDefinition.getName() + ")\n";
+        if (source != null) {
+            return indent + "PhysicalInsert(" + tableDefinition.getName() + ")\n" + source.prettyPrint(indent + "  ");
+        }
+        return indent + "PhysicalInsert(" + tableDefinition.getName() + ", rows=" + rows.size() + ")\n";
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ru.open.cu.student.optimizer.node;
+
+
+/**
+ * Физический узел Limit — останавливает дочерний конвейер, как только набрано нужное число строк.
+ * count == null означает «без ограничения».
+ */
+public class PhysicalLimitNode extends PhysicalPlanNode {
+    private final Long count;
+    private final long offset;
+    private final PhysicalPlanNode child;
+
+    public PhysicalLimitNode(Long count, long offset, PhysicalPlanNode child) {
+        super("PhysicalLimit");
+        this.count = count;
+        this.offset = offset;
+        this.child = child;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public PhysicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalLimit(" + count + ", offset=" + offset + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
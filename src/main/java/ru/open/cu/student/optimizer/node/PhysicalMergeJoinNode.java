@@ -0,0 +1,61 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.Expr;
+
+/**
+ * Физический узел MergeJoin — соединение слиянием входов, уже упорядоченных по возрастанию ключей.
+ * Условие на ключи — leftKey op rightKey, где op — "=" или неравенство; остальные условия — в condition.
+ * Выход в порядке «колонки левого входа, затем правого» и упорядочен по ключу внешней стороны:
+ * левой для "=", "&gt;", "&gt;=", правой для "&lt;", "&lt;=".
+ */
+public class PhysicalMergeJoinNode extends PhysicalPlanNode {
+    private final Expr leftKey;
+    private final String op;
+    private final Expr rightKey;
+    private final Expr condition;
+    private final PhysicalPlanNode left;
+    private final PhysicalPlanNode right;
+
+    public PhysicalMergeJoinNode(Expr leftKey, String op, Expr rightKey, Expr condition,
+                                 PhysicalPlanNode left, PhysicalPlanNode right) {
+        super("PhysicalMergeJoin");
+        this.leftKey = leftKey;
+        this.op = op;
+        this.rightKey = rightKey;
+        this.condition = condition;
+        this.left = left;
+        this.right = right;
+    }
+
+    public Expr getLeftKey() {
+        return leftKey;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public Expr getRightKey() {
+        return rightKey;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    public PhysicalPlanNode getLeft() {
+        return left;
+    }
+
+    public PhysicalPlanNode getRight() {
+        return right;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalMergeJoin(" + leftKey + " " + op + " " + rightKey
+                + (condition != null ? ", " + condition : "") + ")\n"
+                + left.prettyPrint(indent + "  ") + right.prettyPrint(indent + "  ");
+    }
+}
@@ -1,17 +1,50 @@
 package ru.open.cu.student.optimizer.node;
 
 
+import ru.open.cu.student.ast.Expr;
 import ru.open.cu.student.catalog.model.TableDefinition;
 
+import java.util.Set;
+
 /**
  * Последовательное сканирование таблицы (SeqScan).
+ * filter — условие WHERE, проверяемое самим сканированием (может быть null);
+ * requiredColumns — позиции колонок, которые нужно декодировать (null — все);
+ * alias — префикс имен колонок в соединении (null — колонки называются как в таблице).
  */
 public class PhysicalSeqScanNode extends PhysicalPlanNode {
     private final TableDefinition tableDefinition;
+    private final Expr filter;
+    private final Set<Integer> requiredColumns;
+    private final String alias;
 
     public PhysicalSeqScanNode(TableDefinition tableDefinition) {
+        this(tableDefinition, null, null);
+    }
+
+    public PhysicalSeqScanNode(TableDefinition tableDefinition, Expr filter, Set<Integer> requiredColumns) {
+        this(tableDefinition, filter, requiredColumns, null);
+    }
+
+    public PhysicalSeqScanNode(TableDefinition tableDefinition, Expr filter, Set<Integer> requiredColumns,
+                               String alias) {
         super("PhysicalSeqScan");
         this.tableDefinition = tableDefinition;
+        this.filter = filter;
+        this.requiredColumns = requiredColumns;
+        this.alias = alias;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public Set<Integer> getRequiredColumns() {
+        return requiredColumns;
+    }
+
+    public Expr getFilter() {
+        return filter;
     }
 
     public TableDefinition getTableDefinition() {
@@ -20,6 +53,9 @@ public class PhysicalSeqScanNode extends PhysicalPlanNode {
 
     @Override
     public String prettyPrint(String indent) {
-        return indent + "PhysicalSeqScan(" + tableDefinition.getName() + ")\n";
+        return indent + "PhysicalSeqScan(" + tableDefinition.getName()
+                + (alias != null ? " " + alias : "")
+                + (filter != null ? ", filter=" + filter : "")
+                + (requiredColumns != null ? ", columns=" + requiredColumns : "") + ")\n";
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.SortKey;
+
+import java.util.List;
+
+/**
+ * Физический узел Sort — внешняя сортировка слиянием: при нехватке памяти отсортированные
+ * прогоны сбрасываются на диск и сливаются при выдаче.
+ */
+public class PhysicalSortNode extends PhysicalPlanNode {
+    private final List<SortKey> sortKeys;
+    private final PhysicalPlanNode child;
+
+    public PhysicalSortNode(List<SortKey> sortKeys, PhysicalPlanNode child) {
+        super("PhysicalSort");
+        this.sortKeys = sortKeys;
+        this.child = child;
+    }
+
+    public List<SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    public PhysicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalSort(" + sortKeys + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,41 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.FuncCall;
+
+import java.util.List;
+
+/**
+ * Физический узел TableAggregate — COUNT/MIN/MAX по всей таблице без GROUP BY и WHERE, без чтения строк:
+ * COUNT складывает число записей из заголовков страниц, MIN/MAX берутся из сводки колонки в каталоге.
+ * scan — сканирование таблицы, от которого узел берет таблицу и имена колонок.
+ */
+public class PhysicalTableAggregateNode extends PhysicalPlanNode {
+    private final List<FuncCall> aggregates;
+    private final List<String> outputColumns;
+    private final PhysicalSeqScanNode scan;
+
+    public PhysicalTableAggregateNode(List<FuncCall> aggregates, List<String> outputColumns, PhysicalSeqScanNode scan) {
+        super("PhysicalTableAggregate");
+        this.aggregates = aggregates;
+        this.outputColumns = outputColumns;
+        this.scan = scan;
+    }
+
+    public List<FuncCall> getAggregates() {
+        return aggregates;
+    }
+
+    public List<String> getOutputColumns() {
+        return outputColumns;
+    }
+
+    public PhysicalSeqScanNode getScan() {
+        return scan;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalTableAggregate(" + scan.getTableDefinition().getName() + ", " + aggregates + ")\n";
+    }
+}
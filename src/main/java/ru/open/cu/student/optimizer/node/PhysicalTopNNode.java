@@ -0,0 +1,40 @@
+package ru.open.cu.student.optimizer.node;
+
+
+import ru.open.cu.student.ast.SortKey;
+
+import java.util.List;
+
+/**
+ * Физический узел Top-N — первые limit строк в порядке ORDER BY через ограниченную кучу
+ * вместо полной сортировки. limit уже включает OFFSET; сам OFFSET применяет Limit над ним.
+ */
+public class PhysicalTopNNode extends PhysicalPlanNode {
+    private final List<SortKey> sortKeys;
+    private final int limit;
+    private final PhysicalPlanNode child;
+
+    public PhysicalTopNNode(List<SortKey> sortKeys, int limit, PhysicalPlanNode child) {
+        super("PhysicalTopN");
+        this.sortKeys = sortKeys;
+        this.limit = limit;
+        this.child = child;
+    }
+
+    public List<SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public PhysicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalTopN(" + sortKeys + ", limit=" + limit + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
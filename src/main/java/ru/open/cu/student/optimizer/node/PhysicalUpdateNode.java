@@ -0,0 +1,43 @@
+package ru.open.cu.student.optimizer.node;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+import java.util.List;
+
+/**
+ * Физический узел UPDATE table SET col = expr, ... [WHERE condition]: правка подходящих строк кучи на месте.
+ * Присваивания — TargetEntry с именем колонки в alias; condition равно null без WHERE.
+ */
+public class PhysicalUpdateNode extends PhysicalPlanNode {
+
+    private final TableDefinition tableDefinition;
+    private final List<TargetEntry> assignments;
+    private final Expr condition;
+
+    public PhysicalUpdateNode(TableDefinition tableDefinition, List<TargetEntry> assignments, Expr condition) {
+        super("PhysicalUpdate");
+        this.tableDefinition = tableDefinition;
+        this.assignments = assignments;
+        this.condition = condition;
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public List<TargetEntry> getAssignments() {
+        return assignments;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "PhysicalUpdate(" + tableDefinition.getName()
+                + (condition != null ? ", where=" + condition : "") + ")\n";
+    }
+}
@@ -3,6 +3,11 @@ package ru.open.cu.student.parser;
 import ru.open.cu.student.ast.AExpr;
 import ru.open.cu.student.ast.AstNode;
 import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Const;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.ast.InExpr;
+import ru.open.cu.student.ast.ParamRef;
+import ru.open.cu.student.ast.SubLink;
 import ru.open.cu.student.catalog.model.ColumnDefinition;
 import ru.open.cu.student.lexer.Token;
 import ru.open.cu.student.parser.nodes.*;
@@ -23,19 +28,80 @@ public class DefaultParser implements Parser{
             throw new IllegalArgumentException("Empty token list");
         }
 
+        return switch (currentToken().getType()) {
+            case "PREPARE" -> parsePrepare();
+            case "EXECUTE" -> parseExecute();
+            case "DEALLOCATE" -> parseDeallocate();
+            default -> parseStatement();
+        };
+    }
+
+    private AstNode parseStatement() {
         String firstToken = currentToken().getType();
 
         return switch (firstToken) {
             case "SELECT" -> parseSelect();
             case "CREATE" -> parseCreate();
             case "INSERT" -> parseInsert();
+            case "UPDATE" -> parseUpdate();
+            case "DELETE" -> parseDelete();
+            case "ANALYZE" -> parseAnalyze();
             default -> throw new IllegalArgumentException("Unsupported SQL statement: " + firstToken);
         };
     }
 
+    private AstNode parsePrepare() {
+        match("PREPARE");
+        String name = expectToken("IDENT").getValue();
+        Token as = expectToken("IDENT");
+        if (!as.getValue().equalsIgnoreCase("AS")) {
+            throw new IllegalArgumentException("Expected AS after PREPARE " + name + ", got " + as.getValue());
+        }
+
+        String type = currentToken().getType();
+        if (!type.equals("SELECT") && !type.equals("INSERT") && !type.equals("UPDATE") && !type.equals("DELETE")) {
+            throw new IllegalArgumentException("PREPARE supports only SELECT, INSERT, UPDATE and DELETE, got " + type);
+        }
+        List<Token> statementTokens = List.copyOf(tokens.subList(curPosition, tokens.size()));
+        return new PrepareStmt(name, parseStatement(), statementTokens);
+    }
+
+    private AstNode parseExecute() {
+        match("EXECUTE");
+        String name = expectToken("IDENT").getValue();
+
+        List<AstNode> args = new ArrayList<>();
+        if (curPosition < tokens.size() && currentToken().getType().equals("LPAREN")) {
+            match("LPAREN");
+            do {
+                if (!args.isEmpty()) {
+                    match("COMMA");
+                }
+                args.add(parseExpression());
+            } while (currentToken().getType().equals("COMMA"));
+            match("RPAREN");
+        }
+        return new ExecuteStmt(name, args);
+    }
+
+    private AstNode parseDeallocate() {
+        match("DEALLOCATE");
+        if (currentToken().getType().equals("PREPARE")) {
+            match("PREPARE");
+        }
+        String name = expectToken("IDENT").getValue();
+        return new DeallocateStmt(name.equalsIgnoreCase("ALL") ? null : name);
+    }
+
     private AstNode parseSelect() {
         match("SELECT");
 
+        boolean distinct = false;
+        if (currentToken().getType().equals("DISTINCT")) {
+            match("DISTINCT");
+            distinct = true;
+        }
+
         List<ResTarget> targetList = parseTargetList();
 
         match("FROM");
@@ -48,11 +114,83 @@ public class DefaultParser implements Parser{
             whereClause = parseWhereClause();
         }
 
-        return new SelectStmt(targetList, fromClause, whereClause);
+        SelectStmt select = new SelectStmt(targetList, fromClause, whereClause);
+        select.distinct = distinct;
+
+        if (curPosition < tokens.size() && currentToken().getType().equals("GROUP")) {
+            match("GROUP");
+            match("BY");
+            select.groupClause = parseExpressionList();
+        }
+
+        if (curPosition < tokens.size() && currentToken().getType().equals("ORDER")) {
+            match("ORDER");
+            match("BY");
+            select.sortClause = parseSortClause();
+        }
+
+        if (curPosition < tokens.size() && currentToken().getType().equals("LIMIT")) {
+            match("LIMIT");
+            select.limitCount = parseRowCount("LIMIT");
+        }
+        if (curPosition < tokens.size() && currentToken().getType().equals("OFFSET")) {
+            match("OFFSET");
+            select.limitOffset = parseRowCount("OFFSET");
+        }
+
+        return select;
+    }
+
+    private List<AstNode> parseExpressionList() {
+        List<AstNode> list = new ArrayList<>();
+        list.add(parseExpression());
+        while (curPosition < tokens.size() && currentToken().getType().equals("COMMA")) {
+            match("COMMA");
+            list.add(parseExpression());
+        }
+        return list;
+    }
+
+    private List<SortBy> parseSortClause() {
+        List<SortBy> keys = new ArrayList<>();
+        while (true) {
+            AstNode expr = parseExpression();
+            boolean descending = false;
+            if (curPosition < tokens.size() && currentToken().getType().equals("ASC")) {
+                match("ASC");
+            } else if (curPosition < tokens.size() && currentToken().getType().equals("DESC")) {
+                match("DESC");
+                descending = true;
+            }
+            keys.add(new SortBy(expr, descending));
+
+            if (curPosition < tokens.size() && currentToken().getType().equals("COMMA")) {
+                match("COMMA");
+            } else {
+                return keys;
+            }
+        }
+    }
+
+    private long parseRowCount(String clause) {
+        Token token = expectToken("NUMBER");
+        long value;
+        try {
+            value = Long.parseLong(token.getValue());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(clause + " must be an integer: " + token.getValue());
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException(clause + " must not be negative");
+        }
+        return value;
     }
 
     private AstNode parseCreate() {
         match("CREATE");
+        if (curPosition < tokens.size() && currentToken().getType().equals("INDEX")) {
+            return parseCreateIndex();
+        }
         match("TABLE");
 
         // Получаем имя таблицы (возможно с schema)
@@ -79,6 +217,26 @@ public class DefaultParser implements Parser{
         return new CreateTableStmt(schemaName, tableName, columns);
     }
 
+    private AstNode parseCreateIndex() {
+        match("INDEX");
+        String indexName = expectToken("IDENT").getValue();
+        match("ON");
+
+        String schemaName = null;
+        Token tableToken = expectToken("IDENT");
+        if (curPosition < tokens.size() && currentToken().getType().equals("DOT")) {
+            schemaName = tableToken.getValue();
+            match("DOT");
+            tableToken = expectToken("IDENT");
+        }
+
+        match("LPAREN");
+        String columnName = expectToken("IDENT").getValue();
+        match("RPAREN");
+
+        return new CreateIndexStmt(indexName, schemaName, tableToken.getValue(), columnName);
+    }
+
     private List<ColumnDefinition> parseColumnDefinitions() {
         List<ColumnDefinition> columns = new ArrayList<>();
         int position = 0;
@@ -143,14 +301,109 @@ public class DefaultParser implements Parser{
             match("RPAREN");
         }
 
+        // INSERT ... SELECT: строки дает запрос
+        if (curPosition < tokens.size() && currentToken().getType().equals("SELECT")) {
+            InsertStmt insert = new InsertStmt(schemaName, tableName, columns, List.of());
+            insert.rows = List.of();
+            insert.select = (SelectStmt) parseSelect();
+            return insert;
+        }
+
         match("VALUES");
-        match("LPAREN");
 
-        List<String> values = parseValues();
+        // Одна или несколько строк: VALUES (...), (...)
+        List<List<String>> rows = new ArrayList<>();
+        List<List<ParamRef>> params = new ArrayList<>();
+        boolean hasParams = false;
+        do {
+            if (!rows.isEmpty()) {
+                match("COMMA");
+            }
+            match("LPAREN");
+            List<ParamRef> rowParams = new ArrayList<>();
+            rows.add(parseValues(rowParams));
+            params.add(rowParams);
+            hasParams |= rowParams.stream().anyMatch(p -> p != null);
+            match("RPAREN");
+        } while (curPosition < tokens.size() && currentToken().getType().equals("COMMA"));
 
-        match("RPAREN");
+        InsertStmt insert = new InsertStmt(schemaName, tableName, columns, rows.get(0));
+        insert.rows = rows;
+        insert.params = hasParams ? params : null;
+        return insert;
+    }
+
+    private AstNode parseUpdate() {
+        match("UPDATE");
+
+        String schemaName = null;
+        Token tableToken = expectToken("IDENT");
+        if (curPosition < tokens.size() && currentToken().getType().equals("DOT")) {
+            schemaName = tableToken.getValue();
+            match("DOT");
+            tableToken = expectToken("IDENT");
+        }
+
+        // SET col = expr, ...
+        match("SET");
+        List<String> columns = new ArrayList<>();
+        List<AstNode> values = new ArrayList<>();
+        do {
+            if (!columns.isEmpty()) {
+                match("COMMA");
+            }
+            columns.add(expectToken("IDENT").getValue());
+            match("EQ");
+            values.add(parseExpression());
+        } while (curPosition < tokens.size() && currentToken().getType().equals("COMMA"));
+
+        AstNode whereClause = null;
+        if (curPosition < tokens.size() && currentToken().getType().equals("WHERE")) {
+            match("WHERE");
+            whereClause = parseWhereClause();
+        }
+
+        return new UpdateStmt(schemaName, tableToken.getValue(), columns, values, whereClause);
+    }
+
+    private AstNode parseDelete() {
+        match("DELETE");
+        match("FROM");
+
+        String schemaName = null;
+        Token tableToken = expectToken("IDENT");
+        if (curPosition < tokens.size() && currentToken().getType().equals("DOT")) {
+            schemaName = tableToken.getValue();
+            match("DOT");
+            tableToken = expectToken("IDENT");
+        }
+
+        AstNode whereClause = null;
+        if (curPosition < tokens.size() && currentToken().getType().equals("WHERE")) {
+            match("WHERE");
+            whereClause = parseWhereClause();
+        }
 
-        return new InsertStmt(schemaName, tableName, columns, values);
+        return new DeleteStmt(schemaName, tableToken.getValue(), whereClause);
+    }
+
+    private AstNode parseAnalyze() {
+        match("ANALYZE");
+
+        // Без имени таблицы анализируется весь каталог
+        if (curPosition >= tokens.size() || currentToken().getType().equals("SEMICOLON")) {
+            return new AnalyzeStmt(null, null);
+        }
+
+        String schemaName = null;
+        Token tableToken = expectToken("IDENT");
+        if (curPosition < tokens.size() && currentToken().getType().equals("DOT")) {
+            schemaName = tableToken.getValue();
+            match("DOT");
+            tableToken = expectToken("IDENT");
+        }
+
+        return new AnalyzeStmt(schemaName, tableToken.getValue());
     }
 
     private List<String> parseColumnNames() {
@@ -170,15 +423,22 @@ public class DefaultParser implements Parser{
         return columns;
     }
 
-    private List<String> parseValues() {
+    /**
+     * Значения одной строки VALUES; в params на место каждого значения кладется его параметр или null.
+     */
+    private List<String> parseValues(List<ParamRef> params) {
         List<String> values = new ArrayList<>();
 
         while (curPosition < tokens.size()) {
             Token valueToken = currentToken();
             String value;
+            ParamRef param = null;
 
             if (valueToken.getType().equals("STRING")) {
                 value = valueToken.getValue();
+            } else if (valueToken.getType().equals("PARAM")) {
+                value = valueToken.getValue();
+                param = parseParam(valueToken);
             } else if (valueToken.getType().equals("NUMBER")) {
                 value = valueToken.getValue();
             } else if (valueToken.getType().equals("IDENT") &&
@@ -191,6 +451,7 @@ public class DefaultParser implements Parser{
             }
 
             values.add(value);
+            params.add(param);
             curPosition++;
 
             if (curPosition < tokens.size() && currentToken().getType().equals("COMMA")) {
@@ -241,72 +502,279 @@ public class DefaultParser implements Parser{
             match("ASTERISK");
             ColumnRef columnRef = new ColumnRef("*");
             return new ResTarget(columnRef, null);
-        } else if (token.getType().equals("IDENT")) {
+        }
+
+        AstNode expr = parseExpression();
+
+        // Необязательный псевдоним: expr AS name
+        String alias = null;
+        if (currentToken().getType().equals("IDENT") && currentToken().getValue().equalsIgnoreCase("AS")) {
             match("IDENT");
-            ColumnRef columnRef = new ColumnRef(token.getValue());
-            return new ResTarget(columnRef, null);
-        } else {
-            throw new RuntimeException("Ожидался идентификатор колонки или *: " + token);
+            alias = match("IDENT").getValue();
         }
+        return new ResTarget(expr, alias);
     }
 
+    /**
+     * t [[AS] a], ... и t [INNER] JOIN u ON cond ...; поддерживаются только внутренние соединения.
+     */
     private List<RangeVar> parseFromClause() {
         List<RangeVar> tables = new ArrayList<>();
 
         tables.add(parseRangeVar());
 
-        while (currentToken().getType().equals("COMMA")) {
-            match("COMMA");
-            tables.add(parseRangeVar());
+        while (true) {
+            String type = currentToken().getType();
+            if (type.equals("COMMA")) {
+                match("COMMA");
+                tables.add(parseRangeVar());
+            } else if (type.equals("JOIN") || type.equals("INNER")) {
+                if (type.equals("INNER")) {
+                    match("INNER");
+                }
+                match("JOIN");
+                RangeVar table = parseRangeVar();
+                match("ON");
+                table.joinCondition = parseExpression();
+                tables.add(table);
+            } else {
+                return tables;
+            }
         }
-        return tables;
     }
 
     private AstNode parseWhereClause() {
-        // Левый операнд
-        Token left = match("IDENT");
-        ColumnRef leftRef = new ColumnRef(left.getValue());
+        return parseExpression();
+    }
+
+    /*
+     * Выражения с приоритетами (от низшего к высшему):
+     *   OR, AND, NOT, сравнения и [NOT] IN, + -, * / %, унарный минус, операнд.
+     * Числа по-прежнему представлены как ColumnRef(null, "123"), строки и TRUE/FALSE — как Const.
+     */
+    private AstNode parseExpression() {
+        AstNode left = parseAnd();
+        while (currentToken().getType().equals("OR")) {
+            match("OR");
+            left = new AExpr("OR", left, parseAnd());
+        }
+        return left;
+    }
 
-        // Оператор
+    private AstNode parseAnd() {
+        AstNode left = parseNot();
+        while (currentToken().getType().equals("AND")) {
+            match("AND");
+            left = new AExpr("AND", left, parseNot());
+        }
+        return left;
+    }
+
+    private AstNode parseNot() {
+        if (currentToken().getType().equals("NOT")) {
+            match("NOT");
+            return new AExpr("NOT", null, parseNot());
+        }
+        return parseComparison();
+    }
+
+    private AstNode parseComparison() {
+        AstNode left = parseAdditive();
+        if (currentToken().getType().equals("IN")) {
+            return parseIn(left);
+        }
+        if (currentToken().getType().equals("NOT") && curPosition + 1 < tokens.size()
+                && tokens.get(curPosition + 1).getType().equals("IN")) {
+            match("NOT");
+            return new AExpr("NOT", null, parseIn(left));
+        }
         String operator = parseOperator();
+        if (operator == null) {
+            return left;
+        }
+        return new AExpr(operator, left, parseAdditive());
+    }
 
-        // Правый операнд
-        AstNode right = parseExpression();
+    /**
+     * IN (список выражений) или IN (SELECT ...); левая часть уже прочитана.
+     */
+    private AstNode parseIn(AstNode left) {
+        match("IN");
+        match("LPAREN");
+        AstNode result;
+        if (currentToken().getType().equals("SELECT")) {
+            result = new SubLink(SubLink.IN, left, parseSelect());
+        } else {
+            result = new InExpr(left, parseExpressionList());
+        }
+        match("RPAREN");
+        return result;
+    }
 
-        return new AExpr(operator, leftRef, right);
+    private AstNode parseAdditive() {
+        AstNode left = parseMultiplicative();
+        while (true) {
+            String type = currentToken().getType();
+            if (type.equals("PLUS") || type.equals("MINUS")) {
+                match(type);
+                left = new AExpr(type.equals("PLUS") ? "+" : "-", left, parseMultiplicative());
+            } else {
+                return left;
+            }
+        }
     }
 
-    private AstNode parseExpression() {
+    private AstNode parseMultiplicative() {
+        AstNode left = parseUnary();
+        while (true) {
+            String type = currentToken().getType();
+            String op = switch (type) {
+                case "ASTERISK" -> "*";
+                case "SLASH" -> "/";
+                case "PERCENT" -> "%";
+                default -> null;
+            };
+            if (op == null) {
+                return left;
+            }
+            match(type);
+            left = new AExpr(op, left, parseUnary());
+        }
+    }
+
+    private AstNode parseUnary() {
+        if (currentToken().getType().equals("MINUS")) {
+            match("MINUS");
+            if (currentToken().getType().equals("NUMBER")) {
+                return new ColumnRef(null, "-" + match("NUMBER").getValue());
+            }
+            return new AExpr("-", new ColumnRef(null, "0"), parseUnary());
+        }
+        return parsePrimary();
+    }
+
+    private AstNode parsePrimary() {
         Token token = currentToken();
 
-        if (token.getType().equals("NUMBER")) {
-            match("NUMBER");
-            // Для простоты используем ColumnRef для чисел
-            return new ColumnRef(null, token.getValue());
+        switch (token.getType()) {
+            case "NUMBER" -> {
+                match("NUMBER");
+                // Для простоты используем ColumnRef для чисел
+                return new ColumnRef(null, token.getValue());
+            }
+            case "STRING" -> {
+                match("STRING");
+                return new Const(token.getValue());
+            }
+            case "PARAM" -> {
+                match("PARAM");
+                return parseParam(token);
+            }
+            case "EXISTS" -> {
+                match("EXISTS");
+                match("LPAREN");
+                SubLink link = new SubLink(SubLink.EXISTS, null, parseSelect());
+                match("RPAREN");
+                return link;
+            }
+            case "LPAREN" -> {
+                match("LPAREN");
+                AstNode inner = parseExpression();
+                match("RPAREN");
+                return inner;
+            }
+            case "IDENT" -> {
+                match("IDENT");
+                if (token.getValue().equalsIgnoreCase("TRUE")) return new Const(Boolean.TRUE);
+                if (token.getValue().equalsIgnoreCase("FALSE")) return new Const(Boolean.FALSE);
+                if (currentToken().getType().equals("LPAREN")) {
+                    return parseFuncCall(token.getValue());
+                }
+                if (currentToken().getType().equals("DOT")) {
+                    // Колонка с именем таблицы: t.col или t.*
+                    match("DOT");
+                    if (currentToken().getType().equals("ASTERISK")) {
+                        match("ASTERISK");
+                        return new ColumnRef(token.getValue(), "*");
+                    }
+                    return new ColumnRef(token.getValue(), match("IDENT").getValue());
+                }
+                return new ColumnRef(token.getValue());
+            }
+            default -> throw new RuntimeException("Ожидалось выражение: " + token);
+        }
+    }
+
+    /**
+     * name(*) или name(expr, ...); имя уже прочитано.
+     */
+    private FuncCall parseFuncCall(String name) {
+        match("LPAREN");
+        FuncCall call;
+        if (currentToken().getType().equals("ASTERISK")) {
+            match("ASTERISK");
+            call = new FuncCall(name.toUpperCase(), List.of(), true);
+        } else if (currentToken().getType().equals("RPAREN")) {
+            call = new FuncCall(name.toUpperCase(), List.of(), false);
+        } else {
+            call = new FuncCall(name.toUpperCase(), parseExpressionList(), false);
         }
-        else if (token.getType().equals("IDENT")) {
-            match("IDENT");
-            return new ColumnRef(token.getValue());
+        match("RPAREN");
+        if (!call.isAggregate()) {
+            throw new IllegalArgumentException("Unknown function: " + name);
         }
-        else {
-            throw new RuntimeException("Ожидалось выражение: " + token);
+        boolean starAllowed = call.name.equals("COUNT");
+        if (call.star ? !starAllowed : call.args.size() != 1) {
+            throw new IllegalArgumentException("Wrong arguments for " + call.name + ": " + call);
         }
+        return call;
     }
 
+    /**
+     * Оператор сравнения или null, если текущий токен им не является.
+     */
     private String parseOperator() {
         Token token = currentToken();
-        switch (token.getType()) {
-            case "GT": match("GT"); return ">";
-            case "LT": match("LT"); return "<";
-            case "EQ": match("EQ"); return "=";
-            case "NEQ": match("NEQ"); return "!=";
-            default: throw new RuntimeException("Неизвестный оператор: " + token);
+        String op = switch (token.getType()) {
+            case "GT" -> ">";
+            case "LT" -> "<";
+            case "GE" -> ">=";
+            case "LE" -> "<=";
+            case "EQ" -> "=";
+            case "NEQ" -> "!=";
+            default -> null;
+        };
+        if (op != null) {
+            match(token.getType());
         }
+        return op;
     }
 
     private RangeVar parseRangeVar() {
         Token tableToken = match("IDENT");
-        return new RangeVar(null, tableToken.getValue(), null);
+
+        String alias = null;
+        Token next = currentToken();
+        if (next.getType().equals("IDENT")) {
+            String word = next.getValue().toUpperCase();
+            if (word.equals("LEFT") || word.equals("RIGHT") || word.equals("FULL")
+                    || word.equals("CROSS") || word.equals("NATURAL") || word.equals("OUTER")) {
+                throw new IllegalArgumentException("Unsupported join type: " + next.getValue());
+            }
+            if (word.equals("AS")) {
+                match("IDENT");
+            }
+            alias = match("IDENT").getValue();
+        }
+        return new RangeVar(null, tableToken.getValue(), alias);
+    }
+
+    private static ParamRef parseParam(Token token) {
+        int number = Integer.parseInt(token.getValue().substring(1));
+        if (number < 1) {
+            throw new IllegalArgumentException("Parameter numbers start at $1: " + token.getValue());
+        }
+        return new ParamRef(number);
     }
 
     //функция проверки текущего элемента
@@ -0,0 +1,27 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+
+/**
+ * ANALYZE [table]. Если tableName == null — анализируются все таблицы каталога.
+ */
+public class AnalyzeStmt extends AstNode {
+    public String schemaName;
+    public String tableName;
+
+    public AnalyzeStmt(String schemaName, String tableName) {
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ANALYZE");
+        if (tableName != null) {
+            sb.append(" ");
+            if (schemaName != null) sb.append(schemaName).append(".");
+            sb.append(tableName);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+
+/**
+ * CREATE INDEX name ON [schema.]table (column).
+ */
+public class CreateIndexStmt extends AstNode {
+    public String indexName;
+    public String schemaName;
+    public String tableName;
+    public String columnName;
+
+    public CreateIndexStmt(String indexName, String schemaName, String tableName, String columnName) {
+        this.indexName = indexName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.columnName = columnName;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CREATE INDEX ");
+        sb.append(indexName).append(" ON ");
+        if (schemaName != null) sb.append(schemaName).append(".");
+        sb.append(tableName).append(" (").append(columnName).append(")");
+        return sb.toString();
+    }
+}
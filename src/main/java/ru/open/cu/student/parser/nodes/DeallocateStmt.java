@@ -0,0 +1,19 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+
+/**
+ * DEALLOCATE name или DEALLOCATE ALL (тогда name равно null).
+ */
+public class DeallocateStmt extends AstNode {
+    public String name;
+
+    public DeallocateStmt(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "DEALLOCATE " + (name != null ? name : "ALL");
+    }
+}
@@ -0,0 +1,29 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+
+/**
+ * DELETE FROM table [WHERE expr]. Без WHERE удаляются все строки.
+ */
+public class DeleteStmt extends AstNode {
+    public String schemaName;
+    public String tableName;
+    public AstNode whereClause;
+
+    public DeleteStmt(String schemaName, String tableName, AstNode whereClause) {
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.whereClause = whereClause;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DELETE FROM ");
+        if (schemaName != null) sb.append(schemaName).append(".");
+        sb.append(tableName);
+        if (whereClause != null) {
+            sb.append(" WHERE ").append(whereClause);
+        }
+        return sb.toString();
+    }
+}
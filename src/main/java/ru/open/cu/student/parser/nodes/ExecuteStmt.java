@@ -0,0 +1,32 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+
+import java.util.List;
+
+/**
+ * EXECUTE name [(expr, ...)]: значения параметров $1, $2, ... по порядку.
+ */
+public class ExecuteStmt extends AstNode {
+    public String name;
+    public List<AstNode> args;
+
+    public ExecuteStmt(String name, List<AstNode> args) {
+        this.name = name;
+        this.args = args;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("EXECUTE ").append(name);
+        if (!args.isEmpty()) {
+            sb.append(" (");
+            for (int i = 0; i < args.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(args.get(i));
+            }
+            sb.append(")");
+        }
+        return sb.toString();
+    }
+}
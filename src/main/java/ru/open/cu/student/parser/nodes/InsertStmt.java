@@ -1,6 +1,7 @@
 package ru.open.cu.student.parser.nodes;
 
 import ru.open.cu.student.ast.AstNode;
+import ru.open.cu.student.ast.ParamRef;
 
 import java.util.List;
 
@@ -9,6 +10,19 @@ public class InsertStmt extends AstNode {
     public String tableName;
     public List<String> columns;
     public List<String> values;
+    /**
+     * Все строки VALUES (...), (...); values — первая из них.
+     */
+    public List<List<String>> rows;
+    /**
+     * Параметры $n в VALUES: по строкам, на месте параметра — ParamRef, на месте литерала — null.
+     * null, если параметров нет; в rows параметр записан как "$n".
+     */
+    public List<List<ParamRef>> params;
+    /**
+     * Запрос-источник INSERT ... SELECT; тогда values и rows пусты.
+     */
+    public SelectStmt select;
 
     public InsertStmt(String schemaName, String tableName,
                       List<String> columns, List<String> values) {
@@ -16,6 +30,7 @@ public class InsertStmt extends AstNode {
         this.tableName = tableName;
         this.columns = columns;
         this.values = values;
+        this.rows = List.of(values);
     }
 
     @Override
@@ -29,12 +44,15 @@ public class InsertStmt extends AstNode {
             sb.append(" (").append(String.join(", ", columns)).append(")");
         }
 
-        sb.append(" VALUES (");
-        for (int i = 0; i < values.size(); i++) {
-            if (i > 0) sb.append(", ");
-            sb.append(values.get(i));
+        if (select != null) {
+            return sb.append(" ").append(select).toString();
+        }
+
+        sb.append(" VALUES ");
+        for (int r = 0; r < rows.size(); r++) {
+            if (r > 0) sb.append(", ");
+            sb.append("(").append(String.join(", ", rows.get(r))).append(")");
         }
-        sb.append(")");
 
         return sb.toString();
     }
@@ -0,0 +1,26 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+import ru.open.cu.student.lexer.Token;
+
+import java.util.List;
+
+/**
+ * PREPARE name AS statement. Токены запроса сохраняются, чтобы перестроить план после изменения каталога.
+ */
+public class PrepareStmt extends AstNode {
+    public String name;
+    public AstNode statement;
+    public List<Token> statementTokens;
+
+    public PrepareStmt(String name, AstNode statement, List<Token> statementTokens) {
+        this.name = name;
+        this.statement = statement;
+        this.statementTokens = statementTokens;
+    }
+
+    @Override
+    public String toString() {
+        return "PREPARE " + name + " AS " + statement;
+    }
+}
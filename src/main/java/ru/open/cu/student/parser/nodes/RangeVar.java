@@ -6,6 +6,7 @@ public class RangeVar extends AstNode {
     public String schemaname;  // схема (может быть null)
     public String relname;     // имя таблицы
     public String alias;       // псевдоним (может быть null)
+    public AstNode joinCondition; // условие ON, если таблица присоединена через JOIN (может быть null)
 
     public RangeVar(String schema, String name, String alias) {
         this.schemaname = schema;
@@ -13,17 +14,26 @@ public class RangeVar extends AstNode {
         this.alias = alias;
     }
 
+    /**
+     * Имя, по которому на таблицу ссылаются колонки запроса: псевдоним, если он задан.
+     */
+    public String refName() {
+        return alias != null ? alias : relname;
+    }
+
     @Override
     public String toString() {
 
         StringBuilder sb = new StringBuilder();
 
-        if (schemaname != null && schemaname.trim().isEmpty()) sb.append(schemaname).append(".");
+        if (schemaname != null && !schemaname.trim().isEmpty()) sb.append(schemaname).append(".");
 
         sb.append(relname);
 
-        if (alias != null && alias.trim().isEmpty()) sb.append(" AS ").append(alias);
+        if (alias != null && !alias.trim().isEmpty()) sb.append(" AS ").append(alias);
+
+        if (joinCondition != null) sb.append(" ON ").append(joinCondition);
 
         return sb.toString();
     }
-}
\ No newline at end of file
+}
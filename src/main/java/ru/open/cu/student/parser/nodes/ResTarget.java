@@ -1,13 +1,12 @@
 package ru.open.cu.student.parser.nodes;
 
 import ru.open.cu.student.ast.AstNode;
-import ru.open.cu.student.ast.ColumnRef;
 
 public class ResTarget extends AstNode {
     public AstNode val;           // выражение
     public String name;        // псевдоним (может быть null)
 
-    public ResTarget(ColumnRef expr, String alias) {
+    public ResTarget(AstNode expr, String alias) {
         this.val = expr;
         this.name = alias;
     }
@@ -6,9 +6,14 @@ import java.util.List;
 
 public class SelectStmt extends AstNode {
 
+    public boolean distinct;               // SELECT DISTINCT
     public List<ResTarget> targetList;     // что выбираем
     public List<RangeVar> fromClause;      // откуда выбираем
     public AstNode whereClause;               // условие (может быть null)
+    public List<AstNode> groupClause;         // GROUP BY (может быть null)
+    public List<SortBy> sortClause;           // ORDER BY (может быть null)
+    public Long limitCount;                   // LIMIT (может быть null)
+    public Long limitOffset;                  // OFFSET (может быть null)
 
     public SelectStmt(List<ResTarget> targets, List<RangeVar> from, AstNode where) {
         this.targetList = targets;
@@ -20,7 +25,7 @@ public class SelectStmt extends AstNode {
     public String toString() {
         StringBuilder sb = new StringBuilder();
 
-        sb.append("SELECT ");
+        sb.append(distinct ? "SELECT DISTINCT " : "SELECT ");
         for (int i = 0; i < targetList.size(); i++) {
             if (i > 0) sb.append(", ");
             sb.append(targetList.get(i));
@@ -29,7 +34,7 @@ public class SelectStmt extends AstNode {
         if (fromClause != null && !fromClause.isEmpty()) {
             sb.append(" FROM ");
             for (int i = 0; i < fromClause.size(); i++) {
-                if (i > 0) sb.append(", ");
+                if (i > 0) sb.append(fromClause.get(i).joinCondition != null ? " JOIN " : ", ");
                 sb.append(fromClause.get(i));
             }
         }
@@ -38,6 +43,30 @@ public class SelectStmt extends AstNode {
             sb.append(" WHERE ").append(whereClause);
         }
 
+        if (groupClause != null && !groupClause.isEmpty()) {
+            sb.append(" GROUP BY ");
+            for (int i = 0; i < groupClause.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(groupClause.get(i));
+            }
+        }
+
+        if (sortClause != null && !sortClause.isEmpty()) {
+            sb.append(" ORDER BY ");
+            for (int i = 0; i < sortClause.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(sortClause.get(i));
+            }
+        }
+
+        if (limitCount != null) {
+            sb.append(" LIMIT ").append(limitCount);
+        }
+
+        if (limitOffset != null) {
+            sb.append(" OFFSET ").append(limitOffset);
+        }
+
         return sb.toString();
     }
 
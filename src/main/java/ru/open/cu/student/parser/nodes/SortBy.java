@@ -0,0 +1,18 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+
+public class SortBy extends AstNode {
+    public AstNode node;          // выражение сортировки
+    public boolean descending;    // DESC
+
+    public SortBy(AstNode node, boolean descending) {
+        this.node = node;
+        this.descending = descending;
+    }
+
+    @Override
+    public String toString() {
+        return node + (descending ? " DESC" : " ASC");
+    }
+}
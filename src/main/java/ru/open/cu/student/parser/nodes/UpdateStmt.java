@@ -0,0 +1,40 @@
+package ru.open.cu.student.parser.nodes;
+
+import ru.open.cu.student.ast.AstNode;
+
+import java.util.List;
+
+/**
+ * UPDATE table SET col = expr, ... [WHERE expr]. columns и values идут парами.
+ */
+public class UpdateStmt extends AstNode {
+    public String schemaName;
+    public String tableName;
+    public List<String> columns;
+    public List<AstNode> values;
+    public AstNode whereClause;
+
+    public UpdateStmt(String schemaName, String tableName, List<String> columns, List<AstNode> values,
+                      AstNode whereClause) {
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.columns = columns;
+        this.values = values;
+        this.whereClause = whereClause;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("UPDATE ");
+        if (schemaName != null) sb.append(schemaName).append(".");
+        sb.append(tableName).append(" SET ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(columns.get(i)).append(" = ").append(values.get(i));
+        }
+        if (whereClause != null) {
+            sb.append(" WHERE ").append(whereClause);
+        }
+        return sb.toString();
+    }
+}
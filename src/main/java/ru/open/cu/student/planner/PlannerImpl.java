@@ -1,17 +1,29 @@
 package ru.open.cu.student.planner;
 
 
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.AstNode;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.ast.InExpr;
 import ru.open.cu.student.ast.QueryTree;
+import ru.open.cu.student.ast.QueryType;
+import ru.open.cu.student.ast.SortKey;
+import ru.open.cu.student.ast.SubLink;
 import ru.open.cu.student.catalog.manager.CatalogManager;
 import ru.open.cu.student.catalog.model.ColumnDefinition;
 import ru.open.cu.student.catalog.model.TableDefinition;
 import ru.open.cu.student.catalog.model.TypeDefinition;
 import ru.open.cu.student.ast.Expr;
 import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.parser.nodes.RangeVar;
 import ru.open.cu.student.planner.node.*;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 
 /**
@@ -33,6 +45,10 @@ public class PlannerImpl implements Planner {
             case CREATE -> planCreate(queryTree);
             case INSERT -> planInsert(queryTree);
             case SELECT -> planSelect(queryTree); // поменять на нужное
+            case ANALYZE -> planAnalyze(queryTree);
+            case CREATE_INDEX -> planCreateIndex(queryTree);
+            case UPDATE -> planUpdate(queryTree);
+            case DELETE -> planDelete(queryTree);
         };
     }
 
@@ -67,29 +83,926 @@ public class PlannerImpl implements Planner {
     private LogicalPlanNode planInsert(QueryTree q) {
         String tableName = extractTableName(q);
         TableDefinition tableDef = catalogManager.getTable(tableName);
+        if (tableDef == null) {
+            throw new IllegalArgumentException("Table not found: " + tableName);
+        }
+
+        if (q.sourceQuery != null) {
+            // Строки источника не собираются в список: вставка тянет их из плана SELECT
+            boolean readsTarget = q.sourceQuery.rangeTable.stream()
+                    .map(rv -> catalogManager.getTable(rv.relname))
+                    .anyMatch(t -> t != null && t.getOid() == tableDef.getOid());
+            return new InsertNode(tableDef, planSelect(q.sourceQuery), readsTarget);
+        }
 
-        List<Expr> values = q.targetList.stream()
-                .map(te -> te.expr)
-                .toList();
+        List<List<Expr>> rows = q.valuesLists != null ? q.valuesLists
+                : List.of(q.targetList.stream().map(te -> te.expr).toList());
 
-        return new InsertNode(tableDef, values);
+        // Ширина проверяется до записи, чтобы ошибка в середине пачки не оставила ее часть в таблице
+        int width = catalogManager.getTableColumns(tableDef).size();
+        for (List<Expr> row : rows) {
+            if (row.size() != width) {
+                throw new IllegalArgumentException("INSERT row has " + row.size()
+                        + " values, table " + tableName + " has " + width + " columns");
+            }
+        }
+        return new InsertNode(tableDef, rows);
     }
 
     // ---------- SELECT ---------
     private LogicalPlanNode planSelect(QueryTree q) {
+        List<RangeTable> tables = resolveRangeTable(q);
+        boolean join = tables.size() > 1;
+        List<ColumnDefinition> columns = visibleColumns(tables, join);
+        q = qualify(q, tables, join);
+
+        // Подзапросы IN / EXISTS уходят из WHERE в полусоединения
+        List<Subquery> subqueries = new ArrayList<>();
+        q.whereClause = extractSubqueries(q.whereClause, tables, join, subqueries);
+
+        // 1. Сканирование читает только колонки, упомянутые в SELECT-списке, WHERE, GROUP BY, ORDER BY и подзапросах
+        Set<String> referenced = referencedColumns(q, columns);
+        if (referenced != null) {
+            List<ColumnRef> refs = new ArrayList<>();
+            for (Subquery subquery : subqueries) {
+                for (Expr key : subquery.outerKeys()) {
+                    collectColumnRefs(key, refs);
+                }
+                collectColumnRefs(subquery.condition(), refs);
+            }
+            for (ColumnRef ref : refs) {
+                referenced.add(ref.column.toLowerCase());
+            }
+        }
+        LogicalPlanNode plan;
+        if (join) {
+            // 2. Соединение таблиц FROM; WHERE и условия ON распределяются по сканированиям и соединениям
+            plan = planJoin(q, tables, referenced);
+        } else {
+            RangeTable table = tables.get(0);
+            plan = new ScanNode(table.definition(), requiredPositions(table, referenced, false));
+
+            // 2. Применение фильтра WHERE (если есть)
+            if (q.whereClause != null) {
+                plan = new FilterNode(q.whereClause, plan);
+            }
+        }
+        for (Subquery subquery : subqueries) {
+            plan = new SemiJoinNode(subquery.outerKeys(), subquery.innerKeys(), subquery.condition(), subquery.anti(),
+                    plan, subquery.inner());
+        }
+
+        // 3. GROUP BY и агрегаты; SELECT-список и ORDER BY переписываются на выход агрегации
+        List<SortKey> sortKeys = resolveSortKeys(q, columns);
+        List<TargetEntry> targets = q.targetList;
+        if (isAggregateQuery(q, sortKeys)) {
+            List<Expr> groupKeys = resolveGroupKeys(q, columns);
+            List<FuncCall> aggregates = new ArrayList<>();
+
+            targets = new ArrayList<>(q.targetList.size());
+            for (TargetEntry target : q.targetList) {
+                if (target.expr instanceof ColumnRef ref && ref.column.equals("*")) {
+                    throw new IllegalArgumentException("SELECT * is not allowed with GROUP BY or aggregate functions");
+                }
+                Expr expr = rewriteOverAggregate(target.expr, groupKeys, aggregates);
+                TargetEntry rewritten = new TargetEntry(expr, target.alias != null ? target.alias : target.expr.toString());
+                rewritten.resultType = target.resultType;
+                targets.add(rewritten);
+            }
+            List<SortKey> rewrittenKeys = new ArrayList<>(sortKeys.size());
+            for (SortKey key : sortKeys) {
+                rewrittenKeys.add(new SortKey(rewriteOverAggregate(key.expr, groupKeys, aggregates), key.descending));
+            }
+            sortKeys = rewrittenKeys;
+
+            plan = new AggregateNode(groupKeys, aggregates, plan);
+        }
+
+        // DISTINCT — группировка по всему SELECT-списку без агрегатов (поверх агрегации, если она есть)
+        if (q.distinct) {
+            List<Expr> keys = new ArrayList<>();
+            List<TargetEntry> distinctTargets = new ArrayList<>();
+            for (TargetEntry target : expandStar(targets, columns)) {
+                distinctTargets.add(new TargetEntry(new ColumnRef(AggregateNode.groupColumn(keys.size())),
+                        target.alias != null ? target.alias : target.expr.toString()));
+                keys.add(target.expr);
+            }
+            List<SortKey> rewrittenKeys = new ArrayList<>(sortKeys.size());
+            for (SortKey key : sortKeys) {
+                rewrittenKeys.add(new SortKey(distinctColumn(key.expr, keys), key.descending));
+            }
+            targets = distinctTargets;
+            sortKeys = rewrittenKeys;
+            plan = new AggregateNode(keys, List.of(), plan);
+        }
+
+        // 4. ORDER BY — до проекции, пока доступны все колонки входа
+        if (!sortKeys.isEmpty()) {
+            plan = new SortNode(sortKeys, plan);
+        }
+
+        // 5. Проекция SELECT-списка
+        plan = new ProjectNode(targets, plan);
+
+        // 6. LIMIT / OFFSET (верхний узел)
+        if (q.limitCount != null || q.limitOffset != null) {
+            plan = new LimitNode(q.limitCount, q.limitOffset == null ? 0 : q.limitOffset, plan);
+        }
+
+        return plan;
+    }
+
+    private static List<TargetEntry> expandStar(List<TargetEntry> targets, List<ColumnDefinition> columns) {
+        List<TargetEntry> expanded = new ArrayList<>(targets.size());
+        for (TargetEntry target : targets) {
+            if (target.expr instanceof ColumnRef ref && ref.column.equals("*")) {
+                for (ColumnDefinition column : columns) {
+                    expanded.add(new TargetEntry(new ColumnRef(column.getName()), null));
+                }
+            } else {
+                expanded.add(target);
+            }
+        }
+        return expanded;
+    }
+
+    private static Expr distinctColumn(Expr expr, List<Expr> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            if (sameExpr(expr, keys.get(i))) {
+                return new ColumnRef(AggregateNode.groupColumn(i));
+            }
+        }
+        throw new IllegalArgumentException("For SELECT DISTINCT, ORDER BY expressions must appear in select list: " + expr);
+    }
+
+    // ---------- Подзапросы ----------
+
+    /**
+     * Подзапрос WHERE, превращенный в полусоединение: outerKeys[i] = innerKeys[i] и condition
+     * над парой строк, inner — план подзапроса, anti — для NOT IN / NOT EXISTS.
+     */
+    private record Subquery(List<Expr> outerKeys, List<Expr> innerKeys, Expr condition, boolean anti,
+                            LogicalPlanNode inner) {
+    }
+
+    /**
+     * Выносит из WHERE условия [NOT] IN (SELECT ...) и [NOT] EXISTS (SELECT ...), соединенные через AND;
+     * возвращает оставшуюся часть WHERE. Подзапрос в другом месте выражения не поддерживается.
+     */
+    private Expr extractSubqueries(Expr where, List<RangeTable> tables, boolean join, List<Subquery> subqueries) {
+        List<Expr> conjuncts = new ArrayList<>();
+        splitConjuncts(where, conjuncts);
+        Expr rest = null;
+        for (Expr conjunct : conjuncts) {
+            boolean anti = conjunct instanceof AExpr a && a.getOp().equalsIgnoreCase("NOT") && a.getRight() instanceof SubLink;
+            Expr node = anti ? (Expr) ((AExpr) conjunct).getRight() : conjunct;
+            if (node instanceof SubLink link) {
+                subqueries.add(planSubquery(link, anti, tables, join));
+            } else if (containsSubLink(conjunct)) {
+                throw new IllegalArgumentException("Subqueries are supported only as AND-ed WHERE conditions: " + conjunct);
+            } else {
+                rest = and(rest, conjunct);
+            }
+        }
+        return rest;
+    }
+
+    /**
+     * План подзапроса для полусоединения. Корреляция — условия WHERE подзапроса со ссылками на внешние
+     * таблицы: равенство «выражение подзапроса = внешнее выражение» становится ключом, остальные —
+     * условием над парой строк. Нужные значения подзапрос выдает колонками SemiJoinNode.innerColumn(i).
+     */
+    private Subquery planSubquery(SubLink link, boolean anti, List<RangeTable> outerTables, boolean outerJoin) {
+        QueryTree sub = link.subquery;
+        List<RangeTable> innerTables = resolveRangeTable(sub);
+        boolean limited = sub.limitCount != null || sub.limitOffset != null;
+        boolean grouped = limited || isAggregateQuery(sub, List.of());
+
+        List<TargetEntry> targets = new ArrayList<>();
+        List<Expr> outerKeys = new ArrayList<>();
+        List<Expr> innerKeys = new ArrayList<>();
+        if (link.kind.equals(SubLink.IN)) {
+            if (sub.targetList.size() != 1 || sub.targetList.get(0).expr instanceof ColumnRef ref && ref.column.equals("*")) {
+                throw new IllegalArgumentException("Subquery in IN must return exactly one column: " + link);
+            }
+            outerKeys.add((Expr) link.testExpr);
+            innerKeys.add(innerColumn(targets, sub.targetList.get(0).expr));
+        }
+
+        Expr innerWhere = null;
+        Expr condition = null;
+        List<Expr> conjuncts = new ArrayList<>();
+        splitConjuncts(sub.whereClause, conjuncts);
+        for (Expr conjunct : conjuncts) {
+            if (side(conjunct, innerTables, outerTables) == Side.INNER) {
+                innerWhere = and(innerWhere, conjunct);
+                continue;
+            }
+            if (grouped) {
+                throw new IllegalArgumentException("Correlated subqueries with GROUP BY, aggregates or LIMIT are not supported: " + link);
+            }
+            if (conjunct instanceof AExpr a && a.getOp().equals("=")) {
+                Expr left = (Expr) a.getLeft();
+                Expr right = (Expr) a.getRight();
+                Side leftSide = side(left, innerTables, outerTables);
+                Side rightSide = side(right, innerTables, outerTables);
+                if (leftSide == Side.INNER && rightSide == Side.OUTER || leftSide == Side.OUTER && rightSide == Side.INNER) {
+                    Expr outer = leftSide == Side.OUTER ? left : right;
+                    Expr inner = leftSide == Side.OUTER ? right : left;
+                    outerKeys.add(qualify(outer, outerTables, outerJoin));
+                    innerKeys.add(innerColumn(targets, inner));
+                    continue;
+                }
+            }
+            condition = and(condition, correlate(conjunct, innerTables, outerTables, outerJoin, targets));
+        }
+
+        QueryTree inner = new QueryTree();
+        inner.commandType = QueryType.SELECT;
+        inner.rangeTable = sub.rangeTable;
+        inner.whereClause = innerWhere;
+        inner.groupClause = sub.groupClause;
+        if (targets.isEmpty()) {
+            // EXISTS: значения не нужны, но агрегатный подзапрос должен остаться агрегатным
+            if (grouped) {
+                inner.targetList = sub.targetList;
+            } else {
+                inner.targetList.add(new TargetEntry(new ColumnRef("1"), SemiJoinNode.innerColumn(0)));
+            }
+        } else {
+            inner.targetList = targets;
+        }
+        if (limited) {
+            inner.distinct = sub.distinct;
+            inner.sortClause = sub.sortClause;
+            inner.limitCount = sub.limitCount;
+            inner.limitOffset = sub.limitOffset;
+        } else if (outerKeys.isEmpty() && condition == null) {
+            // Некоррелированному EXISTS достаточно одной строки
+            inner.limitCount = 1L;
+        }
+        return new Subquery(outerKeys, innerKeys, condition, anti, planSelect(inner));
+    }
+
+    private enum Side { INNER, OUTER, MIXED }
+
+    /**
+     * Чьи колонки использует выражение подзапроса: только свои (или никаких) — INNER, только внешние — OUTER.
+     */
+    private static Side side(Expr expr, List<RangeTable> innerTables, List<RangeTable> outerTables) {
+        List<ColumnRef> refs = new ArrayList<>();
+        collectColumnRefs(expr, refs);
+        boolean inner = false;
+        boolean outer = false;
+        for (ColumnRef ref : refs) {
+            if (isOuterRef(ref, innerTables, outerTables)) {
+                outer = true;
+            } else if (!isNumber(ref.column)) {
+                inner = true;
+            }
+        }
+        return !outer ? Side.INNER : inner ? Side.MIXED : Side.OUTER;
+    }
+
+    /**
+     * Ссылка на колонку внешнего запроса: ее нет среди таблиц подзапроса, но есть среди внешних.
+     */
+    private static boolean isOuterRef(ColumnRef ref, List<RangeTable> innerTables, List<RangeTable> outerTables) {
+        if (ref.column.equals("*") || isNumber(ref.column)) {
+            return false;
+        }
+        if (ref.table != null) {
+            return findTable(innerTables, ref.table) == null && findTable(outerTables, ref.table) != null;
+        }
+        for (RangeTable table : innerTables) {
+            if (findColumn(table.columns(), ref.column) != null) return false;
+        }
+        for (RangeTable table : outerTables) {
+            if (findColumn(table.columns(), ref.column) != null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Условие над парой строк: внешние ссылки приводятся к колонкам внешнего плана,
+     * колонки подзапроса — к его выходным колонкам.
+     */
+    private static Expr correlate(Expr expr, List<RangeTable> innerTables, List<RangeTable> outerTables,
+                                  boolean outerJoin, List<TargetEntry> targets) {
+        if (expr instanceof ColumnRef ref) {
+            if (isOuterRef(ref, innerTables, outerTables)) {
+                return qualifyColumn(ref, outerTables, outerJoin);
+            }
+            return isNumber(ref.column) ? ref : innerColumn(targets, ref);
+        } else if (expr instanceof AExpr a) {
+            return new AExpr(a.getOp(),
+                    correlate((Expr) a.getLeft(), innerTables, outerTables, outerJoin, targets),
+                    correlate((Expr) a.getRight(), innerTables, outerTables, outerJoin, targets));
+        } else if (expr instanceof InExpr in) {
+            List<AstNode> values = new ArrayList<>(in.values.size());
+            for (AstNode value : in.values) {
+                values.add(correlate((Expr) value, innerTables, outerTables, outerJoin, targets));
+            }
+            return new InExpr(correlate((Expr) in.expr, innerTables, outerTables, outerJoin, targets), values);
+        } else if (expr instanceof SubLink) {
+            throw new IllegalArgumentException("Correlated nested subqueries are not supported: " + expr);
+        }
+        return expr;
+    }
+
+    /**
+     * Ссылка на выходную колонку подзапроса со значением expr; одинаковые выражения выдаются один раз.
+     */
+    private static ColumnRef innerColumn(List<TargetEntry> targets, Expr expr) {
+        for (TargetEntry target : targets) {
+            if (sameExpr(target.expr, expr)) {
+                return new ColumnRef(target.alias);
+            }
+        }
+        String name = SemiJoinNode.innerColumn(targets.size());
+        targets.add(new TargetEntry(expr, name));
+        return new ColumnRef(name);
+    }
+
+    private static boolean containsSubLink(AstNode node) {
+        if (node instanceof SubLink) {
+            return true;
+        } else if (node instanceof AExpr expr) {
+            return containsSubLink(expr.getLeft()) || containsSubLink(expr.getRight());
+        } else if (node instanceof InExpr in) {
+            return in.values.stream().anyMatch(PlannerImpl::containsSubLink);
+        }
+        return false;
+    }
+
+    /**
+     * Таблица FROM: имя, по которому на нее ссылается запрос (псевдоним или имя таблицы), и ее колонки.
+     */
+    private record RangeTable(String name, TableDefinition definition, List<ColumnDefinition> columns) {
+    }
+
+    private List<RangeTable> resolveRangeTable(QueryTree q) {
+        extractTableName(q);
+        List<RangeTable> tables = new ArrayList<>(q.rangeTable.size());
+        for (RangeVar rv : q.rangeTable) {
+            TableDefinition tableDef = catalogManager.getTable(rv.relname);
+            if (tableDef == null) {
+                throw new IllegalArgumentException("Table not found: " + rv.relname);
+            }
+            for (RangeTable other : tables) {
+                if (other.name().equalsIgnoreCase(rv.refName())) {
+                    throw new IllegalArgumentException("Table name \"" + rv.refName() + "\" specified more than once");
+                }
+            }
+            tables.add(new RangeTable(rv.refName(), tableDef, catalogManager.getTableColumns(tableDef)));
+        }
+        return tables;
+    }
+
+    /**
+     * Колонки, которые видит запрос, по порядку FROM; в соединении их имена — "таблица.колонка".
+     */
+    private static List<ColumnDefinition> visibleColumns(List<RangeTable> tables, boolean join) {
+        if (!join) {
+            return tables.get(0).columns();
+        }
+        List<ColumnDefinition> columns = new ArrayList<>();
+        for (RangeTable table : tables) {
+            for (ColumnDefinition column : table.columns()) {
+                columns.add(new ColumnDefinition(column.getTypeOid(), table.name() + "." + column.getName(), columns.size()));
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Копия запроса, в которой ссылки на колонки заменены именами видимых колонок: в соединении —
+     * "таблица.колонка" (неуточненное имя ищется во всех таблицах), в одной таблице — имя без префикса.
+     * Ссылки, не найденные среди колонок (числа, псевдонимы SELECT-списка), остаются как есть.
+     * В соединении SELECT * раскрывается в колонки таблиц, а условия ON добавляются к WHERE.
+     */
+    private static QueryTree qualify(QueryTree q, List<RangeTable> tables, boolean join) {
+        QueryTree result = new QueryTree();
+        result.commandType = q.commandType;
+        result.rangeTable = q.rangeTable;
+        result.limitCount = q.limitCount;
+        result.limitOffset = q.limitOffset;
+        result.distinct = q.distinct;
+
+        for (TargetEntry target : q.targetList) {
+            if (join && target.expr instanceof ColumnRef ref && ref.column.equals("*")) {
+                for (RangeTable table : tables) {
+                    if (ref.table == null || table.name().equalsIgnoreCase(ref.table)) {
+                        for (ColumnDefinition column : table.columns()) {
+                            result.targetList.add(new TargetEntry(new ColumnRef(table.name() + "." + column.getName()), null));
+                        }
+                    }
+                }
+                if (ref.table != null && findTable(tables, ref.table) == null) {
+                    throw new IllegalArgumentException("Table not found in FROM clause: " + ref.table);
+                }
+                continue;
+            }
+            TargetEntry qualified = new TargetEntry(qualify(target.expr, tables, join), target.alias);
+            qualified.resultType = target.resultType;
+            result.targetList.add(qualified);
+        }
+
+        Expr where = null;
+        for (RangeVar rv : q.rangeTable) {
+            if (rv.joinCondition != null) {
+                where = and(where, qualify((Expr) rv.joinCondition, tables, join));
+            }
+        }
+        result.whereClause = and(where, qualify(q.whereClause, tables, join));
+
+        if (q.groupClause != null) {
+            result.groupClause = new ArrayList<>(q.groupClause.size());
+            for (Expr key : q.groupClause) {
+                result.groupClause.add(qualify(key, tables, join));
+            }
+        }
+        if (q.sortClause != null) {
+            result.sortClause = new ArrayList<>(q.sortClause.size());
+            for (SortKey key : q.sortClause) {
+                result.sortClause.add(new SortKey(qualify(key.expr, tables, join), key.descending));
+            }
+        }
+        return result;
+    }
+
+    private static Expr qualify(Expr expr, List<RangeTable> tables, boolean join) {
+        if (expr instanceof ColumnRef ref) {
+            return qualifyColumn(ref, tables, join);
+        } else if (expr instanceof AExpr a) {
+            return new AExpr(a.getOp(), qualify((Expr) a.getLeft(), tables, join), qualify((Expr) a.getRight(), tables, join));
+        } else if (expr instanceof FuncCall call) {
+            List<AstNode> args = new ArrayList<>(call.args.size());
+            for (AstNode arg : call.args) {
+                args.add(qualify((Expr) arg, tables, join));
+            }
+            return new FuncCall(call.name, args, call.star);
+        } else if (expr instanceof InExpr in) {
+            List<AstNode> values = new ArrayList<>(in.values.size());
+            for (AstNode value : in.values) {
+                values.add(qualify((Expr) value, tables, join));
+            }
+            return new InExpr(qualify((Expr) in.expr, tables, join), values);
+        } else if (expr instanceof SubLink link) {
+            // Подзапрос разбирается отдельно, в своей области видимости; здесь — только левая часть IN
+            SubLink qualified = new SubLink(link.kind, qualify((Expr) link.testExpr, tables, join), link.subselect);
+            qualified.subquery = link.subquery;
+            return qualified;
+        }
+        return expr;
+    }
+
+    private static ColumnRef qualifyColumn(ColumnRef ref, List<RangeTable> tables, boolean join) {
+        if (ref.table != null) {
+            RangeTable table = findTable(tables, ref.table);
+            if (table == null) {
+                throw new IllegalArgumentException("Table not found in FROM clause: " + ref.table);
+            }
+            if (ref.column.equals("*")) {
+                return new ColumnRef("*");
+            }
+            ColumnDefinition column = findColumn(table.columns(), ref.column);
+            if (column == null) {
+                throw new IllegalArgumentException("Column not found: " + ref);
+            }
+            return new ColumnRef(join ? table.name() + "." + column.getName() : ref.column);
+        }
+        if (!join || ref.column.equals("*") || isNumber(ref.column)) {
+            return ref;
+        }
+
+        ColumnRef resolved = null;
+        for (RangeTable table : tables) {
+            ColumnDefinition column = findColumn(table.columns(), ref.column);
+            if (column != null) {
+                if (resolved != null) {
+                    throw new IllegalArgumentException("Column reference \"" + ref.column + "\" is ambiguous");
+                }
+                resolved = new ColumnRef(table.name() + "." + column.getName());
+            }
+        }
+        return resolved != null ? resolved : ref;
+    }
+
+    private static RangeTable findTable(List<RangeTable> tables, String name) {
+        for (RangeTable table : tables) {
+            if (table.name().equalsIgnoreCase(name)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Дерево соединений слева направо. Условие над одной таблицей уходит в ее сканирование,
+     * равенства между уже соединенными таблицами и присоединяемой — в ключи соединения, остальные
+     * условия проверяются в первом соединении, где доступны все их таблицы. Следующей присоединяется
+     * первая по порядку FROM таблица, связанная равенством с уже соединенными: так декартово
+     * произведение строится, только если в запросе нет связывающего условия.
+     */
+    private LogicalPlanNode planJoin(QueryTree q, List<RangeTable> tables, Set<String> referenced) {
+        List<Expr> conjuncts = new ArrayList<>();
+        splitConjuncts(q.whereClause, conjuncts);
+        List<Set<Integer>> conjunctTables = new ArrayList<>(conjuncts.size());
+        for (Expr conjunct : conjuncts) {
+            conjunctTables.add(tablesOf(conjunct, tables));
+        }
+        boolean[] used = new boolean[conjuncts.size()];
+
+        List<LogicalPlanNode> inputs = new ArrayList<>(tables.size());
+        for (int t = 0; t < tables.size(); t++) {
+            RangeTable table = tables.get(t);
+            LogicalPlanNode input = new ScanNode(table.definition(), requiredPositions(table, referenced, true), table.name());
+            Expr filter = null;
+            for (int i = 0; i < conjuncts.size(); i++) {
+                Set<Integer> refs = conjunctTables.get(i);
+                // Условие без колонок (например, 1 = 0) проверяется на первой таблице
+                if (refs.equals(Set.of(t)) || refs.isEmpty() && t == 0) {
+                    filter = and(filter, conjuncts.get(i));
+                    used[i] = true;
+                }
+            }
+            inputs.add(filter == null ? input : new FilterNode(filter, input));
+        }
+
+        Set<Integer> joined = new HashSet<>(Set.of(0));
+        LogicalPlanNode plan = inputs.get(0);
+        while (joined.size() < tables.size()) {
+            int next = nextTable(conjuncts, used, tables, joined);
+            List<Expr> leftKeys = new ArrayList<>();
+            List<Expr> rightKeys = new ArrayList<>();
+            Expr condition = null;
+            Set<Integer> available = new HashSet<>(joined);
+            available.add(next);
+            for (int i = 0; i < conjuncts.size(); i++) {
+                if (used[i] || !available.containsAll(conjunctTables.get(i))) {
+                    continue;
+                }
+                Expr[] key = joinKey(conjuncts.get(i), tables, joined, next);
+                if (key != null) {
+                    leftKeys.add(key[0]);
+                    rightKeys.add(key[1]);
+                } else {
+                    condition = and(condition, conjuncts.get(i));
+                }
+                used[i] = true;
+            }
+            plan = new JoinNode(leftKeys, rightKeys, condition, plan, inputs.get(next));
+            joined.add(next);
+        }
+        return plan;
+    }
+
+    private static int nextTable(List<Expr> conjuncts, boolean[] used, List<RangeTable> tables, Set<Integer> joined) {
+        int fallback = -1;
+        for (int t = 0; t < tables.size(); t++) {
+            if (joined.contains(t)) continue;
+            if (fallback < 0) fallback = t;
+            for (int i = 0; i < conjuncts.size(); i++) {
+                if (!used[i] && joinKey(conjuncts.get(i), tables, joined, t) != null) {
+                    return t;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Для равенства "выражение над joined = выражение над таблицей next" — пара {левый ключ, правый ключ}, иначе null.
+     */
+    private static Expr[] joinKey(Expr conjunct, List<RangeTable> tables, Set<Integer> joined, int next) {
+        if (!(conjunct instanceof AExpr a) || !a.getOp().equals("=")) {
+            return null;
+        }
+        Expr left = (Expr) a.getLeft();
+        Expr right = (Expr) a.getRight();
+        Set<Integer> leftTables = tablesOf(left, tables);
+        Set<Integer> rightTables = tablesOf(right, tables);
+        if (leftTables.isEmpty() || rightTables.isEmpty()) {
+            return null;
+        }
+        if (joined.containsAll(leftTables) && rightTables.equals(Set.of(next))) {
+            return new Expr[]{left, right};
+        }
+        if (joined.containsAll(rightTables) && leftTables.equals(Set.of(next))) {
+            return new Expr[]{right, left};
+        }
+        return null;
+    }
+
+    /**
+     * Номера таблиц FROM, колонки которых упомянуты в выражении (ссылки уже приведены к "таблица.колонка").
+     */
+    private static Set<Integer> tablesOf(Expr expr, List<RangeTable> tables) {
+        List<ColumnRef> refs = new ArrayList<>();
+        collectColumnRefs(expr, refs);
+        Set<Integer> result = new TreeSet<>();
+        for (ColumnRef ref : refs) {
+            int dot = ref.column.indexOf('.');
+            if (dot < 0) continue;
+            for (int t = 0; t < tables.size(); t++) {
+                if (tables.get(t).name().equalsIgnoreCase(ref.column.substring(0, dot))) {
+                    result.add(t);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void splitConjuncts(Expr expr, List<Expr> conjuncts) {
+        if (expr instanceof AExpr a && a.getOp().equalsIgnoreCase("AND")) {
+            splitConjuncts((Expr) a.getLeft(), conjuncts);
+            splitConjuncts((Expr) a.getRight(), conjuncts);
+        } else if (expr != null) {
+            conjuncts.add(expr);
+        }
+    }
+
+    private static Expr and(Expr left, Expr right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        return new AExpr("AND", left, right);
+    }
+
+    /**
+     * Имена видимых колонок (в нижнем регистре), на которые ссылается запрос, или null, если нужны все (SELECT *).
+     */
+    private Set<String> referencedColumns(QueryTree q, List<ColumnDefinition> columns) {
+        if (q.targetList == null || q.targetList.isEmpty()) {
+            return null;
+        }
+
+        List<ColumnRef> refs = new ArrayList<>();
+        for (TargetEntry target : q.targetList) {
+            if (target.expr instanceof ColumnRef ref && ref.column.equals("*")) {
+                return null;
+            }
+            collectColumnRefs(target.expr, refs);
+        }
+        collectColumnRefs(q.whereClause, refs);
+        for (Expr key : resolveGroupKeys(q, columns)) {
+            collectColumnRefs(key, refs);
+        }
+        for (SortKey key : resolveSortKeys(q, columns)) {
+            collectColumnRefs(key.expr, refs);
+        }
+
+        // Числовые литералы парсер тоже представляет как ColumnRef — они ни с чем не совпадут
+        Set<String> names = new HashSet<>();
+        for (ColumnRef ref : refs) {
+            names.add(ref.column.toLowerCase());
+        }
+        return names;
+    }
+
+    /**
+     * Позиции колонок таблицы, на которые ссылается запрос, или null, если нужны все.
+     */
+    private static Set<Integer> requiredPositions(RangeTable table, Set<String> referenced, boolean join) {
+        if (referenced == null) {
+            return null;
+        }
+        Set<Integer> positions = new TreeSet<>();
+        for (ColumnDefinition column : table.columns()) {
+            String name = join ? table.name() + "." + column.getName() : column.getName();
+            if (referenced.contains(name.toLowerCase())) {
+                positions.add(column.getPosition());
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Ключи ORDER BY в виде выражений над видимыми колонками.
+     * Число n означает n-ю колонку результата, имя, не совпадающее с колонкой таблицы, — псевдоним из SELECT-списка.
+     */
+    private static List<SortKey> resolveSortKeys(QueryTree q, List<ColumnDefinition> columns) {
+        if (q.sortClause == null || q.sortClause.isEmpty()) {
+            return List.of();
+        }
+
+        List<SortKey> keys = new ArrayList<>(q.sortClause.size());
+        for (SortKey key : q.sortClause) {
+            keys.add(new SortKey(resolveResultReference(q, columns, key.expr, "ORDER BY"), key.descending));
+        }
+        return keys;
+    }
+
+    /**
+     * Ключи GROUP BY; порядковые номера и псевдонимы разрешаются так же, как в ORDER BY.
+     */
+    private static List<Expr> resolveGroupKeys(QueryTree q, List<ColumnDefinition> columns) {
+        if (q.groupClause == null || q.groupClause.isEmpty()) {
+            return List.of();
+        }
+
+        List<Expr> keys = new ArrayList<>(q.groupClause.size());
+        for (Expr key : q.groupClause) {
+            Expr resolved = resolveResultReference(q, columns, key, "GROUP BY");
+            if (containsAggregate(resolved)) {
+                throw new IllegalArgumentException("Aggregate functions are not allowed in GROUP BY: " + resolved);
+            }
+            keys.add(resolved);
+        }
+        return keys;
+    }
+
+    private static Expr resolveResultReference(QueryTree q, List<ColumnDefinition> columns, Expr expr, String clause) {
+        if (expr instanceof ColumnRef ref && ref.column.chars().allMatch(Character::isDigit)) {
+            return resultColumn(q, columns, Integer.parseInt(ref.column), clause);
+        }
+        if (expr instanceof ColumnRef ref && findColumn(columns, ref.column) == null) {
+            for (TargetEntry target : q.targetList) {
+                if (ref.column.equalsIgnoreCase(target.alias)) {
+                    return target.expr;
+                }
+            }
+        }
+        return expr;
+    }
+
+    private static Expr resultColumn(QueryTree q, List<ColumnDefinition> columns, int position, String clause) {
+        boolean star = q.targetList.isEmpty()
+                || q.targetList.size() == 1 && q.targetList.get(0).expr instanceof ColumnRef ref && ref.column.equals("*");
+        int count = star ? columns.size() : q.targetList.size();
+        if (position < 1 || position > count) {
+            throw new IllegalArgumentException(clause + " position " + position + " is not in select list");
+        }
+        return star ? new ColumnRef(columns.get(position - 1).getName()) : q.targetList.get(position - 1).expr;
+    }
+
+    private static boolean isAggregateQuery(QueryTree q, List<SortKey> sortKeys) {
+        if (q.groupClause != null && !q.groupClause.isEmpty()) {
+            return true;
+        }
+        for (TargetEntry target : q.targetList) {
+            if (containsAggregate(target.expr)) return true;
+        }
+        for (SortKey key : sortKeys) {
+            if (containsAggregate(key.expr)) return true;
+        }
+        return false;
+    }
+
+    private static boolean containsAggregate(AstNode node) {
+        if (node instanceof FuncCall call) {
+            return call.isAggregate();
+        } else if (node instanceof AExpr expr) {
+            return containsAggregate(expr.getLeft()) || containsAggregate(expr.getRight());
+        } else if (node instanceof InExpr in) {
+            return containsAggregate(in.expr) || in.values.stream().anyMatch(PlannerImpl::containsAggregate);
+        }
+        return false;
+    }
+
+    /**
+     * Выражение над выходом AggregateNode: ключи группировки и агрегаты заменяются ссылками
+     * на его колонки, одинаковые агрегаты вычисляются один раз. Колонка вне GROUP BY и агрегата — ошибка.
+     */
+    private static Expr rewriteOverAggregate(Expr expr, List<Expr> groupKeys, List<FuncCall> aggregates) {
+        if (expr == null) {
+            return null;
+        }
+        for (int i = 0; i < groupKeys.size(); i++) {
+            if (sameExpr(expr, groupKeys.get(i))) {
+                return new ColumnRef(AggregateNode.groupColumn(i));
+            }
+        }
+
+        if (expr instanceof FuncCall call) {
+            for (AstNode arg : call.args) {
+                if (containsAggregate(arg)) {
+                    throw new IllegalArgumentException("Aggregate function calls cannot be nested: " + call);
+                }
+            }
+            for (int j = 0; j < aggregates.size(); j++) {
+                if (sameExpr(call, aggregates.get(j))) {
+                    return new ColumnRef(AggregateNode.aggregateColumn(j));
+                }
+            }
+            aggregates.add(call);
+            return new ColumnRef(AggregateNode.aggregateColumn(aggregates.size() - 1));
+        }
+        if (expr instanceof AExpr a) {
+            return new AExpr(a.getOp(),
+                    rewriteOverAggregate((Expr) a.getLeft(), groupKeys, aggregates),
+                    rewriteOverAggregate((Expr) a.getRight(), groupKeys, aggregates));
+        }
+        if (expr instanceof InExpr in) {
+            List<AstNode> values = new ArrayList<>(in.values.size());
+            for (AstNode value : in.values) {
+                values.add(rewriteOverAggregate((Expr) value, groupKeys, aggregates));
+            }
+            return new InExpr(rewriteOverAggregate((Expr) in.expr, groupKeys, aggregates), values);
+        }
+        if (expr instanceof ColumnRef ref && !isNumber(ref.column)) {
+            throw new IllegalArgumentException("Column " + ref.column
+                    + " must appear in the GROUP BY clause or be used in an aggregate function");
+        }
+        return expr;
+    }
+
+    private static boolean sameExpr(Expr a, Expr b) {
+        return a.toString().equalsIgnoreCase(b.toString());
+    }
+
+    private static boolean isNumber(String name) {
+        try {
+            Long.parseLong(name);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static ColumnDefinition findColumn(List<ColumnDefinition> columns, String name) {
+        for (ColumnDefinition column : columns) {
+            if (column.getName().equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private static void collectColumnRefs(AstNode node, List<ColumnRef> refs) {
+        if (node instanceof ColumnRef ref) {
+            refs.add(ref);
+        } else if (node instanceof AExpr expr) {
+            collectColumnRefs(expr.getLeft(), refs);
+            collectColumnRefs(expr.getRight(), refs);
+        } else if (node instanceof FuncCall call) {
+            for (AstNode arg : call.args) {
+                collectColumnRefs(arg, refs);
+            }
+        } else if (node instanceof InExpr in) {
+            collectColumnRefs(in.expr, refs);
+            for (AstNode value : in.values) {
+                collectColumnRefs(value, refs);
+            }
+        } else if (node instanceof SubLink link) {
+            collectColumnRefs(link.testExpr, refs);
+        }
+    }
+
+    // ---------- ANALYZE ----------
+    private LogicalPlanNode planAnalyze(QueryTree q) {
+        if (q.rangeTable == null || q.rangeTable.isEmpty()) {
+            return new AnalyzeNode(catalogManager.listTables());
+        }
+
         String tableName = extractTableName(q);
         TableDefinition tableDef = catalogManager.getTable(tableName);
-        LogicalPlanNode plan = new ScanNode(tableDef);
+        if (tableDef == null) {
+            throw new IllegalArgumentException("Table not found: " + tableName);
+        }
+        return new AnalyzeNode(List.of(tableDef));
+    }
 
-        // 2. Применение фильтра WHERE (если есть)
-        if (q.whereClause != null) {
-            plan = new FilterNode(q.whereClause, plan);
+    // ---------- CREATE INDEX ----------
+    private LogicalPlanNode planCreateIndex(QueryTree q) {
+        String tableName = extractTableName(q);
+        TableDefinition tableDef = catalogManager.getTable(tableName);
+        if (tableDef == null) {
+            throw new IllegalArgumentException("Table not found: " + tableName);
+        }
+        String columnName = q.columnNames.get(0);
+        if (catalogManager.getColumn(tableDef, columnName) == null) {
+            throw new IllegalArgumentException("Column not found: " + columnName);
         }
+        return new CreateIndexNode(q.indexName, tableDef, columnName);
+    }
 
-        // 3. Проекция SELECT-списка (верхний узел)
-        plan = new ProjectNode(q.targetList, plan);
+    // ---------- UPDATE / DELETE ----------
+    private LogicalPlanNode planUpdate(QueryTree q) {
+        String tableName = extractTableName(q);
+        TableDefinition tableDef = catalogManager.getTable(tableName);
+        if (tableDef == null) {
+            throw new IllegalArgumentException("Table not found: " + tableName);
+        }
+        Set<String> assigned = new HashSet<>();
+        for (TargetEntry te : q.targetList) {
+            if (catalogManager.getColumn(tableDef, te.alias) == null) {
+                throw new IllegalArgumentException("Column not found: " + te.alias);
+            }
+            if (!assigned.add(te.alias.toLowerCase())) {
+                throw new IllegalArgumentException("Column " + te.alias + " is assigned more than once");
+            }
+        }
+        return new UpdateNode(tableDef, q.targetList, q.whereClause);
+    }
 
-        return plan;
+    private LogicalPlanNode planDelete(QueryTree q) {
+        String tableName = extractTableName(q);
+        TableDefinition tableDef = catalogManager.getTable(tableName);
+        if (tableDef == null) {
+            throw new IllegalArgumentException("Table not found: " + tableName);
+        }
+        return new DeleteNode(tableDef, q.whereClause);
     }
 
     private String extractTableName(QueryTree q) {
@@ -0,0 +1,64 @@
+package ru.open.cu.student.planner.node;
+
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.FuncCall;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Логический узел Aggregate — группировка строк нижнего узла и вычисление агрегатов.
+ *
+ * Выход: ключи группировки, затем агрегаты, под служебными именами groupColumn(i) / aggregateColumn(j).
+ * Выражения над узлом (SELECT-список, ORDER BY) ссылаются на результат через эти имена.
+ */
+public class AggregateNode extends LogicalPlanNode {
+    private final List<Expr> groupKeys;
+    private final List<FuncCall> aggregates;
+    private final LogicalPlanNode child;
+
+    public AggregateNode(List<Expr> groupKeys, List<FuncCall> aggregates, LogicalPlanNode child) {
+        super("Aggregate");
+        this.groupKeys = groupKeys;
+        this.aggregates = aggregates;
+        this.child = child;
+
+        List<String> columns = new ArrayList<>();
+        for (int i = 0; i < groupKeys.size(); i++) {
+            columns.add(groupColumn(i));
+        }
+        for (int j = 0; j < aggregates.size(); j++) {
+            columns.add(aggregateColumn(j));
+        }
+        this.outputColumns = columns;
+    }
+
+    /**
+     * Имена начинаются с '$' — лексер не выдает такие идентификаторы, поэтому они не совпадут с колонками таблицы.
+     */
+    public static String groupColumn(int index) {
+        return "$group" + index;
+    }
+
+    public static String aggregateColumn(int index) {
+        return "$agg" + index;
+    }
+
+    public List<Expr> getGroupKeys() {
+        return groupKeys;
+    }
+
+    public List<FuncCall> getAggregates() {
+        return aggregates;
+    }
+
+    public LogicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Aggregate(groupBy=" + groupKeys + ", " + aggregates + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,28 @@
+package ru.open.cu.student.planner.node;
+
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+import java.util.List;
+
+/**
+ * Логический узел ANALYZE: список таблиц, для которых нужно пересобрать статистику.
+ */
+public class AnalyzeNode extends LogicalPlanNode {
+
+    private final List<TableDefinition> tables;
+
+    public AnalyzeNode(List<TableDefinition> tables) {
+        super("Analyze");
+        this.tables = tables;
+        this.outputColumns = List.of(); // ANALYZE не возвращает строки
+    }
+
+    public List<TableDefinition> getTables() {
+        return tables;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Analyze(" + tables.stream().map(TableDefinition::getName).toList() + ")\n";
+    }
+}
@@ -0,0 +1,40 @@
+package ru.open.cu.student.planner.node;
+
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+import java.util.List;
+
+/**
+ * Логический узел CREATE INDEX: индекс indexName по колонке columnName таблицы.
+ */
+public class CreateIndexNode extends LogicalPlanNode {
+
+    private final String indexName;
+    private final TableDefinition tableDefinition;
+    private final String columnName;
+
+    public CreateIndexNode(String indexName, TableDefinition tableDefinition, String columnName) {
+        super("CreateIndex");
+        this.indexName = indexName;
+        this.tableDefinition = tableDefinition;
+        this.columnName = columnName;
+        this.outputColumns = List.of(); // CREATE INDEX не возвращает строки
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "CreateIndex(" + indexName + " ON " + tableDefinition.getName() + " (" + columnName + "))\n";
+    }
+}
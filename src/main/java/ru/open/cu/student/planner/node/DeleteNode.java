@@ -0,0 +1,36 @@
+package ru.open.cu.student.planner.node;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+import java.util.List;
+
+/**
+ * Логический узел DELETE FROM table [WHERE condition]; condition равно null без WHERE.
+ */
+public class DeleteNode extends LogicalPlanNode {
+
+    private final TableDefinition tableDefinition;
+    private final Expr condition;
+
+    public DeleteNode(TableDefinition tableDefinition, Expr condition) {
+        super("Delete");
+        this.tableDefinition = tableDefinition;
+        this.condition = condition;
+        this.outputColumns = List.of(); // DELETE не возвращает строки
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Delete(" + tableDefinition.getName()
+                + (condition != null ? ", where=" + condition : "") + ")\n";
+    }
+}
@@ -6,18 +6,30 @@ import ru.open.cu.student.ast.Expr;
 import java.util.List;
 
 /**
- * Логический узел INSERT INTO table VALUES (...).
- * Хранит готовый объект Table и список значений.
+ * Логический узел INSERT INTO table VALUES (...), (...) или INSERT INTO table SELECT ....
+ * Хранит готовый объект Table и либо значения всех вставляемых строк, либо план запроса-источника.
  */
 public class InsertNode extends LogicalPlanNode {
 
     private final TableDefinition tableDefinition;
-    private final List<Expr> values;  // Expr вместо Object
+    private final List<List<Expr>> rows;  // Expr вместо Object
+    private final LogicalPlanNode source;
+    private final boolean sourceReadsTarget;
 
-    public InsertNode(TableDefinition tableDefinition, List<Expr> values) {
+    public InsertNode(TableDefinition tableDefinition, List<List<Expr>> rows) {
+        this(tableDefinition, rows, null, false);
+    }
+
+    public InsertNode(TableDefinition tableDefinition, LogicalPlanNode source, boolean sourceReadsTarget) {
+        this(tableDefinition, null, source, sourceReadsTarget);
+    }
+
+    private InsertNode(TableDefinition tableDefinition, List<List<Expr>> rows, LogicalPlanNode source, boolean sourceReadsTarget) {
         super("Insert");
         this.tableDefinition = tableDefinition;
-        this.values = values;
+        this.rows = rows;
+        this.source = source;
+        this.sourceReadsTarget = sourceReadsTarget;
         this.outputColumns = List.of(); // INSERT не возвращает строки
     }
 
@@ -25,12 +37,26 @@ public class InsertNode extends LogicalPlanNode {
         return tableDefinition;
     }
 
-    public List<Expr> getValues() {
-        return values;
+    /**
+     * Строки VALUES; null у INSERT ... SELECT.
+     */
+    public List<List<Expr>> getRows() {
+        return rows;
+    }
+
+    public LogicalPlanNode getSource() {
+        return source;
+    }
+
+    public boolean isSourceReadsTarget() {
+        return sourceReadsTarget;
     }
 
     @Override
     public String prettyPrint(String indent) {
-        return indent + "Insert(" + tableDefinition.getName() + ", values=" + values + ")\n";
+        if (source != null) {
+            return indent + "Insert(" + tableDefinition.getName() + ")\n" + source.prettyPrint(indent + "  ");
+        }
+        return indent + "Insert(" + tableDefinition.getName() + ", rows=" + rows.size() + ")\n";
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package ru.open.cu.student.planner.node;
+
+
+import ru.open.cu.student.ast.Expr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Логический узел Join — внутреннее соединение двух входов.
+ *
+ * leftKeys[i] = rightKeys[i] — условия равенства между входами (ключи хеш-таблицы);
+ * condition — остальные условия над обоими входами (может быть null). Без ключей — декартово произведение.
+ * Выход: колонки левого входа, затем правого.
+ */
+public class JoinNode extends LogicalPlanNode {
+    private final List<Expr> leftKeys;
+    private final List<Expr> rightKeys;
+    private final Expr condition;
+    private final LogicalPlanNode left;
+    private final LogicalPlanNode right;
+
+    public JoinNode(List<Expr> leftKeys, List<Expr> rightKeys, Expr condition,
+                    LogicalPlanNode left, LogicalPlanNode right) {
+        super("Join");
+        if (leftKeys.size() != rightKeys.size()) {
+            throw new IllegalArgumentException("leftKeys and rightKeys size mismatch");
+        }
+        this.leftKeys = leftKeys;
+        this.rightKeys = rightKeys;
+        this.condition = condition;
+        this.left = left;
+        this.right = right;
+
+        List<String> columns = new ArrayList<>(left.getOutputColumns());
+        columns.addAll(right.getOutputColumns());
+        this.outputColumns = columns;
+    }
+
+    public List<Expr> getLeftKeys() {
+        return leftKeys;
+    }
+
+    public List<Expr> getRightKeys() {
+        return rightKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    public LogicalPlanNode getLeft() {
+        return left;
+    }
+
+    public LogicalPlanNode getRight() {
+        return right;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Join(" + leftKeys + " = " + rightKeys + (condition != null ? ", " + condition : "") + ")\n"
+                + left.prettyPrint(indent + "  ") + right.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,38 @@
+package ru.open.cu.student.planner.node;
+
+
+/**
+ * Логический узел Limit — пропуск первых offset строк и выдача не более count строк.
+ * count == null означает «без ограничения».
+ */
+public class LimitNode extends LogicalPlanNode {
+    private final Long count;
+    private final long offset;
+    private final LogicalPlanNode child;
+
+    public LimitNode(Long count, long offset, LogicalPlanNode child) {
+        super("Limit");
+        this.count = count;
+        this.offset = offset;
+        this.child = child;
+        // Limit передает схему от ребенка
+        this.outputColumns = child.getOutputColumns();
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public LogicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Limit(" + count + ", offset=" + offset + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
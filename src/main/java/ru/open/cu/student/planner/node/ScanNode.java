@@ -3,18 +3,35 @@ package ru.open.cu.student.planner.node;
 
 import ru.open.cu.student.catalog.model.TableDefinition;
 
+import java.util.Set;
+
 /**
  * Логический узел SeqScan — полное сканирование таблицы.
+ * requiredColumns — позиции колонок, которые нужны запросу (null — все колонки);
+ * alias — имя таблицы в соединении: колонки сканирования называются alias.колонка (null — вне соединения).
  */
 public class ScanNode extends LogicalPlanNode {
     private final TableDefinition tableDefinition;
+    private final Set<Integer> requiredColumns;
+    private final String alias;
 
     public ScanNode(TableDefinition tableDefinition) {
+        this(tableDefinition, null);
+    }
+
+    public ScanNode(TableDefinition tableDefinition, Set<Integer> requiredColumns) {
+        this(tableDefinition, requiredColumns, null);
+    }
+
+    public ScanNode(TableDefinition tableDefinition, Set<Integer> requiredColumns, String alias) {
         super("Scan");
         this.tableDefinition = tableDefinition;
+        this.requiredColumns = requiredColumns == null ? null : Set.copyOf(requiredColumns);
+        this.alias = alias;
         // Устанавливаем выходные колонки как все колонки таблицы
+        String prefix = alias != null ? alias : tableDefinition.getName();
         this.outputColumns = tableDefinition.getColumns().stream()
-                .map(col -> tableDefinition.getName() + "." + col.getName())
+                .map(col -> prefix + "." + col.getName())
                 .toList();
     }
 
@@ -22,8 +39,18 @@ public class ScanNode extends LogicalPlanNode {
         return tableDefinition;
     }
 
+    public Set<Integer> getRequiredColumns() {
+        return requiredColumns;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
     @Override
     public String prettyPrint(String indent) {
-        return indent + "Scan(" + tableDefinition.getName() + ")\n";
+        return indent + "Scan(" + tableDefinition.getName()
+                + (alias != null ? " " + alias : "")
+                + (requiredColumns != null ? ", columns=" + requiredColumns : "") + ")\n";
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package ru.open.cu.student.planner.node;
+
+
+import ru.open.cu.student.ast.Expr;
+
+import java.util.List;
+
+/**
+ * Логический узел SemiJoin — строки внешнего входа, для которых во внутреннем есть (anti — нет) пара.
+ *
+ * Так выполняются подзапросы WHERE: IN и EXISTS — полусоединение, NOT IN и NOT EXISTS — антисоединение.
+ * outerKeys[i] = innerKeys[i] — условия равенства (ключи хеш-таблицы); condition — остальные условия
+ * над парой строк (может быть null). Внутренний вход — план подзапроса с колонками innerColumn(i).
+ * Выход: колонки внешнего входа.
+ */
+public class SemiJoinNode extends LogicalPlanNode {
+    private final List<Expr> outerKeys;
+    private final List<Expr> innerKeys;
+    private final Expr condition;
+    private final boolean anti;
+    private final LogicalPlanNode outer;
+    private final LogicalPlanNode inner;
+
+    public SemiJoinNode(List<Expr> outerKeys, List<Expr> innerKeys, Expr condition, boolean anti,
+                        LogicalPlanNode outer, LogicalPlanNode inner) {
+        super(anti ? "AntiJoin" : "SemiJoin");
+        if (outerKeys.size() != innerKeys.size()) {
+            throw new IllegalArgumentException("outerKeys and innerKeys size mismatch");
+        }
+        this.outerKeys = outerKeys;
+        this.innerKeys = innerKeys;
+        this.condition = condition;
+        this.anti = anti;
+        this.outer = outer;
+        this.inner = inner;
+        this.outputColumns = outer.getOutputColumns();
+    }
+
+    /**
+     * Имя колонки результата подзапроса; '$' не выдается лексером, как и у AggregateNode.
+     */
+    public static String innerColumn(int index) {
+        return "$sub" + index;
+    }
+
+    public List<Expr> getOuterKeys() {
+        return outerKeys;
+    }
+
+    public List<Expr> getInnerKeys() {
+        return innerKeys;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    public boolean isAnti() {
+        return anti;
+    }
+
+    public LogicalPlanNode getOuter() {
+        return outer;
+    }
+
+    public LogicalPlanNode getInner() {
+        return inner;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + nodeType + "(" + outerKeys + " = " + innerKeys + (condition != null ? ", " + condition : "") + ")\n"
+                + outer.prettyPrint(indent + "  ") + inner.prettyPrint(indent + "  ");
+    }
+}
@@ -0,0 +1,36 @@
+package ru.open.cu.student.planner.node;
+
+
+import ru.open.cu.student.ast.SortKey;
+
+import java.util.List;
+
+/**
+ * Логический узел Sort — упорядочивание строк нижнего узла по ключам ORDER BY.
+ * Ключи уже разрешены в выражения над колонками таблицы (порядковые номера и псевдонимы раскрыты).
+ */
+public class SortNode extends LogicalPlanNode {
+    private final List<SortKey> sortKeys;
+    private final LogicalPlanNode child;
+
+    public SortNode(List<SortKey> sortKeys, LogicalPlanNode child) {
+        super("Sort");
+        this.sortKeys = sortKeys;
+        this.child = child;
+        // Sort передает схему от ребенка
+        this.outputColumns = child.getOutputColumns();
+    }
+
+    public List<SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    public LogicalPlanNode getChild() {
+        return child;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Sort(" + sortKeys + ")\n" + child.prettyPrint(indent + "  ");
+    }
+}
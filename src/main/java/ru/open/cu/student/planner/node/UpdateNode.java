@@ -0,0 +1,44 @@
+package ru.open.cu.student.planner.node;
+
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.catalog.model.TableDefinition;
+
+import java.util.List;
+
+/**
+ * Логический узел UPDATE table SET col = expr, ... [WHERE condition].
+ * Присваивания — TargetEntry с именем колонки в alias; condition равно null без WHERE.
+ */
+public class UpdateNode extends LogicalPlanNode {
+
+    private final TableDefinition tableDefinition;
+    private final List<TargetEntry> assignments;
+    private final Expr condition;
+
+    public UpdateNode(TableDefinition tableDefinition, List<TargetEntry> assignments, Expr condition) {
+        super("Update");
+        this.tableDefinition = tableDefinition;
+        this.assignments = assignments;
+        this.condition = condition;
+        this.outputColumns = List.of(); // UPDATE не возвращает строки
+    }
+
+    public TableDefinition getTableDefinition() {
+        return tableDefinition;
+    }
+
+    public List<TargetEntry> getAssignments() {
+        return assignments;
+    }
+
+    public Expr getCondition() {
+        return condition;
+    }
+
+    @Override
+    public String prettyPrint(String indent) {
+        return indent + "Update(" + tableDefinition.getName()
+                + (condition != null ? ", where=" + condition : "") + ")\n";
+    }
+}
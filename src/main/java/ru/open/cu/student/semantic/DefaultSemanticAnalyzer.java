@@ -134,17 +134,9 @@ public class DefaultSemanticAnalyzer implements SemanticAnalyzer {
         if (tableName != null) {
             TableInfo tableInfo = tableInfoMap.get(tableName);
             if (tableInfo != null) {
-                // Ищем колонку в таблице
-                for (int i = 0; i < tableInfo.columns.size(); i++) {
-                    ColumnDefinition colDef = tableInfo.columns.get(i);
-                    if (colDef.getName().equalsIgnoreCase(columnName)) {
-                        return new ColumnRef(
-                                tableInfo.tableDef.getName(),
-                                colDef.getName(),
-                                tableInfo.tableIndex,
-                                i
-                        );
-                    }
+                ColumnRef resolved = lookupColumn(tableInfo, columnName);
+                if (resolved != null) {
+                    return resolved;
                 }
             }
             throw new SemanticException("Колонка не найдена: " + parserColRef);
@@ -154,16 +146,9 @@ public class DefaultSemanticAnalyzer implements SemanticAnalyzer {
         List<ColumnRef> candidates = new ArrayList<>();
 
         for (TableInfo tableInfo : tableInfoMap.values()) {
-            for (int i = 0; i < tableInfo.columns.size(); i++) {
-                ColumnDefinition colDef = tableInfo.columns.get(i);
-                if (colDef.getName().equalsIgnoreCase(columnName)) {
-                    candidates.add(new ColumnRef(
-                            tableInfo.tableDef.getName(),
-                            colDef.getName(),
-                            tableInfo.tableIndex,
-                            i
-                    ));
-                }
+            ColumnRef resolved = lookupColumn(tableInfo, columnName);
+            if (resolved != null) {
+                candidates.add(resolved);
             }
         }
 
@@ -176,6 +161,15 @@ public class DefaultSemanticAnalyzer implements SemanticAnalyzer {
         return candidates.get(0);
     }
 
+    private ColumnRef lookupColumn(TableInfo tableInfo, String columnName) {
+        int index = catalog.getColumnIndex(tableInfo.tableDef, columnName);
+        if (index < 0) {
+            return null;
+        }
+        ColumnDefinition colDef = tableInfo.columns.get(index);
+        return new ColumnRef(tableInfo.tableDef.getName(), colDef.getName(), tableInfo.tableIndex, index);
+    }
+
     private Expr analyzeParserAExpr(AExpr parserAExpr,
                                     Map<String, TableInfo> tableInfoMap) {
         AstNode left = parserAExpr.getLeft();
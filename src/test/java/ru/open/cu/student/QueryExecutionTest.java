@@ -40,9 +40,11 @@ class SimpleQueryExecutionTest {
             public BufferSlot getPage(int pageId) { return null; }
             public void updatePage(int pageId, Page page) { }
             public void pinPage(int pageId) { }
+            public BufferSlot newPage(Page page) { return null; }
             public void flushPage(int pageId) { }
             public void flushAllPages() { }
             public List<BufferSlot> getDirtyPages() { return List.of(); }
+            public int getPageCount() { return 0; }
         };
 
         OperationManager operationManager = new OperationManager() {
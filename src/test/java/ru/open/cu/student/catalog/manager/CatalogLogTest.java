@@ -0,0 +1,86 @@
+package ru.open.cu.student.catalog.manager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogLogTest {
+
+    @Test
+    void append_then_replay_returnsRecordsInOrder(@TempDir Path tempDir) {
+        CatalogLog log = new CatalogLog(tempDir.resolve("snap"), tempDir.resolve("log"), 100);
+        log.append(List.of(record(CatalogLog.TABLE, 1), record(CatalogLog.COLUMN, 2)));
+        log.append(List.of(record(CatalogLog.DROP_TABLE, 3)));
+
+        List<String> seen = replay(new CatalogLog(tempDir.resolve("snap"), tempDir.resolve("log"), 100));
+
+        assertEquals(List.of("1:1", "2:2", "4:3"), seen);
+    }
+
+    @Test
+    void compact_replacesLogWithSnapshot(@TempDir Path tempDir) {
+        CatalogLog log = new CatalogLog(tempDir.resolve("snap"), tempDir.resolve("log"), 2);
+        log.append(List.of(record(CatalogLog.TABLE, 1)));
+        assertFalse(log.needsCompaction());
+        log.append(List.of(record(CatalogLog.DROP_TABLE, 1)));
+        assertTrue(log.needsCompaction());
+
+        log.compact(List.of(record(CatalogLog.TYPE, 7)));
+        log.append(List.of(record(CatalogLog.TABLE, 8)));
+
+        assertEquals(1, log.logRecords());
+        assertEquals(List.of("3:7", "1:8"), replay(new CatalogLog(tempDir.resolve("snap"), tempDir.resolve("log"), 2)));
+    }
+
+    @Test
+    void replay_dropsTornTail(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("log");
+        CatalogLog log = new CatalogLog(tempDir.resolve("snap"), logFile, 100);
+        log.append(List.of(record(CatalogLog.TABLE, 1)));
+        long goodSize = Files.size(logFile);
+        Files.write(logFile, new byte[]{42, 0, 0, 0, 1, 9}, StandardOpenOption.APPEND);
+
+        assertEquals(List.of("1:1"), replay(new CatalogLog(tempDir.resolve("snap"), logFile, 100)));
+        assertEquals(goodSize, Files.size(logFile));
+    }
+
+    @Test
+    void replay_dropsWholeTornGroup(@TempDir Path tempDir) throws IOException {
+        Path logFile = tempDir.resolve("log");
+        CatalogLog log = new CatalogLog(tempDir.resolve("snap"), logFile, 100);
+        log.append(List.of(record(CatalogLog.TYPE, 7)));
+        long goodSize = Files.size(logFile);
+        log.append(List.of(record(CatalogLog.TABLE, 1), record(CatalogLog.COLUMN, 2), record(CatalogLog.COLUMN, 3)));
+
+        // Группа CREATE TABLE оборвана после первой колонки: ни таблица, ни колонки не восстанавливаются
+        byte[] bytes = Files.readAllBytes(logFile);
+        Files.write(logFile, java.util.Arrays.copyOf(bytes, bytes.length - 6));
+        assertEquals(List.of("3:7"), replay(new CatalogLog(tempDir.resolve("snap"), logFile, 100)));
+        assertEquals(goodSize, Files.size(logFile));
+
+        // Целая по длине, но испорченная группа тоже отбрасывается
+        log.append(List.of(record(CatalogLog.TABLE, 1)));
+        bytes = Files.readAllBytes(logFile);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(logFile, bytes);
+        assertEquals(List.of("3:7"), replay(new CatalogLog(tempDir.resolve("snap"), logFile, 100)));
+    }
+
+    private static CatalogLog.Record record(byte kind, int value) {
+        return new CatalogLog.Record(kind, new byte[]{(byte) value});
+    }
+
+    private static List<String> replay(CatalogLog log) {
+        List<String> seen = new ArrayList<>();
+        log.replay((kind, payload) -> seen.add(kind + ":" + payload[0]));
+        return seen;
+    }
+}
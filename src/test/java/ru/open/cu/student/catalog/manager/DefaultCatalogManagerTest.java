@@ -5,9 +5,14 @@ import ru.open.cu.student.catalog.model.ColumnDefinition;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import ru.open.cu.student.catalog.model.TypeDefinition;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.ColumnStatistics;
+import ru.open.cu.student.catalog.model.TableStatistics;
+import ru.open.cu.student.catalog.operation.DefaultOperationManager;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
@@ -132,8 +137,176 @@ public class DefaultCatalogManagerTest {
         assertEquals("integer", type.name());
     }
 
+    @Test
+    void testGetColumnIgnoresCase() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 1, "id", 0),
+                new ColumnDefinition(0, 0, 2, "Name", 1)
+        );
+
+        TableDefinition table = catalogManager.createTable("users", columns);
+
+        assertEquals("Name", catalogManager.getColumn(table, "NAME").getName());
+        assertEquals(1, catalogManager.getColumnIndex(table, "name"));
+        assertEquals(-1, catalogManager.getColumnIndex(table, "non_existent"));
+    }
+
+    @Test
+    void testSnapshotIsCopyOnWrite() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 1, "id", 0)
+        );
+
+        CatalogSnapshot before = catalogManager.snapshot();
+        catalogManager.createTable("users", columns);
+        CatalogSnapshot after = catalogManager.snapshot();
+
+        assertNotSame(before, after);
+        assertNull(before.getTable("users"));
+        assertNotNull(after.getTable("users"));
+        assertEquals(1, after.getColumns(after.getTable("users").getOid()).size());
+        assertEquals(1, after.getTable("users").getColumns().size());
+        assertSame(after.getType("integer"), before.getType("INTEGER"));
+    }
+
+    @Test
+    void testListTablesSortedByName() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 1, "id", 0)
+        );
+
+        catalogManager.createTable("users", columns);
+        catalogManager.createTable("products", columns);
+
+        List<TableDefinition> tables = catalogManager.listTables();
+
+        assertEquals("products", tables.get(0).getName());
+        assertEquals("users", tables.get(1).getName());
+        assertThrows(UnsupportedOperationException.class, () -> tables.add(tables.get(0)));
+    }
+
+    @Test
+    void testCatalogSurvivesRestart() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "name", 1)
+        );
+
+        TableDefinition created = catalogManager.createTable("users", columns);
+
+        DefaultCatalogManager reopened = new DefaultCatalogManager();
+        TableDefinition found = reopened.getTable("users");
+
+        assertNotNull(found);
+        assertEquals(created.getOid(), found.getOid());
+        assertEquals(1, reopened.getColumnIndex(found, "name"));
+        assertNotNull(reopened.getType("varchar"));
+    }
+
+    @Test
+    void testReplayingLogTwiceKeepsColumns() throws java.io.IOException {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "name", 1)
+        );
+        TableDefinition created = catalogManager.createTable("users", columns);
+
+        // Как после падения посреди compact: записи лога проигрываются второй раз
+        Path logFile = Path.of("catalog.log");
+        java.nio.file.Files.write(logFile, java.nio.file.Files.readAllBytes(logFile),
+                java.nio.file.StandardOpenOption.APPEND);
+
+        DefaultCatalogManager reopened = new DefaultCatalogManager();
+        assertEquals(2, reopened.getTableColumns(reopened.getTable("users")).size());
+        assertEquals(created.getOid(), reopened.getTable("users").getOid());
+    }
+
+    @Test
+    void testDropTable() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 1, "id", 0)
+        );
+
+        catalogManager.createTable("staging", columns);
+        catalogManager.dropTable("staging");
+
+        assertNull(catalogManager.getTable("staging"));
+        assertNull(new DefaultCatalogManager().getTable("staging"));
+        assertThrows(IllegalArgumentException.class, () -> catalogManager.dropTable("staging"));
+    }
+
+    @Test
+    void testIndexSurvivesRestartAndIsDroppedWithTable() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "name", 1)
+        );
+        TableDefinition table = catalogManager.createTable("users", columns);
+
+        IndexDefinition index = catalogManager.createIndex("users_id", table, "id");
+        assertEquals(0, index.columnPosition());
+        assertTrue(new java.io.File(index.fileNode()).exists());
+        assertThrows(IllegalArgumentException.class, () -> catalogManager.createIndex("users_id", table, "id"));
+        assertThrows(IllegalArgumentException.class, () -> catalogManager.createIndex("users_name", table, "name"));
+
+        DefaultCatalogManager reopened = new DefaultCatalogManager();
+        assertEquals(List.of(index), reopened.getIndexes(reopened.getTable("users")));
+
+        catalogManager.dropTable("users");
+        assertEquals(List.of(), catalogManager.getIndexes(table));
+        assertFalse(new java.io.File(index.fileNode()).exists());
+        assertEquals(List.of(), new DefaultCatalogManager().getIndexes(table));
+    }
+
+    @Test
+    void testModificationsDuringAnalyzeAreKept() {
+        TableDefinition table = catalogManager.createTable("people",
+                List.of(new ColumnDefinition(0, 0, 23, "id", 0)));
+        catalogManager.recordModifications(table, 100);
+        long seen = catalogManager.getModificationsSinceAnalyze(table);
+        // Вставка пришлась на время сбора статистики
+        catalogManager.recordModifications(table, 1);
+
+        TableStatistics stats = new TableStatistics(table.getOid(), 100, 1, 100, 0,
+                List.of(new ColumnStatistics(0, 100, 0.0, 100, 0L, 99L, List.of(), true)));
+        catalogManager.updateStatistics(stats, seen);
+        assertEquals(1L, catalogManager.getModificationsSinceAnalyze(table));
+        assertFalse(catalogManager.getStatistics(table).getColumn(0).isSorted());
+
+        catalogManager.updateStatistics(stats, 1);
+        assertEquals(0L, catalogManager.getModificationsSinceAnalyze(table));
+        assertTrue(catalogManager.getStatistics(table).getColumn(0).isSorted());
+    }
+
+    @Test
+    void testStatisticsArePersisted() {
+        TableDefinition table = catalogManager.createTable("people",
+                List.of(new ColumnDefinition(0, 0, 23, "id", 0)));
+        catalogManager.updateStatistics(new TableStatistics(table.getOid(), 1000, 5, 1000, 42,
+                List.of(new ColumnStatistics(0, 1000, 0.0, 1000, 0L, 999L, List.of(0L, 500L, 999L), true))));
+
+        TableStatistics reloaded = new DefaultCatalogManager().getStatistics(table);
+        assertNotNull(reloaded);
+        assertEquals(1000L, reloaded.getRowCount());
+        assertEquals(5, reloaded.getPageCount());
+        ColumnStatistics id = reloaded.getColumn(0);
+        assertEquals(1000L, id.getDistinctCount());
+        assertEquals(999L, id.getMax());
+        assertEquals(List.of(0L, 500L, 999L), id.getHistogramBounds());
+        assertTrue(id.isSorted());
+
+        // Первое изменение после ANALYZE снимает отметку порядка и на диске
+        new DefaultOperationManager(catalogManager).insert("people", List.of(5));
+        assertFalse(new DefaultCatalogManager().getStatistics(table).getColumn(0).isSorted());
+
+        catalogManager.dropTable("people");
+        assertNull(new DefaultCatalogManager().getStatistics(table));
+    }
+
     private void deleteTestFiles() {
-        String[] files = {"table_definitions.dat", "column_definitions.dat", "types_definitions.dat", "1.dat", "2.dat"};
+        String[] files = {"table_definitions.dat", "column_definitions.dat", "types_definitions.dat",
+                "catalog_snapshot.dat", "catalog.log", "table_statistics.dat", "1.dat", "2.dat", "3.dat",
+                "index_1.idx", "index_2.idx"};
         for (String file : files) {
             new java.io.File(file).delete();
         }
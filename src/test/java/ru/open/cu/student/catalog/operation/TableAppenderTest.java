@@ -0,0 +1,88 @@
+package ru.open.cu.student.catalog.operation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.memory.buffer.DefaultBufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+import ru.open.cu.student.memory.page.Page;
+import ru.open.cu.student.memory.replacer.ClockReplacer;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableAppenderTest {
+
+    private DefaultCatalogManager catalogManager;
+
+    @BeforeEach
+    void setUp() {
+        deleteTestFiles();
+        catalogManager = new DefaultCatalogManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteTestFiles();
+    }
+
+    @Test
+    void testWritesEachPageOnce() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "name", 1)
+        );
+        TableDefinition table = catalogManager.createTable("users", columns);
+        IndexDefinition index = catalogManager.createIndex("users_id", table, "id");
+        DefaultOperationManager operations = new DefaultOperationManager(catalogManager);
+        operations.insert("users", List.of(-1, "first"));
+
+        int[] writes = new int[1];
+        HeapPageFileManager counting = new HeapPageFileManager() {
+            @Override
+            public void write(Page page, Path path) {
+                writes[0]++;
+                super.write(page, path);
+            }
+        };
+        DefaultBufferPoolManager heap = new DefaultBufferPoolManager(4, counting,
+                new ClockReplacer(), new ClockReplacer(), Path.of(table.getFileNode()));
+        try (TableAppender appender = new TableAppender(catalogManager, new ColumnRangeCache(), table, heap)) {
+            for (int i = 0; i < 10_000; i++) {
+                appender.append(List.of(i, "user" + i));
+            }
+        }
+
+        // Первая страница дописывается, остальные пишутся по одному разу
+        int pages = new HeapPageFileManager().pageCount(Path.of(table.getFileNode()));
+        assertTrue(pages > 10, "pages=" + pages);
+        assertEquals(pages, writes[0]);
+        heap.flushAllPages();
+        assertEquals(pages, writes[0]);
+
+        assertEquals(10_001L, catalogManager.getModificationsSinceAnalyze(table));
+        List<Object> rows = operations.select("users", List.of());
+        assertEquals(10_001, rows.size());
+        try (BTreeIndex tree = BTreeIndex.open(Path.of(index.fileNode()))) {
+            BTreeIndex.Cursor cursor = tree.cursor();
+            cursor.seek(9_999);
+            assertTrue(cursor.hasEntry());
+            assertEquals(9_999, cursor.key());
+        }
+    }
+
+    private void deleteTestFiles() {
+        String[] files = {"catalog_snapshot.dat", "catalog.log", "table_statistics.dat", "1.dat", "index_1.idx"};
+        for (String file : files) {
+            new java.io.File(file).delete();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.open.cu.student.catalog.statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.DefaultOperationManager;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutoAnalyzeDaemonTest {
+
+    private DefaultCatalogManager catalogManager;
+    private DefaultOperationManager operations;
+    private AutoAnalyzeDaemon daemon;
+
+    @BeforeEach
+    void setUp() {
+        deleteTestFiles();
+        catalogManager = new DefaultCatalogManager();
+        operations = new DefaultOperationManager(catalogManager);
+        daemon = new AutoAnalyzeDaemon(catalogManager, new HeapPageFileManager(), 1_000, 1_000, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        daemon.stop();
+        deleteTestFiles();
+    }
+
+    @Test
+    void testAnalyzesChangedTablesOnly() {
+        TableDefinition table = catalogManager.createTable("events",
+                List.of(new ColumnDefinition(0, 0, 23, "id", 0)));
+        insertRows(100);
+
+        assertEquals(100L, catalogManager.getModificationsSinceAnalyze(table));
+        assertEquals(1, daemon.runOnce());
+        assertEquals(100L, catalogManager.getStatistics(table).getRowCount());
+        assertEquals(0L, catalogManager.getModificationsSinceAnalyze(table));
+
+        // 50 + 10% от 100 строк — ниже порога
+        insertRows(40);
+        assertEquals(0, daemon.runOnce());
+
+        insertRows(40);
+        assertEquals(1, daemon.runOnce());
+        assertEquals(180L, catalogManager.getStatistics(table).getRowCount());
+    }
+
+    @Test
+    void testEmptyTableIsNotAnalyzed() {
+        catalogManager.createTable("empty", List.of(new ColumnDefinition(0, 0, 23, "id", 0)));
+        assertEquals(0, daemon.runOnce());
+    }
+
+    private void insertRows(int count) {
+        for (int i = 0; i < count; i++) {
+            operations.insert("events", List.of(i));
+        }
+    }
+
+    private void deleteTestFiles() {
+        String[] files = {"catalog_snapshot.dat", "catalog.log", "table_statistics.dat", "1.dat", "2.dat"};
+        for (String file : files) {
+            new java.io.File(file).delete();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.open.cu.student.catalog.statistics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    void testSmallCardinalityIsExact() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (int i = 0; i < 100; i++) {
+            hll.addLong(i % 20);
+        }
+        assertEquals(20, hll.estimate());
+    }
+
+    @Test
+    void testLargeCardinalityWithinError() {
+        HyperLogLog hll = new HyperLogLog(12);
+        for (int i = 0; i < 200_000; i++) {
+            hll.addString("key-" + i);
+        }
+        // Стандартная ошибка при precision=12 — около 1.6%
+        double error = Math.abs(hll.estimate() - 200_000) / 200_000.0;
+        assertTrue(error < 0.05, "error=" + error);
+    }
+
+    @Test
+    void testMerge() {
+        HyperLogLog left = new HyperLogLog(10);
+        HyperLogLog right = new HyperLogLog(10);
+        for (int i = 0; i < 500; i++) {
+            left.addLong(i);
+            right.addLong(i + 250);
+        }
+        left.merge(right);
+        assertTrue(Math.abs(left.estimate() - 750) < 40, "estimate=" + left.estimate());
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new HyperLogLog(12)));
+    }
+}
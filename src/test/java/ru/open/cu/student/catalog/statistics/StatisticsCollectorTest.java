@@ -0,0 +1,72 @@
+package ru.open.cu.student.catalog.statistics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.ColumnStatistics;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.model.TableStatistics;
+import ru.open.cu.student.catalog.operation.DefaultOperationManager;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatisticsCollectorTest {
+
+    private DefaultCatalogManager catalogManager;
+
+    @BeforeEach
+    void setUp() {
+        deleteTestFiles();
+        catalogManager = new DefaultCatalogManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteTestFiles();
+    }
+
+    @Test
+    void testAnalyzeCollectsColumnStatistics() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "city", 1)
+        );
+        TableDefinition table = catalogManager.createTable("people", columns);
+
+        DefaultOperationManager operations = new DefaultOperationManager(catalogManager);
+        for (int i = 0; i < 1000; i++) {
+            operations.insert("people", List.of(i, "city" + (i % 10)));
+        }
+
+        TableStatistics stats = new StatisticsCollector(catalogManager, new HeapPageFileManager()).analyze(table);
+        assertEquals(1000L, stats.getRowCount());
+
+        ColumnStatistics id = stats.getColumn(0);
+        assertEquals(0L, id.getMin());
+        assertEquals(999L, id.getMax());
+        assertTrue(Math.abs(id.getDistinctCount() - 1000) < 50, "distinct=" + id.getDistinctCount());
+        assertEquals(StatisticsCollector.HISTOGRAM_BUCKETS + 1, id.getHistogramBounds().size());
+
+        ColumnStatistics city = stats.getColumn(1);
+        assertEquals(10L, city.getDistinctCount());
+        assertEquals("city0", city.getMin());
+        assertEquals(0.0, city.getNullFraction());
+
+        // Все страницы прочитаны: id идет по возрастанию, city — нет
+        assertTrue(id.isSorted());
+        assertFalse(city.isSorted());
+    }
+
+    private void deleteTestFiles() {
+        String[] files = {"catalog_snapshot.dat", "catalog.log", "table_statistics.dat", "1.dat"};
+        for (String file : files) {
+            new java.io.File(file).delete();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ru.open.cu.student.cli.impl;
+
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.cli.api.Engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultBackendWorkerTest {
+
+    @Test
+    void testQueryStopsWhenClientDisconnects() {
+        // Клиент отправил запрос и пропал: после первых 64 КБ запись в сокет падает
+        Socket socket = new Socket() {
+            private final InputStream in = new ByteArrayInputStream(
+                    "SELECT * FROM t\nSELECT * FROM t\n".getBytes(StandardCharsets.UTF_8));
+            private final OutputStream out = new OutputStream() {
+                private long written;
+
+                @Override
+                public void write(int b) throws IOException {
+                    if (++written > 64 * 1024) {
+                        throw new IOException("Broken pipe");
+                    }
+                }
+            };
+
+            @Override
+            public InputStream getInputStream() {
+                return in;
+            }
+
+            @Override
+            public OutputStream getOutputStream() {
+                return out;
+            }
+
+            @Override
+            public synchronized void close() {
+            }
+        };
+
+        long[] produced = new long[1];
+        int[] queries = new int[1];
+        Engine engine = new Engine() {
+            @Override
+            public String executeSql(String line) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void executeSql(String line, Consumer<String> out) {
+                queries[0]++;
+                // Как DefaultEngine: исключение получателя прерывает выполнение и превращается в ERROR
+                try {
+                    for (int i = 0; i < 1_000_000; i++) {
+                        out.accept("row-" + i);
+                        produced[0]++;
+                    }
+                } catch (RuntimeException e) {
+                    out.accept("ERROR: " + e.getMessage());
+                }
+            }
+        };
+
+        new DefaultBackendWorker(socket, engine).run();
+
+        assertEquals(1, queries[0], "the second query must not run after the client is gone");
+        assertTrue(produced[0] < 64 * 1024, "produced=" + produced[0]);
+    }
+}
@@ -0,0 +1,98 @@
+package ru.open.cu.student.cli.impl;
+
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.lexer.DefaultLexer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanCacheTest {
+
+    private final DefaultLexer lexer = new DefaultLexer();
+
+    @Test
+    void normalize_replaces_literals_and_shares_equal_ones() {
+        PlanCache.Normalized first = PlanCache.normalize(lexer.tokenize(
+                "SELECT g % 3, COUNT(*) FROM t WHERE name = 'a' AND id > 3 GROUP BY g % 3 LIMIT 10"));
+        PlanCache.Normalized second = PlanCache.normalize(lexer.tokenize(
+                "SELECT g % 7, COUNT(*) FROM t WHERE name = 'b' AND id > 7 GROUP BY g % 7 LIMIT 10"));
+
+        assertNotNull(first);
+        assertEquals(List.of(3, "a"), first.values());
+        assertEquals(List.of(7, "b"), second.values());
+        assertEquals(first.key(), second.key());
+        // LIMIT остается литералом и входит в ключ
+        assertNotEquals(first.key(), PlanCache.normalize(lexer.tokenize(
+                "SELECT g % 3, COUNT(*) FROM t WHERE name = 'a' AND id > 3 GROUP BY g % 3 LIMIT 5")).key());
+    }
+
+    @Test
+    void normalize_keeps_order_by_and_group_by_ordinals() {
+        PlanCache.Normalized byTwo = PlanCache.normalize(lexer.tokenize("SELECT id, v FROM t ORDER BY 2"));
+        assertEquals(List.of(), byTwo.values());
+        assertNotEquals(byTwo.key(), PlanCache.normalize(lexer.tokenize("SELECT id, v FROM t ORDER BY 1")).key());
+
+        PlanCache.Normalized twoKeys = PlanCache.normalize(lexer.tokenize(
+                "SELECT id, g FROM t WHERE g IN (1, 2) ORDER BY 2, 1 LIMIT 3"));
+        assertEquals(List.of(1, 2), twoKeys.values());
+        assertTrue(twoKeys.key().contains("NUMBER:2 COMMA:, NUMBER:1"));
+
+        PlanCache.Normalized grouped = PlanCache.normalize(lexer.tokenize(
+                "SELECT g, COUNT(*) FROM t WHERE id > 5 GROUP BY 1"));
+        assertEquals(List.of(5), grouped.values());
+        assertTrue(grouped.key().endsWith("BY:BY NUMBER:1 "));
+    }
+
+    @Test
+    void normalize_converts_values_like_insert_and_skips_unsupported() {
+        PlanCache.Normalized insert = PlanCache.normalize(lexer.tokenize("INSERT INTO t VALUES (1, '55', TRUE, NULL)"));
+        assertEquals(List.of(1, 55, true), insert.values());
+
+        assertEquals(List.of(), PlanCache.normalize(lexer.tokenize("SELECT id FROM t WHERE id > -5")).values());
+        assertNull(PlanCache.normalize(lexer.tokenize("SELECT id FROM t WHERE id = $1")));
+        assertNull(PlanCache.normalize(lexer.tokenize("CREATE TABLE t (id INT)")));
+        assertNull(PlanCache.normalize(lexer.tokenize("EXECUTE q(1)")));
+    }
+
+    @Test
+    void acquire_counts_hits_and_drops_plans_of_older_catalog() {
+        PlanCache cache = new PlanCache(8);
+        assertNull(cache.acquire("q", 1));
+
+        PreparedPlan plan = plan(1);
+        cache.release("q", plan);
+        assertSame(plan, cache.acquire("q", 1));
+        // Экземпляр выдан — второй сеанс строит свой
+        assertNull(cache.acquire("q", 1));
+        cache.release("q", plan);
+
+        assertNull(cache.acquire("q", 2));
+        // Старый план, вернувшийся после перестроения, не кешируется
+        cache.release("q", plan(2));
+        cache.release("q", plan(1));
+        assertEquals(2, cache.acquire("q", 2).catalogVersion());
+        assertNull(cache.acquire("q", 2));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void evicts_least_recently_used_key() {
+        PlanCache cache = new PlanCache(2);
+        cache.release("a", plan(0));
+        cache.release("b", plan(0));
+        cache.release("a", cache.acquire("a", 0));
+        cache.release("c", plan(0));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.acquire("a", 0));
+        assertNull(cache.acquire("b", 0));
+    }
+
+    private static PreparedPlan plan(long catalogVersion) {
+        return new PreparedPlan(List.of(), null, null, List.of(), 0, catalogVersion);
+    }
+}
@@ -0,0 +1,37 @@
+package ru.open.cu.student.execution;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.execution.executors.Executor;
+import ru.open.cu.student.execution.executors.ProjectExecutor;
+import ru.open.cu.student.execution.tuple.Tuple;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class QueryExecutionEngineImplTest {
+
+    @Test
+    void testStreamingExecutionDoesNotCollectRows(@TempDir Path tempDir) {
+        Executor project = new ProjectExecutor(scan(tempDir),
+                List.of(new TargetEntry(new ColumnRef("id"), null)), SCHEMA);
+
+        long[] sum = new long[1];
+        Object[] previous = new Object[1];
+        boolean[] reused = {true};
+        long count = new QueryExecutionEngineImpl().execute(project, row -> {
+            sum[0] += ((Tuple) row).getInt(0);
+            if (previous[0] != null && previous[0] != row) reused[0] = false;
+            previous[0] = row;
+        });
+
+        assertEquals(ROWS, count);
+        assertEquals((long) ROWS * (ROWS - 1) / 2, sum[0]);
+        assertTrue(reused[0]);
+    }
+}
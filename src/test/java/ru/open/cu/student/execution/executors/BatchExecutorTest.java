@@ -0,0 +1,68 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Const;
+import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class BatchExecutorTest {
+
+    @Test
+    void testScanReturnsAllRowsInBatches(@TempDir Path tempDir) {
+        SeqScanExecutor scan = scan(tempDir);
+        scan.open();
+
+        int total = 0;
+        int batches = 0;
+        RowBatch batch;
+        while ((batch = scan.nextBatch()) != null) {
+            assertTrue(batch.size() <= RowBatch.DEFAULT_CAPACITY);
+            total += batch.selectedCount();
+            batches++;
+        }
+        scan.close();
+
+        assertEquals(ROWS, total);
+        assertEquals(3, batches);
+    }
+
+    @Test
+    void testFilterAndProjectOverBatches(@TempDir Path tempDir) {
+        Executor filter = new FilterExecutor(scan(tempDir),
+                new AExpr(">=", new ColumnRef("id"), new ColumnRef(null, "2990")), SCHEMA);
+        Executor project = new ProjectExecutor(filter,
+                List.of(new TargetEntry(new ColumnRef("score"), null), new TargetEntry(new ColumnRef("name"), null)),
+                SCHEMA);
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(project);
+
+        assertEquals(10, rows.size());
+        assertEquals(List.of(2990L * 10, "name-2990"), rows.get(0));
+        assertEquals(List.of(2999L * 10, "name-2999"), rows.get(9));
+    }
+
+    @Test
+    void testRowModeMatchesBatchMode(@TempDir Path tempDir) {
+        Executor filter = new FilterExecutor(scan(tempDir),
+                new AExpr("=", new ColumnRef("name"), new Const("name-7")), SCHEMA);
+        filter.open();
+
+        Tuple row = (Tuple) filter.next();
+        assertEquals(7, row.getInt(0));
+        assertEquals(70L, row.getLong(2));
+        assertEquals(List.of(7, "name-7", 70L), row.toList());
+        assertNull(filter.next());
+        filter.close();
+    }
+}
@@ -0,0 +1,45 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.TargetEntry;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.memory.buffer.DefaultBufferPoolManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class GatherExecutorTest {
+
+    @Test
+    void testParallelScanMatchesSerialScan(@TempDir Path tempDir) {
+        DefaultBufferPoolManager bufferPool = bufferPool(tempDir);
+        PageMorsels morsels = new PageMorsels(1);
+        List<Executor> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            SeqScanExecutor scan = new SeqScanExecutor(bufferPool, null, SCHEMA.types(), 256, morsels);
+            Executor filter = new FilterExecutor(scan,
+                    new AExpr("=", new AExpr("%", new ColumnRef("id"), new ColumnRef(null, "3")), new ColumnRef(null, "0")),
+                    SCHEMA);
+            workers.add(new ProjectExecutor(filter, List.of(new TargetEntry(new ColumnRef("score"), null)), SCHEMA));
+        }
+        GatherExecutor gather = new GatherExecutor(workers, morsels, bufferPool);
+
+        for (int run = 0; run < 2; run++) {
+            long[] sum = new long[1];
+            long count = new QueryExecutionEngineImpl().execute(gather, row -> sum[0] += ((Tuple) row).getLong(0));
+
+            assertEquals(ROWS / 3, count);
+            long expected = 0;
+            for (int id = 0; id < ROWS; id += 3) expected += id * 10L;
+            assertEquals(expected, sum[0]);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class HashAggregateExecutorTest {
+
+    @Test
+    void testHashAggregateSpillsPartitionsWhenOverBudget(@TempDir Path tempDir) throws IOException {
+        // id % 300 — целочисленный ключ (открытая адресация), бюджета в 4 КБ хватает лишь на часть групп
+        List<FuncCall> aggregates = List.of(
+                new FuncCall("COUNT", List.of(), true),
+                new FuncCall("SUM", List.of(new ColumnRef("score")), false),
+                new FuncCall("MAX", List.of(new ColumnRef("name")), false));
+        HashAggregateExecutor byMod = new HashAggregateExecutor(scan(tempDir),
+                List.of(new AExpr("%", new ColumnRef("id"), new ColumnRef(null, "300"))), aggregates,
+                SCHEMA, null, RowBatch.DEFAULT_CAPACITY, 4 * 1024, tempDir);
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(byMod);
+
+        assertTrue(byMod.getSpilledPartitions() > 0);
+        assertEquals(300, rows.size());
+        Set<Integer> seen = new HashSet<>();
+        for (Object row : rows) {
+            List<?> values = (List<?>) row;
+            int mod = (Integer) values.get(0);
+            assertTrue(seen.add(mod));
+            long sum = 0;
+            String max = "";
+            for (int i = mod; i < ROWS; i += 300) {
+                sum += i * 10L;
+                if (("name-" + i).compareTo(max) > 0) max = "name-" + i;
+            }
+            assertEquals(List.of(mod, 10L, sum, max), values);
+        }
+
+        // Группировка по строке — ключ в байтах; каждая строка своя группа
+        HashAggregateExecutor byName = new HashAggregateExecutor(scan(tempDir),
+                List.of(new ColumnRef("name")), List.of(new FuncCall("COUNT", List.of(), true)),
+                SCHEMA, null, RowBatch.DEFAULT_CAPACITY, 4 * 1024, tempDir);
+        List<Object> names = new QueryExecutionEngineImpl().execute(byName);
+        assertTrue(byName.getSpilledPartitions() > 0);
+        assertEquals(ROWS, names.size());
+        assertEquals(ROWS, names.stream().map(r -> ((List<?>) r).get(0)).distinct().count());
+        assertTrue(names.stream().allMatch(r -> ((List<?>) r).get(1).equals(1L)));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "aggregate partitions must be removed");
+        }
+    }
+}
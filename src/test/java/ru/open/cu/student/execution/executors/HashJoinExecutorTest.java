@@ -0,0 +1,85 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class HashJoinExecutorTest {
+
+    @Test
+    void testHashJoinSpillsPartitionsWhenOverBudget(@TempDir Path tempDir) throws IOException {
+        // a.id = b.score / 10: каждой строке a соответствует ровно одна строка b, остаточное условие берет четные.
+        // Сторона построения в несколько раз больше бюджета 32 КБ, а ее партиция обычно меньше:
+        // деление в один уровень, изредка во второй
+        HashJoinExecutor byId = new HashJoinExecutor(
+                new JoinInput(scan(tempDir), List.of(new ColumnRef("a.id")), qualified("a"), null),
+                new JoinInput(scan(tempDir),
+                        List.of(new AExpr("/", new ColumnRef("b.score"), new ColumnRef(null, "10"))), qualified("b"), null),
+                true, new AExpr("=", new AExpr("%", new ColumnRef("b.id"), new ColumnRef(null, "2")), new ColumnRef(null, "0")),
+                RowBatch.DEFAULT_CAPACITY, 32 * 1024, tempDir);
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(byId);
+
+        assertSpilledLevels(byId.getSpilledPartitions());
+        assertEquals(ROWS / 2, rows.size());
+        Set<Integer> seen = new HashSet<>();
+        for (Object row : rows) {
+            List<?> values = (List<?>) row;
+            int id = (Integer) values.get(0);
+            assertTrue(seen.add(id));
+            assertEquals(0, id % 2);
+            assertEquals(List.of(id, "name-" + id, id * 10L, id, "name-" + id, id * 10L), values);
+        }
+
+        // Соединение по строке — ключ в байтах
+        HashJoinExecutor byName = new HashJoinExecutor(
+                new JoinInput(scan(tempDir), List.of(new ColumnRef("a.name")), qualified("a"), null),
+                new JoinInput(scan(tempDir), List.of(new ColumnRef("b.name")), qualified("b"), null),
+                false, null, RowBatch.DEFAULT_CAPACITY, 32 * 1024, tempDir);
+        List<Object> names = new QueryExecutionEngineImpl().execute(byName);
+        assertSpilledLevels(byName.getSpilledPartitions());
+        assertEquals(ROWS, names.size());
+        assertTrue(names.stream().allMatch(r -> ((List<?>) r).get(1).equals(((List<?>) r).get(4))));
+
+        // У первых 100 строк один ключ id / 1000 = 0: его партиция делением не уменьшается
+        // и строится в памяти сверх бюджета, не уходя глубже
+        Expr first = new AExpr("<", new ColumnRef("a.id"), new ColumnRef(null, "100"));
+        HashJoinExecutor oneKey = new HashJoinExecutor(
+                new JoinInput(new FilterExecutor(scan(tempDir), first, qualified("a")),
+                        List.of(new AExpr("/", new ColumnRef("a.id"), new ColumnRef(null, "1000"))), qualified("a"), null),
+                new JoinInput(scan(tempDir),
+                        List.of(new AExpr("/", new ColumnRef("b.id"), new ColumnRef(null, "1000"))), qualified("b"), null),
+                true, null, RowBatch.DEFAULT_CAPACITY, 1024, tempDir);
+        assertEquals(100 * 1000, new QueryExecutionEngineImpl().execute(oneKey).size());
+        assertEquals(2 * HashJoinExecutor.SPILL_PARTITIONS, oneKey.getSpilledPartitions());
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "join partitions must be removed");
+        }
+    }
+
+    /**
+     * Партиции созданы на первом уровне и, может быть, у части партиций на втором.
+     * Полусоединение делит входы так же (SPILL_PARTITIONS у них одно).
+     */
+    static void assertSpilledLevels(int spilled) {
+        int level = 2 * HashJoinExecutor.SPILL_PARTITIONS;
+        assertTrue(spilled >= level && spilled < level * HashJoinExecutor.SPILL_PARTITIONS, "spilled=" + spilled);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.join.JoinInput;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class HashSemiJoinExecutorTest {
+
+    @Test
+    void testHashSemiJoinKeepsEachOuterRowOnce(@TempDir Path tempDir) throws IOException {
+        // a.id % 1500 = b.id % 1500: у каждой строки a две пары в b, id и id ± 1500.
+        // Как и в соединении, бюджет 32 КБ делит внутренний вход в один-два уровня
+        Expr outerKey = new AExpr("%", new ColumnRef("a.id"), new ColumnRef(null, "1500"));
+        Expr innerKey = new AExpr("%", new ColumnRef("b.id"), new ColumnRef(null, "1500"));
+        Expr earlier = new AExpr("<", new ColumnRef("b.id"), new ColumnRef("a.id"));
+
+        HashSemiJoinExecutor semi = semiJoin(tempDir, outerKey, innerKey, null, false);
+        List<Object> all = new QueryExecutionEngineImpl().execute(semi);
+        HashJoinExecutorTest.assertSpilledLevels(semi.getSpilledPartitions());
+        assertEquals(ROWS, all.size());
+        assertEquals(ROWS, all.stream().map(row -> ((List<?>) row).get(0)).distinct().count());
+        assertEquals(List.of(7, "name-7", 70L), all.stream().filter(row -> ((List<?>) row).get(0).equals(7)).findFirst().orElseThrow());
+
+        // Пара с меньшим id есть только у второй половины a
+        List<Object> later = new QueryExecutionEngineImpl().execute(semiJoin(tempDir, outerKey, innerKey, earlier, false));
+        assertEquals(ROWS / 2, later.size());
+        assertTrue(later.stream().allMatch(row -> (Integer) ((List<?>) row).get(0) >= ROWS / 2));
+
+        HashSemiJoinExecutor anti = semiJoin(tempDir, outerKey, innerKey, earlier, true);
+        List<Object> first = new QueryExecutionEngineImpl().execute(anti);
+        HashJoinExecutorTest.assertSpilledLevels(anti.getSpilledPartitions());
+        assertEquals(ROWS / 2, first.size());
+        assertTrue(first.stream().allMatch(row -> (Integer) ((List<?>) row).get(0) < ROWS / 2));
+
+        // Антисоединение с пустым внутренним входом пропускает все строки
+        Expr none = new AExpr("<", new ColumnRef("b.id"), new ColumnRef(null, "0"));
+        HashSemiJoinExecutor empty = new HashSemiJoinExecutor(
+                new JoinInput(scan(tempDir), List.of(new ColumnRef("a.id")), qualified("a"), null),
+                new JoinInput(new FilterExecutor(scan(tempDir), none, qualified("b")), List.of(new ColumnRef("b.id")), qualified("b"), null),
+                true, null, 4 * 1024, tempDir);
+        assertEquals(ROWS, new QueryExecutionEngineImpl().execute(empty).size());
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "semi-join partitions must be removed");
+        }
+    }
+
+    private HashSemiJoinExecutor semiJoin(Path tempDir, Expr outerKey, Expr innerKey, Expr condition, boolean anti) {
+        return new HashSemiJoinExecutor(
+                new JoinInput(scan(tempDir), List.of(outerKey), qualified("a"), null),
+                new JoinInput(scan(tempDir), List.of(innerKey), qualified("b"), null),
+                anti, condition, 32 * 1024, tempDir);
+    }
+}
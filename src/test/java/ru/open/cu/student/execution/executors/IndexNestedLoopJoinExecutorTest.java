@@ -0,0 +1,67 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.memory.buffer.DefaultBufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+import ru.open.cu.student.memory.page.Page;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class IndexNestedLoopJoinExecutorTest {
+
+    @Test
+    void testIndexNestedLoopJoinMatchesFilteredPairs(@TempDir Path tempDir) {
+        DefaultBufferPoolManager heap = bufferPool(tempDir);
+        Path indexFile = tempDir.resolve("t_id.idx");
+        HeapPageFileManager fileManager = new HeapPageFileManager();
+        RowCodec codec = new RowCodec(COLUMNS, TYPES);
+        Path file = tempDir.resolve("t.dat");
+        try (BTreeIndex.Loader loader = BTreeIndex.load(indexFile)) {
+            for (int pageId = 0; pageId < fileManager.pageCount(file); pageId++) {
+                Page page = fileManager.read(pageId, file);
+                for (int slot = 0; slot < page.size(); slot++) {
+                    int id = (Integer) codec.decode(page.read(slot)).get(0);
+                    loader.add(id, BTreeIndex.rowId(pageId, slot));
+                }
+            }
+            loader.finish();
+        }
+
+        // Ключ a.id % 500 * 7 повторяется шесть раз и часто выходит за пределы b.id;
+        // внутренний фильтр оставляет b.id < 1000, остаточное условие — четные a.id
+        Expr key = new AExpr("*", new AExpr("%", new ColumnRef("a.id"), new ColumnRef(null, "500")), new ColumnRef(null, "7"));
+        IndexNestedLoopJoinExecutor join = new IndexNestedLoopJoinExecutor(
+                new JoinInput(scan(tempDir), List.of(key), qualified("a"), null),
+                heap, indexFile, qualified("b"), null,
+                new AExpr("<", new ColumnRef("b.score"), new ColumnRef(null, "10000")), false,
+                new AExpr("=", new AExpr("%", new ColumnRef("a.id"), new ColumnRef(null, "2")), new ColumnRef(null, "0")),
+                RowBatch.DEFAULT_CAPACITY);
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(join);
+
+        Set<List<Object>> expected = new HashSet<>();
+        for (int a = 0; a < ROWS; a += 2) {
+            int b = a % 500 * 7;
+            if (b < 1000) {
+                expected.add(List.of(a, "name-" + a, a * 10L, b, "name-" + b, b * 10L));
+            }
+        }
+        assertEquals(expected.size(), rows.size());
+        assertEquals(expected, new HashSet<>(rows));
+    }
+}
@@ -0,0 +1,88 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.catalog.operation.DefaultOperationManager;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.catalog.operation.TableAppender;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.tuple.BatchTuple;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.memory.buffer.DefaultBufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+import ru.open.cu.student.memory.replacer.ClockReplacer;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InsertExecutorTest {
+
+    private DefaultCatalogManager catalogManager;
+
+    @BeforeEach
+    void setUp() {
+        deleteTestFiles();
+        catalogManager = new DefaultCatalogManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteTestFiles();
+    }
+
+    @Test
+    void testInsertSelectFromSameTableSeesOnlyOldRows() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "name", 1)
+        );
+        TableDefinition table = catalogManager.createTable("users", columns);
+        IndexDefinition index = catalogManager.createIndex("users_id", table, "id");
+        DefaultOperationManager operations = new DefaultOperationManager(catalogManager);
+        for (int i = 0; i < 1000; i++) {
+            operations.insert("users", List.of(i, "user" + i));
+        }
+
+        // INSERT INTO users SELECT * FROM users: скан и вставка делят один пул
+        DefaultBufferPoolManager heap = new DefaultBufferPoolManager(4, new HeapPageFileManager(),
+                new ClockReplacer(), new ClockReplacer(), Path.of(table.getFileNode()));
+        RowCodec codec = RowCodec.forTable(catalogManager, table);
+        InsertExecutor insert = new InsertExecutor(catalogManager, new ColumnRangeCache(), heap, table,
+                new SeqScanExecutor(heap, table, codec.getColumnTypes()), true);
+        assertEquals(List.of(), new QueryExecutionEngineImpl().execute(insert));
+
+        assertEquals(2000, operations.select("users", List.of()).size());
+        try (BTreeIndex tree = BTreeIndex.open(Path.of(index.fileNode()))) {
+            BTreeIndex.Cursor cursor = tree.cursor();
+            cursor.seek(999);
+            assertEquals(999, cursor.key());
+            cursor.advance();
+            assertEquals(999, cursor.key());
+            cursor.advance();
+            assertFalse(cursor.hasEntry());
+        }
+
+        TableAppender appender = new TableAppender(catalogManager, new ColumnRangeCache(), table, heap);
+        assertThrows(IllegalArgumentException.class,
+                () -> appender.append(new BatchTuple().reset(RowBatch.allocate(List.of(ColumnType.INTEGER), 1), 0)));
+        appender.close();
+    }
+
+    private void deleteTestFiles() {
+        String[] files = {"catalog_snapshot.dat", "catalog.log", "table_statistics.dat", "1.dat", "index_1.idx"};
+        for (String file : files) {
+            new java.io.File(file).delete();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class LimitExecutorTest {
+
+    @Test
+    void testLimitOffsetStopsChildEarly(@TempDir Path tempDir) {
+        SeqScanExecutor scan = scan(tempDir);
+        int[] batches = new int[1];
+        Executor counting = new BatchExecutor() {
+            @Override
+            public void open() {
+                scan.open();
+            }
+
+            @Override
+            public RowBatch nextBatch() {
+                batches[0]++;
+                return scan.nextBatch();
+            }
+
+            @Override
+            public void close() {
+                scan.close();
+            }
+        };
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(new LimitExecutor(counting, 5L, 1020));
+
+        assertEquals(5, rows.size());
+        assertEquals(List.of(1020, "name-1020", 10200L), rows.get(0));
+        assertEquals(List.of(1024, "name-1024", 10240L), rows.get(4));
+        assertEquals(2, batches[0]);
+
+        assertTrue(new QueryExecutionEngineImpl().execute(new LimitExecutor(scan(tempDir), 0L, 0)).isEmpty());
+        assertEquals(ROWS - 2990, new QueryExecutionEngineImpl().execute(new LimitExecutor(scan(tempDir), null, 2990)).size());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Expr;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.join.JoinInput;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class MergeJoinExecutorTest {
+
+    @Test
+    void testMergeJoinHandlesDuplicateKeysAndRanges(@TempDir Path tempDir) throws IOException {
+        // Внутренний ключ b.id / 2 повторяется: каждой строке a с id < 1500 соответствуют две строки b,
+        // бюджет в 1 байт сбрасывает на диск каждую группу
+        MergeJoinExecutor byId = new MergeJoinExecutor(
+                new JoinInput(scan(tempDir), List.of(new ColumnRef("a.id")), qualified("a"), null),
+                new JoinInput(scan(tempDir),
+                        List.of(new AExpr("/", new ColumnRef("b.id"), new ColumnRef(null, "2"))), qualified("b"), null),
+                "=", null, RowBatch.DEFAULT_CAPACITY, 1, tempDir);
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(byId);
+
+        assertTrue(byId.getSpilledSegments() > 0);
+        assertEquals(ROWS, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            int id = i / 2;
+            int other = (Integer) ((List<?>) rows.get(i)).get(3);
+            assertEquals(List.of(id, "name-" + id, id * 10L, other, "name-" + other, other * 10L), rows.get(i));
+            assertEquals(id, other / 2);
+        }
+
+        // Неравенство: a.id < b.id среди первых 50 строк — каждая пара ровно один раз, плюс остаточное условие
+        Expr first50a = new AExpr("<", new ColumnRef("a.id"), new ColumnRef(null, "50"));
+        Expr first50b = new AExpr("<", new ColumnRef("b.id"), new ColumnRef(null, "50"));
+        MergeJoinExecutor less = new MergeJoinExecutor(
+                new JoinInput(new FilterExecutor(scan(tempDir), first50a, qualified("a")), List.of(new ColumnRef("a.id")), qualified("a"), null),
+                new JoinInput(new FilterExecutor(scan(tempDir), first50b, qualified("b")), List.of(new ColumnRef("b.id")), qualified("b"), null),
+                "<", new AExpr("=", new AExpr("%", new ColumnRef("b.id"), new ColumnRef(null, "2")), new ColumnRef(null, "0")),
+                RowBatch.DEFAULT_CAPACITY, 1024, tempDir);
+        List<Object> pairs = new QueryExecutionEngineImpl().execute(less);
+        long expected = 0;
+        for (int b = 0; b < 50; b += 2) expected += b;
+        assertEquals(expected, pairs.size());
+        assertTrue(pairs.stream().map(r -> (List<?>) r)
+                .allMatch(r -> (Integer) r.get(0) < (Integer) r.get(3) && (Integer) r.get(3) % 2 == 0));
+        assertEquals(expected, pairs.stream().distinct().count());
+
+        // Неупорядоченный вход — ошибка, а не молча неверный результат
+        MergeJoinExecutor unsorted = new MergeJoinExecutor(
+                new JoinInput(scan(tempDir), List.of(new AExpr("%", new ColumnRef("a.id"), new ColumnRef(null, "7"))), qualified("a"), null),
+                new JoinInput(scan(tempDir), List.of(new ColumnRef("b.id")), qualified("b"), null),
+                "=", null, RowBatch.DEFAULT_CAPACITY, 1024, tempDir);
+        assertThrows(IllegalStateException.class, () -> new QueryExecutionEngineImpl().execute(unsorted));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "merge join buffers must be removed");
+        }
+    }
+}
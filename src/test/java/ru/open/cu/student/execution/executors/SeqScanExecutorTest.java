@@ -0,0 +1,61 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.Const;
+import ru.open.cu.student.execution.expression.BooleanEvaluator;
+import ru.open.cu.student.execution.expression.ExpressionCompiler;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.vector.IntVector;
+import ru.open.cu.student.execution.vector.LongVector;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.execution.vector.VarcharVector;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class SeqScanExecutorTest {
+
+    @Test
+    void testScanEvaluatesPushedDownPredicateOnPageBytes(@TempDir Path tempDir) {
+        BooleanEvaluator predicate = new ExpressionCompiler(SCHEMA).compilePredicate(
+                new AExpr("AND", new AExpr(">=", new ColumnRef("id"), new ColumnRef(null, "2990")),
+                        new AExpr("!=", new ColumnRef("name"), new Const("name-2995"))));
+        SeqScanExecutor scan = new SeqScanExecutor(bufferPool(tempDir), null, SCHEMA.types(),
+                RowBatch.DEFAULT_CAPACITY, null, predicate);
+
+        scan.open();
+        RowBatch batch = scan.nextBatch();
+        assertEquals(9, batch.size());
+        assertEquals(2990, ((IntVector) batch.column(0)).values[0]);
+        assertNull(scan.nextBatch());
+        scan.close();
+
+        scan.open();
+        Tuple row = (Tuple) scan.next();
+        assertEquals(List.of(2990, "name-2990", 29900L), row.toList());
+        int rows = 1;
+        while (scan.next() != null) rows++;
+        assertEquals(9, rows);
+        scan.close();
+    }
+
+    @Test
+    void testScanDecodesOnlyRequiredColumns(@TempDir Path tempDir) {
+        SeqScanExecutor scan = new SeqScanExecutor(bufferPool(tempDir), null, SCHEMA.types(),
+                RowBatch.DEFAULT_CAPACITY, null, null, new boolean[]{false, false, true});
+
+        scan.open();
+        RowBatch batch = scan.nextBatch();
+        assertEquals(RowBatch.DEFAULT_CAPACITY, batch.size());
+        assertEquals(5L * 10, ((LongVector) batch.column(2)).values[5]);
+        assertEquals(0, ((IntVector) batch.column(0)).values[5]);
+        assertEquals(0, ((VarcharVector) batch.column(1)).lengths[5]);
+        scan.close();
+    }
+}
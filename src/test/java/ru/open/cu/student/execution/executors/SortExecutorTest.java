@@ -0,0 +1,48 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.SortKey;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class SortExecutorTest {
+
+    @Test
+    void testSortSpillsRunsAndMergesThem(@TempDir Path tempDir) throws IOException {
+        // Ключи: id % 7 по возрастанию, затем name по убыванию; бюджет в 16 КБ дает десятки прогонов
+        List<SortKey> keys = List.of(
+                new SortKey(new AExpr("%", new ColumnRef("id"), new ColumnRef(null, "7")), false),
+                new SortKey(new ColumnRef("name"), true));
+        SortExecutor sort = new SortExecutor(scan(tempDir), keys, SCHEMA, null,
+                RowBatch.DEFAULT_CAPACITY, 16 * 1024, tempDir);
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(sort);
+
+        assertEquals(ROWS, rows.size());
+        assertTrue(sort.getSpilledRuns() > 1);
+        assertEquals(List.of(994, "name-994", 9940L), rows.get(0));
+        assertEquals(List.of(980, "name-980", 9800L), rows.get(2));
+        assertEquals(List.of(1000, "name-1000", 10000L), rows.get(ROWS - 1));
+        for (int i = 1; i < rows.size(); i++) {
+            List<?> prev = (List<?>) rows.get(i - 1);
+            List<?> cur = (List<?>) rows.get(i);
+            int byMod = Integer.compare((Integer) prev.get(0) % 7, (Integer) cur.get(0) % 7);
+            assertTrue(byMod < 0 || byMod == 0 && ((String) prev.get(1)).compareTo((String) cur.get(1)) > 0);
+        }
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "sort runs must be removed on close");
+        }
+    }
+}
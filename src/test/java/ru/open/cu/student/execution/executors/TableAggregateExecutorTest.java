@@ -0,0 +1,104 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.ast.AExpr;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.catalog.operation.DefaultOperationManager;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.memory.buffer.DefaultBufferPoolManager;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+import ru.open.cu.student.memory.replacer.ClockReplacer;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableAggregateExecutorTest {
+
+    private DefaultCatalogManager catalogManager;
+    private ColumnRangeCache columnRanges;
+
+    @BeforeEach
+    void setUp() {
+        deleteTestFiles();
+        catalogManager = new DefaultCatalogManager();
+        columnRanges = new ColumnRangeCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteTestFiles();
+    }
+
+    @Test
+    void testColumnRangesAreMaintainedByInserts() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "name", 1)
+        );
+        TableDefinition table = catalogManager.createTable("users", columns);
+        DefaultOperationManager operations = new DefaultOperationManager(catalogManager, columnRanges);
+        for (int i = 0; i < 500; i++) {
+            operations.insert("users", List.of(1000 - i, "user" + i));
+        }
+
+        List<FuncCall> aggregates = List.of(
+                new FuncCall("COUNT", List.of(), true),
+                new FuncCall("MIN", List.of(new ColumnRef("id")), false),
+                new FuncCall("MAX", List.of(new ColumnRef("id")), false));
+        TableAggregateExecutor first = tableAggregate(table, aggregates);
+        assertEquals(List.of(List.of(500L, 501, 1000)), rows(first));
+        assertTrue(first.getPagesRead() > 0);
+        assertArrayEquals(new long[]{501, 1000}, columnRanges.get(table, 0));
+
+        // Вставки расширяют сводку: MIN/MAX отвечаются без чтения страниц
+        operations.insert("users", List.of(-7, "low"));
+        operations.insert("users", List.of(2000, "high"));
+        TableAggregateExecutor second = tableAggregate(table, aggregates.subList(1, 3));
+        assertEquals(List.of(List.of(-7, 2000)), rows(second));
+        assertEquals(0, second.getPagesRead());
+
+        // DELETE сбрасывает сводку: границы сузились, следующий MIN/MAX снова читает страницы
+        DefaultBufferPoolManager heap = heap(table);
+        rows(new DeleteExecutor(catalogManager, columnRanges, heap, table,
+                new AExpr("<", new ColumnRef("id"), new ColumnRef(null, "0"))));
+        heap.flushAllPages();
+        assertNull(columnRanges.get(table, 0));
+        TableAggregateExecutor third = tableAggregate(table, aggregates.subList(1, 3));
+        assertEquals(List.of(List.of(501, 2000)), rows(third));
+        assertTrue(third.getPagesRead() > 0);
+    }
+
+    private TableAggregateExecutor tableAggregate(TableDefinition table, List<FuncCall> aggregates) {
+        RowCodec codec = RowCodec.forTable(catalogManager, table);
+        return new TableAggregateExecutor(heap(table), columnRanges, table, aggregates,
+                TupleSchema.of(codec.getColumns(), codec.getColumnTypes()));
+    }
+
+    private static DefaultBufferPoolManager heap(TableDefinition table) {
+        return new DefaultBufferPoolManager(4, new HeapPageFileManager(),
+                new ClockReplacer(), new ClockReplacer(), Path.of(table.getFileNode()));
+    }
+
+    private static List<Object> rows(Executor executor) {
+        return new QueryExecutionEngineImpl().execute(executor);
+    }
+
+    private void deleteTestFiles() {
+        String[] files = {"catalog_snapshot.dat", "catalog.log", "table_statistics.dat", "1.dat"};
+        for (String file : files) {
+            new java.io.File(file).delete();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.open.cu.student.execution.executors;
+
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.TypeDefinition;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.memory.buffer.DefaultBufferPoolManager;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+import ru.open.cu.student.memory.page.HeapPage;
+import ru.open.cu.student.memory.replacer.ClockReplacer;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Общий вход тестов исполнителей: таблица (id integer, name varchar, score bigint) из ROWS строк
+ * (i, "name-i", i * 10) в файле t.dat временного каталога теста. Файл пишется при первом обращении.
+ */
+public final class TestTable {
+
+    public static final List<ColumnDefinition> COLUMNS = List.of(
+            new ColumnDefinition(1, 1, 23, "id", 0),
+            new ColumnDefinition(2, 1, 25, "name", 1),
+            new ColumnDefinition(3, 1, 20, "score", 2)
+    );
+    public static final List<TypeDefinition> TYPES = List.of(
+            new TypeDefinition(23, "integer", 4),
+            new TypeDefinition(25, "varchar", -1),
+            new TypeDefinition(20, "bigint", 8)
+    );
+    public static final TupleSchema SCHEMA = TupleSchema.of(COLUMNS,
+            List.of(ColumnType.INTEGER, ColumnType.VARCHAR, ColumnType.BIGINT));
+    public static final int ROWS = 3000;
+
+    public static SeqScanExecutor scan(Path tempDir) {
+        return new SeqScanExecutor(bufferPool(tempDir), null, SCHEMA.types());
+    }
+
+    public static TupleSchema qualified(String alias) {
+        return new TupleSchema(SCHEMA.names().stream().map(name -> alias + "." + name).toList(), SCHEMA.types());
+    }
+
+    public static DefaultBufferPoolManager bufferPool(Path tempDir) {
+        Path file = tempDir.resolve("t.dat");
+        HeapPageFileManager fileManager = new HeapPageFileManager();
+        if (fileManager.pageCount(file) == 0) {
+            RowCodec codec = new RowCodec(COLUMNS, TYPES);
+            HeapPage page = new HeapPage(0);
+            for (int i = 0; i < ROWS; i++) {
+                byte[] row = codec.encode(List.of(i, "name-" + i, i * 10L));
+                if (page.freeSpace() < row.length + HeapPage.SLOT_SIZE) {
+                    fileManager.write(page, file);
+                    page = new HeapPage(page.getPageId() + 1);
+                }
+                page.write(row);
+            }
+            fileManager.write(page, file);
+        }
+
+        return new DefaultBufferPoolManager(4, fileManager, new ClockReplacer(), new ClockReplacer(), file);
+    }
+
+    private TestTable() {
+    }
+}
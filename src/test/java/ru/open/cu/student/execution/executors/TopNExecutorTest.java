@@ -0,0 +1,58 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.SortKey;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.execution.sort.SortRowEncoder;
+import ru.open.cu.student.execution.sort.SortThreshold;
+import ru.open.cu.student.execution.vector.RowBatch;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.open.cu.student.execution.executors.TestTable.*;
+
+class TopNExecutorTest {
+
+    @Test
+    void testTopNPushesWorstKeyIntoScan(@TempDir Path tempDir) {
+        SortRowEncoder encoder = SortRowEncoder.compile(
+                List.of(new SortKey(new ColumnRef("name"), true)), SCHEMA, null);
+        SortThreshold threshold = new SortThreshold(encoder);
+        SeqScanExecutor scan = new SeqScanExecutor(bufferPool(tempDir), null, SCHEMA.types(),
+                RowBatch.DEFAULT_CAPACITY, null, threshold, null);
+        int[] scanned = new int[1];
+        Executor counting = new BatchExecutor() {
+            @Override
+            public void open() {
+                scan.open();
+            }
+
+            @Override
+            public RowBatch nextBatch() {
+                RowBatch batch = scan.nextBatch();
+                scanned[0] += batch == null ? 0 : batch.selectedCount();
+                return batch;
+            }
+
+            @Override
+            public void close() {
+                scan.close();
+            }
+        };
+
+        List<Object> rows = new QueryExecutionEngineImpl().execute(
+                new TopNExecutor(counting, encoder, 4, SCHEMA, RowBatch.DEFAULT_CAPACITY, threshold));
+
+        assertEquals(4, rows.size());
+        assertEquals(List.of(999, "name-999", 9990L), rows.get(0));
+        assertEquals(List.of(998, "name-998", 9980L), rows.get(1));
+        assertEquals(List.of(997, "name-997", 9970L), rows.get(2));
+        assertEquals(List.of(996, "name-996", 9960L), rows.get(3));
+        // Первая пачка читается до появления границы, дальше проходят только строки лучше худшего в куче
+        assertTrue(scanned[0] < RowBatch.DEFAULT_CAPACITY + 100, "scan must skip rows that cannot make the top: " + scanned[0]);
+    }
+}
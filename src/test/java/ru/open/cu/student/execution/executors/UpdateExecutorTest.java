@@ -0,0 +1,115 @@
+package ru.open.cu.student.execution.executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.SqlProcessor;
+import ru.open.cu.student.ast.QueryTree;
+import ru.open.cu.student.catalog.manager.DefaultCatalogManager;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.IndexDefinition;
+import ru.open.cu.student.catalog.model.TableDefinition;
+import ru.open.cu.student.catalog.operation.ColumnRangeCache;
+import ru.open.cu.student.catalog.operation.DefaultOperationManager;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.execution.QueryExecutionEngineImpl;
+import ru.open.cu.student.memory.buffer.DefaultBufferPoolManager;
+import ru.open.cu.student.memory.index.BTreeIndex;
+import ru.open.cu.student.memory.manager.HeapPageFileManager;
+import ru.open.cu.student.memory.page.HeapPage;
+import ru.open.cu.student.memory.replacer.ClockReplacer;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UpdateExecutor и DeleteExecutor: изменение на месте, переезд выросших строк и надгробия.
+ */
+class UpdateExecutorTest {
+
+    private DefaultCatalogManager catalogManager;
+
+    @BeforeEach
+    void setUp() {
+        deleteTestFiles();
+        catalogManager = new DefaultCatalogManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteTestFiles();
+    }
+
+    @Test
+    void testUpdateMovesGrownRowsAndKeepsIndexes() {
+        List<ColumnDefinition> columns = Arrays.asList(
+                new ColumnDefinition(0, 0, 23, "id", 0),
+                new ColumnDefinition(0, 0, 25, "name", 1)
+        );
+        TableDefinition table = catalogManager.createTable("users", columns);
+        IndexDefinition index = catalogManager.createIndex("users_id", table, "id");
+        DefaultOperationManager operations = new DefaultOperationManager(catalogManager);
+        for (int i = 0; i < 2000; i++) {
+            operations.insert("users", List.of(i, "u" + i));
+        }
+        int pages = new HeapPageFileManager().pageCount(Path.of(table.getFileNode()));
+
+        // Строки растут в 20 раз и не помещаются на свои страницы: они переезжают за конец таблицы
+        QueryTree grow = new SqlProcessor(catalogManager).process(
+                "UPDATE users SET name = 'a-much-longer-name-for-user-number' WHERE id < 1000");
+        QueryTree renumber = new SqlProcessor(catalogManager).process("UPDATE users SET id = id + 5000 WHERE id >= 1990");
+        QueryTree delete = new SqlProcessor(catalogManager).process("DELETE FROM users WHERE id < 10 OR id > 6995");
+        DefaultBufferPoolManager heap = new DefaultBufferPoolManager(4, new HeapPageFileManager(),
+                new ClockReplacer(), new ClockReplacer(), Path.of(table.getFileNode()));
+        ColumnRangeCache columnRanges = new ColumnRangeCache();
+        QueryExecutionEngineImpl engine = new QueryExecutionEngineImpl();
+        engine.execute(new UpdateExecutor(catalogManager, columnRanges, heap, table, grow.targetList, grow.whereClause));
+        engine.execute(new UpdateExecutor(catalogManager, columnRanges, heap, table, renumber.targetList, renumber.whereClause));
+        engine.execute(new DeleteExecutor(catalogManager, columnRanges, heap, table, delete.whereClause));
+        heap.flushAllPages();
+
+        assertTrue(new HeapPageFileManager().pageCount(Path.of(table.getFileNode())) > pages);
+        List<Object> rows = operations.select("users", List.of());
+        assertEquals(1986, rows.size());
+        assertEquals(2000 + 1000 + 10 + 10 + 4, catalogManager.getModificationsSinceAnalyze(table));
+
+        // Индекс по-прежнему указывает на исходные слоты, а переехавшие строки находятся через указатель
+        try (BTreeIndex tree = BTreeIndex.open(Path.of(index.fileNode()))) {
+            BTreeIndex.Cursor cursor = tree.cursor();
+            cursor.seek(1990);
+            assertEquals(6990, cursor.key());
+
+            RowCodec codec = RowCodec.forTable(catalogManager, table);
+            int entries = 0;
+            int forwarded = 0;
+            for (cursor.seek(Long.MIN_VALUE); cursor.hasEntry(); cursor.advance()) {
+                entries++;
+                long rowId = cursor.rowId();
+                HeapPage page = (HeapPage) heap.getPage(BTreeIndex.pageOf(rowId)).getPage();
+                int slot = BTreeIndex.slotOf(rowId);
+                if (page.isForward(slot)) {
+                    forwarded++;
+                    page = (HeapPage) heap.getPage(page.forwardPage(slot)).getPage();
+                    slot = page.findMoved(rowId);
+                }
+                List<Object> row = codec.decode(page.read(slot));
+                assertEquals(cursor.key(), ((Number) row.get(0)).longValue());
+                if (cursor.key() < 1000) {
+                    assertEquals("a-much-longer-name-for-user-number", row.get(1));
+                }
+            }
+            assertEquals(1986, entries);
+            assertTrue(forwarded > 0);
+        }
+    }
+
+    private void deleteTestFiles() {
+        String[] files = {"catalog_snapshot.dat", "catalog.log", "table_statistics.dat", "1.dat", "index_1.idx"};
+        for (String file : files) {
+            new java.io.File(file).delete();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package ru.open.cu.student.execution.expression;
+
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.ast.AstNode;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.TypeDefinition;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.execution.tuple.PageTuple;
+import ru.open.cu.student.execution.tuple.Tuple;
+import ru.open.cu.student.execution.tuple.TupleSchema;
+import ru.open.cu.student.execution.vector.ColumnType;
+import ru.open.cu.student.execution.vector.RowBatch;
+import ru.open.cu.student.lexer.DefaultLexer;
+import ru.open.cu.student.memory.page.HeapPage;
+import ru.open.cu.student.parser.DefaultParser;
+import ru.open.cu.student.parser.nodes.SelectStmt;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionCompilerTest {
+
+    private final RowCodec codec = new RowCodec(
+            List.of(new ColumnDefinition(23, "id", 0), new ColumnDefinition(25, "name", 1),
+                    new ColumnDefinition(16, "active", 2), new ColumnDefinition(20, "total", 3)),
+            List.of(new TypeDefinition(23, "integer", 4), new TypeDefinition(25, "varchar", -1),
+                    new TypeDefinition(16, "boolean", 1), new TypeDefinition(20, "bigint", 8)));
+    private final ExpressionCompiler compiler =
+            new ExpressionCompiler(TupleSchema.of(codec.getColumns(), codec.getColumnTypes()));
+
+    @Test
+    void testArithmeticAndTypes() {
+        Tuple row = row(7, "seven", true, 100L);
+
+        CompiledExpression doubled = compiler.compile(target("id * 2 + 1"));
+        assertEquals(ColumnType.INTEGER, doubled.type());
+        assertEquals(15, doubled.evaluate(row));
+
+        CompiledExpression mixed = compiler.compile(target("total - id % 4"));
+        assertEquals(ColumnType.BIGINT, mixed.type());
+        assertEquals(97L, mixed.evaluate(row));
+
+        CompiledExpression folded = compiler.compile(target("(1 + 2) * 3"));
+        assertTrue(folded.isConstant());
+        assertEquals(9, folded.constantValue());
+
+        assertThrows(ArithmeticException.class, () -> compiler.compile(target("id / 0")).evaluate(row));
+    }
+
+    @Test
+    void testPredicatesWithPrecedence() {
+        Tuple row = row(3, "abc", false, 30L);
+
+        assertTrue(compiler.compilePredicate(where("id >= 2 AND NOT name = 'c'")).eval(row));
+        assertTrue(compiler.compilePredicate(where("id = 1 OR id = 3 AND total > 10")).eval(row));
+        assertFalse(compiler.compilePredicate(where("(id = 1 OR id = 3) AND active = TRUE")).eval(row));
+        assertTrue(compiler.compilePredicate(where("5 > id AND name < 'abd' AND total <> id * 10 + 1")).eval(row));
+        assertTrue(compiler.compilePredicate(where("-id < 0")).eval(row));
+
+        assertThrows(IllegalArgumentException.class, () -> compiler.compilePredicate(where("name = 1")));
+        assertThrows(IllegalArgumentException.class, () -> compiler.compilePredicate(where("missing = 1")));
+        assertThrows(IllegalArgumentException.class, () -> compiler.compilePredicate(where("id + 1")));
+    }
+
+    @Test
+    void testBatchFilterMatchesRowPredicate() {
+        RowBatch batch = RowBatch.allocate(codec.getColumnTypes(), 64);
+        HeapPage page = new HeapPage(0);
+        for (int i = 0; i < 50; i++) {
+            page.write(codec.encode(List.of(i, "n" + (i % 5), i % 2 == 0, (long) i * i)));
+        }
+        for (int i = 0; i < page.size(); i++) {
+            int r = batch.addRow();
+            int pos = page.rowOffset(i);
+            for (int c = 0; c < batch.columnCount(); c++) {
+                pos = batch.column(c).decode(page.bytes(), pos, r);
+            }
+        }
+
+        String condition = "id > 10 AND name = 'n2' AND (active = TRUE OR total % 3 = 0)";
+        compiler.compileFilter(where(condition)).apply(batch);
+
+        BooleanEvaluator predicate = compiler.compilePredicate(where(condition));
+        int expected = 0;
+        for (int i = 0; i < 50; i++) {
+            if (predicate.eval(row(i, "n" + (i % 5), i % 2 == 0, (long) i * i))) expected++;
+        }
+        assertEquals(expected, batch.selectedCount());
+        assertEquals(12, batch.selectedRow(0));
+    }
+
+    @Test
+    void testInListUsesHashSetAndFilter() {
+        StringBuilder list = new StringBuilder("0");
+        for (int i = 1; i < 10_000; i++) {
+            list.append(", ").append(i * 3);
+        }
+        BooleanEvaluator large = compiler.compilePredicate(where("id IN (" + list + ")"));
+        assertTrue(large.eval(row(0, "a", true, 1L)));
+        assertTrue(large.eval(row(29_997, "a", true, 1L)));
+        assertFalse(large.eval(row(29_998, "a", true, 1L)));
+        assertFalse(large.eval(row(30_000, "a", true, 1L)));
+
+        Tuple row = row(4, "four", false, 16L);
+        assertTrue(compiler.compilePredicate(where("total IN (-1, 16)")).eval(row));
+        assertTrue(compiler.compilePredicate(where("name NOT IN ('one', 'two')")).eval(row));
+        assertTrue(compiler.compilePredicate(where("id * id IN (total, 1)")).eval(row));
+        assertTrue(compiler.compilePredicate(where("active IN (FALSE)")).eval(row));
+        assertTrue(compiler.compile(target("2 IN (1, 2)")).isConstant());
+        assertThrows(IllegalArgumentException.class, () -> compiler.compilePredicate(where("id IN (1, 'x')")));
+
+        RowBatch batch = RowBatch.allocate(codec.getColumnTypes(), 64);
+        HeapPage page = new HeapPage(0);
+        for (int i = 0; i < 50; i++) {
+            page.write(codec.encode(List.of(i, "n", true, (long) i)));
+        }
+        for (int i = 0; i < page.size(); i++) {
+            int r = batch.addRow();
+            int pos = page.rowOffset(i);
+            for (int c = 0; c < batch.columnCount(); c++) {
+                pos = batch.column(c).decode(page.bytes(), pos, r);
+            }
+        }
+        compiler.compileFilter(where("total IN (3, 7, 49, 99) AND id NOT IN (7)")).apply(batch);
+        assertEquals(2, batch.selectedCount());
+        assertEquals(3, batch.selectedRow(0));
+        assertEquals(49, batch.selectedRow(1));
+    }
+
+    private Tuple row(Object... values) {
+        HeapPage page = new HeapPage(0);
+        page.write(codec.encode(List.of(values)));
+        return new PageTuple(codec.getColumnTypes()).reset(page.bytes(), page.rowOffset(0));
+    }
+
+    private static SelectStmt select(String sql) {
+        return (SelectStmt) new DefaultParser().parse(new DefaultLexer().tokenize(sql));
+    }
+
+    private static AstNode target(String expr) {
+        return select("SELECT " + expr + " FROM t").targetList.get(0).val;
+    }
+
+    private static AstNode where(String condition) {
+        return select("SELECT * FROM t WHERE " + condition).whereClause;
+    }
+}
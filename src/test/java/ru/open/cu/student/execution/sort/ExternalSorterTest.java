@@ -0,0 +1,115 @@
+package ru.open.cu.student.execution.sort;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSorterTest {
+
+    @Test
+    void testKeyEncodingPreservesOrder() {
+        SortRecordBuilder builder = new SortRecordBuilder();
+        long[] values = {Long.MIN_VALUE, -5, -1, 0, 1, 42, Long.MAX_VALUE};
+        for (int i = 1; i < values.length; i++) {
+            builder.reset().keyLong(values[i - 1], false);
+            byte[] smaller = builder.build();
+            builder.reset().keyLong(values[i], false);
+            byte[] larger = builder.build();
+            assertTrue(SortRecord.compare(smaller, larger) < 0);
+
+            builder.reset().keyLong(values[i - 1], true);
+            smaller = builder.build();
+            builder.reset().keyLong(values[i], true);
+            larger = builder.build();
+            assertTrue(SortRecord.compare(smaller, larger) > 0);
+        }
+
+        // Префикс меньше продолжения, и составной ключ не смешивает границы строк
+        assertTrue(SortRecord.compare(strings("ab", "z"), strings("abc", "a")) < 0);
+        assertTrue(SortRecord.compare(strings("a\0", "b"), strings("a", "\0c")) > 0);
+        assertEquals(0, SortRecord.compare(strings("x", "y"), strings("x", "y")));
+    }
+
+    @Test
+    void testMergesMoreRunsThanFanIn(@TempDir Path tempDir) {
+        Random random = new Random(7);
+        List<Long> expected = new ArrayList<>();
+        SortRecordBuilder builder = new SortRecordBuilder();
+
+        try (ExternalSorter sorter = new ExternalSorter(1024, tempDir)) {
+            for (int i = 0; i < 5000; i++) {
+                long value = random.nextInt(1000) - 500;
+                expected.add(value);
+                builder.reset().keyLong(value, false);
+                builder.valueLong(value);
+                sorter.add(builder.build());
+            }
+
+            RecordSource sorted = sorter.sorted();
+            assertTrue(sorter.getSpilledRuns() > ExternalSorter.MAX_FAN_IN);
+
+            expected.sort(null);
+            List<Long> actual = new ArrayList<>();
+            byte[] record;
+            while ((record = sorted.next()) != null) {
+                actual.add(payloadLong(record));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void testLoserTreeHandlesEmptyAndUnevenInputs() {
+        List<RecordSource> sources = new ArrayList<>();
+        sources.add(source());
+        sources.add(source(3, 9));
+        sources.add(source(1, 2, 4, 5, 8));
+        sources.add(source());
+        sources.add(source(6));
+
+        LoserTree tree = new LoserTree(sources);
+        List<Long> merged = new ArrayList<>();
+        byte[] record;
+        while ((record = tree.next()) != null) {
+            merged.add(payloadLong(record));
+        }
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 8L, 9L), merged);
+        assertNull(new LoserTree(List.of()).next());
+    }
+
+    private static byte[] strings(String first, String second) {
+        SortRecordBuilder builder = new SortRecordBuilder();
+        builder.keyUtf8(first.getBytes(StandardCharsets.UTF_8), false);
+        builder.keyUtf8(second.getBytes(StandardCharsets.UTF_8), false);
+        return builder.build();
+    }
+
+    private static RecordSource source(long... values) {
+        SortRecordBuilder builder = new SortRecordBuilder();
+        List<byte[]> records = new ArrayList<>();
+        for (long value : values) {
+            builder.reset().keyLong(value, false);
+            builder.valueLong(value);
+            records.add(builder.build());
+        }
+        int[] position = new int[1];
+        return () -> position[0] < records.size() ? records.get(position[0]++) : null;
+    }
+
+    private static long payloadLong(byte[] record) {
+        int pos = SortRecord.payloadOffset(record);
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (record[pos + i] & 0xFF);
+        }
+        return value;
+    }
+}
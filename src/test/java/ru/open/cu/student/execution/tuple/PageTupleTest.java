@@ -0,0 +1,54 @@
+package ru.open.cu.student.execution.tuple;
+
+import org.junit.jupiter.api.Test;
+import ru.open.cu.student.catalog.model.ColumnDefinition;
+import ru.open.cu.student.catalog.model.TypeDefinition;
+import ru.open.cu.student.catalog.operation.RowCodec;
+import ru.open.cu.student.memory.page.HeapPage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageTupleTest {
+
+    private final RowCodec codec = new RowCodec(
+            List.of(new ColumnDefinition(23, "id", 0), new ColumnDefinition(25, "name", 1),
+                    new ColumnDefinition(16, "active", 2), new ColumnDefinition(20, "total", 3)),
+            List.of(new TypeDefinition(23, "integer", 4), new TypeDefinition(25, "varchar", -1),
+                    new TypeDefinition(16, "boolean", 1), new TypeDefinition(20, "bigint", 8)));
+
+    @Test
+    void testReadsColumnsFromPageBytes() {
+        HeapPage page = new HeapPage(0);
+        page.write(codec.encode(List.of(1, "first", true, 10L)));
+        page.write(codec.encode(List.of(2, "второй", false, 1L << 40)));
+
+        PageTuple tuple = new PageTuple(codec.getColumnTypes());
+
+        tuple.reset(page.bytes(), page.rowOffset(1));
+        assertEquals(2, tuple.getInt(0));
+        assertEquals(1L << 40, tuple.getLong(3));
+        assertEquals("второй", tuple.getString(1));
+        assertFalse(tuple.getBoolean(2));
+
+        tuple.reset(page.bytes(), page.rowOffset(0));
+        assertEquals(1L, tuple.getLong(0));
+        assertEquals(0, tuple.compareUtf8(1, "first".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of(1, "first", true, 10L), tuple.toList());
+    }
+
+    @Test
+    void testDetachAndProjection() {
+        HeapPage page = new HeapPage(0);
+        page.write(codec.encode(List.of(5, "x", true, 7L)));
+
+        Tuple detached = new PageTuple(codec.getColumnTypes()).reset(page.bytes(), page.rowOffset(0)).detach();
+        page.write(codec.encode(List.of(6, "y", false, 8L)));
+
+        Tuple projected = new ProjectedTuple(detached, new int[]{3, 1});
+        assertEquals(List.of(7L, "x"), projected.toList());
+        assertThrows(IllegalStateException.class, () -> detached.getInt(1));
+    }
+}
@@ -55,4 +55,15 @@ class DefaultLexerTest {
         assertEquals("NUMBER", tokens.get(1).getType());
         assertEquals("456", tokens.get(1).getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTokenizeParams() {
+        List<Token> tokens = lexer.tokenize("EXECUTE q($1, $12)");
+
+        assertEquals("EXECUTE", tokens.get(0).getType());
+        assertEquals("PARAM", tokens.get(3).getType());
+        assertEquals("$1", tokens.get(3).getValue());
+        assertEquals("PARAM", tokens.get(5).getType());
+        assertEquals("$12", tokens.get(5).getValue());
+    }
+}
@@ -0,0 +1,127 @@
+package ru.open.cu.student.memory.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BTreeIndexTest {
+
+    @Test
+    void inserts_with_duplicates_split_pages_and_stay_sorted(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("i.idx");
+        List<long[]> expected = new ArrayList<>();
+        try (BTreeIndex.Loader loader = BTreeIndex.load(file)) {
+            for (int i = 0; i < 5000; i++) {
+                loader.add(i * 2L, BTreeIndex.rowId(i, 0));
+                expected.add(new long[]{i * 2L, BTreeIndex.rowId(i, 0)});
+            }
+            loader.finish();
+        }
+
+        Random random = new Random(42);
+        try (BTreeIndex index = BTreeIndex.open(file)) {
+            for (int i = 0; i < 20000; i++) {
+                long key = random.nextInt(300);
+                long rowId = BTreeIndex.rowId(10000 + i, i % 7);
+                index.insert(key, rowId);
+                expected.add(new long[]{key, rowId});
+            }
+            assertTrue(index.getHeight() > 1);
+
+            expected.sort((a, b) -> BTreePage.compare(a[0], a[1], b[0], b[1]));
+            BTreeIndex.Cursor cursor = index.cursor();
+            cursor.seek(Long.MIN_VALUE);
+            for (long[] entry : expected) {
+                assertTrue(cursor.hasEntry());
+                assertEquals(entry[0], cursor.key());
+                assertEquals(entry[1], cursor.rowId());
+                cursor.advance();
+            }
+            assertFalse(cursor.hasEntry());
+        }
+
+        // После повторного открытия записи те же
+        try (BTreeIndex index = BTreeIndex.open(file)) {
+            BTreeIndex.Cursor cursor = index.cursor();
+            cursor.seek(Long.MIN_VALUE);
+            long count = 0;
+            while (cursor.hasEntry()) {
+                count++;
+                cursor.advance();
+            }
+            assertEquals(expected.size(), count);
+        }
+    }
+
+    @Test
+    void seek_finds_first_key_not_less_and_reuses_leaves(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("i.idx");
+        int entries = 100_000;
+        try (BTreeIndex.Loader loader = BTreeIndex.load(file)) {
+            for (int i = 0; i < entries; i++) {
+                loader.add(i * 10L, BTreeIndex.rowId(i / 100, i % 100));
+            }
+            loader.finish();
+        }
+
+        try (BTreeIndex index = BTreeIndex.open(file)) {
+            BTreeIndex.Cursor cursor = index.cursor();
+            cursor.seek(15);
+            assertEquals(20, cursor.key());
+            assertEquals(BTreeIndex.rowId(0, 2), cursor.rowId());
+            cursor.seek(entries * 10L);
+            assertFalse(cursor.hasEntry());
+
+            // Возрастающие поиски читают каждый лист по одному разу
+            long before = index.getLeafReads();
+            BTreeIndex.Cursor ordered = index.cursor();
+            for (long key = 0; key < entries * 10L; key += 10) {
+                ordered.seek(key);
+                assertEquals(key, ordered.key());
+            }
+            long leaves = (entries + BTreePage.LEAF_CAPACITY - 1) / BTreePage.LEAF_CAPACITY;
+            assertTrue(index.getLeafReads() - before <= leaves * 2, "leaf reads: " + (index.getLeafReads() - before));
+        }
+    }
+
+    @Test
+    void loader_rejects_unordered_entries(@TempDir Path tempDir) {
+        try (BTreeIndex.Loader loader = BTreeIndex.load(tempDir.resolve("i.idx"))) {
+            loader.add(5, 1);
+            assertThrows(IllegalArgumentException.class, () -> loader.add(5, 1));
+            assertThrows(IllegalArgumentException.class, () -> loader.add(4, 9));
+        }
+    }
+
+    @Test
+    void delete_removes_only_the_exact_pair(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("i.idx");
+        try (BTreeIndex index = BTreeIndex.open(file)) {
+            for (int i = 0; i < 20000; i++) {
+                index.insert(i % 100, BTreeIndex.rowId(i, 0));
+            }
+            for (int i = 0; i < 20000; i += 2) {
+                assertTrue(index.delete(i % 100, BTreeIndex.rowId(i, 0)));
+            }
+            assertFalse(index.delete(1, BTreeIndex.rowId(0, 0)));
+            assertFalse(index.delete(0, BTreeIndex.rowId(0, 0)));
+
+            BTreeIndex.Cursor cursor = index.cursor();
+            cursor.seek(Long.MIN_VALUE);
+            int entries = 0;
+            while (cursor.hasEntry()) {
+                assertEquals(1, BTreeIndex.pageOf(cursor.rowId()) % 2);
+                assertEquals(BTreeIndex.pageOf(cursor.rowId()) % 100, cursor.key());
+                entries++;
+                cursor.advance();
+            }
+            assertEquals(10000, entries);
+        }
+    }
+}
@@ -66,5 +66,53 @@ public class HeapPageTest {
         assertArrayEquals(y, page.read(1));
         assertArrayEquals(z, page.read(2));
     }
-}
 
+    @Test
+    void delete_replace_and_forward_keep_slot_numbers() {
+        HeapPage page = new HeapPage(3);
+        page.write(new byte[]{1, 2, 3});
+        page.write(new byte[]{4, 5});
+        page.write(new byte[]{6});
+
+        page.delete(1);
+        assertFalse(page.isLive(1));
+        assertEquals(2, page.liveCount());
+        assertEquals(3, page.size());
+
+        // Не длиннее старой — на месте, длиннее — после сжатия страницы
+        int offset = page.rowOffset(0);
+        assertTrue(page.replace(0, new byte[]{9, 9}));
+        assertEquals(offset, page.rowOffset(0));
+        assertArrayEquals(new byte[]{9, 9}, page.read(0));
+        assertTrue(page.replace(2, new byte[]{7, 7, 7, 7}));
+        assertArrayEquals(new byte[]{7, 7, 7, 7}, page.read(2));
+        assertArrayEquals(new byte[]{9, 9}, page.read(0));
+
+        assertFalse(page.replace(2, new byte[HeapPage.PAGE_SIZE]));
+        assertArrayEquals(new byte[]{7, 7, 7, 7}, page.read(2));
+
+        page.setForward(0, 70_000);
+        assertTrue(page.isForward(0));
+        assertFalse(page.isLive(0));
+        assertEquals(70_000, page.forwardPage(0));
+    }
+
+    @Test
+    void moved_row_keeps_home_row_id_through_compaction() {
+        HeapPage page = new HeapPage(4);
+        page.write(new byte[]{1});
+        int slot = page.writeMoved(new byte[]{5, 6}, 42L);
+        assertTrue(page.isMoved(slot));
+        assertTrue(page.isLive(slot));
+        assertEquals(42L, page.homeRowId(slot));
+        assertArrayEquals(new byte[]{5, 6}, page.read(slot));
+
+        page.delete(0);
+        int free = page.freeSpace();
+        assertTrue(page.replace(slot, new byte[]{5, 6, 7, 8, 9}));
+        assertEquals(42L, page.homeRowId(slot));
+        assertEquals(slot, page.findMoved(42L));
+        assertArrayEquals(new byte[]{5, 6, 7, 8, 9}, page.read(slot));
+        assertEquals(free - 2, page.freeSpace());
+    }
+}
@@ -4,6 +4,10 @@ import org.junit.jupiter.api.Test;
 import ru.open.cu.student.ast.AExpr;
 import ru.open.cu.student.ast.AstNode;
 import ru.open.cu.student.ast.ColumnRef;
+import ru.open.cu.student.ast.FuncCall;
+import ru.open.cu.student.ast.InExpr;
+import ru.open.cu.student.ast.ParamRef;
+import ru.open.cu.student.ast.SubLink;
 import ru.open.cu.student.lexer.DefaultLexer;
 import ru.open.cu.student.lexer.Token;
 import ru.open.cu.student.parser.nodes.*;
@@ -79,4 +83,220 @@ class DefaultParserTest {
         assertTrue(select.targetList.get(0).val instanceof ColumnRef);
         assertEquals("*", ((ColumnRef) select.targetList.get(0).val).column);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testParseExpressionsWithPrecedence() {
+        String sql = "SELECT id * 2 + 1 AS x FROM users WHERE age >= 18 OR NOT name = 'a' AND id <> 3";
+        List<Token> tokens = lexer.tokenize(sql);
+        SelectStmt select = (SelectStmt) parser.parse(tokens);
+
+        ResTarget target = select.targetList.get(0);
+        assertEquals("x", target.name);
+        AExpr sum = (AExpr) target.val;
+        assertEquals("+", sum.getOp());
+        assertEquals("*", ((AExpr) sum.getLeft()).getOp());
+
+        AExpr or = (AExpr) select.whereClause;
+        assertEquals("OR", or.getOp());
+        assertEquals(">=", ((AExpr) or.getLeft()).getOp());
+        AExpr and = (AExpr) or.getRight();
+        assertEquals("AND", and.getOp());
+        assertEquals("NOT", ((AExpr) and.getLeft()).getOp());
+        assertEquals("!=", ((AExpr) and.getRight()).getOp());
+    }
+
+    @Test
+    void testParseLimitOffset() {
+        SelectStmt select = (SelectStmt) parser.parse(lexer.tokenize("SELECT id FROM users WHERE age > 18 LIMIT 10 OFFSET 5"));
+        assertEquals(10L, select.limitCount);
+        assertEquals(5L, select.limitOffset);
+
+        SelectStmt offsetOnly = (SelectStmt) parser.parse(lexer.tokenize("SELECT id FROM users OFFSET 3"));
+        assertNull(offsetOnly.limitCount);
+        assertEquals(3L, offsetOnly.limitOffset);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(lexer.tokenize("SELECT id FROM users LIMIT -1")));
+    }
+
+    @Test
+    void testParseOrderBy() {
+        SelectStmt select = (SelectStmt) parser.parse(lexer.tokenize(
+                "SELECT id, name FROM users WHERE age > 18 ORDER BY age DESC, name, 1 ASC LIMIT 5"));
+        assertEquals(3, select.sortClause.size());
+        assertTrue(select.sortClause.get(0).descending);
+        assertEquals("age", ((ColumnRef) select.sortClause.get(0).node).column);
+        assertFalse(select.sortClause.get(1).descending);
+        assertEquals("1", ((ColumnRef) select.sortClause.get(2).node).column);
+        assertEquals(5L, select.limitCount);
+
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("SELECT id FROM users ORDER age")));
+    }
+
+    @Test
+    void testParseGroupByWithAggregates() {
+        SelectStmt select = (SelectStmt) parser.parse(lexer.tokenize(
+                "SELECT dept, COUNT(*), SUM(salary * 2) AS total FROM emp GROUP BY dept ORDER BY total DESC"));
+        assertEquals(1, select.groupClause.size());
+        assertEquals("dept", ((ColumnRef) select.groupClause.get(0)).column);
+
+        FuncCall count = (FuncCall) select.targetList.get(1).val;
+        assertEquals("COUNT", count.name);
+        assertTrue(count.star);
+        FuncCall sum = (FuncCall) select.targetList.get(2).val;
+        assertEquals("SUM", sum.name);
+        assertEquals("*", ((AExpr) sum.args.get(0)).getOp());
+        assertEquals("total", select.targetList.get(2).name);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(lexer.tokenize("SELECT SUM(*) FROM emp")));
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(lexer.tokenize("SELECT upper(name) FROM emp")));
+    }
+
+    @Test
+    void testParseJoins() {
+        SelectStmt select = (SelectStmt) parser.parse(lexer.tokenize(
+                "SELECT u.name, o.* FROM users AS u INNER JOIN orders o ON u.id = o.user_id, items WHERE o.total > 10"));
+        assertEquals(3, select.fromClause.size());
+        assertEquals("u", select.fromClause.get(0).refName());
+        assertNull(select.fromClause.get(0).joinCondition);
+
+        RangeVar orders = select.fromClause.get(1);
+        assertEquals("orders", orders.relname);
+        assertEquals("o", orders.refName());
+        AExpr on = (AExpr) orders.joinCondition;
+        assertEquals("=", on.getOp());
+        assertEquals("u", ((ColumnRef) on.getLeft()).table);
+        assertEquals("user_id", ((ColumnRef) on.getRight()).column);
+        assertNull(select.fromClause.get(2).joinCondition);
+
+        ColumnRef star = (ColumnRef) select.targetList.get(1).val;
+        assertEquals("o", star.table);
+        assertEquals("*", star.column);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> parser.parse(lexer.tokenize("SELECT * FROM users LEFT JOIN orders ON id = user_id")));
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("SELECT * FROM users JOIN orders")));
+    }
+
+    @Test
+    void testParseDistinctAndSubqueries() {
+        SelectStmt select = (SelectStmt) parser.parse(lexer.tokenize(
+                "SELECT DISTINCT name FROM emp WHERE id NOT IN (1, 2, 3) AND dept IN (SELECT id FROM dept WHERE active = TRUE)"
+                        + " AND NOT EXISTS (SELECT * FROM bans b WHERE b.emp = emp.id) ORDER BY name"));
+        assertTrue(select.distinct);
+        assertEquals(1, select.sortClause.size());
+
+        AExpr where = (AExpr) select.whereClause;
+        AExpr notExists = (AExpr) where.getRight();
+        assertEquals("NOT", notExists.getOp());
+        SubLink exists = (SubLink) notExists.getRight();
+        assertEquals(SubLink.EXISTS, exists.kind);
+        assertNull(exists.testExpr);
+        assertEquals("b", ((SelectStmt) exists.subselect).fromClause.get(0).refName());
+
+        AExpr first = (AExpr) where.getLeft();
+        AExpr notIn = (AExpr) first.getLeft();
+        InExpr list = (InExpr) notIn.getRight();
+        assertEquals("id", ((ColumnRef) list.expr).column);
+        assertEquals(3, list.values.size());
+
+        SubLink in = (SubLink) first.getRight();
+        assertEquals(SubLink.IN, in.kind);
+        assertEquals("dept", ((ColumnRef) in.testExpr).column);
+        assertNotNull(((SelectStmt) in.subselect).whereClause);
+
+        assertFalse(((SelectStmt) parser.parse(lexer.tokenize("SELECT name FROM emp"))).distinct);
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("SELECT * FROM emp WHERE id IN (SELECT id FROM dept")));
+    }
+
+    @Test
+    void testParseCreateIndex() {
+        CreateIndexStmt stmt = (CreateIndexStmt) parser.parse(lexer.tokenize("CREATE INDEX users_id ON public.users (id)"));
+        assertEquals("users_id", stmt.indexName);
+        assertEquals("public", stmt.schemaName);
+        assertEquals("users", stmt.tableName);
+        assertEquals("id", stmt.columnName);
+
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("CREATE INDEX users_id ON users (id, name)")));
+    }
+
+    @Test
+    void testParseMultiRowInsert() {
+        InsertStmt insert = (InsertStmt) parser.parse(lexer.tokenize(
+                "INSERT INTO users (id, name) VALUES (1, 'a'), (2, 'b'), (3, 'c')"));
+        assertEquals(List.of("id", "name"), insert.columns);
+        assertEquals(3, insert.rows.size());
+        assertEquals(List.of("1", "a"), insert.values);
+        assertEquals(List.of("3", "c"), insert.rows.get(2));
+
+        InsertStmt single = (InsertStmt) parser.parse(lexer.tokenize("INSERT INTO users VALUES (1, 'a')"));
+        assertEquals(List.of(single.values), single.rows);
+
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("INSERT INTO users VALUES (1, 'a'),")));
+        InsertStmt fromSelect = (InsertStmt) parser.parse(lexer.tokenize(
+                "INSERT INTO totals SELECT dept, SUM(salary) FROM emp WHERE active = TRUE GROUP BY dept"));
+        assertEquals("totals", fromSelect.tableName);
+        assertEquals(List.of(), fromSelect.rows);
+        assertEquals(2, fromSelect.select.targetList.size());
+        assertNotNull(fromSelect.select.groupClause);
+    }
+
+    @Test
+    void testParseUpdateAndDelete() {
+        UpdateStmt update = (UpdateStmt) parser.parse(lexer.tokenize(
+                "UPDATE public.users SET name = 'bob', age = age + 1 WHERE id = 5"));
+        assertEquals("public", update.schemaName);
+        assertEquals("users", update.tableName);
+        assertEquals(List.of("name", "age"), update.columns);
+        assertEquals(2, update.values.size());
+        assertTrue(update.values.get(1) instanceof AExpr);
+        assertTrue(update.whereClause instanceof AExpr);
+
+        UpdateStmt all = (UpdateStmt) parser.parse(lexer.tokenize("UPDATE users SET active = FALSE"));
+        assertNull(all.whereClause);
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("UPDATE users SET name 'bob'")));
+
+        DeleteStmt delete = (DeleteStmt) parser.parse(lexer.tokenize("DELETE FROM users WHERE age > 30"));
+        assertEquals("users", delete.tableName);
+        assertTrue(delete.whereClause instanceof AExpr);
+        assertNull(((DeleteStmt) parser.parse(lexer.tokenize("DELETE FROM users"))).whereClause);
+    }
+
+    @Test
+    void testParsePrepareExecuteDeallocate() {
+        PrepareStmt prepare = (PrepareStmt) parser.parse(lexer.tokenize(
+                "PREPARE q AS SELECT name FROM users WHERE id = $1 AND age > $2"));
+        assertEquals("q", prepare.name);
+        SelectStmt select = (SelectStmt) prepare.statement;
+        AExpr and = (AExpr) select.whereClause;
+        assertEquals(1, ((ParamRef) ((AExpr) and.getLeft()).getRight()).number);
+        assertEquals(2, ((ParamRef) ((AExpr) and.getRight()).getRight()).number);
+        assertEquals("SELECT", prepare.statementTokens.get(0).getType());
+
+        InsertStmt insert = (InsertStmt) ((PrepareStmt) parser.parse(lexer.tokenize(
+                "PREPARE ins AS INSERT INTO users VALUES ($1, 'x')"))).statement;
+        assertEquals(1, insert.params.get(0).get(0).number);
+        assertNull(insert.params.get(0).get(1));
+
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("PREPARE bad AS CREATE TABLE t (id INT)")));
+        assertThrows(RuntimeException.class,
+                () -> parser.parse(lexer.tokenize("SELECT name FROM users WHERE id = $0")));
+
+        ExecuteStmt execute = (ExecuteStmt) parser.parse(lexer.tokenize("EXECUTE q(5, 'bob')"));
+        assertEquals("q", execute.name);
+        assertEquals(2, execute.args.size());
+        assertTrue(((ExecuteStmt) parser.parse(lexer.tokenize("EXECUTE q"))).args.isEmpty());
+
+        assertEquals("q", ((DeallocateStmt) parser.parse(lexer.tokenize("DEALLOCATE PREPARE q"))).name);
+        assertNull(((DeallocateStmt) parser.parse(lexer.tokenize("DEALLOCATE ALL"))).name);
+    }
+}